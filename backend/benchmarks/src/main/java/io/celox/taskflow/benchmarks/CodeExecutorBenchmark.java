@@ -0,0 +1,126 @@
+package io.celox.taskflow.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.celox.taskflow.task.config.WorkflowExecutorConfig;
+import io.celox.taskflow.task.workflow.ExecutionContext;
+import io.celox.taskflow.task.workflow.WorkflowMetrics;
+import io.celox.taskflow.task.workflow.WorkflowNode;
+import io.celox.taskflow.task.workflow.executors.CodeExecutor;
+import io.celox.taskflow.task.workflow.script.ScriptRuntime;
+import io.celox.taskflow.task.workflow.script.ScriptValidator;
+import io.celox.taskflow.task.workflow.script.ScriptValues;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.graalvm.polyglot.Context;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
+
+/**
+ * Latency of a warm code node:
+ * <ul>
+ *   <li>{@link #execute()}: the code executor with its pooled contexts and cached sources, including the hand-over
+ *   to the script pool</li>
+ *   <li>{@link #freshContext()}: a new context per script, as the code executor did before it had a pool</li>
+ * </ul>
+ * A script reading one field of a 1000 item upstream output and passing the output on, run with {@code -prof gc}
+ * for the allocation per invocation:
+ * <ul>
+ *   <li>{@link #viewBindings()}: the output bound as a read-only view and returned without a copy</li>
+ *   <li>{@link #copiedBindings()}: the output copied into the script and the result copied back, as deep copies
+ *   of the bindings did</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CodeExecutorBenchmark {
+
+    private static final String CODE = """
+            const items = [1, 2, 3, 4, 5].map(id => ({id: id, done: id % 2 === 0}));
+            return items.filter(item => item.done).length;
+            """;
+
+    private static final String PASS_ON = "return {items: $node1, first: $node1[0].title, count: $node1.length};";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ThreadPoolTaskExecutor scriptExecutor;
+    private ScriptRuntime runtime;
+    private CodeExecutor executor;
+    private WorkflowNode node;
+    private List<Map<String, Object>> upstream;
+
+    @Setup
+    public void setUp() {
+        // Same pool settings as the application defaults
+        scriptExecutor = new WorkflowExecutorConfig().workflowScriptExecutor(8, 100);
+        scriptExecutor.initialize();
+        WorkflowMetrics metrics = new WorkflowMetrics(new SimpleMeterRegistry());
+        runtime = new ScriptRuntime(scriptExecutor, metrics, 8, 5000, 50_000_000, 4, 1024, 1000, true);
+        runtime.warmUp();
+        executor = new CodeExecutor(runtime, new ScriptValidator(1024));
+        node = new WorkflowNode();
+        node.setId("code1");
+        node.setType("code");
+        node.setData(Map.of("config", Map.of("code", CODE)));
+        upstream = IntStream.range(0, 1000)
+                .mapToObj(i -> Map.<String, Object>of("id", i, "title", "Task " + i, "status", "OPEN",
+                        "priority", i % 3, "tags", List.of("backend", "urgent")))
+                .toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        runtime.close();
+        scriptExecutor.shutdown();
+    }
+
+    @Benchmark
+    public Object execute() {
+        return executor.execute(node, new ExecutionContext(Map.of("taskId", "42")));
+    }
+
+    @Benchmark
+    public Object freshContext() {
+        try (Context context = Context.newBuilder("js")
+                .allowAllAccess(false)
+                .allowIO(false)
+                .allowNativeAccess(false)
+                .allowCreateProcess(false)
+                .allowCreateThread(false)
+                .option("js.strict", "true")
+                .option("js.ecmascript-version", "2022")
+                .build()) {
+            return context.eval("js", "(function() {\n" + CODE.trim() + "\n})()").asInt();
+        }
+    }
+
+    @Benchmark
+    public Object viewBindings() throws TimeoutException {
+        return runtime.execute(null, PASS_ON, Map.of("$node1", upstream), ScriptValues::toHost);
+    }
+
+    @Benchmark
+    public Object copiedBindings() throws TimeoutException, JsonProcessingException {
+        return runtime.execute(null, "const $node1 = JSON.parse($node1Json);\n" + PASS_ON,
+                Map.of("$node1Json", objectMapper.writeValueAsString(upstream)), ScriptValues::toHost);
+    }
+}
@@ -0,0 +1,54 @@
+package io.celox.taskflow.benchmarks;
+
+import io.celox.taskflow.task.workflow.ExecutionContext;
+import io.celox.taskflow.task.workflow.expression.ConditionExpression;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compiling and evaluating a condition node expression. Evaluation should not allocate, check with {@code -prof gc}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConditionExpressionBenchmark {
+
+    private static final String EXPRESSION = "$trigger.priority == 'HIGH' && ($db1.count > 10 "
+            + "|| $trigger.status in ['OPEN', 'NEW']) && $trigger.dueDate < '2030-01-01' && $trigger.title =~ '^Bug'";
+
+    private ExecutionContext context;
+    private ConditionExpression expression;
+
+    @Setup
+    public void setUp() {
+        context = new ExecutionContext(Map.of("priority", "HIGH", "status", "NEW", "dueDate", "2024-03-01",
+                "title", "Bug: login fails"));
+        context.setVariable("db1_result", Map.of("count", 3, "rows", List.of()));
+        expression = ConditionExpression.compile(EXPRESSION);
+    }
+
+    @Benchmark
+    public ConditionExpression compile() {
+        return ConditionExpression.compile(EXPRESSION);
+    }
+
+    @Benchmark
+    public boolean evaluate() {
+        return expression.evaluate(context);
+    }
+}
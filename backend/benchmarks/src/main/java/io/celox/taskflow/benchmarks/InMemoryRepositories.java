@@ -0,0 +1,75 @@
+package io.celox.taskflow.benchmarks;
+
+import io.celox.taskflow.task.domain.Workflow;
+import io.celox.taskflow.task.domain.WorkflowExecution;
+import io.celox.taskflow.task.repository.ExecutionCheckpointRepository;
+import io.celox.taskflow.task.repository.WorkflowExecutionRepository;
+import io.celox.taskflow.task.repository.WorkflowRepository;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Repositories the engine needs, answering from memory so that no database time ends up in the measurements.
+ * Only the methods used on the execution path are implemented; saved entities are not kept.
+ */
+final class InMemoryRepositories {
+
+    private final Map<UUID, Workflow> workflows = new ConcurrentHashMap<>();
+
+    void add(Workflow workflow) {
+        workflows.put(workflow.getId(), workflow);
+    }
+
+    WorkflowRepository workflows() {
+        return proxy(WorkflowRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "findById" -> Optional.ofNullable(workflows.get((UUID) args[0]));
+            case "findOwnerAndVersionById" -> Optional.ofNullable(workflows.get((UUID) args[0]))
+                    .map(workflow -> List.<Object[]>of(new Object[]{null, workflow.getUpdatedAt()}))
+                    .orElse(List.of());
+            default -> unsupported(method.getName());
+        });
+    }
+
+    WorkflowExecutionRepository executions() {
+        return proxy(WorkflowExecutionRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "save" -> {
+                WorkflowExecution execution = (WorkflowExecution) args[0];
+                if (execution.getId() == null) {
+                    execution.setId(UUID.randomUUID());
+                }
+                yield execution;
+            }
+            case "countByStatus" -> 0L;
+            default -> unsupported(method.getName());
+        });
+    }
+
+    ExecutionCheckpointRepository checkpoints() {
+        return proxy(ExecutionCheckpointRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "save" -> args[0];
+            case "findByExecutionId" -> List.of();
+            case "deleteByExecutionId" -> 0;
+            default -> unsupported(method.getName());
+        });
+    }
+
+    private static Object unsupported(String method) {
+        throw new UnsupportedOperationException(method + " is not available in benchmarks");
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        InvocationHandler withObjectMethods = (proxy, method, args) -> switch (method.getName()) {
+            case "toString" -> "InMemory" + type.getSimpleName();
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            default -> handler.invoke(proxy, method, args);
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, withObjectMethods));
+    }
+}
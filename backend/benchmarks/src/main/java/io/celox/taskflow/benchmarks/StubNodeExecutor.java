@@ -0,0 +1,24 @@
+package io.celox.taskflow.benchmarks;
+
+import io.celox.taskflow.task.workflow.ExecutionContext;
+import io.celox.taskflow.task.workflow.NodeExecutor;
+import io.celox.taskflow.task.workflow.WorkflowNode;
+
+/**
+ * Node that does no work of its own, so a benchmark measures only what the engine spends around a node.
+ * Its output is the node id.
+ */
+final class StubNodeExecutor implements NodeExecutor {
+
+    static final String NODE_TYPE = "stub";
+
+    @Override
+    public Object execute(WorkflowNode node, ExecutionContext context) {
+        return node.getId();
+    }
+
+    @Override
+    public String getNodeType() {
+        return NODE_TYPE;
+    }
+}
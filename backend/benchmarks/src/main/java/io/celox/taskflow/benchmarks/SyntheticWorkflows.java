@@ -0,0 +1,120 @@
+package io.celox.taskflow.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.celox.taskflow.task.domain.Workflow;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Workflows of a given shape, made of stub nodes (see {@link StubNodeExecutor}):
+ * <ul>
+ *   <li>{@code linear-N}: trigger followed by a chain of N nodes</li>
+ *   <li>{@code fanout-N}: trigger fanning out to N parallel nodes that meet in a merge node</li>
+ *   <li>{@code diamond-DxW}: D diamonds in a row, each splitting into W parallel nodes and merging again</li>
+ * </ul>
+ */
+final class SyntheticWorkflows {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final List<Map<String, Object>> nodes = new ArrayList<>();
+    private final List<Map<String, Object>> edges = new ArrayList<>();
+
+    private SyntheticWorkflows() {
+    }
+
+    static Workflow create(String shape) {
+        String[] parts = shape.split("-", 2);
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Unknown workflow shape: " + shape);
+        }
+        SyntheticWorkflows graph = new SyntheticWorkflows();
+        switch (parts[0]) {
+            case "linear" -> graph.linear(Integer.parseInt(parts[1]));
+            case "fanout" -> graph.fanOut(Integer.parseInt(parts[1]));
+            case "diamond" -> {
+                String[] size = parts[1].split("x");
+                graph.diamonds(Integer.parseInt(size[0]), Integer.parseInt(size[1]));
+            }
+            default -> throw new IllegalArgumentException("Unknown workflow shape: " + shape);
+        }
+        return graph.toWorkflow(shape);
+    }
+
+    private void linear(int length) {
+        String previous = node("t", "trigger");
+        for (int i = 1; i <= length; i++) {
+            String next = node("n" + i, StubNodeExecutor.NODE_TYPE);
+            edge(previous, next);
+            previous = next;
+        }
+    }
+
+    private void fanOut(int width) {
+        String trigger = node("t", "trigger");
+        String merge = node("m", "merge");
+        for (int i = 1; i <= width; i++) {
+            String branch = node("n" + i, StubNodeExecutor.NODE_TYPE);
+            edge(trigger, branch);
+            edge(branch, merge);
+        }
+        edge(merge, node("end", StubNodeExecutor.NODE_TYPE));
+    }
+
+    private void diamonds(int depth, int width) {
+        String previous = node("t", "trigger");
+        for (int d = 1; d <= depth; d++) {
+            String split = node("s" + d, StubNodeExecutor.NODE_TYPE);
+            String merge = node("m" + d, "merge");
+            edge(previous, split);
+            for (int w = 1; w <= width; w++) {
+                String branch = node("n" + d + "_" + w, StubNodeExecutor.NODE_TYPE);
+                edge(split, branch);
+                edge(branch, merge);
+            }
+            previous = merge;
+        }
+    }
+
+    private String node(String id, String type) {
+        // Roughly what the editor stores for a node
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("label", "Node " + id);
+        data.put("description", "Synthetic " + type + " node");
+        Map<String, Object> node = new LinkedHashMap<>();
+        node.put("id", id);
+        node.put("type", type);
+        node.put("position", Map.of("x", nodes.size() * 120, "y", 100));
+        node.put("data", data);
+        nodes.add(node);
+        return id;
+    }
+
+    private void edge(String source, String target) {
+        Map<String, Object> edge = new LinkedHashMap<>();
+        edge.put("id", source + "-" + target);
+        edge.put("source", source);
+        edge.put("target", target);
+        edges.add(edge);
+    }
+
+    private Workflow toWorkflow(String shape) {
+        try {
+            return Workflow.builder()
+                    .id(UUID.randomUUID())
+                    .name("Benchmark " + shape)
+                    .nodesJson(OBJECT_MAPPER.writeValueAsString(nodes))
+                    .edgesJson(OBJECT_MAPPER.writeValueAsString(edges))
+                    .updatedAt(LocalDateTime.now())
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
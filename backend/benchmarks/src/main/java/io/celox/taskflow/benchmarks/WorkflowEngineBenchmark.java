@@ -0,0 +1,128 @@
+package io.celox.taskflow.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.celox.taskflow.task.config.WorkflowExecutorConfig;
+import io.celox.taskflow.task.domain.ExecutionStatus;
+import io.celox.taskflow.task.domain.Workflow;
+import io.celox.taskflow.task.domain.WorkflowExecution;
+import io.celox.taskflow.task.workflow.CompiledWorkflow;
+import io.celox.taskflow.task.workflow.DagScheduler;
+import io.celox.taskflow.task.workflow.ExecutionCheckpointStore;
+import io.celox.taskflow.task.workflow.ExecutionContext;
+import io.celox.taskflow.task.workflow.WorkflowCompiler;
+import io.celox.taskflow.task.workflow.WorkflowExecutionEngine;
+import io.celox.taskflow.task.workflow.WorkflowMetrics;
+import io.celox.taskflow.task.workflow.WorkflowPlanCache;
+import io.celox.taskflow.task.workflow.output.OutputStorage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot path of a workflow execution over synthetic graphs whose nodes do no work:
+ * <ul>
+ *   <li>{@link #compile()}: parsing the node and edge JSON and building the plan, the cost of a plan cache miss</li>
+ *   <li>{@link #traverse()}: scheduling a compiled plan with a fresh context, without the engine around it</li>
+ *   <li>{@link #execute()}: a whole synchronous execution through the engine with a warm plan cache, repositories
+ *   answering from memory</li>
+ * </ul>
+ * Run with {@code -prof gc} to see the allocation rate per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class WorkflowEngineBenchmark {
+
+    private static final Map<String, Object> TRIGGER_DATA = Map.of("taskId", "42", "trigger", "benchmark");
+
+    @Param({"linear-10", "linear-100", "linear-1000", "fanout-100", "diamond-10x4"})
+    public String shape;
+
+    private ThreadPoolTaskExecutor branchExecutor;
+    private WorkflowCompiler compiler;
+    private WorkflowExecutionEngine engine;
+    private Workflow workflow;
+    private CompiledWorkflow plan;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        InMemoryRepositories repositories = new InMemoryRepositories();
+        workflow = SyntheticWorkflows.create(shape);
+        repositories.add(workflow);
+
+        // Same pool settings as the application defaults
+        branchExecutor = new WorkflowExecutorConfig().workflowBranchExecutor(8, 100);
+        branchExecutor.initialize();
+
+        compiler = new WorkflowCompiler(List.of(new StubNodeExecutor()), objectMapper);
+        plan = compiler.compile(workflow);
+        engine = new WorkflowExecutionEngine(
+                repositories.workflows(),
+                repositories.executions(),
+                // Runs are executed synchronously, the durable queue is not involved
+                null,
+                new WorkflowPlanCache(compiler, 1000),
+                branchExecutor,
+                event -> { },
+                objectMapper,
+                new ExecutionCheckpointStore(repositories.checkpoints(), objectMapper, true),
+                new WorkflowMetrics(new SimpleMeterRegistry()),
+                new OutputStorage(objectMapper, 64 * 1024 * 1024, 4 * 1024 * 1024, ""),
+                ExecutionContext.DEFAULT_MAX_NODE_EVENTS,
+                ExecutionContext.DEFAULT_MAX_LOG_CHARS,
+                8,
+                10000,
+                5,
+                60000);
+
+        WorkflowExecution execution = engine.executeWorkflow(workflow.getId(), TRIGGER_DATA);
+        if (execution.getStatus() != ExecutionStatus.COMPLETED) {
+            throw new IllegalStateException("Benchmark workflow " + shape + " did not complete: "
+                    + execution.getErrorDetails());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        branchExecutor.shutdown();
+    }
+
+    @Benchmark
+    public CompiledWorkflow compile() {
+        return compiler.compile(workflow);
+    }
+
+    @Benchmark
+    public ExecutionContext traverse() {
+        ExecutionContext context = new ExecutionContext(TRIGGER_DATA);
+        new DagScheduler(plan, context, branchExecutor,
+                (node, executor, nodeContext) -> executor != null ? executor.execute(node, nodeContext) : null)
+                .start();
+        return context;
+    }
+
+    @Benchmark
+    public WorkflowExecution execute() {
+        return engine.executeWorkflow(workflow.getId(), TRIGGER_DATA);
+    }
+}
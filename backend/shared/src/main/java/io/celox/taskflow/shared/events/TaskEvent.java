@@ -23,6 +23,9 @@ public abstract class TaskEvent {
     private UUID eventId;
     private LocalDateTime timestamp;
     private String eventType;
+    // Set on events caused by a workflow run, so workflow triggers cannot loop; null and 0 for user changes
+    private UUID originWorkflowId;
+    private int chainDepth;
 
     public TaskEvent(String eventType) {
         this.eventId = UUID.randomUUID();
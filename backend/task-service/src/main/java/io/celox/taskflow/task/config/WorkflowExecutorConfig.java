@@ -0,0 +1,68 @@
+package io.celox.taskflow.task.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Thread pools used by the workflow engine.
+ */
+@Configuration
+public class WorkflowExecutorConfig {
+
+    /**
+     * Runs nodes of an execution that are ready at the same time concurrently.
+     * When the queue is full the scheduling thread runs the node itself.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor workflowBranchExecutor(
+            @Value("${app.workflow.branch-executor.pool-size:8}") int poolSize,
+            @Value("${app.workflow.branch-executor.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("wf-branch-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Worker pool for executions claimed from the durable queue.
+     * Its size is also the number of runs a node claims at most.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor workflowExecutionExecutor(
+            @Value("${app.workflow.execution-executor.pool-size:4}") int poolSize,
+            @Value("${app.workflow.execution-executor.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("wf-exec-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Runs the JavaScript of code nodes, apart from the other pools so a runaway script cannot block them.
+     * Each thread holds at most one script context. When the queue is full a script is refused.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor workflowScriptExecutor(
+            @Value("${app.workflow.script-executor.pool-size:8}") int poolSize,
+            @Value("${app.workflow.script-executor.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("wf-script-");
+        return executor;
+    }
+}
@@ -1,7 +1,9 @@
 package io.celox.taskflow.task.controller;
 
+import io.celox.taskflow.task.domain.User;
 import io.celox.taskflow.task.dto.CodeExecutionRequest;
 import io.celox.taskflow.task.dto.CodeExecutionResponse;
+import io.celox.taskflow.task.repository.UserRepository;
 import io.celox.taskflow.task.workflow.ExecutionContext;
 import io.celox.taskflow.task.workflow.WorkflowNode;
 import io.celox.taskflow.task.workflow.executors.CodeExecutor;
@@ -29,6 +31,7 @@ import java.util.UUID;
 public class CodeController {
 
     private final CodeExecutor codeExecutor;
+    private final UserRepository userRepository;
 
     @PostMapping("/execute")
     @Operation(summary = "Execute JavaScript code")
@@ -62,6 +65,8 @@ public class CodeController {
             if (request.getTriggerData() != null) {
                 context.getTriggerData().putAll(request.getTriggerData());
             }
+            // Counts against the user's concurrent script limit, like their workflows
+            context.setOwnerId(userRepository.findByUsername(userId).map(User::getId).orElse(null));
 
             // Execute code
             Object result = codeExecutor.execute(node, context);
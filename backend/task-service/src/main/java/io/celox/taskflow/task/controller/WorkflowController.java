@@ -1,9 +1,13 @@
 package io.celox.taskflow.task.controller;
 
+import io.celox.taskflow.task.domain.NodeEvent;
 import io.celox.taskflow.task.dto.CreateWorkflowDto;
 import io.celox.taskflow.task.dto.UpdateWorkflowDto;
+import io.celox.taskflow.task.dto.WorkflowBatchDto;
 import io.celox.taskflow.task.dto.WorkflowDto;
 import io.celox.taskflow.task.dto.WorkflowExecutionDto;
+import io.celox.taskflow.task.service.ExecutionSubscriptionService;
+import io.celox.taskflow.task.service.WorkflowBatchService;
 import io.celox.taskflow.task.service.WorkflowService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -11,10 +15,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -26,6 +34,11 @@ import java.util.UUID;
 public class WorkflowController {
 
     private final WorkflowService workflowService;
+    private final ExecutionSubscriptionService subscriptionService;
+    private final WorkflowBatchService batchService;
+
+    @Value("${app.workflow.execution.async-by-default:false}")
+    private final boolean asyncByDefault;
 
     @GetMapping
     @Operation(summary = "Get all workflows")
@@ -98,17 +111,58 @@ public class WorkflowController {
     }
 
     @PostMapping("/{id}/execute")
-    @Operation(summary = "Execute a workflow manually")
+    @Operation(summary = "Execute a workflow manually",
+            description = "With async=true the execution is queued and 202 is returned immediately; "
+                    + "poll GET /executions/{executionId} or subscribe to /executions/{executionId}/events")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Workflow execution started"),
+            @ApiResponse(responseCode = "200", description = "Workflow executed synchronously"),
+            @ApiResponse(responseCode = "202", description = "Workflow execution queued"),
             @ApiResponse(responseCode = "404", description = "Workflow not found")
     })
     public ResponseEntity<WorkflowExecutionDto> executeWorkflow(
             @PathVariable UUID id,
+            @RequestParam(required = false) Boolean async,
             @RequestBody(required = false) Map<String, Object> triggerData) {
+        if (async != null ? async : asyncByDefault) {
+            WorkflowExecutionDto execution = workflowService.submitWorkflow(id, triggerData);
+            return ResponseEntity
+                    .accepted()
+                    .location(URI.create("/api/v1/workflows/executions/" + execution.getId()))
+                    .body(execution);
+        }
         return ResponseEntity.ok(workflowService.executeWorkflow(id, triggerData));
     }
 
+    @PostMapping("/{id}/execute-batch")
+    @Operation(summary = "Execute a workflow once per trigger payload",
+            description = "Queues one execution per array element and returns 202 with the batch; "
+                    + "poll GET /batches/{batchId} for progress")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Batch queued"),
+            @ApiResponse(responseCode = "400", description = "Empty or oversized batch, or invalid workflow"),
+            @ApiResponse(responseCode = "404", description = "Workflow not found")
+    })
+    public ResponseEntity<WorkflowBatchDto> executeBatch(
+            @PathVariable UUID id,
+            @RequestParam(required = false) Integer parallelism,
+            @RequestBody List<Map<String, Object>> triggerData) {
+        WorkflowBatchDto batch = batchService.submitBatch(id, triggerData, parallelism);
+        return ResponseEntity
+                .accepted()
+                .location(URI.create("/api/v1/workflows/batches/" + batch.getId()))
+                .body(batch);
+    }
+
+    @GetMapping("/batches/{batchId}")
+    @Operation(summary = "Get batch progress")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Batch found"),
+            @ApiResponse(responseCode = "404", description = "Batch not found")
+    })
+    public ResponseEntity<WorkflowBatchDto> getBatch(@PathVariable UUID batchId) {
+        return ResponseEntity.ok(batchService.getBatch(batchId));
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a workflow")
     @ApiResponses({
@@ -136,4 +190,51 @@ public class WorkflowController {
     public ResponseEntity<WorkflowExecutionDto> getExecutionById(@PathVariable UUID executionId) {
         return ResponseEntity.ok(workflowService.getExecutionById(executionId));
     }
+
+    @GetMapping("/executions/{executionId}/nodes")
+    @Operation(summary = "Get node events of an execution",
+            description = "Status, timing in epoch nanoseconds, output size and error per node; filter with nodeId")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Node events retrieved"),
+            @ApiResponse(responseCode = "404", description = "Execution not found")
+    })
+    public ResponseEntity<List<NodeEvent>> getNodeEvents(
+            @PathVariable UUID executionId,
+            @RequestParam(required = false) String nodeId) {
+        return ResponseEntity.ok(workflowService.getNodeEvents(executionId, nodeId));
+    }
+
+    @PostMapping("/executions/{executionId}/resume")
+    @Operation(summary = "Resume a failed execution",
+            description = "Re-runs the failed node and everything after it; nodes that already completed "
+                    + "are not run again, their checkpointed output is reused")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Execution resumed synchronously"),
+            @ApiResponse(responseCode = "202", description = "Execution queued for resume"),
+            @ApiResponse(responseCode = "400", description = "Execution is not in FAILED state"),
+            @ApiResponse(responseCode = "404", description = "Execution not found")
+    })
+    public ResponseEntity<WorkflowExecutionDto> resumeExecution(
+            @PathVariable UUID executionId,
+            @RequestParam(required = false) Boolean async) {
+        if (async != null ? async : asyncByDefault) {
+            WorkflowExecutionDto execution = workflowService.submitResume(executionId);
+            return ResponseEntity
+                    .accepted()
+                    .location(URI.create("/api/v1/workflows/executions/" + execution.getId()))
+                    .body(execution);
+        }
+        return ResponseEntity.ok(workflowService.resumeExecution(executionId));
+    }
+
+    @GetMapping(value = "/executions/{executionId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Subscribe to execution completion",
+            description = "Server-sent event stream that emits a single 'finished' event with the execution")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Subscription opened"),
+            @ApiResponse(responseCode = "404", description = "Execution not found")
+    })
+    public SseEmitter subscribeToExecution(@PathVariable UUID executionId) {
+        return subscriptionService.subscribe(executionId);
+    }
 }
@@ -0,0 +1,49 @@
+package io.celox.taskflow.task.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Output of one completed node of a workflow execution.
+ */
+@Entity
+@Table(name = "workflow_execution_checkpoints",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"execution_id", "node_id"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecutionCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "execution_id", nullable = false)
+    private UUID executionId;
+
+    @Column(name = "node_id", nullable = false)
+    private String nodeId;
+
+    // Wrapped as {"value": ...} so that scalar node results fit the jsonb mapping
+    @Column(name = "output", columnDefinition = "jsonb")
+    @JdbcTypeCode(SqlTypes.JSON)
+    private Map<String, Object> output;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -1,7 +1,13 @@
 package io.celox.taskflow.task.domain;
 
 public enum ExecutionStatus {
+    QUEUED,
     RUNNING,
+    WAITING,
     COMPLETED,
-    FAILED
+    FAILED;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED;
+    }
 }
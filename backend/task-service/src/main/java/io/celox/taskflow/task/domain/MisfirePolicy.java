@@ -0,0 +1,13 @@
+package io.celox.taskflow.task.domain;
+
+/**
+ * What a schedule does with ticks it missed, e.g. while no instance was running.
+ */
+public enum MisfirePolicy {
+    /** Drop missed ticks and wait for the next regular one */
+    SKIP,
+    /** Run once for all missed ticks */
+    FIRE_ONCE,
+    /** Run for every missed tick, up to {@code app.workflow.schedule.max-catch-up} */
+    FIRE_ALL
+}
@@ -0,0 +1,33 @@
+package io.celox.taskflow.task.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one node within a workflow execution. Times are nanoseconds since the epoch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class NodeEvent {
+
+    private String nodeId;
+
+    private String nodeType;
+
+    private NodeEventStatus status;
+
+    private long startNanos;
+
+    private long endNanos;
+
+    // Characters of a string output, entries of a collection or map output, 1 for any other value
+    private int outputSize;
+
+    private String error;
+}
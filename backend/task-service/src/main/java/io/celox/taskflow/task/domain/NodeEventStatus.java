@@ -0,0 +1,9 @@
+package io.celox.taskflow.task.domain;
+
+public enum NodeEventStatus {
+    COMPLETED,
+    FAILED,
+    SKIPPED,
+    SUSPENDED,
+    RESTORED
+}
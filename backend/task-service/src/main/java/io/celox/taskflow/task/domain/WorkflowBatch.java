@@ -0,0 +1,45 @@
+package io.celox.taskflow.task.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One workflow run over many trigger payloads. Each payload becomes a queued {@link WorkflowExecution}
+ * pointing back to the batch.
+ */
+@Entity
+@Table(name = "workflow_batches")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkflowBatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "workflow_id", nullable = false)
+    private UUID workflowId;
+
+    @Column(name = "total_items", nullable = false)
+    private Integer totalItems;
+
+    // Items of the batch running at the same time, across all replicas
+    @Column(name = "max_parallel", nullable = false)
+    private Integer maxParallel;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
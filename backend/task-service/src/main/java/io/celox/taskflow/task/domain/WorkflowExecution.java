@@ -9,6 +9,8 @@ import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Entity
@@ -32,10 +34,14 @@ public class WorkflowExecution {
     @Builder.Default
     private ExecutionStatus status = ExecutionStatus.RUNNING;
 
-    @Column(name = "execution_log", columnDefinition = "jsonb")
-    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "execution_log", columnDefinition = "text")
     private String executionLog;
 
+    // Bounded per-node outcomes, see ExecutionContext
+    @Column(name = "node_events", columnDefinition = "jsonb")
+    @JdbcTypeCode(SqlTypes.JSON)
+    private List<NodeEvent> nodeEvents;
+
     @Column(name = "error_details", columnDefinition = "text")
     private String errorDetails;
 
@@ -44,4 +50,41 @@ public class WorkflowExecution {
 
     @Column(name = "completed_at")
     private LocalDateTime completedAt;
+
+    @Column(name = "trigger_data", columnDefinition = "jsonb")
+    @JdbcTypeCode(SqlTypes.JSON)
+    private Map<String, Object> triggerData;
+
+    // Set when the execution is one item of a WorkflowBatch
+    @Column(name = "batch_id")
+    private UUID batchId;
+
+    // Queue bookkeeping, maintained by WorkflowExecutionQueue
+    @Column(name = "locked_by", length = 100)
+    private String lockedBy;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    @Column(name = "attempt_count", nullable = false)
+    @Builder.Default
+    private Integer attemptCount = 0;
+
+    @Column(name = "available_at")
+    private LocalDateTime availableAt;
+
+    // Node outputs of the last run, see OutputBudget: spilled to disk and the most held in memory at once
+    @Column(name = "spilled_outputs")
+    private Integer spilledOutputs;
+
+    @Column(name = "spilled_output_bytes")
+    private Long spilledOutputBytes;
+
+    @Column(name = "peak_output_bytes")
+    private Long peakOutputBytes;
+
+    // Saved graph state of a WAITING execution, see WorkflowExecutionEngine
+    @Column(name = "continuation", columnDefinition = "jsonb")
+    @JdbcTypeCode(SqlTypes.JSON)
+    private Map<String, Object> continuation;
 }
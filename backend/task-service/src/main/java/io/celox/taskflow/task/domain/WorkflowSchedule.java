@@ -0,0 +1,56 @@
+package io.celox.taskflow.task.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A schedule trigger of an ACTIVE workflow. Either {@code cron} or {@code intervalMs} is set.
+ * {@code nextFireAt} is the nominal time of the next tick, without jitter.
+ */
+@Entity
+@Table(name = "workflow_schedules")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkflowSchedule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "workflow_id", nullable = false)
+    private UUID workflowId;
+
+    // Position of the trigger in the workflow's triggers JSON
+    @Column(name = "trigger_index", nullable = false)
+    private Integer triggerIndex;
+
+    @Column(length = 120)
+    private String cron;
+
+    @Column(name = "interval_ms")
+    private Long intervalMs;
+
+    @Column(nullable = false, length = 64)
+    private String zone;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "misfire_policy", nullable = false, length = 20)
+    private MisfirePolicy misfirePolicy;
+
+    @Column(name = "jitter_ms", nullable = false)
+    private Long jitterMs;
+
+    @Column(name = "next_fire_at", nullable = false)
+    private LocalDateTime nextFireAt;
+
+    @Column(name = "last_fired_at")
+    private LocalDateTime lastFiredAt;
+}
@@ -0,0 +1,38 @@
+package io.celox.taskflow.task.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WorkflowBatchDto {
+
+    private UUID id;
+
+    private UUID workflowId;
+
+    private int totalItems;
+
+    private int maxParallel;
+
+    private long queued;
+
+    private long running;
+
+    private long waiting;
+
+    private long completed;
+
+    private long failed;
+
+    private boolean finished;
+
+    private LocalDateTime createdAt;
+}
@@ -30,4 +30,10 @@ public class WorkflowExecutionDto {
     private LocalDateTime executedAt;
 
     private LocalDateTime completedAt;
+
+    private Integer spilledOutputs;
+
+    private Long spilledOutputBytes;
+
+    private Long peakOutputBytes;
 }
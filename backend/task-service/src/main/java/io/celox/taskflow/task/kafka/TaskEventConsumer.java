@@ -0,0 +1,31 @@
+package io.celox.taskflow.task.kafka;
+
+import io.celox.taskflow.shared.events.TaskEvent;
+import io.celox.taskflow.task.workflow.trigger.WorkflowTriggerDispatcher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds the task events this service publishes into the workflow triggers.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TaskEventConsumer {
+
+    private final WorkflowTriggerDispatcher triggerDispatcher;
+
+    @KafkaListener(
+            topics = {"task.created", "task.updated", "task.completed", "task.deleted"},
+            groupId = "${app.workflow.triggers.group-id:task-service-workflow-triggers}",
+            autoStartup = "${app.workflow.triggers.enabled:true}")
+    public void handleTaskEvent(@Payload TaskEvent event, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
+        log.debug("Received {} for workflow triggers", topic);
+        triggerDispatcher.dispatch(topic, event);
+    }
+}
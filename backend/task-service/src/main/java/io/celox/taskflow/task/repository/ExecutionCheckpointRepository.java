@@ -0,0 +1,23 @@
+package io.celox.taskflow.task.repository;
+
+import io.celox.taskflow.task.domain.ExecutionCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ExecutionCheckpointRepository extends JpaRepository<ExecutionCheckpoint, UUID> {
+
+    List<ExecutionCheckpoint> findByExecutionId(UUID executionId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ExecutionCheckpoint c WHERE c.executionId = :executionId")
+    int deleteByExecutionId(@Param("executionId") UUID executionId);
+}
@@ -0,0 +1,11 @@
+package io.celox.taskflow.task.repository;
+
+import io.celox.taskflow.task.domain.WorkflowBatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface WorkflowBatchRepository extends JpaRepository<WorkflowBatch, UUID> {
+}
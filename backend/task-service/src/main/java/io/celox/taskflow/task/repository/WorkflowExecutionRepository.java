@@ -3,9 +3,12 @@ package io.celox.taskflow.task.repository;
 import io.celox.taskflow.task.domain.WorkflowExecution;
 import io.celox.taskflow.task.domain.ExecutionStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -16,4 +19,18 @@ public interface WorkflowExecutionRepository extends JpaRepository<WorkflowExecu
     List<WorkflowExecution> findByWorkflowIdAndStatus(UUID workflowId, ExecutionStatus status);
 
     List<WorkflowExecution> findByStatus(ExecutionStatus status);
+
+    long countByStatus(ExecutionStatus status);
+
+    @Query("SELECT COUNT(e) FROM WorkflowExecution e WHERE e.workflow.owner.id = :ownerId AND e.status = :status")
+    long countByOwnerIdAndStatus(@Param("ownerId") UUID ownerId, @Param("status") ExecutionStatus status);
+
+    /**
+     * @return rows of (status, count) for the items of a batch
+     */
+    @Query("SELECT e.status, COUNT(e) FROM WorkflowExecution e WHERE e.batchId = :batchId GROUP BY e.status")
+    List<Object[]> countByBatchIdGroupByStatus(@Param("batchId") UUID batchId);
+
+    @Query("SELECT e.workflow.owner.id FROM WorkflowExecution e WHERE e.id = :id")
+    Optional<UUID> findOwnerIdById(@Param("id") UUID id);
 }
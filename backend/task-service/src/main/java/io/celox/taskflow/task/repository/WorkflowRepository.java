@@ -3,9 +3,14 @@ package io.celox.taskflow.task.repository;
 import io.celox.taskflow.task.domain.Workflow;
 import io.celox.taskflow.task.domain.WorkflowStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
@@ -16,4 +21,22 @@ public interface WorkflowRepository extends JpaRepository<Workflow, UUID> {
     List<Workflow> findByStatus(WorkflowStatus status);
 
     List<Workflow> findByOwnerIdAndStatus(UUID ownerId, WorkflowStatus status);
+
+    @Query("SELECT w.owner.id FROM Workflow w WHERE w.id = :id")
+    Optional<UUID> findOwnerIdById(@Param("id") UUID id);
+
+    @Query("SELECT w.id FROM Workflow w WHERE w.id IN :ids AND w.status = :status")
+    Set<UUID> findIdsByIdInAndStatus(@Param("ids") Collection<UUID> ids, @Param("status") WorkflowStatus status);
+
+    /**
+     * Owner id and {@code updatedAt} of a workflow, without loading its graph.
+     */
+    @Query("SELECT o.id, w.updatedAt FROM Workflow w LEFT JOIN w.owner o WHERE w.id = :id")
+    List<Object[]> findOwnerAndVersionById(@Param("id") UUID id);
+
+    /**
+     * Rows of workflow id, owner id and triggers JSON of the workflows with triggers in the given status.
+     */
+    @Query("SELECT w.id, w.owner.id, w.triggersJson FROM Workflow w WHERE w.status = :status AND w.triggersJson IS NOT NULL")
+    List<Object[]> findTriggersByStatus(@Param("status") WorkflowStatus status);
 }
@@ -0,0 +1,42 @@
+package io.celox.taskflow.task.repository;
+
+import io.celox.taskflow.task.domain.WorkflowSchedule;
+import io.celox.taskflow.task.domain.WorkflowStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface WorkflowScheduleRepository extends JpaRepository<WorkflowSchedule, UUID> {
+
+    List<WorkflowSchedule> findByWorkflowId(UUID workflowId);
+
+    @Modifying
+    @Query("DELETE FROM WorkflowSchedule s WHERE s.workflowId = :workflowId")
+    int deleteByWorkflowId(@Param("workflowId") UUID workflowId);
+
+    /**
+     * Rows of schedule and owner id of the schedules of workflows in the given status.
+     */
+    @Query("SELECT s, w.owner.id FROM WorkflowSchedule s, Workflow w WHERE w.id = s.workflowId AND w.status = :status")
+    List<Object[]> findWithOwnerByWorkflowStatus(@Param("status") WorkflowStatus status);
+
+    /**
+     * Moves the schedule to its next tick, but only if no other instance has done so already.
+     *
+     * @return 1 if this caller owns the tick
+     */
+    @Modifying
+    @Query("UPDATE WorkflowSchedule s SET s.nextFireAt = :next, s.lastFiredAt = :firedAt " +
+            "WHERE s.id = :id AND s.nextFireAt = :expected")
+    int advance(@Param("id") UUID id,
+                @Param("expected") LocalDateTime expected,
+                @Param("next") LocalDateTime next,
+                @Param("firedAt") LocalDateTime firedAt);
+}
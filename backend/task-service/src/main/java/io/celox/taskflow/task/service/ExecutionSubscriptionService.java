@@ -0,0 +1,126 @@
+package io.celox.taskflow.task.service;
+
+import io.celox.taskflow.task.domain.WorkflowExecution;
+import io.celox.taskflow.task.dto.WorkflowExecutionDto;
+import io.celox.taskflow.task.repository.WorkflowExecutionRepository;
+import io.celox.taskflow.task.workflow.WorkflowExecutionFinishedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server-sent event subscriptions for clients waiting on an asynchronous execution to finish.
+ * <p>
+ * Runs finishing on this node are pushed via {@link WorkflowExecutionFinishedEvent}. Runs picked up by
+ * another replica are detected by periodically checking the status of the subscribed executions.
+ */
+@Service
+@Slf4j
+public class ExecutionSubscriptionService {
+
+    private final WorkflowService workflowService;
+    private final WorkflowExecutionRepository executionRepository;
+    private final long timeoutMs;
+    private final Map<UUID, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService statusPoller;
+
+    public ExecutionSubscriptionService(
+            WorkflowService workflowService,
+            WorkflowExecutionRepository executionRepository,
+            @Value("${app.workflow.execution.subscription-timeout-ms:300000}") long timeoutMs,
+            @Value("${app.workflow.execution.subscription-poll-ms:2000}") long pollMs) {
+        this.workflowService = workflowService;
+        this.executionRepository = executionRepository;
+        this.timeoutMs = timeoutMs;
+        this.statusPoller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "sse-status-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.statusPoller.scheduleWithFixedDelay(this::pollRemoteCompletions, pollMs, pollMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        statusPoller.shutdownNow();
+    }
+
+    public SseEmitter subscribe(UUID executionId) {
+        // Fails with 404 before a stream is opened for an unknown execution
+        WorkflowExecutionDto execution = workflowService.getExecutionById(executionId);
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        subscribers.computeIfAbsent(executionId, id -> new CopyOnWriteArrayList<>()).add(emitter);
+        emitter.onCompletion(() -> unsubscribe(executionId, emitter));
+        emitter.onTimeout(() -> unsubscribe(executionId, emitter));
+        emitter.onError(e -> unsubscribe(executionId, emitter));
+
+        // The execution may have finished before the subscription was registered
+        if (execution.getStatus().isFinished()) {
+            notifySubscribers(executionId, execution);
+        }
+        return emitter;
+    }
+
+    @EventListener
+    public void onExecutionFinished(WorkflowExecutionFinishedEvent event) {
+        if (!subscribers.containsKey(event.getExecutionId())) {
+            return;
+        }
+        notifySubscribers(event.getExecutionId(), workflowService.getExecutionById(event.getExecutionId()));
+    }
+
+    /**
+     * Notifies subscribers of executions that were finished by another task-service replica.
+     */
+    void pollRemoteCompletions() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        try {
+            for (WorkflowExecution execution : executionRepository.findAllById(List.copyOf(subscribers.keySet()))) {
+                if (execution.getStatus().isFinished()) {
+                    notifySubscribers(execution.getId(), workflowService.getExecutionById(execution.getId()));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Could not check status of subscribed executions: {}", e.getMessage());
+        }
+    }
+
+    private void notifySubscribers(UUID executionId, WorkflowExecutionDto execution) {
+        List<SseEmitter> emitters = subscribers.remove(executionId);
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event().name("finished").data(execution));
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Could not notify subscriber of execution {}: {}", executionId, e.getMessage());
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private void unsubscribe(UUID executionId, SseEmitter emitter) {
+        subscribers.computeIfPresent(executionId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
@@ -3,6 +3,7 @@ package io.celox.taskflow.task.service;
 import io.celox.taskflow.shared.events.TaskCompletedEvent;
 import io.celox.taskflow.shared.events.TaskCreatedEvent;
 import io.celox.taskflow.shared.events.TaskDeletedEvent;
+import io.celox.taskflow.shared.events.TaskEvent;
 import io.celox.taskflow.shared.events.TaskUpdatedEvent;
 import io.celox.taskflow.task.domain.Task;
 import io.celox.taskflow.task.domain.TaskStatus;
@@ -15,6 +16,7 @@ import io.celox.taskflow.task.kafka.TaskEventProducer;
 import io.celox.taskflow.task.mapper.TaskMapper;
 import io.celox.taskflow.task.repository.TaskRepository;
 import io.celox.taskflow.task.repository.UserRepository;
+import io.celox.taskflow.task.workflow.trigger.TriggerChain;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -69,6 +71,14 @@ public class TaskService {
 
     @Transactional
     public TaskDto createTask(CreateTaskDto dto) {
+        return createTask(dto, null);
+    }
+
+    /**
+     * Creates a task on behalf of a workflow run; the published event carries the run's {@code chain}.
+     */
+    @Transactional
+    public TaskDto createTask(CreateTaskDto dto, TriggerChain chain) {
         log.info("Creating new task: {}", dto.getTitle());
 
         Task task = taskMapper.toEntity(dto);
@@ -92,7 +102,7 @@ public class TaskService {
                 savedTask.getAssignee() != null ? savedTask.getAssignee().getId() : null,
                 savedTask.getDueDate()
         );
-        eventProducer.sendTaskCreatedEvent(event);
+        eventProducer.sendTaskCreatedEvent(stamp(event, chain));
 
         log.info("Task created successfully with id: {}", savedTask.getId());
         return taskMapper.toDto(savedTask);
@@ -100,6 +110,14 @@ public class TaskService {
 
     @Transactional
     public TaskDto updateTask(UUID id, UpdateTaskDto dto) {
+        return updateTask(id, dto, null);
+    }
+
+    /**
+     * Updates a task on behalf of a workflow run; the published event carries the run's {@code chain}.
+     */
+    @Transactional
+    public TaskDto updateTask(UUID id, UpdateTaskDto dto, TriggerChain chain) {
         log.info("Updating task with id: {}", id);
 
         Task task = taskRepository.findById(id)
@@ -127,7 +145,7 @@ public class TaskService {
                     savedTask.getTitle(),
                     savedTask.getAssignee() != null ? savedTask.getAssignee().getId() : null
             );
-            eventProducer.sendTaskCompletedEvent(event);
+            eventProducer.sendTaskCompletedEvent(stamp(event, chain));
 
             return taskMapper.toDto(savedTask);
         }
@@ -144,7 +162,7 @@ public class TaskService {
                 savedTask.getAssignee() != null ? savedTask.getAssignee().getId() : null,
                 savedTask.getDueDate()
         );
-        eventProducer.sendTaskUpdatedEvent(event);
+        eventProducer.sendTaskUpdatedEvent(stamp(event, chain));
 
         log.info("Task updated successfully with id: {}", savedTask.getId());
         return taskMapper.toDto(savedTask);
@@ -168,4 +186,8 @@ public class TaskService {
         taskRepository.delete(task);
         log.info("Task deleted successfully with id: {}", id);
     }
+
+    private static <E extends TaskEvent> E stamp(E event, TriggerChain chain) {
+        return chain != null ? chain.stamp(event) : event;
+    }
 }
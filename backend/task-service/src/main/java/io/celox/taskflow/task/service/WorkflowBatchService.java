@@ -0,0 +1,153 @@
+package io.celox.taskflow.task.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.celox.taskflow.task.domain.ExecutionStatus;
+import io.celox.taskflow.task.domain.Workflow;
+import io.celox.taskflow.task.domain.WorkflowBatch;
+import io.celox.taskflow.task.dto.WorkflowBatchDto;
+import io.celox.taskflow.task.exception.ResourceNotFoundException;
+import io.celox.taskflow.task.repository.WorkflowBatchRepository;
+import io.celox.taskflow.task.repository.WorkflowExecutionRepository;
+import io.celox.taskflow.task.repository.WorkflowRepository;
+import io.celox.taskflow.task.workflow.WorkflowAdmissionController;
+import io.celox.taskflow.task.workflow.WorkflowExecutionQueue;
+import io.celox.taskflow.task.workflow.WorkflowExecutionQueuedEvent;
+import io.celox.taskflow.task.workflow.WorkflowPlanCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Runs one workflow over many trigger payloads.
+ * <p>
+ * Every payload becomes an ordinary queued execution, written with JDBC batch inserts in the same transaction
+ * as the batch itself. The queue workers run the items with at most {@code maxParallel} of them at a time;
+ * all items share the compiled plan from {@link WorkflowPlanCache}.
+ */
+@Service
+@Slf4j
+public class WorkflowBatchService {
+
+    private final WorkflowRepository workflowRepository;
+    private final WorkflowBatchRepository batchRepository;
+    private final WorkflowExecutionRepository executionRepository;
+    private final WorkflowExecutionQueue executionQueue;
+    private final WorkflowPlanCache planCache;
+    private final WorkflowAdmissionController admissionController;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int maxItems;
+    private final int defaultParallelism;
+
+    public WorkflowBatchService(
+            WorkflowRepository workflowRepository,
+            WorkflowBatchRepository batchRepository,
+            WorkflowExecutionRepository executionRepository,
+            WorkflowExecutionQueue executionQueue,
+            WorkflowPlanCache planCache,
+            WorkflowAdmissionController admissionController,
+            ApplicationEventPublisher eventPublisher,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            @Value("${app.workflow.batch.max-items:10000}") int maxItems,
+            @Value("${app.workflow.batch.default-parallelism:4}") int defaultParallelism) {
+        this.workflowRepository = workflowRepository;
+        this.batchRepository = batchRepository;
+        this.executionRepository = executionRepository;
+        this.executionQueue = executionQueue;
+        this.planCache = planCache;
+        this.admissionController = admissionController;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.maxItems = maxItems;
+        this.defaultParallelism = defaultParallelism;
+    }
+
+    /**
+     * Queues one execution per payload and returns the batch right away.
+     *
+     * @param parallelism items running at the same time; the configured default when null
+     */
+    public WorkflowBatchDto submitBatch(UUID workflowId, List<Map<String, Object>> items, Integer parallelism) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("A batch needs at least one trigger payload");
+        }
+        if (items.size() > maxItems) {
+            throw new IllegalArgumentException("A batch may contain at most " + maxItems + " items, got " + items.size());
+        }
+        int maxParallel = parallelism != null ? parallelism : defaultParallelism;
+        if (maxParallel < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+
+        Workflow workflow = workflowRepository.findById(workflowId)
+                .orElseThrow(() -> new ResourceNotFoundException("Workflow not found with id: " + workflowId));
+        admissionController.admitQueued(workflow.getOwner().getId(), items.size());
+        // Compile once up front, so a broken workflow is rejected before thousands of rows are written
+        planCache.getPlan(workflow);
+
+        List<String> payloads = new ArrayList<>(items.size());
+        for (Map<String, Object> item : items) {
+            payloads.add(toJson(item));
+        }
+
+        WorkflowBatch batch = transactionTemplate.execute(status -> {
+            // Flushed so the batch row exists before the items reference it over plain JDBC
+            WorkflowBatch saved = batchRepository.saveAndFlush(WorkflowBatch.builder()
+                    .workflowId(workflowId)
+                    .totalItems(items.size())
+                    .maxParallel(maxParallel)
+                    .build());
+            executionQueue.enqueueBatch(saved.getId(), workflowId, payloads);
+            return saved;
+        });
+
+        log.info("Queued batch {} with {} items for workflow: {}", batch.getId(), items.size(), workflowId);
+        eventPublisher.publishEvent(new WorkflowExecutionQueuedEvent(null, workflowId));
+        return toDto(batch, Map.of(ExecutionStatus.QUEUED, (long) items.size()));
+    }
+
+    public WorkflowBatchDto getBatch(UUID batchId) {
+        WorkflowBatch batch = batchRepository.findById(batchId)
+                .orElseThrow(() -> new ResourceNotFoundException("Batch not found with id: " + batchId));
+
+        Map<ExecutionStatus, Long> counts = new EnumMap<>(ExecutionStatus.class);
+        for (Object[] row : executionRepository.countByBatchIdGroupByStatus(batchId)) {
+            counts.put((ExecutionStatus) row[0], ((Number) row[1]).longValue());
+        }
+        return toDto(batch, counts);
+    }
+
+    private WorkflowBatchDto toDto(WorkflowBatch batch, Map<ExecutionStatus, Long> counts) {
+        long completed = counts.getOrDefault(ExecutionStatus.COMPLETED, 0L);
+        long failed = counts.getOrDefault(ExecutionStatus.FAILED, 0L);
+        return WorkflowBatchDto.builder()
+                .id(batch.getId())
+                .workflowId(batch.getWorkflowId())
+                .totalItems(batch.getTotalItems())
+                .maxParallel(batch.getMaxParallel())
+                .queued(counts.getOrDefault(ExecutionStatus.QUEUED, 0L))
+                .running(counts.getOrDefault(ExecutionStatus.RUNNING, 0L))
+                .waiting(counts.getOrDefault(ExecutionStatus.WAITING, 0L))
+                .completed(completed)
+                .failed(failed)
+                .finished(completed + failed >= batch.getTotalItems())
+                .createdAt(batch.getCreatedAt())
+                .build();
+    }
+
+    private String toJson(Map<String, Object> item) {
+        try {
+            return objectMapper.writeValueAsString(item != null ? item : Map.of());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Trigger payload cannot be serialized: " + e.getOriginalMessage(), e);
+        }
+    }
+}
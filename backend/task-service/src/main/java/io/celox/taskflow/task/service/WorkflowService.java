@@ -1,5 +1,6 @@
 package io.celox.taskflow.task.service;
 
+import io.celox.taskflow.task.domain.NodeEvent;
 import io.celox.taskflow.task.domain.User;
 import io.celox.taskflow.task.domain.Workflow;
 import io.celox.taskflow.task.domain.WorkflowStatus;
@@ -13,7 +14,11 @@ import io.celox.taskflow.task.mapper.WorkflowMapper;
 import io.celox.taskflow.task.repository.UserRepository;
 import io.celox.taskflow.task.repository.WorkflowRepository;
 import io.celox.taskflow.task.repository.WorkflowExecutionRepository;
+import io.celox.taskflow.task.workflow.WorkflowAdmissionController;
 import io.celox.taskflow.task.workflow.WorkflowExecutionEngine;
+import io.celox.taskflow.task.workflow.WorkflowPlanCache;
+import io.celox.taskflow.task.workflow.schedule.WorkflowScheduler;
+import io.celox.taskflow.task.workflow.trigger.WorkflowTriggerIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -34,6 +39,10 @@ public class WorkflowService {
     private final UserRepository userRepository;
     private final WorkflowMapper workflowMapper;
     private final WorkflowExecutionEngine executionEngine;
+    private final WorkflowPlanCache planCache;
+    private final WorkflowAdmissionController admissionController;
+    private final WorkflowTriggerIndex triggerIndex;
+    private final WorkflowScheduler workflowScheduler;
 
     @Transactional(readOnly = true)
     public List<WorkflowDto> getAllWorkflows() {
@@ -70,6 +79,8 @@ public class WorkflowService {
         workflow.setOwner(owner);
 
         Workflow savedWorkflow = workflowRepository.save(workflow);
+        triggerIndex.register(savedWorkflow);
+        workflowScheduler.register(savedWorkflow);
 
         log.info("Workflow created successfully with id: {}", savedWorkflow.getId());
         return workflowMapper.toDto(savedWorkflow);
@@ -85,6 +96,9 @@ public class WorkflowService {
         workflowMapper.updateEntity(workflow, dto);
 
         Workflow savedWorkflow = workflowRepository.save(workflow);
+        planCache.invalidate(id);
+        triggerIndex.register(savedWorkflow);
+        workflowScheduler.register(savedWorkflow);
 
         log.info("Workflow updated successfully with id: {}", savedWorkflow.getId());
         return workflowMapper.toDto(savedWorkflow);
@@ -99,6 +113,8 @@ public class WorkflowService {
 
         workflow.setStatus(WorkflowStatus.ACTIVE);
         Workflow savedWorkflow = workflowRepository.save(workflow);
+        triggerIndex.register(savedWorkflow);
+        workflowScheduler.register(savedWorkflow);
 
         log.info("Workflow activated successfully with id: {}", savedWorkflow.getId());
         return workflowMapper.toDto(savedWorkflow);
@@ -113,6 +129,8 @@ public class WorkflowService {
 
         workflow.setStatus(WorkflowStatus.DRAFT);
         Workflow savedWorkflow = workflowRepository.save(workflow);
+        triggerIndex.remove(id);
+        workflowScheduler.remove(id);
 
         log.info("Workflow deactivated successfully with id: {}", savedWorkflow.getId());
         return workflowMapper.toDto(savedWorkflow);
@@ -126,6 +144,9 @@ public class WorkflowService {
                 .orElseThrow(() -> new ResourceNotFoundException("Workflow not found with id: " + id));
 
         workflowRepository.delete(workflow);
+        planCache.invalidate(id);
+        triggerIndex.remove(id);
+        workflowScheduler.remove(id);
         log.info("Workflow deleted successfully with id: {}", id);
     }
 
@@ -137,16 +158,58 @@ public class WorkflowService {
                 .collect(Collectors.toList());
     }
 
-    @Transactional
+    /**
+     * Runs the workflow on the calling thread and returns the finished execution.
+     * Not transactional, so no connection is held while nodes run.
+     */
     public WorkflowExecutionDto executeWorkflow(UUID workflowId, Map<String, Object> triggerData) {
         log.info("Executing workflow: {}", workflowId);
 
-        // Verify workflow exists
-        Workflow workflow = workflowRepository.findById(workflowId)
-                .orElseThrow(() -> new ResourceNotFoundException("Workflow not found with id: " + workflowId));
+        UUID ownerId = findWorkflowOwner(workflowId);
+
+        // Execute workflow once admitted
+        WorkflowExecution execution = admissionController.runAdmitted(ownerId,
+                () -> executionEngine.executeWorkflow(workflowId, triggerData));
+
+        return workflowMapper.toExecutionDto(execution);
+    }
+
+    /**
+     * Queues the workflow for execution on the worker pool and returns the QUEUED execution immediately.
+     */
+    public WorkflowExecutionDto submitWorkflow(UUID workflowId, Map<String, Object> triggerData) {
+        log.info("Submitting workflow for asynchronous execution: {}", workflowId);
+
+        admissionController.admitQueued(findWorkflowOwner(workflowId));
+
+        WorkflowExecution execution = executionEngine.enqueueExecution(workflowId, triggerData);
+
+        return workflowMapper.toExecutionDto(execution);
+    }
+
+    /**
+     * Resumes a failed execution on the calling thread, reusing the outputs of nodes that already completed.
+     */
+    public WorkflowExecutionDto resumeExecution(UUID executionId) {
+        log.info("Resuming execution: {}", executionId);
+
+        UUID ownerId = findExecutionOwner(executionId);
+
+        WorkflowExecution execution = admissionController.runAdmitted(ownerId,
+                () -> executionEngine.resumeExecution(executionId));
+
+        return workflowMapper.toExecutionDto(execution);
+    }
+
+    /**
+     * Queues a failed execution to be resumed by a worker and returns it immediately.
+     */
+    public WorkflowExecutionDto submitResume(UUID executionId) {
+        log.info("Submitting resume of execution: {}", executionId);
+
+        admissionController.admitQueued(findExecutionOwner(executionId));
 
-        // Execute workflow
-        WorkflowExecution execution = executionEngine.executeWorkflow(workflowId, triggerData);
+        WorkflowExecution execution = executionEngine.enqueueResume(executionId);
 
         return workflowMapper.toExecutionDto(execution);
     }
@@ -158,4 +221,29 @@ public class WorkflowService {
                 .orElseThrow(() -> new ResourceNotFoundException("Execution not found with id: " + executionId));
         return workflowMapper.toExecutionDto(execution);
     }
+
+    /**
+     * @param nodeId optional filter; all events of the execution when null
+     */
+    @Transactional(readOnly = true)
+    public List<NodeEvent> getNodeEvents(UUID executionId, String nodeId) {
+        WorkflowExecution execution = executionRepository.findById(executionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Execution not found with id: " + executionId));
+        if (execution.getNodeEvents() == null) {
+            return List.of();
+        }
+        return execution.getNodeEvents().stream()
+                .filter(event -> nodeId == null || nodeId.equals(event.getNodeId()))
+                .collect(Collectors.toList());
+    }
+
+    private UUID findExecutionOwner(UUID executionId) {
+        return executionRepository.findOwnerIdById(executionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Execution not found with id: " + executionId));
+    }
+
+    private UUID findWorkflowOwner(UUID workflowId) {
+        return workflowRepository.findOwnerIdById(workflowId)
+                .orElseThrow(() -> new ResourceNotFoundException("Workflow not found with id: " + workflowId));
+    }
 }
@@ -0,0 +1,113 @@
+package io.celox.taskflow.task.workflow;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Immutable, pre-indexed form of a workflow graph.
+ * Built once per workflow version by {@link WorkflowCompiler} and shared by all executions of that version.
+ */
+@Getter
+public class CompiledWorkflow {
+
+    private final UUID workflowId;
+    private final LocalDateTime version;
+    private final WorkflowNode startNode;
+    private final Map<String, WorkflowNode> nodesById;
+    private final Map<String, List<WorkflowEdge>> outgoingEdges;
+    private final Map<String, List<WorkflowEdge>> incomingEdges;
+    private final Map<String, NodeExecutor> executors;
+    private final List<String> topologicalOrder;
+    private final Map<String, Integer> topologicalIndex;
+    private final Map<String, Integer> inDegrees;
+    private final Map<String, CompiledWorkflow> loopBodies;
+    private final Map<String, SwitchTable> switchTables;
+
+    public CompiledWorkflow(
+            UUID workflowId,
+            LocalDateTime version,
+            WorkflowNode startNode,
+            Map<String, WorkflowNode> nodesById,
+            Map<String, List<WorkflowEdge>> outgoingEdges,
+            Map<String, List<WorkflowEdge>> incomingEdges,
+            Map<String, NodeExecutor> executors,
+            List<String> topologicalOrder,
+            Map<String, Integer> inDegrees,
+            Map<String, CompiledWorkflow> loopBodies,
+            Map<String, SwitchTable> switchTables
+    ) {
+        this.workflowId = workflowId;
+        this.version = version;
+        this.startNode = startNode;
+        this.nodesById = Collections.unmodifiableMap(nodesById);
+        this.outgoingEdges = Collections.unmodifiableMap(outgoingEdges);
+        this.incomingEdges = Collections.unmodifiableMap(incomingEdges);
+        this.executors = Collections.unmodifiableMap(executors);
+        this.topologicalOrder = List.copyOf(topologicalOrder);
+        this.inDegrees = Collections.unmodifiableMap(inDegrees);
+        this.loopBodies = Collections.unmodifiableMap(loopBodies);
+        this.switchTables = Collections.unmodifiableMap(switchTables);
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < topologicalOrder.size(); i++) {
+            index.put(topologicalOrder.get(i), i);
+        }
+        this.topologicalIndex = Collections.unmodifiableMap(index);
+    }
+
+    public WorkflowNode getNode(String nodeId) {
+        return nodesById.get(nodeId);
+    }
+
+    public List<WorkflowEdge> getOutgoingEdges(String nodeId) {
+        return outgoingEdges.getOrDefault(nodeId, List.of());
+    }
+
+    public List<WorkflowEdge> getIncomingEdges(String nodeId) {
+        return incomingEdges.getOrDefault(nodeId, List.of());
+    }
+
+    /**
+     * @return the executor bound to the node at compile time, or null if the node type has none
+     */
+    public NodeExecutor getExecutor(String nodeId) {
+        return executors.get(nodeId);
+    }
+
+    /**
+     * Position of a node in the topological order; only nodes reachable from the start node have one.
+     */
+    public int getTopologicalIndex(String nodeId) {
+        return topologicalIndex.getOrDefault(nodeId, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Number of incoming edges whose source is reachable from the start node.
+     */
+    public int getInDegree(String nodeId) {
+        return inDegrees.getOrDefault(nodeId, 0);
+    }
+
+    /**
+     * Sub-graph run once per item by a forEach node. It starts at a trigger node carrying the forEach node's id.
+     */
+    public CompiledWorkflow getLoopBody(String nodeId) {
+        return loopBodies.get(nodeId);
+    }
+
+    /**
+     * Case table of a switch node, mapping the routed value to the label of the edge to follow.
+     */
+    public SwitchTable getSwitchTable(String nodeId) {
+        return switchTables.get(nodeId);
+    }
+
+    public int getNodeCount() {
+        return nodesById.size();
+    }
+}
@@ -0,0 +1,635 @@
+package io.celox.taskflow.task.workflow;
+
+import io.celox.taskflow.task.domain.NodeEvent;
+import io.celox.taskflow.task.domain.NodeEventStatus;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Iterative scheduler for one execution of a {@link CompiledWorkflow}.
+ * <p>
+ * A node waits until every incoming edge is resolved. An edge is taken when its source ran (and, for
+ * condition and switch nodes, the edge label matches the result) and skipped otherwise. A node with at least one
+ * taken edge becomes ready; a node whose edges were all skipped is skipped itself and passes the skip
+ * on to its successors. Merge nodes can be released earlier through {@code waitFor}.
+ * <p>
+ * Ready nodes are taken in topological order. When several are ready at once they run concurrently on
+ * the node executor, the last one on the calling thread. Scheduling state is only touched by the calling
+ * thread; workers report back through a completion queue. Stack depth therefore does not grow with the
+ * size of the graph. Each node runs in a branch context; its variables are merged into the execution
+ * context by the calling thread when its completion is taken. A running node does not see the writes of
+ * concurrent nodes until they are merged, but may see them once they are.
+ * <p>
+ * A forEach node runs its loop body, a nested plan, once per item through a {@link ForEachLoop}. Its
+ * {@code each} edges lead into the body, its other edges continue after the loop. A subWorkflow node runs
+ * the plan of another workflow inline, in a context of its own.
+ * <p>
+ * Every node except the trigger leaves a {@link NodeEvent} in the execution context.
+ */
+public class DagScheduler {
+
+    static final String TRIGGER_NODE_TYPE = "trigger";
+    static final String MERGE_NODE_TYPE = "merge";
+    static final String CONDITION_NODE_TYPE = "condition";
+    static final String SWITCH_NODE_TYPE = "switch";
+    static final String FOR_EACH_NODE_TYPE = "forEach";
+    static final String EACH_EDGE_LABEL = "each";
+    static final String SUB_WORKFLOW_NODE_TYPE = "subWorkflow";
+
+    /**
+     * Executes a single workflow node with the executor bound to it in the plan (null if none) and returns its result.
+     * The context is a branch of the execution context, its variables are merged back once the node completed.
+     */
+    @FunctionalInterface
+    public interface NodeRunner {
+        Object run(WorkflowNode node, NodeExecutor executor, ExecutionContext context);
+    }
+
+    /**
+     * Supplies the plan of a workflow called by a subWorkflow node.
+     */
+    @FunctionalInterface
+    public interface SubWorkflowResolver {
+        CompiledWorkflow resolve(UUID workflowId);
+    }
+
+    /**
+     * Notified on the scheduling thread whenever a node finished with an output worth keeping.
+     */
+    @FunctionalInterface
+    public interface CompletionListener {
+        void onNodeCompleted(WorkflowNode node, Object output);
+    }
+
+    private final CompiledWorkflow plan;
+    private final ExecutionContext context;
+    private final Executor nodeExecutor;
+    private final NodeRunner nodeRunner;
+    private Executor loopExecutor;
+    private CompletionListener completionListener = (node, output) -> { };
+    private int forEachMaxConcurrency = 1;
+    private int forEachMaxItems = Integer.MAX_VALUE;
+    private SubWorkflowResolver subWorkflowResolver = workflowId -> {
+        throw new IllegalStateException("Sub-workflows are not available here");
+    };
+    private int subWorkflowMaxDepth;
+
+    private final Map<String, Object> restoredOutputs = new HashMap<>();
+    private final Map<String, Integer> unresolvedEdges = new HashMap<>();
+    private final Map<String, Integer> takenEdges = new HashMap<>();
+    private final Set<String> scheduled = new HashSet<>();
+    private final Map<String, LocalDateTime> timers = new HashMap<>();
+    private final PriorityQueue<WorkflowNode> ready;
+    private final BlockingQueue<Completion> completions = new LinkedBlockingQueue<>();
+    private int inFlight;
+
+    public DagScheduler(CompiledWorkflow plan, ExecutionContext context, Executor nodeExecutor, NodeRunner nodeRunner) {
+        this.plan = plan;
+        this.context = context;
+        this.nodeExecutor = nodeExecutor;
+        this.nodeRunner = nodeRunner;
+        this.loopExecutor = nodeExecutor;
+        this.ready = new PriorityQueue<>(Comparator.comparingInt(node -> plan.getTopologicalIndex(node.getId())));
+    }
+
+    public void setCompletionListener(CompletionListener completionListener) {
+        this.completionListener = completionListener;
+    }
+
+    /**
+     * Upper bounds for forEach nodes: items run at the same time and items per node.
+     */
+    public void setForEachLimits(int maxConcurrency, int maxItems) {
+        this.forEachMaxConcurrency = Math.max(1, maxConcurrency);
+        this.forEachMaxItems = Math.max(0, maxItems);
+    }
+
+    /**
+     * Enables subWorkflow nodes, which may nest up to {@code maxDepth} workflows deep.
+     */
+    public void setSubWorkflows(SubWorkflowResolver resolver, int maxDepth) {
+        this.subWorkflowResolver = resolver;
+        this.subWorkflowMaxDepth = maxDepth;
+    }
+
+    /**
+     * Outputs of nodes that already ran in an earlier attempt. These nodes are not executed again,
+     * their stored output is used instead.
+     */
+    public void restoreOutputs(Map<String, Object> outputs) {
+        restoredOutputs.putAll(outputs);
+    }
+
+    /**
+     * Runs the workflow from its start node until no node is ready or running anymore.
+     */
+    public void start() {
+        WorkflowNode startNode = plan.getStartNode();
+        context.log("Starting from node: " + startNode.getId() + " (type: " + startNode.getType() + ")");
+        schedule(startNode);
+        run();
+    }
+
+    /**
+     * Continues after every suspended node whose timer is due by the given time; the others stay parked.
+     */
+    public void resumeDue(LocalDateTime dueBy) {
+        List<String> dueNodes = timers.entrySet().stream()
+                .filter(timer -> !timer.getValue().isAfter(dueBy))
+                .map(Map.Entry::getKey)
+                .sorted(Comparator.comparingInt(plan::getTopologicalIndex))
+                .toList();
+
+        for (String nodeId : dueNodes) {
+            timers.remove(nodeId);
+            WorkflowNode node = plan.getNode(nodeId);
+            if (node == null) {
+                throw new IllegalStateException("Suspended node no longer exists in workflow: " + nodeId);
+            }
+            context.log("Resuming after delay node: " + nodeId);
+            completionListener.onNodeCompleted(node, null);
+            long now = context.currentNanos();
+            recordEvent(new Completion(node, null, null, now, now, false), NodeEventStatus.COMPLETED);
+            resolveOutgoing(node, null);
+        }
+        run();
+    }
+
+    /**
+     * @return nodes suspended by a {@link WorkflowSuspension}, with their resume time
+     */
+    public Map<String, LocalDateTime> getTimers() {
+        return Collections.unmodifiableMap(timers);
+    }
+
+    /**
+     * Snapshot of the scheduling state; only valid while no node is running.
+     */
+    public Map<String, Object> captureState() {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("unresolvedEdges", new HashMap<>(unresolvedEdges));
+        state.put("takenEdges", new HashMap<>(takenEdges));
+        state.put("scheduled", new ArrayList<>(scheduled));
+        Map<String, String> timerState = new HashMap<>();
+        timers.forEach((nodeId, resumeAt) -> timerState.put(nodeId, resumeAt.toString()));
+        state.put("timers", timerState);
+        return state;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void restoreState(Map<String, Object> state) {
+        ((Map<String, Number>) state.getOrDefault("unresolvedEdges", Map.of()))
+                .forEach((nodeId, count) -> unresolvedEdges.put(nodeId, count.intValue()));
+        ((Map<String, Number>) state.getOrDefault("takenEdges", Map.of()))
+                .forEach((nodeId, count) -> takenEdges.put(nodeId, count.intValue()));
+        scheduled.addAll((List<String>) state.getOrDefault("scheduled", List.of()));
+        ((Map<String, String>) state.getOrDefault("timers", Map.of()))
+                .forEach((nodeId, resumeAt) -> timers.put(nodeId, LocalDateTime.parse(resumeAt)));
+    }
+
+    private void run() {
+        RuntimeException failure = null;
+        while (true) {
+            if (failure == null) {
+                dispatchReady();
+            }
+            if (inFlight == 0) {
+                break;
+            }
+
+            Completion completion = takeCompletion();
+            inFlight--;
+            if (completion.error != null) {
+                context.log("Node " + completion.node.getId() + " failed after " + completion.elapsedMs() + "ms");
+                recordEvent(completion, NodeEventStatus.FAILED);
+                if (failure == null) {
+                    failure = completion.error instanceof RuntimeException runtimeException
+                            ? runtimeException
+                            : new IllegalStateException(completion.error);
+                }
+            } else {
+                // After a sibling failed the node is still checkpointed, so a resume does not run it again
+                onCompleted(completion, failure == null);
+            }
+        }
+
+        // Nodes still running when a sibling failed are awaited above, their successors are not started
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void dispatchReady() {
+        while (!ready.isEmpty()) {
+            WorkflowNode node = ready.poll();
+            inFlight++;
+
+            if (restoredOutputs.containsKey(node.getId()) && !isControlNode(node)) {
+                context.log("Restored output of node " + node.getId() + " from checkpoint");
+                long now = context.currentNanos();
+                completions.add(new Completion(node, restoredOutputs.get(node.getId()), null, now, now, true));
+                continue;
+            }
+
+            Runnable task = () -> completions.add(execute(node));
+
+            // The calling thread takes the last ready node and cheap control nodes itself
+            if (ready.isEmpty() || isControlNode(node)) {
+                task.run();
+                continue;
+            }
+            try {
+                nodeExecutor.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.run();
+            }
+        }
+    }
+
+    private Completion execute(WorkflowNode node) {
+        long start = context.currentNanos();
+        ExecutionContext branchContext = null;
+        try {
+            Object result;
+            if (TRIGGER_NODE_TYPE.equals(node.getType())) {
+                context.log("Skipping trigger node: " + node.getId());
+                result = null;
+            } else if (MERGE_NODE_TYPE.equals(node.getType())) {
+                result = collectJoinInputs(node);
+            } else if (FOR_EACH_NODE_TYPE.equals(node.getType())) {
+                result = runLoop(node);
+            } else if (SUB_WORKFLOW_NODE_TYPE.equals(node.getType())) {
+                result = runSubWorkflow(node);
+            } else if (SWITCH_NODE_TYPE.equals(node.getType())) {
+                result = plan.getSwitchTable(node.getId()).route(context);
+            } else {
+                branchContext = context.newBranchContext();
+                result = nodeRunner.run(node, plan.getExecutor(node.getId()), branchContext);
+            }
+            Completion completion = new Completion(node, result, null, start, context.currentNanos(), false);
+            completion.branchContext = branchContext;
+            return completion;
+        } catch (Throwable e) {
+            return new Completion(node, null, e, start, context.currentNanos(), false);
+        }
+    }
+
+    /**
+     * Records a finished node and, with {@code continueAfter}, resolves its outgoing edges.
+     */
+    private void onCompleted(Completion completion, boolean continueAfter) {
+        WorkflowNode node = completion.node;
+        if (completion.branchContext != null) {
+            // Ranked by topological position, so branches writing the same variable end the same in every run
+            context.mergeBranch(completion.branchContext, plan.getTopologicalIndex(node.getId()));
+        }
+
+        if (completion.result instanceof WorkflowSuspension suspension) {
+            timers.put(node.getId(), suspension.getResumeAt());
+            context.log("Node " + node.getId() + " suspended until " + suspension.getResumeAt());
+            recordEvent(completion, NodeEventStatus.SUSPENDED);
+            return;
+        }
+        if (!TRIGGER_NODE_TYPE.equals(node.getType())) {
+            context.setVariable(node.getId() + "_result", completion.result);
+        }
+        if (!isControlNode(node) && !completion.restored) {
+            context.log("Node " + node.getId() + " completed in " + completion.elapsedMs() + "ms");
+            completionListener.onNodeCompleted(node, completion.result);
+        }
+        recordEvent(completion, completion.restored ? NodeEventStatus.RESTORED : NodeEventStatus.COMPLETED);
+        if (continueAfter) {
+            resolveOutgoing(node, completion.result);
+        }
+    }
+
+    /**
+     * Resolves the outgoing edges of a finished node. Skips are propagated with an explicit work list.
+     */
+    private void resolveOutgoing(WorkflowNode source, Object result) {
+        Deque<WorkflowNode> skippedNodes = new ArrayDeque<>();
+        resolveEdges(source, result, false, skippedNodes);
+        while (!skippedNodes.isEmpty()) {
+            resolveEdges(skippedNodes.pop(), null, true, skippedNodes);
+        }
+    }
+
+    private void resolveEdges(WorkflowNode source, Object result, boolean sourceSkipped,
+                              Deque<WorkflowNode> skippedNodes) {
+        List<WorkflowEdge> outgoingEdges = plan.getOutgoingEdges(source.getId());
+        if (outgoingEdges.isEmpty() && !sourceSkipped) {
+            context.log("No outgoing edges from node: " + source.getId() + " (end node)");
+        }
+
+        for (WorkflowEdge edge : outgoingEdges) {
+            WorkflowNode target = plan.getNode(edge.getTarget());
+            boolean taken = !sourceSkipped && isTaken(source, edge, result);
+            if (taken) {
+                logFollowedEdge(source, edge, target);
+            }
+            arrive(target, taken, skippedNodes);
+        }
+    }
+
+    private boolean isTaken(WorkflowNode source, WorkflowEdge edge, Object result) {
+        if (SWITCH_NODE_TYPE.equals(source.getType())) {
+            // result is the label of the branch the switch table picked, null if none
+            return result != null && result.equals(edge.getLabel());
+        }
+        if (!CONDITION_NODE_TYPE.equals(source.getType())) {
+            return true;
+        }
+        return ("true".equals(edge.getLabel()) && Boolean.TRUE.equals(result))
+                || ("false".equals(edge.getLabel()) && Boolean.FALSE.equals(result));
+    }
+
+    private void logFollowedEdge(WorkflowNode source, WorkflowEdge edge, WorkflowNode target) {
+        if (CONDITION_NODE_TYPE.equals(source.getType())) {
+            context.log("Following " + edge.getLabel().toUpperCase() + " branch to node: " + target.getId());
+        } else if (SWITCH_NODE_TYPE.equals(source.getType())) {
+            context.log("Following '" + edge.getLabel() + "' branch to node: " + target.getId());
+        } else {
+            context.log("Following edge to node: " + target.getId());
+        }
+    }
+
+    /**
+     * Registers one resolved incoming edge of a node and schedules or skips the node once it is decided.
+     */
+    private void arrive(WorkflowNode node, boolean taken, Deque<WorkflowNode> skippedNodes) {
+        String nodeId = node.getId();
+        if (scheduled.contains(nodeId)) {
+            if (taken) {
+                context.log("Join node " + nodeId + " already released, ignoring late branch");
+            }
+            return;
+        }
+
+        int unresolved = unresolvedEdges.getOrDefault(nodeId, plan.getInDegree(nodeId)) - 1;
+        unresolvedEdges.put(nodeId, unresolved);
+        int arrived = taken ? takenEdges.merge(nodeId, 1, Integer::sum) : takenEdges.getOrDefault(nodeId, 0);
+
+        if (MERGE_NODE_TYPE.equals(node.getType())) {
+            int incoming = plan.getInDegree(nodeId);
+            int required = joinRequirement(node, incoming);
+            if (arrived >= required || (unresolved == 0 && arrived > 0)) {
+                context.log("Join node " + nodeId + " released after " + arrived + " of " + incoming + " branches");
+                schedule(node);
+                return;
+            }
+            if (taken) {
+                context.log("Join node " + nodeId + " waiting for branches (" + arrived + "/" + required + ")");
+            }
+        } else if (unresolved == 0 && arrived > 0) {
+            schedule(node);
+            return;
+        }
+
+        if (unresolved == 0) {
+            scheduled.add(nodeId);
+            context.log("Skipping node " + nodeId + " (no active incoming path)");
+            long now = context.currentNanos();
+            context.recordNodeEvent(NodeEvent.builder()
+                    .nodeId(nodeId)
+                    .nodeType(node.getType())
+                    .status(NodeEventStatus.SKIPPED)
+                    .startNanos(now)
+                    .endNanos(now)
+                    .build());
+            skippedNodes.push(node);
+        }
+    }
+
+    private void schedule(WorkflowNode node) {
+        scheduled.add(node.getId());
+        ready.add(node);
+    }
+
+    /**
+     * Node data {@code waitFor} selects how many incoming branches release a merge node (defaults to all).
+     */
+    private int joinRequirement(WorkflowNode node, int incoming) {
+        Object waitFor = node.getData() != null ? node.getData().get("waitFor") : null;
+        int required = incoming;
+        if (waitFor instanceof Number number) {
+            required = number.intValue();
+        } else if (waitFor instanceof String value && value.matches("\\d+")) {
+            required = Integer.parseInt(value);
+        }
+        return Math.max(1, Math.min(required, Math.max(incoming, 1)));
+    }
+
+    private Object runLoop(WorkflowNode node) {
+        CompiledWorkflow body = plan.getLoopBody(node.getId());
+        Object items = ForEachLoop.resolveItems(node, plan.getIncomingEdges(node.getId()), context);
+        ForEachLoop loop = new ForEachLoop(node, body, context, loopExecutor, forEachMaxConcurrency, forEachMaxItems,
+                itemContext -> {
+                    // Branches of one item run on its worker thread, the loop itself provides the parallelism
+                    DagScheduler itemScheduler = nested(body, itemContext);
+                    itemScheduler.start();
+                    if (!itemScheduler.getTimers().isEmpty()) {
+                        throw new IllegalStateException("Delay nodes are not supported inside the body of forEach node "
+                                + node.getId());
+                    }
+                });
+        return loop.run(items);
+    }
+
+    /**
+     * Runs another workflow inline, in a context of its own whose trigger data is the mapped {@code input}.
+     * The result is the output of {@code resultNode}, or the outputs of the called workflow's end nodes by id.
+     */
+    private Object runSubWorkflow(WorkflowNode node) {
+        Map<String, Object> data = node.getData() != null ? node.getData() : Map.of();
+        UUID workflowId = subWorkflowId(node);
+        if (context.getCallDepth() >= subWorkflowMaxDepth) {
+            throw new IllegalStateException("subWorkflow node " + node.getId() + " exceeds the maximum nesting depth of "
+                    + subWorkflowMaxDepth);
+        }
+
+        CompiledWorkflow subPlan = subWorkflowResolver.resolve(workflowId);
+        // A sub-workflow cannot wait, so it fails before any of its nodes ran rather than half-way through
+        String suspending = findSuspendingNode(subPlan, context.getCallDepth() + 1);
+        if (suspending != null) {
+            throw new IllegalStateException("Delay nodes are not supported in workflow " + workflowId
+                    + " called by subWorkflow node " + node.getId() + " (" + suspending + ")");
+        }
+        ExecutionContext subContext = context.newSubWorkflowContext(node.getId(), subWorkflowInput(node, data.get("input")));
+        DagScheduler subScheduler = nested(subPlan, subContext);
+        long start = context.currentNanos();
+        subScheduler.start();
+        context.log("Sub-workflow " + workflowId + " of node " + node.getId() + " finished in "
+                + (context.currentNanos() - start) / 1_000_000 + "ms");
+
+        if (data.get("resultNode") instanceof String resultNode && !resultNode.isBlank()) {
+            return subContext.getVariable(resultNode + "_result");
+        }
+        Map<String, Object> outputs = new LinkedHashMap<>();
+        for (String nodeId : subPlan.getTopologicalOrder()) {
+            Object output = subContext.getVariable(nodeId + "_result");
+            if (subPlan.getOutgoingEdges(nodeId).isEmpty() && output != null) {
+                outputs.put(nodeId, output);
+            }
+        }
+        return outputs;
+    }
+
+    private static UUID subWorkflowId(WorkflowNode node) {
+        Object workflowId = node.getData() != null ? node.getData().get("workflowId") : null;
+        try {
+            return UUID.fromString(String.valueOf(workflowId).trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("subWorkflow node " + node.getId() + " needs a valid 'workflowId'");
+        }
+    }
+
+    /**
+     * Id of a node that may suspend the execution, searching loop bodies and the workflows called from
+     * {@code calledPlan} down to the maximum nesting depth; null if there is none.
+     */
+    private String findSuspendingNode(CompiledWorkflow calledPlan, int depth) {
+        for (WorkflowNode node : calledPlan.getNodesById().values()) {
+            NodeExecutor executor = calledPlan.getExecutor(node.getId());
+            String found = null;
+            if (executor != null && executor.maySuspend(node)) {
+                found = node.getId();
+            } else if (FOR_EACH_NODE_TYPE.equals(node.getType()) && calledPlan.getLoopBody(node.getId()) != null) {
+                found = findSuspendingNode(calledPlan.getLoopBody(node.getId()), depth);
+            } else if (SUB_WORKFLOW_NODE_TYPE.equals(node.getType()) && depth < subWorkflowMaxDepth) {
+                found = findSuspendingNode(subWorkflowResolver.resolve(subWorkflowId(node)), depth + 1);
+            }
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Without a mapping the called workflow gets the caller's trigger data. Mapped values starting with
+     * {@code $} or <code>{{</code> are paths into the calling context, other values are passed as they are.
+     */
+    private Map<String, Object> subWorkflowInput(WorkflowNode node, Object mapping) {
+        if (mapping == null) {
+            return new HashMap<>(context.getTriggerData());
+        }
+        if (!(mapping instanceof Map<?, ?> fields)) {
+            throw new IllegalArgumentException("subWorkflow node " + node.getId() + " needs 'input' to be an object");
+        }
+        Map<String, Object> input = new HashMap<>();
+        fields.forEach((name, value) -> {
+            if (value instanceof String path && (path.startsWith("$") || path.startsWith("{{"))) {
+                input.put(String.valueOf(name), context.resolvePath(path));
+            } else {
+                input.put(String.valueOf(name), value);
+            }
+        });
+        return input;
+    }
+
+    /**
+     * Scheduler for a loop body or sub-workflow run on the current thread. Parallel branches inside it run one
+     * after the other, so a thread of the branch pool never waits for work queued behind it in the same pool.
+     */
+    private DagScheduler nested(CompiledWorkflow nestedPlan, ExecutionContext nestedContext) {
+        DagScheduler scheduler = new DagScheduler(nestedPlan, nestedContext, Runnable::run, nodeRunner);
+        scheduler.loopExecutor = loopExecutor;
+        scheduler.setForEachLimits(forEachMaxConcurrency, forEachMaxItems);
+        scheduler.setSubWorkflows(subWorkflowResolver, subWorkflowMaxDepth);
+        return scheduler;
+    }
+
+    private Map<String, Object> collectJoinInputs(WorkflowNode node) {
+        Map<String, Object> inputs = new LinkedHashMap<>();
+        for (WorkflowEdge edge : plan.getIncomingEdges(node.getId())) {
+            Object value = context.getVariable(edge.getSource() + "_result");
+            if (value != null) {
+                inputs.put(edge.getSource(), value);
+            }
+        }
+        return inputs;
+    }
+
+    private boolean isControlNode(WorkflowNode node) {
+        return TRIGGER_NODE_TYPE.equals(node.getType()) || MERGE_NODE_TYPE.equals(node.getType());
+    }
+
+    private Completion takeCompletion() {
+        try {
+            return completions.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for running nodes", e);
+        }
+    }
+
+    private void recordEvent(Completion completion, NodeEventStatus status) {
+        if (TRIGGER_NODE_TYPE.equals(completion.node.getType())) {
+            return;
+        }
+        context.recordNodeEvent(NodeEvent.builder()
+                .nodeId(completion.node.getId())
+                .nodeType(completion.node.getType())
+                .status(status)
+                .startNanos(completion.startNanos)
+                .endNanos(completion.endNanos)
+                .outputSize(outputSize(completion.result))
+                .error(errorMessage(completion.error))
+                .build());
+    }
+
+    private static int outputSize(Object output) {
+        if (output == null || output instanceof WorkflowSuspension) {
+            return 0;
+        }
+        if (output instanceof CharSequence text) {
+            return text.length();
+        }
+        if (output instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (output instanceof Map<?, ?> map) {
+            return map.size();
+        }
+        return 1;
+    }
+
+    private static String errorMessage(Throwable error) {
+        if (error == null) {
+            return null;
+        }
+        // The engine wraps node failures, the cause carries the actual reason
+        Throwable reason = error.getCause() != null ? error.getCause() : error;
+        return reason.getMessage() != null ? reason.getMessage() : reason.getClass().getSimpleName();
+    }
+
+    private static final class Completion {
+        private final WorkflowNode node;
+        private final Object result;
+        private final Throwable error;
+        private final long startNanos;
+        private final long endNanos;
+        private final boolean restored;
+        // Context the node ran in, null for nodes run by the scheduler itself
+        private ExecutionContext branchContext;
+
+        private Completion(WorkflowNode node, Object result, Throwable error, long startNanos, long endNanos,
+                           boolean restored) {
+            this.node = node;
+            this.result = result;
+            this.error = error;
+            this.startNanos = startNanos;
+            this.endNanos = endNanos;
+            this.restored = restored;
+        }
+
+        private long elapsedMs() {
+            return (endNanos - startNanos) / 1_000_000;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package io.celox.taskflow.task.workflow;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.celox.taskflow.task.domain.ExecutionCheckpoint;
+import io.celox.taskflow.task.repository.ExecutionCheckpointRepository;
+import io.celox.taskflow.task.workflow.output.OutputBudget;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Persists node outputs while an execution progresses, so that a failed execution can be resumed
+ * from the failed node instead of repeating every node before it.
+ */
+@Component
+@Slf4j
+public class ExecutionCheckpointStore {
+
+    private static final String VALUE_KEY = "value";
+
+    private final ExecutionCheckpointRepository checkpointRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    public ExecutionCheckpointStore(
+            ExecutionCheckpointRepository checkpointRepository,
+            ObjectMapper objectMapper,
+            @Value("${app.workflow.checkpoints.enabled:true}") boolean enabled) {
+        this.checkpointRepository = checkpointRepository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Stores the output of a completed node. Outputs that cannot be serialized or were spilled to disk are not
+     * checkpointed; such a node simply runs again on resume.
+     */
+    public void save(UUID executionId, String nodeId, Object output) {
+        if (!enabled) {
+            return;
+        }
+        if (OutputBudget.containsSpilled(output)) {
+            log.debug("Output of node {} in execution {} was spilled to disk, skipping checkpoint", nodeId, executionId);
+            return;
+        }
+
+        Map<String, Object> wrapped = new HashMap<>();
+        try {
+            wrapped.put(VALUE_KEY, output != null ? objectMapper.convertValue(output, Object.class) : null);
+        } catch (IllegalArgumentException e) {
+            log.warn("Output of node {} in execution {} is not serializable, skipping checkpoint: {}",
+                    nodeId, executionId, e.getMessage());
+            return;
+        }
+
+        checkpointRepository.save(ExecutionCheckpoint.builder()
+                .executionId(executionId)
+                .nodeId(nodeId)
+                .output(wrapped)
+                .build());
+    }
+
+    /**
+     * @return stored outputs by node id; a node that completed without output maps to null
+     */
+    public Map<String, Object> load(UUID executionId) {
+        Map<String, Object> outputs = new HashMap<>();
+        for (ExecutionCheckpoint checkpoint : checkpointRepository.findByExecutionId(executionId)) {
+            outputs.put(checkpoint.getNodeId(), checkpoint.getOutput() != null ? checkpoint.getOutput().get(VALUE_KEY) : null);
+        }
+        return outputs;
+    }
+
+    public void delete(UUID executionId) {
+        if (enabled) {
+            checkpointRepository.deleteByExecutionId(executionId);
+        }
+    }
+}
@@ -1,40 +1,315 @@
 package io.celox.taskflow.task.workflow;
 
+import io.celox.taskflow.task.domain.NodeEvent;
+import io.celox.taskflow.task.workflow.output.OutputBudget;
+import io.celox.taskflow.task.workflow.trigger.TriggerChain;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Instant;
+import java.util.*;
 
+/**
+ * Variables, trigger data, log and node events of a single workflow execution.
+ * Safe for use by concurrently running branches.
+ * <p>
+ * Both the text log and the node events are bounded: the log stops growing at {@code maxLogChars},
+ * and only the latest {@code maxNodeEvents} events are kept.
+ * <p>
+ * A sub-workflow runs in a context of its own that reports its log and node events to the calling context,
+ * scoped by the id of the calling node.
+ * <p>
+ * Variables live in a {@link VariableScope}. Every node and loop run gets a child context that reads the
+ * variables of this one without copying them and keeps its own writes apart until the scheduler merges them.
+ */
 @Data
 public class ExecutionContext {
-    private Map<String, Object> variables;
+
+    public static final int DEFAULT_MAX_NODE_EVENTS = 1000;
+    public static final int DEFAULT_MAX_LOG_CHARS = 64 * 1024;
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final VariableScope variables;
+
     private Map<String, Object> triggerData;
-    private StringBuilder executionLog;
+
+    // Stamped onto the task events this run publishes, see WorkflowTriggerDispatcher
+    private TriggerChain triggerChain;
+
+    // Shared by every context of the execution, including branches, loop runs and sub-workflows
+    private OutputBudget outputBudget = OutputBudget.unlimited();
+
+    // Owner of the executed workflow, for per-owner limits such as concurrent scripts; null if not known
+    private UUID ownerId;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final StringBuilder executionLog = new StringBuilder();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Deque<NodeEvent> nodeEvents = new ArrayDeque<>();
+
+    @Setter(AccessLevel.NONE)
+    private int droppedNodeEvents;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean logTruncated;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final int maxNodeEvents;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final int maxLogChars;
+
+    // Offset between System.nanoTime() and the epoch, fixed per execution
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final long epochOffsetNanos;
+
+    // Sub-workflows nested around this context, 0 for the workflow being executed
+    @Setter(AccessLevel.NONE)
+    private int callDepth;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private ExecutionContext parent;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private String scope;
 
     public ExecutionContext() {
-        this.variables = new HashMap<>();
-        this.triggerData = new HashMap<>();
-        this.executionLog = new StringBuilder();
+        this(null, DEFAULT_MAX_NODE_EVENTS, DEFAULT_MAX_LOG_CHARS);
     }
 
     public ExecutionContext(Map<String, Object> triggerData) {
-        this();
+        this(triggerData, DEFAULT_MAX_NODE_EVENTS, DEFAULT_MAX_LOG_CHARS);
+    }
+
+    public ExecutionContext(Map<String, Object> triggerData, int maxNodeEvents, int maxLogChars) {
+        this(new VariableScope(), triggerData, maxNodeEvents, maxLogChars, epochOffsetNanos());
+    }
+
+    private ExecutionContext(VariableScope variables, Map<String, Object> triggerData, int maxNodeEvents, int maxLogChars,
+                             long epochOffsetNanos) {
+        this.variables = variables;
         this.triggerData = triggerData != null ? triggerData : new HashMap<>();
+        this.maxNodeEvents = Math.max(1, maxNodeEvents);
+        this.maxLogChars = Math.max(0, maxLogChars);
+        this.epochOffsetNanos = epochOffsetNanos;
     }
 
+    private static long epochOffsetNanos() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano() - System.nanoTime();
+    }
+
+    /**
+     * Sets a variable; a null value removes it.
+     */
     public void setVariable(String key, Object value) {
-        variables.put(key, value);
+        variables.set(key, value);
     }
 
     public Object getVariable(String key) {
         return variables.get(key);
     }
 
-    public void log(String message) {
+    /**
+     * @return read-only view of all variables visible in this context
+     */
+    public Map<String, Object> getVariables() {
+        return variables;
+    }
+
+    /**
+     * Context for one node run by the scheduler: its writes stay in a layer of its own until {@link #mergeBranch}
+     * applies them. Reads are not a snapshot; they see this context's variables as they are at the time of the
+     * read, including branches merged after this one started. Log and node events go straight to this context.
+     */
+    public ExecutionContext newBranchContext() {
+        ExecutionContext branchContext = new ExecutionContext(variables.child(), triggerData, 1, 0, epochOffsetNanos);
+        branchContext.triggerChain = triggerChain;
+        branchContext.parent = this;
+        branchContext.callDepth = callDepth;
+        branchContext.outputBudget = outputBudget;
+        branchContext.ownerId = ownerId;
+        return branchContext;
+    }
+
+    /**
+     * Applies the variables written by a finished branch. {@code rank} orders branches that wrote the same
+     * variable, the higher rank wins regardless of which branch finished first.
+     */
+    public void mergeBranch(ExecutionContext branchContext, int rank) {
+        variables.merge(branchContext.variables, rank);
+    }
+
+    /**
+     * Context for one run of a loop body: the current variables plus {@code loopVariables}, sharing the trigger
+     * data. The variables are layered, not copied, and writes of the run are not merged back. Its log and node
+     * events are not kept, the loop reports on the parent context.
+     */
+    public ExecutionContext newLoopContext(Map<String, Object> loopVariables) {
+        ExecutionContext loopContext = new ExecutionContext(variables.child(), triggerData, 1, 0, epochOffsetNanos);
+        loopContext.triggerChain = triggerChain;
+        loopContext.logTruncated = true;
+        loopContext.callDepth = callDepth;
+        loopContext.outputBudget = outputBudget;
+        loopContext.ownerId = ownerId;
+        loopVariables.forEach(loopContext::setVariable);
+        return loopContext;
+    }
+
+    /**
+     * Context for a sub-workflow called by node {@code nodeId}, with {@code input} as its trigger data.
+     */
+    public ExecutionContext newSubWorkflowContext(String nodeId, Map<String, Object> input) {
+        ExecutionContext subContext = new ExecutionContext(input, 1, 0);
+        subContext.triggerChain = triggerChain;
+        subContext.parent = this;
+        subContext.scope = nodeId;
+        subContext.callDepth = callDepth + 1;
+        subContext.outputBudget = outputBudget;
+        subContext.ownerId = ownerId;
+        return subContext;
+    }
+
+    /**
+     * Value at a path such as {@code db1_result.rows}, {@code $db1.rows}, {@code $trigger.ids}, {@code $vars.total}
+     * or {@code {{taskId}}}. The first segment is a variable, falling back to the trigger data; the others
+     * select map keys or list positions.
+     *
+     * @return the value, or null if any segment is missing
+     */
+    public Object resolvePath(String path) {
+        String expression = path.trim();
+        if (expression.startsWith("{{") && expression.endsWith("}}")) {
+            expression = expression.substring(2, expression.length() - 2).trim();
+        } else if (expression.startsWith("${") && expression.endsWith("}")) {
+            expression = expression.substring(2, expression.length() - 1).trim();
+        }
+        return resolvePath(expression.split("\\."));
+    }
+
+    /**
+     * Value at a path already split into its segments, see {@link #resolvePath(String)}.
+     */
+    public Object resolvePath(String[] segments) {
+        Object value;
+        if ("$trigger".equals(segments[0])) {
+            value = triggerData;
+        } else if ("$vars".equals(segments[0])) {
+            value = variables;
+        } else if (segments[0].startsWith("$")) {
+            String nodeId = segments[0].substring(1);
+            value = getVariable(nodeId.endsWith("_result") ? nodeId : nodeId + "_result");
+        } else {
+            value = getVariable(segments[0]);
+            if (value == null) {
+                value = triggerData.get(segments[0]);
+            }
+        }
+        for (int i = 1; i < segments.length && value != null; i++) {
+            if (value instanceof Map<?, ?> map) {
+                value = map.get(segments[i]);
+            } else if (value instanceof List<?> list && isIndex(segments[i])) {
+                int position = Integer.parseInt(segments[i]);
+                value = position < list.size() ? list.get(position) : null;
+            } else {
+                value = null;
+            }
+        }
+        return value;
+    }
+
+    public synchronized void log(String message) {
+        if (parent != null) {
+            parent.log(scope != null ? "[" + scope + "] " + message : message);
+            return;
+        }
+        if (logTruncated) {
+            return;
+        }
+        if (executionLog.length() + message.length() + 1 > maxLogChars) {
+            executionLog.append("[log truncated at ").append(maxLogChars).append(" characters]\n");
+            logTruncated = true;
+            return;
+        }
         executionLog.append(message).append("\n");
     }
 
-    public String getExecutionLog() {
+    public synchronized String getExecutionLog() {
         return executionLog.toString();
     }
+
+    /**
+     * Current time in nanoseconds since the epoch, with {@link System#nanoTime()} precision.
+     */
+    public long currentNanos() {
+        if (parent != null) {
+            return parent.currentNanos();
+        }
+        return epochOffsetNanos + System.nanoTime();
+    }
+
+    /**
+     * Records a node event; when the buffer is full the oldest event is dropped.
+     */
+    public synchronized void recordNodeEvent(NodeEvent event) {
+        if (parent != null) {
+            if (scope != null) {
+                event.setNodeId(scope + "/" + event.getNodeId());
+            }
+            parent.recordNodeEvent(event);
+            return;
+        }
+        if (event.getError() != null && event.getError().length() > MAX_ERROR_LENGTH) {
+            event.setError(event.getError().substring(0, MAX_ERROR_LENGTH));
+        }
+        if (nodeEvents.size() >= maxNodeEvents) {
+            nodeEvents.removeFirst();
+            droppedNodeEvents++;
+        }
+        nodeEvents.addLast(event);
+    }
+
+    public synchronized List<NodeEvent> getNodeEvents() {
+        return new ArrayList<>(nodeEvents);
+    }
+
+    /**
+     * Continues the log and node events of an earlier run of the same execution.
+     */
+    public synchronized void restoreHistory(String previousLog, List<NodeEvent> previousEvents) {
+        if (previousLog != null) {
+            executionLog.append(previousLog);
+            logTruncated = executionLog.length() >= maxLogChars;
+        }
+        if (previousEvents != null) {
+            previousEvents.forEach(this::recordNodeEvent);
+        }
+    }
+
+    private static boolean isIndex(String segment) {
+        if (segment.isEmpty() || segment.length() > 9) {
+            return false;
+        }
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
 }
@@ -0,0 +1,302 @@
+package io.celox.taskflow.task.workflow;
+
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Runs the loop body of a forEach node once per item of an array, with a bounded number of items at a time.
+ * <p>
+ * Node data:
+ * <ul>
+ *   <li>{@code items}: path of the array, e.g. {@code db1_result.rows} or {@code $trigger.ids}. Defaults to the
+ *   output of the single node before the forEach node, the {@code rows} of a database node</li>
+ *   <li>{@code concurrency}: items run at the same time, default 1</li>
+ *   <li>{@code chunkSize}: items handed to one body run as a list, default 1</li>
+ *   <li>{@code collect}: {@code ordered} (default), {@code unordered} or {@code none}</li>
+ *   <li>{@code resultNode}: body node whose output is collected, defaults to the last body node with an output</li>
+ *   <li>{@code continueOnError}: record failed items as {@code {index, error}} instead of failing the node</li>
+ * </ul>
+ * The body sees the item as variable {@code item} and its position as {@code index}.
+ * <p>
+ * Workers pull items one at a time instead of having them submitted up front, and the context of a body run is
+ * dropped once its result is taken, so memory grows with the collected results only. The calling thread works
+ * on items as well; helpers that have not started by the time the items ran out are skipped, so the loop never
+ * waits for a pool that is busy with the loop's own callers.
+ */
+final class ForEachLoop {
+
+    static final String ITEM_VARIABLE = "item";
+    static final String INDEX_VARIABLE = "index";
+
+    enum Collect { ORDERED, UNORDERED, NONE }
+
+    private final WorkflowNode node;
+    private final CompiledWorkflow body;
+    private final ExecutionContext context;
+    private final Executor executor;
+    private final Consumer<ExecutionContext> bodyRunner;
+    private final int concurrency;
+    private final int maxItems;
+    private final int chunkSize;
+    private final Collect collect;
+    private final String resultNode;
+    private final boolean continueOnError;
+
+    private final Object lock = new Object();
+    private final List<Object> results = new ArrayList<>();
+    private final Map<Integer, Object> pendingResults = new HashMap<>();
+    private Iterator<?> items;
+    private int nextIndex;
+    private boolean exhausted;
+    private int activeHelpers;
+    private int failed;
+    private RuntimeException failure;
+
+    ForEachLoop(WorkflowNode node, CompiledWorkflow body, ExecutionContext context, Executor executor,
+                int maxConcurrency, int maxItems, Consumer<ExecutionContext> bodyRunner) {
+        Map<String, Object> data = node.getData() != null ? node.getData() : Map.of();
+        this.node = node;
+        this.body = body;
+        this.context = context;
+        this.executor = executor;
+        this.bodyRunner = bodyRunner;
+        this.concurrency = Math.min(intSetting(data, "concurrency", 1), maxConcurrency);
+        this.maxItems = maxItems;
+        this.chunkSize = intSetting(data, "chunkSize", 1);
+        this.collect = collectSetting(data.get("collect"));
+        this.resultNode = data.get("resultNode") instanceof String id && !id.isBlank() ? id : null;
+        this.continueOnError = Boolean.TRUE.equals(data.get("continueOnError"))
+                || "true".equals(data.get("continueOnError"));
+    }
+
+    /**
+     * Runs the body for every item and returns {@code {results, count, failed}}; {@code results} is left out
+     * when nothing is collected.
+     */
+    Map<String, Object> run(Object itemsValue) {
+        List<?> list = toList(itemsValue);
+        if (list.size() > maxItems) {
+            throw new IllegalStateException("forEach node " + node.getId() + " got " + list.size()
+                    + " items, the limit is " + maxItems);
+        }
+        int runs = (list.size() + chunkSize - 1) / chunkSize;
+        int workers = Math.max(1, Math.min(concurrency, runs));
+        context.log("forEach node " + node.getId() + ": " + list.size() + " item(s) in " + runs
+                + " run(s), " + workers + " at a time");
+
+        items = list.iterator();
+        for (int i = 1; i < workers; i++) {
+            try {
+                executor.execute(this::help);
+            } catch (RejectedExecutionException e) {
+                break;
+            }
+        }
+        work();
+        awaitHelpers();
+
+        if (failure != null) {
+            throw failure;
+        }
+        Map<String, Object> output = new LinkedHashMap<>();
+        if (collect != Collect.NONE) {
+            output.put("results", results);
+        }
+        output.put("count", list.size());
+        output.put("failed", failed);
+        context.log("forEach node " + node.getId() + " finished " + runs + " run(s), " + failed + " failed");
+        return output;
+    }
+
+    private void help() {
+        synchronized (lock) {
+            if (exhausted) {
+                return;
+            }
+            activeHelpers++;
+        }
+        try {
+            work();
+        } finally {
+            synchronized (lock) {
+                activeHelpers--;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private void work() {
+        Object[] next;
+        while ((next = next()) != null) {
+            int index = (Integer) next[0];
+            Object result;
+            try {
+                result = runItem(next[1], index);
+            } catch (RuntimeException e) {
+                result = onFailure(index, e);
+                if (result == null) {
+                    return;
+                }
+            }
+            complete(index, result);
+        }
+    }
+
+    /**
+     * @return {@code [index, item]} of the next run, or null once the items ran out or a run failed
+     */
+    private Object[] next() {
+        synchronized (lock) {
+            if (exhausted || !items.hasNext()) {
+                exhausted = true;
+                return null;
+            }
+            Object item;
+            if (chunkSize == 1) {
+                item = items.next();
+            } else {
+                List<Object> chunk = new ArrayList<>(chunkSize);
+                while (chunk.size() < chunkSize && items.hasNext()) {
+                    chunk.add(items.next());
+                }
+                item = chunk;
+            }
+            return new Object[]{nextIndex++, item};
+        }
+    }
+
+    private Object runItem(Object item, int index) {
+        Map<String, Object> loopVariables = new HashMap<>();
+        loopVariables.put(ITEM_VARIABLE, item);
+        loopVariables.put(INDEX_VARIABLE, index);
+        ExecutionContext itemContext = context.newLoopContext(loopVariables);
+        bodyRunner.accept(itemContext);
+
+        if (resultNode != null) {
+            return itemContext.getVariable(resultNode + "_result");
+        }
+        List<String> order = body.getTopologicalOrder();
+        for (int i = order.size() - 1; i > 0; i--) {
+            Object output = itemContext.getVariable(order.get(i) + "_result");
+            if (output != null) {
+                return output;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the result recorded for a failed item, or null if the loop stops
+     */
+    private Object onFailure(int index, RuntimeException e) {
+        // Node failures are wrapped by the engine, the cause carries the actual reason
+        Throwable reason = e.getCause() != null ? e.getCause() : e;
+        String message = reason.getMessage() != null ? reason.getMessage() : reason.getClass().getSimpleName();
+        context.log("forEach node " + node.getId() + ": run " + index + " failed: " + message);
+
+        synchronized (lock) {
+            if (continueOnError) {
+                failed++;
+                Map<String, Object> error = new LinkedHashMap<>();
+                error.put("index", index);
+                error.put("error", message);
+                return error;
+            }
+            if (failure == null) {
+                failure = new IllegalStateException("forEach node " + node.getId() + " failed at run " + index
+                        + ": " + message, e);
+            }
+            exhausted = true;
+            return null;
+        }
+    }
+
+    private void complete(int index, Object result) {
+        synchronized (lock) {
+            switch (collect) {
+                case ORDERED -> {
+                    // Results that finish early wait here until all runs before them are in
+                    pendingResults.put(index, result);
+                    while (pendingResults.containsKey(results.size())) {
+                        results.add(pendingResults.remove(results.size()));
+                    }
+                }
+                case UNORDERED -> results.add(result);
+                case NONE -> { }
+            }
+        }
+    }
+
+    private void awaitHelpers() {
+        synchronized (lock) {
+            while (activeHelpers > 0) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for forEach node " + node.getId(), e);
+                }
+            }
+        }
+    }
+
+    private List<?> toList(Object value) {
+        if (value instanceof List<?> list) {
+            return list;
+        }
+        if (value instanceof Collection<?> collection) {
+            return new ArrayList<>(collection);
+        }
+        if (value instanceof Object[] array) {
+            return Arrays.asList(array);
+        }
+        throw new IllegalArgumentException("forEach node " + node.getId() + " needs an array of items, got "
+                + (value == null ? "nothing" : value.getClass().getSimpleName()));
+    }
+
+    /**
+     * Looks up the items of a forEach node, see the class comment.
+     */
+    static Object resolveItems(WorkflowNode node, List<WorkflowEdge> incomingEdges, ExecutionContext context) {
+        Object items = node.getData() != null ? node.getData().get("items") : null;
+        if (items instanceof String path && !path.isBlank()) {
+            return context.resolvePath(path);
+        }
+        if (items != null) {
+            return items;
+        }
+        if (incomingEdges.size() != 1) {
+            throw new IllegalArgumentException("forEach node " + node.getId() + " needs 'items' to know what to iterate");
+        }
+        Object previous = context.getVariable(incomingEdges.get(0).getSource() + "_result");
+        if (previous instanceof Map<?, ?> map && map.get("rows") instanceof Collection<?> rows) {
+            return rows;
+        }
+        return previous;
+    }
+
+    private static int intSetting(Map<String, Object> data, String key, int defaultValue) {
+        Object value = data.get(key);
+        if (value instanceof Number number) {
+            return Math.max(1, number.intValue());
+        }
+        if (value instanceof String text && text.trim().matches("\\d+")) {
+            return Math.max(1, Integer.parseInt(text.trim()));
+        }
+        return defaultValue;
+    }
+
+    private static Collect collectSetting(Object value) {
+        if (value == null || "".equals(value)) {
+            return Collect.ORDERED;
+        }
+        try {
+            return Collect.valueOf(String.valueOf(value).toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown forEach collect mode '" + value
+                    + "', expected ordered, unordered or none");
+        }
+    }
+}
@@ -14,4 +14,20 @@ public interface NodeExecutor {
      * @return Node type string (e.g., "createTask", "condition", "delay")
      */
     String getNodeType();
+
+    /**
+     * Whether running the node may suspend the execution by returning a {@link WorkflowSuspension}
+     */
+    default boolean maySuspend(WorkflowNode node) {
+        return false;
+    }
+
+    /**
+     * Executor to bind to the node in a compiled workflow, asked once per workflow version. An executor that can
+     * prepare part of its work from the node settings alone does it here, and rejects invalid settings with an
+     * IllegalStateException so the workflow fails to compile instead of failing when the node runs.
+     */
+    default NodeExecutor bind(WorkflowNode node) {
+        return this;
+    }
 }
@@ -0,0 +1,152 @@
+package io.celox.taskflow.task.workflow;
+
+import io.celox.taskflow.task.workflow.expression.ConditionExpression;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Routing of a switch node, built once per workflow version: the edge label of every case value in a hash map,
+ * plus the {@code default} branch taken when no case matches.
+ * <p>
+ * Node data:
+ * <ul>
+ *   <li>{@code value}: expression of the value to route on, e.g. {@code $trigger.priority}</li>
+ *   <li>{@code cases}: list of {@code {value, label}} or {@code {values: [...], label}}; the label defaults to the
+ *   value. Without cases, every edge label other than {@code default} is a case value of its own</li>
+ * </ul>
+ * Values match by their text, with numbers written without a trailing {@code .0}, so {@code 5} matches
+ * {@code "5"} and {@code 5.0}.
+ */
+public final class SwitchTable {
+
+    public static final String DEFAULT_LABEL = "default";
+
+    private final String nodeId;
+    private final ConditionExpression value;
+    private final Map<String, String> labelsByKey;
+    private final String defaultLabel;
+
+    private SwitchTable(String nodeId, ConditionExpression value, Map<String, String> labelsByKey, String defaultLabel) {
+        this.nodeId = nodeId;
+        this.value = value;
+        this.labelsByKey = labelsByKey;
+        this.defaultLabel = defaultLabel;
+    }
+
+    static SwitchTable compile(WorkflowNode node, List<WorkflowEdge> outgoingEdges) {
+        Map<String, Object> data = node.getData() != null ? node.getData() : Map.of();
+        if (!(data.get("value") instanceof String expression) || expression.isBlank()) {
+            throw new IllegalStateException("switch node " + node.getId() + " needs a 'value' to route on");
+        }
+        ConditionExpression value;
+        try {
+            value = ConditionExpression.compile(expression);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("switch node " + node.getId() + ": " + e.getMessage(), e);
+        }
+
+        Set<String> edgeLabels = new LinkedHashSet<>();
+        for (WorkflowEdge edge : outgoingEdges) {
+            if (edge.getLabel() == null || edge.getLabel().isBlank()) {
+                throw new IllegalStateException("Edge " + edge.getId() + " of switch node " + node.getId()
+                        + " needs a label naming its case");
+            }
+            edgeLabels.add(edge.getLabel());
+        }
+
+        Map<String, String> labelsByKey = new HashMap<>();
+        if (data.get("cases") instanceof List<?> cases && !cases.isEmpty()) {
+            for (Object entry : cases) {
+                addCase(node, labelsByKey, entry);
+            }
+        } else {
+            for (String label : edgeLabels) {
+                if (!DEFAULT_LABEL.equals(label)) {
+                    labelsByKey.put(label, label);
+                }
+            }
+        }
+
+        for (String label : edgeLabels) {
+            if (!DEFAULT_LABEL.equals(label) && !labelsByKey.containsValue(label)) {
+                throw new IllegalStateException("Edge label '" + label + "' of switch node " + node.getId()
+                        + " matches no case");
+            }
+        }
+        return new SwitchTable(node.getId(), value, Map.copyOf(labelsByKey),
+                edgeLabels.contains(DEFAULT_LABEL) ? DEFAULT_LABEL : null);
+    }
+
+    private static void addCase(WorkflowNode node, Map<String, String> labelsByKey, Object entry) {
+        if (!(entry instanceof Map<?, ?> switchCase)) {
+            throw new IllegalStateException("Cases of switch node " + node.getId() + " must be objects with a value");
+        }
+        Collection<?> values = switchCase.get("values") instanceof Collection<?> list ? list
+                : switchCase.containsKey("value") ? Collections.singletonList(switchCase.get("value"))
+                : List.of();
+        if (values.isEmpty()) {
+            throw new IllegalStateException("A case of switch node " + node.getId() + " has no value");
+        }
+        for (Object caseValue : values) {
+            String key = key(caseValue);
+            String label = switchCase.get("label") != null ? String.valueOf(switchCase.get("label")) : key;
+            if (key == null) {
+                throw new IllegalStateException("A case of switch node " + node.getId() + " has a null value");
+            }
+            String previous = labelsByKey.putIfAbsent(key, label);
+            if (previous != null && !previous.equals(label)) {
+                throw new IllegalStateException("Value '" + key + "' of switch node " + node.getId()
+                        + " belongs to both '" + previous + "' and '" + label + "'");
+            }
+        }
+    }
+
+    /**
+     * @return the label of the branch to take, or null if no case matches and there is no default branch
+     */
+    public String route(ExecutionContext context) {
+        Object routed = value.evaluateValue(context);
+        String label = routed != null ? labelsByKey.get(key(routed)) : null;
+        if (label != null) {
+            context.log("switch node " + nodeId + ": value '" + routed + "' takes branch '" + label + "'");
+            return label;
+        }
+        if (defaultLabel != null) {
+            context.log("switch node " + nodeId + ": value '" + routed + "' matches no case, taking the default branch");
+        } else {
+            context.log("switch node " + nodeId + ": value '" + routed + "' matches no case and there is no default branch");
+        }
+        return defaultLabel;
+    }
+
+    public int getCaseCount() {
+        return labelsByKey.size();
+    }
+
+    static String key(Object value) {
+        if (value == null || value instanceof String) {
+            return (String) value;
+        }
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return value.toString();
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.signum() == 0 ? "0" : decimal.stripTrailingZeros().toPlainString();
+        }
+        if (value instanceof Number number) {
+            double d = number.doubleValue();
+            if (d == Math.rint(d) && Math.abs(d) < 1e15) {
+                return Long.toString((long) d);
+            }
+            return Double.toString(d);
+        }
+        return String.valueOf(value);
+    }
+}
@@ -0,0 +1,100 @@
+package io.celox.taskflow.task.workflow;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Text with <code>{{...}}</code> placeholders, parsed once into literal parts and placeholders.
+ * <p>
+ * A placeholder is a variable or trigger field, e.g. <code>{{taskId}}</code>, or a path into one, e.g.
+ * <code>{{node1_result.body.id}}</code> or <code>{{$trigger.ids.0}}</code>; see
+ * {@link ExecutionContext#resolvePath(String)}. Variables win over trigger fields of the same name. Placeholders
+ * without a value are left as they are, and values are inserted as they are, never expanded again.
+ */
+public final class Template {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String source;
+    // literals[i] comes before placeholders[i]; the last literal follows the last placeholder
+    private final String[] literals;
+    private final Placeholder[] placeholders;
+
+    private record Placeholder(String text, String expression, String[] path) {
+    }
+
+    private Template(String source, String[] literals, Placeholder[] placeholders) {
+        this.source = source;
+        this.literals = literals;
+        this.placeholders = placeholders;
+    }
+
+    public static Template parse(String source) {
+        List<String> literals = new ArrayList<>();
+        List<Placeholder> placeholders = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int position = 0;
+        while (position < source.length()) {
+            int open = source.indexOf(OPEN, position);
+            int close = open < 0 ? -1 : source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                break;
+            }
+            String expression = source.substring(open + OPEN.length(), close).trim();
+            literal.append(source, position, open);
+            if (expression.isEmpty()) {
+                literal.append(source, open, close + CLOSE.length());
+            } else {
+                literals.add(literal.toString());
+                literal.setLength(0);
+                placeholders.add(new Placeholder(source.substring(open, close + CLOSE.length()), expression,
+                        expression.split("\\.")));
+            }
+            position = close + CLOSE.length();
+        }
+        literal.append(source, position, source.length());
+        literals.add(literal.toString());
+        return new Template(source, literals.toArray(String[]::new), placeholders.toArray(Placeholder[]::new));
+    }
+
+    public boolean hasPlaceholders() {
+        return placeholders.length > 0;
+    }
+
+    public String render(ExecutionContext context) {
+        if (placeholders.length == 0) {
+            return source;
+        }
+        StringBuilder result = new StringBuilder(source.length() + 16 * placeholders.length);
+        for (int i = 0; i < placeholders.length; i++) {
+            result.append(literals[i]);
+            Placeholder placeholder = placeholders[i];
+            Object value = resolve(placeholder, context);
+            if (value != null) {
+                result.append(value);
+            } else {
+                result.append(placeholder.text());
+            }
+        }
+        return result.append(literals[placeholders.length]).toString();
+    }
+
+    private static Object resolve(Placeholder placeholder, ExecutionContext context) {
+        // Whole names first, trigger fields may contain dots themselves
+        Object value = context.getVariable(placeholder.expression());
+        if (value == null) {
+            value = context.getTriggerData().get(placeholder.expression());
+        }
+        String[] path = placeholder.path();
+        if (value == null && (path.length > 1 || path.length == 1 && path[0].startsWith("$"))) {
+            value = context.resolvePath(path);
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
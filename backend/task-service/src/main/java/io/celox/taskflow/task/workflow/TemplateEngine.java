@@ -0,0 +1,40 @@
+package io.celox.taskflow.task.workflow;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Renders the <code>{{...}}</code> placeholders in node settings, see {@link Template}.
+ * <p>
+ * Parsed templates are cached by their text, so a node's settings are parsed once and not on every execution.
+ */
+@Component
+public class TemplateEngine {
+
+    private final Cache<String, Template> templates;
+
+    public TemplateEngine(@Value("${app.workflow.templates.cache-size:4096}") int maxSize) {
+        this.templates = Caffeine.newBuilder().maximumSize(maxSize).build();
+    }
+
+    /**
+     * @return the text with its placeholders replaced, or null for a null template
+     */
+    public String render(String template, ExecutionContext context) {
+        if (template == null || !template.contains("{{")) {
+            return template;
+        }
+        return compile(template).render(context);
+    }
+
+    public Template compile(String template) {
+        return templates.get(template, Template::parse);
+    }
+
+    public long size() {
+        templates.cleanUp();
+        return templates.estimatedSize();
+    }
+}
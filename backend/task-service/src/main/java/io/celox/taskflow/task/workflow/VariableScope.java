@@ -0,0 +1,106 @@
+package io.celox.taskflow.task.workflow;
+
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Variables of an execution as a stack of layers. A branch or loop run gets a child layer: it reads through to
+ * the layers below without copying them and writes only into its own. When a branch finishes, the scheduler
+ * merges its layer into the one below. Reads through a child are live, not a snapshot: a branch never sees the
+ * writes of a branch that is still running, but does see those of one merged while it runs.
+ * <p>
+ * Reads are thread-safe. A layer receives merges from one thread only, the scheduler that owns it.
+ * As a {@link Map} the scope is a read-only view of all visible variables.
+ */
+final class VariableScope extends AbstractMap<String, Object> {
+
+    // Marks a variable removed in a child layer while it is still set below
+    private static final Object REMOVED = new Object();
+
+    private final VariableScope parent;
+    private final Map<String, Object> values = new ConcurrentHashMap<>();
+    // Rank of the branch that last wrote a merged variable, so the winner does not depend on which branch finished first
+    private final Map<String, Integer> mergedRanks = new HashMap<>();
+
+    VariableScope() {
+        this(null);
+    }
+
+    private VariableScope(VariableScope parent) {
+        this.parent = parent;
+    }
+
+    VariableScope child() {
+        return new VariableScope(this);
+    }
+
+    @Override
+    public Object get(Object key) {
+        for (VariableScope scope = this; scope != null; scope = scope.parent) {
+            Object value = scope.values.get(key);
+            if (value != null) {
+                return value == REMOVED ? null : value;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Sets a variable in this layer; a null value removes it.
+     */
+    void set(String key, Object value) {
+        if (value != null) {
+            values.put(key, value);
+        } else if (parent == null) {
+            values.remove(key);
+        } else {
+            values.put(key, REMOVED);
+        }
+    }
+
+    /**
+     * Applies the writes of a finished child layer. Where branches of different rank wrote the same variable,
+     * the higher rank wins, whichever branch was merged last.
+     */
+    void merge(VariableScope child, int rank) {
+        child.values.forEach((key, value) -> {
+            Integer mergedRank = mergedRanks.get(key);
+            if (mergedRank != null && mergedRank > rank) {
+                return;
+            }
+            mergedRanks.put(key, rank);
+            set(key, value == REMOVED ? null : value);
+        });
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        Deque<VariableScope> layers = new ArrayDeque<>();
+        for (VariableScope scope = this; scope != null; scope = scope.parent) {
+            layers.push(scope);
+        }
+        Map<String, Object> visible = new LinkedHashMap<>();
+        for (VariableScope layer : layers) {
+            layer.values.forEach((key, value) -> {
+                if (value == REMOVED) {
+                    visible.remove(key);
+                } else {
+                    visible.put(key, value);
+                }
+            });
+        }
+        return Collections.unmodifiableMap(visible).entrySet();
+    }
+}
@@ -0,0 +1,239 @@
+package io.celox.taskflow.task.workflow;
+
+import io.celox.taskflow.task.domain.ExecutionStatus;
+import io.celox.taskflow.task.exception.AdmissionRejectedException;
+import io.celox.taskflow.task.repository.WorkflowExecutionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Decides whether a workflow run may start, so a single owner cannot starve everyone else.
+ * <p>
+ * Synchronous runs hold one of {@code max-concurrent} slots of this instance while they execute. An owner may
+ * have at most {@code max-concurrent-per-owner} runs running or waiting; beyond that it gets 429. When all slots
+ * are busy a run waits up to {@code max-wait-ms} in a queue of {@code max-waiting} entries, otherwise 503. Freed
+ * slots are handed out round-robin across owners, not in arrival order.
+ * <p>
+ * Queued runs are limited by the number of QUEUED executions per owner and in total. The worker applies the
+ * per-owner concurrency limit when claiming, see {@link WorkflowExecutionQueue}.
+ */
+@Component
+@Slf4j
+public class WorkflowAdmissionController {
+
+    private final WorkflowExecutionRepository executionRepository;
+    private final WorkflowMetrics metrics;
+    private final int maxConcurrent;
+    private final int maxConcurrentPerOwner;
+    private final int maxWaiting;
+    private final long maxWaitMs;
+    private final long maxQueuedPerOwner;
+    private final long maxQueued;
+    private final long retryAfterSeconds;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<UUID, Integer> admittedByOwner = new HashMap<>();
+    // Insertion order is the round-robin order; an owner moves to the end after being served
+    private final LinkedHashMap<UUID, Deque<Waiter>> waitersByOwner = new LinkedHashMap<>();
+    private int running;
+    private int waiting;
+
+    public WorkflowAdmissionController(
+            WorkflowExecutionRepository executionRepository,
+            WorkflowMetrics metrics,
+            @Value("${app.workflow.admission.max-concurrent:16}") int maxConcurrent,
+            @Value("${app.workflow.admission.max-concurrent-per-owner:4}") int maxConcurrentPerOwner,
+            @Value("${app.workflow.admission.max-waiting:64}") int maxWaiting,
+            @Value("${app.workflow.admission.max-wait-ms:10000}") long maxWaitMs,
+            @Value("${app.workflow.admission.max-queued-per-owner:200}") long maxQueuedPerOwner,
+            @Value("${app.workflow.admission.max-queued:10000}") long maxQueued,
+            @Value("${app.workflow.admission.retry-after-seconds:5}") long retryAfterSeconds) {
+        this.executionRepository = executionRepository;
+        this.metrics = metrics;
+        this.maxConcurrent = maxConcurrent;
+        this.maxConcurrentPerOwner = maxConcurrentPerOwner;
+        this.maxWaiting = maxWaiting;
+        this.maxWaitMs = maxWaitMs;
+        this.maxQueuedPerOwner = maxQueuedPerOwner;
+        this.maxQueued = maxQueued;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Runs a synchronous execution once a slot is free.
+     *
+     * @throws AdmissionRejectedException if the owner is at its limit or no slot frees up in time
+     */
+    public <T> T runAdmitted(UUID ownerId, Supplier<T> run) {
+        acquire(ownerId);
+        try {
+            return run.get();
+        } finally {
+            release(ownerId);
+        }
+    }
+
+    /**
+     * Checks that another execution may be put into the durable queue for the owner.
+     *
+     * @throws AdmissionRejectedException if the owner or the whole queue has too many pending executions
+     */
+    public void admitQueued(UUID ownerId) {
+        admitQueued(ownerId, 1);
+    }
+
+    /**
+     * Checks that {@code count} executions may be queued at once, as for a batch. The owner only needs to be
+     * below its own limit, so a batch may take it over the limit; the whole queue must have room for all of them.
+     */
+    public void admitQueued(UUID ownerId, int count) {
+        if (executionRepository.countByOwnerIdAndStatus(ownerId, ExecutionStatus.QUEUED) >= maxQueuedPerOwner) {
+            throw reject(HttpStatus.TOO_MANY_REQUESTS, "owner",
+                    "Too many queued executions for this owner (limit " + maxQueuedPerOwner + ")");
+        }
+        if (executionRepository.countByStatus(ExecutionStatus.QUEUED) + count > maxQueued) {
+            throw reject(HttpStatus.SERVICE_UNAVAILABLE, "queue_full", "Execution queue is full, try again later");
+        }
+    }
+
+    int getRunning() {
+        lock.lock();
+        try {
+            return running;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getWaiting(UUID ownerId) {
+        lock.lock();
+        try {
+            Deque<Waiter> waiters = waitersByOwner.get(ownerId);
+            return waiters != null ? waiters.size() : 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void acquire(UUID ownerId) {
+        Waiter waiter = null;
+        lock.lock();
+        try {
+            int admitted = admittedByOwner.getOrDefault(ownerId, 0);
+            if (admitted >= maxConcurrentPerOwner) {
+                throw reject(HttpStatus.TOO_MANY_REQUESTS, "owner",
+                        "Too many concurrent executions for this owner (limit " + maxConcurrentPerOwner + ")");
+            }
+            if (running < maxConcurrent && waiting == 0) {
+                grant(ownerId);
+                return;
+            }
+            if (waiting >= maxWaiting) {
+                throw reject(HttpStatus.SERVICE_UNAVAILABLE, "saturated", "Workflow engine is saturated, try again later");
+            }
+
+            // Counted against the owner while waiting, so one owner cannot fill the queue
+            admittedByOwner.merge(ownerId, 1, Integer::sum);
+            waiter = new Waiter(lock.newCondition());
+            waitersByOwner.computeIfAbsent(ownerId, id -> new ArrayDeque<>()).addLast(waiter);
+            waiting++;
+
+            long remainingNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+            while (!waiter.granted && remainingNanos > 0) {
+                remainingNanos = waiter.condition.awaitNanos(remainingNanos);
+            }
+            if (!waiter.granted) {
+                removeWaiter(ownerId, waiter);
+                throw reject(HttpStatus.SERVICE_UNAVAILABLE, "timeout",
+                        "Workflow engine is saturated, no execution slot freed up within " + maxWaitMs + "ms");
+            }
+        } catch (InterruptedException e) {
+            if (waiter.granted) {
+                running--;
+                decrementOwner(ownerId);
+                handOver();
+            } else {
+                removeWaiter(ownerId, waiter);
+            }
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an execution slot", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(UUID ownerId) {
+        lock.lock();
+        try {
+            running--;
+            decrementOwner(ownerId);
+            handOver();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void grant(UUID ownerId) {
+        running++;
+        admittedByOwner.merge(ownerId, 1, Integer::sum);
+    }
+
+    /**
+     * Gives free slots to waiting runs, one owner at a time.
+     */
+    private void handOver() {
+        while (running < maxConcurrent && waiting > 0) {
+            Iterator<Map.Entry<UUID, Deque<Waiter>>> owners = waitersByOwner.entrySet().iterator();
+            Map.Entry<UUID, Deque<Waiter>> next = owners.next();
+            owners.remove();
+
+            Waiter waiter = next.getValue().pollFirst();
+            if (!next.getValue().isEmpty()) {
+                waitersByOwner.put(next.getKey(), next.getValue());
+            }
+            waiting--;
+            // The waiter is already counted against its owner
+            running++;
+            waiter.granted = true;
+            waiter.condition.signal();
+        }
+    }
+
+    private void removeWaiter(UUID ownerId, Waiter waiter) {
+        Deque<Waiter> waiters = waitersByOwner.get(ownerId);
+        if (waiters != null && waiters.remove(waiter)) {
+            waiting--;
+            decrementOwner(ownerId);
+            if (waiters.isEmpty()) {
+                waitersByOwner.remove(ownerId);
+            }
+        }
+    }
+
+    private void decrementOwner(UUID ownerId) {
+        admittedByOwner.computeIfPresent(ownerId, (id, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private AdmissionRejectedException reject(HttpStatus status, String reason, String message) {
+        log.debug("Rejected workflow run ({}): {}", reason, message);
+        metrics.admissionRejected(reason);
+        return new AdmissionRejectedException(status, message, retryAfterSeconds);
+    }
+
+    private static final class Waiter {
+        private final Condition condition;
+        private boolean granted;
+
+        private Waiter(Condition condition) {
+            this.condition = condition;
+        }
+    }
+}
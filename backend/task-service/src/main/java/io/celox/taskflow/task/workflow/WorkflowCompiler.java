@@ -0,0 +1,273 @@
+package io.celox.taskflow.task.workflow;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.celox.taskflow.task.domain.Workflow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Turns the JSON graph stored on a {@link Workflow} into a {@link CompiledWorkflow}:
+ * node-id index, adjacency lists, executor per node, resolved start node and the
+ * topological order of the nodes reachable from it. Cyclic workflows are rejected.
+ * The loop body of every forEach node is compiled into a nested plan, and the cases of every switch node
+ * into a {@link SwitchTable}. Every executor is bound to its node, see {@link NodeExecutor#bind}.
+ */
+@Component
+@Slf4j
+public class WorkflowCompiler {
+
+    private final Map<String, NodeExecutor> executorsByType;
+    private final ObjectMapper objectMapper;
+
+    public WorkflowCompiler(List<NodeExecutor> nodeExecutors, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.executorsByType = new HashMap<>();
+        for (NodeExecutor executor : nodeExecutors) {
+            executorsByType.putIfAbsent(executor.getNodeType(), executor);
+        }
+    }
+
+    public CompiledWorkflow compile(Workflow workflow) {
+        List<WorkflowNode> nodes = parseNodes(workflow.getNodesJson());
+        List<WorkflowEdge> edges = parseEdges(workflow.getEdgesJson());
+
+        if (nodes.isEmpty()) {
+            throw new IllegalStateException("Workflow has no nodes");
+        }
+
+        Map<String, WorkflowNode> nodesById = new LinkedHashMap<>();
+        Map<String, NodeExecutor> executors = new HashMap<>();
+        for (WorkflowNode node : nodes) {
+            if (nodesById.putIfAbsent(node.getId(), node) != null) {
+                log.warn("Duplicate node id {} in workflow {}, keeping first occurrence", node.getId(), workflow.getId());
+                continue;
+            }
+            NodeExecutor executor = executorsByType.get(node.getType());
+            if (executor != null) {
+                executors.put(node.getId(), executor.bind(node));
+            }
+        }
+
+        Map<String, List<WorkflowEdge>> outgoingEdges = new HashMap<>();
+        Map<String, List<WorkflowEdge>> incomingEdges = new HashMap<>();
+        Map<String, List<WorkflowEdge>> loopEntries = new HashMap<>();
+        for (WorkflowEdge edge : edges) {
+            if (!nodesById.containsKey(edge.getSource()) || !nodesById.containsKey(edge.getTarget())) {
+                log.warn("Ignoring edge {} of workflow {} with unknown source or target", edge.getId(), workflow.getId());
+                continue;
+            }
+            // Edges into a loop body are followed per item by the forEach node, not by the graph around it
+            if (isLoopEntry(nodesById.get(edge.getSource()), edge)) {
+                loopEntries.computeIfAbsent(edge.getSource(), k -> new ArrayList<>()).add(edge);
+                continue;
+            }
+            outgoingEdges.computeIfAbsent(edge.getSource(), k -> new ArrayList<>()).add(edge);
+            incomingEdges.computeIfAbsent(edge.getTarget(), k -> new ArrayList<>()).add(edge);
+        }
+        outgoingEdges.replaceAll((node, list) -> List.copyOf(list));
+        incomingEdges.replaceAll((node, list) -> List.copyOf(list));
+
+        // Find start node (trigger node), fallback to first node
+        WorkflowNode startNode = nodes.stream()
+                .filter(n -> "trigger".equals(n.getType()))
+                .findFirst()
+                .orElse(nodes.get(0));
+
+        Graph graph = new Graph(workflow, nodesById, outgoingEdges, incomingEdges, loopEntries, executors);
+        return compileGraph(graph, startNode, nodesById, outgoingEdges, incomingEdges, new ArrayDeque<>());
+    }
+
+    private CompiledWorkflow compileGraph(Graph graph, WorkflowNode startNode, Map<String, WorkflowNode> nodesById,
+                                          Map<String, List<WorkflowEdge>> outgoingEdges,
+                                          Map<String, List<WorkflowEdge>> incomingEdges,
+                                          Deque<String> enclosingLoops) {
+        Set<String> reachable = findReachable(startNode.getId(), outgoingEdges);
+        Map<String, Integer> inDegrees = new HashMap<>();
+        for (String nodeId : reachable) {
+            int inDegree = 0;
+            for (WorkflowEdge edge : incomingEdges.getOrDefault(nodeId, List.of())) {
+                if (reachable.contains(edge.getSource())) {
+                    inDegree++;
+                }
+            }
+            inDegrees.put(nodeId, inDegree);
+        }
+        List<String> order = topologicalOrder(nodesById, reachable, inDegrees, outgoingEdges);
+
+        Map<String, CompiledWorkflow> loopBodies = new HashMap<>();
+        Map<String, SwitchTable> switchTables = new HashMap<>();
+        for (String nodeId : order) {
+            WorkflowNode node = nodesById.get(nodeId);
+            if (DagScheduler.FOR_EACH_NODE_TYPE.equals(node.getType())) {
+                loopBodies.put(nodeId, compileLoopBody(graph, node, reachable, enclosingLoops));
+            } else if (DagScheduler.SWITCH_NODE_TYPE.equals(node.getType())) {
+                switchTables.put(nodeId, SwitchTable.compile(node, outgoingEdges.getOrDefault(nodeId, List.of())));
+            }
+        }
+
+        return new CompiledWorkflow(
+                graph.workflow.getId(),
+                graph.workflow.getUpdatedAt(),
+                startNode,
+                nodesById,
+                outgoingEdges,
+                incomingEdges,
+                graph.executors,
+                order,
+                inDegrees,
+                loopBodies,
+                switchTables
+        );
+    }
+
+    /**
+     * The body of a forEach node is everything reachable over its {@code each} edges. It is compiled as a
+     * graph of its own whose start is a trigger node standing in for the forEach node, and must not be
+     * reachable from the graph around it.
+     */
+    private CompiledWorkflow compileLoopBody(Graph graph, WorkflowNode loopNode, Set<String> outerReachable,
+                                             Deque<String> enclosingLoops) {
+        String loopId = loopNode.getId();
+        List<WorkflowEdge> entries = graph.loopEntries.getOrDefault(loopId, List.of());
+        if (entries.isEmpty()) {
+            throw new IllegalStateException("forEach node " + loopId + " has no loop body, connect it with an edge labelled '"
+                    + DagScheduler.EACH_EDGE_LABEL + "'");
+        }
+        if (enclosingLoops.contains(loopId)) {
+            throw new IllegalStateException("forEach node " + loopId + " is part of its own loop body");
+        }
+
+        Map<String, List<WorkflowEdge>> outgoingEdges = new HashMap<>(graph.outgoingEdges);
+        outgoingEdges.put(loopId, List.copyOf(entries));
+        Map<String, List<WorkflowEdge>> incomingEdges = new HashMap<>(graph.incomingEdges);
+        for (WorkflowEdge entry : entries) {
+            List<WorkflowEdge> incoming = new ArrayList<>(incomingEdges.getOrDefault(entry.getTarget(), List.of()));
+            incoming.add(entry);
+            incomingEdges.put(entry.getTarget(), List.copyOf(incoming));
+        }
+
+        Set<String> body = findReachable(loopId, outgoingEdges);
+        WorkflowNode bodyStart = WorkflowNode.builder()
+                .id(loopId)
+                .type(DagScheduler.TRIGGER_NODE_TYPE)
+                .data(Map.of())
+                .build();
+        Map<String, WorkflowNode> bodyNodes = new LinkedHashMap<>();
+        bodyNodes.put(loopId, bodyStart);
+        for (WorkflowNode node : graph.nodesById.values()) {
+            if (body.contains(node.getId()) && !node.getId().equals(loopId)) {
+                if (outerReachable.contains(node.getId())) {
+                    throw new IllegalStateException("Node " + node.getId() + " is inside the loop body of forEach node "
+                            + loopId + " and cannot be reached from outside of it");
+                }
+                bodyNodes.put(node.getId(), node);
+            }
+        }
+
+        enclosingLoops.push(loopId);
+        try {
+            return compileGraph(graph, bodyStart, bodyNodes, outgoingEdges, incomingEdges, enclosingLoops);
+        } finally {
+            enclosingLoops.pop();
+        }
+    }
+
+    private static boolean isLoopEntry(WorkflowNode source, WorkflowEdge edge) {
+        return DagScheduler.FOR_EACH_NODE_TYPE.equals(source.getType())
+                && DagScheduler.EACH_EDGE_LABEL.equals(edge.getLabel());
+    }
+
+    private Set<String> findReachable(String startNodeId, Map<String, List<WorkflowEdge>> outgoingEdges) {
+        Set<String> reachable = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>();
+        pending.push(startNodeId);
+        while (!pending.isEmpty()) {
+            String nodeId = pending.pop();
+            if (reachable.add(nodeId)) {
+                for (WorkflowEdge edge : outgoingEdges.getOrDefault(nodeId, List.of())) {
+                    pending.push(edge.getTarget());
+                }
+            }
+        }
+        return reachable;
+    }
+
+    /**
+     * Kahn's algorithm over the reachable nodes. Ties are broken by the position of the node in the
+     * workflow definition, so the order is stable across compilations.
+     */
+    private List<String> topologicalOrder(Map<String, WorkflowNode> nodesById, Set<String> reachable,
+                                          Map<String, Integer> inDegrees,
+                                          Map<String, List<WorkflowEdge>> outgoingEdges) {
+        Map<String, Integer> position = new HashMap<>();
+        for (String nodeId : nodesById.keySet()) {
+            position.put(nodeId, position.size());
+        }
+
+        Map<String, Integer> remaining = new HashMap<>(inDegrees);
+        PriorityQueue<String> ready = new PriorityQueue<>(Comparator.comparing(position::get));
+        remaining.forEach((nodeId, inDegree) -> {
+            if (inDegree == 0) {
+                ready.add(nodeId);
+            }
+        });
+
+        List<String> order = new ArrayList<>(reachable.size());
+        while (!ready.isEmpty()) {
+            String nodeId = ready.poll();
+            order.add(nodeId);
+            for (WorkflowEdge edge : outgoingEdges.getOrDefault(nodeId, List.of())) {
+                if (remaining.merge(edge.getTarget(), -1, Integer::sum) == 0) {
+                    ready.add(edge.getTarget());
+                }
+            }
+        }
+
+        if (order.size() < reachable.size()) {
+            Set<String> ordered = new HashSet<>(order);
+            List<String> cyclic = nodesById.keySet().stream()
+                    .filter(reachable::contains)
+                    .filter(nodeId -> !ordered.contains(nodeId))
+                    .toList();
+            throw new IllegalStateException("Workflow contains a cycle through nodes " + cyclic);
+        }
+        return order;
+    }
+
+    private List<WorkflowNode> parseNodes(String nodesJson) {
+        if (nodesJson == null || nodesJson.isBlank()) {
+            return new ArrayList<>();
+        }
+
+        try {
+            return objectMapper.readValue(nodesJson, new TypeReference<List<WorkflowNode>>() {});
+        } catch (Exception e) {
+            log.error("Failed to parse workflow nodes", e);
+            return new ArrayList<>();
+        }
+    }
+
+    private List<WorkflowEdge> parseEdges(String edgesJson) {
+        if (edgesJson == null || edgesJson.isBlank()) {
+            return new ArrayList<>();
+        }
+
+        try {
+            return objectMapper.readValue(edgesJson, new TypeReference<List<WorkflowEdge>>() {});
+        } catch (Exception e) {
+            log.error("Failed to parse workflow edges", e);
+            return new ArrayList<>();
+        }
+    }
+
+    private record Graph(Workflow workflow,
+                         Map<String, WorkflowNode> nodesById,
+                         Map<String, List<WorkflowEdge>> outgoingEdges,
+                         Map<String, List<WorkflowEdge>> incomingEdges,
+                         Map<String, List<WorkflowEdge>> loopEntries,
+                         Map<String, NodeExecutor> executors) {
+    }
+}
@@ -7,203 +7,440 @@ import io.celox.taskflow.task.domain.Workflow;
 import io.celox.taskflow.task.domain.WorkflowExecution;
 import io.celox.taskflow.task.repository.WorkflowExecutionRepository;
 import io.celox.taskflow.task.repository.WorkflowRepository;
+import io.celox.taskflow.task.workflow.output.OutputBudget;
+import io.celox.taskflow.task.workflow.output.OutputStorage;
+import io.celox.taskflow.task.workflow.trigger.TriggerChain;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class WorkflowExecutionEngine {
 
+    // Timers due within this window are resumed right away instead of being parked again
+    private static final long RESUME_TOLERANCE_MS = 1000;
+    private static final TypeReference<Map<String, Object>> STATE_TYPE = new TypeReference<>() {};
+    private static final String RESTART_FROM_CHECKPOINTS = "restartFromCheckpoints";
+
     private final WorkflowRepository workflowRepository;
     private final WorkflowExecutionRepository executionRepository;
-    private final List<NodeExecutor> nodeExecutors;
+    private final WorkflowExecutionQueue executionQueue;
+    private final WorkflowPlanCache planCache;
+    @Qualifier("workflowBranchExecutor")
+    private final Executor branchExecutor;
+    private final ApplicationEventPublisher eventPublisher;
     private final ObjectMapper objectMapper;
+    private final ExecutionCheckpointStore checkpointStore;
+    private final WorkflowMetrics metrics;
+    private final OutputStorage outputStorage;
+
+    @Value("${app.workflow.events.max-per-execution:1000}")
+    private final int maxNodeEvents;
+
+    @Value("${app.workflow.execution-log.max-chars:65536}")
+    private final int maxLogChars;
+
+    @Value("${app.workflow.for-each.max-concurrency:8}")
+    private final int forEachMaxConcurrency;
+
+    @Value("${app.workflow.for-each.max-items:10000}")
+    private final int forEachMaxItems;
+
+    @Value("${app.workflow.sub-workflow.max-depth:5}")
+    private final int subWorkflowMaxDepth;
 
-    @Transactional
+    @Value("${app.workflow.outputs.max-inline-wait-ms:60000}")
+    private final long maxInlineWaitMs;
+
+    /**
+     * Executes a workflow synchronously on the calling thread.
+     */
     public WorkflowExecution executeWorkflow(UUID workflowId, Map<String, Object> triggerData) {
         log.info("Starting workflow execution for workflow: {}", workflowId);
 
-        Workflow workflow = workflowRepository.findById(workflowId)
-                .orElseThrow(() -> new IllegalArgumentException("Workflow not found: " + workflowId));
+        Workflow workflow = loadWorkflow(workflowId);
 
         // Create execution record
         WorkflowExecution execution = WorkflowExecution.builder()
                 .workflow(workflow)
                 .status(ExecutionStatus.RUNNING)
+                .triggerData(triggerData)
                 .executedAt(LocalDateTime.now())
                 .build();
         execution = executionRepository.save(execution);
 
-        ExecutionContext context = new ExecutionContext(triggerData);
-        context.log("=== Workflow Execution Started ===");
-        context.log("Workflow: " + workflow.getName());
-        context.log("Execution ID: " + execution.getId());
+        return runExecution(execution, workflow, newContext(workflow, triggerData), null, null);
+    }
 
-        try {
-            // Parse nodes and edges
-            List<WorkflowNode> nodes = parseNodes(workflow.getNodesJson());
-            List<WorkflowEdge> edges = parseEdges(workflow.getEdgesJson());
+    /**
+     * Writes a QUEUED execution to the durable queue; a {@link WorkflowQueueWorker} on any node picks it up.
+     */
+    public WorkflowExecution enqueueExecution(UUID workflowId, Map<String, Object> triggerData) {
+        Workflow workflow = loadWorkflow(workflowId);
 
-            if (nodes.isEmpty()) {
-                throw new IllegalStateException("Workflow has no nodes");
-            }
+        LocalDateTime now = LocalDateTime.now();
+        WorkflowExecution execution = WorkflowExecution.builder()
+                .workflow(workflow)
+                .status(ExecutionStatus.QUEUED)
+                .triggerData(triggerData)
+                .executedAt(now)
+                .availableAt(now)
+                .build();
+        execution = executionRepository.save(execution);
 
-            // Find start node (trigger node)
-            WorkflowNode startNode = nodes.stream()
-                    .filter(n -> "trigger".equals(n.getType()))
-                    .findFirst()
-                    .orElse(nodes.get(0)); // Fallback to first node
+        log.info("Queued execution {} for workflow: {}", execution.getId(), workflowId);
+        eventPublisher.publishEvent(new WorkflowExecutionQueuedEvent(execution.getId(), workflowId));
+        return execution;
+    }
 
-            context.log("Starting from node: " + startNode.getId() + " (type: " + startNode.getType() + ")");
+    /**
+     * Runs an execution the calling worker has claimed from the queue,
+     * or continues a WAITING one whose delay has elapsed.
+     *
+     * @return the finished execution, or null if the claim lost its lease and the result was dropped
+     */
+    public WorkflowExecution runClaimedExecution(WorkflowExecutionQueue.Claim claim) {
+        WorkflowExecution execution = loadExecution(claim.getExecutionId());
+        Workflow workflow = loadWorkflow(execution.getWorkflow().getId());
+        execution.setWorkflow(workflow);
+
+        ExecutionContext context = newContext(workflow, execution.getTriggerData());
+        if (execution.getContinuation() != null) {
+            context.restoreHistory(execution.getExecutionLog(), execution.getNodeEvents());
+        }
+        return runExecution(execution, workflow, context, execution.getContinuation(), claim);
+    }
 
-            // Execute workflow graph
-            executeNodeRecursive(startNode, nodes, edges, context, new HashSet<>());
+    /**
+     * Resumes a failed execution synchronously. Nodes with a checkpoint are not run again; the failed
+     * node and everything after it are.
+     */
+    public WorkflowExecution resumeExecution(UUID executionId) {
+        WorkflowExecution execution = loadFailedExecution(executionId);
+        Workflow workflow = loadWorkflow(execution.getWorkflow().getId());
+        execution.setWorkflow(workflow);
+
+        execution.setStatus(ExecutionStatus.RUNNING);
+        execution.setErrorDetails(null);
+        execution.setCompletedAt(null);
+        execution = executionRepository.save(execution);
 
-            // Mark as completed
-            execution.setStatus(ExecutionStatus.COMPLETED);
-            execution.setCompletedAt(LocalDateTime.now());
-            context.log("=== Workflow Execution Completed Successfully ===");
+        ExecutionContext context = newContext(workflow, execution.getTriggerData());
+        context.restoreHistory(execution.getExecutionLog(), execution.getNodeEvents());
+        return runExecution(execution, workflow, context, Map.of(RESTART_FROM_CHECKPOINTS, true), null);
+    }
+
+    /**
+     * Puts a failed execution back into the durable queue to be resumed from its checkpoints.
+     */
+    public WorkflowExecution enqueueResume(UUID executionId) {
+        WorkflowExecution execution = loadFailedExecution(executionId);
+
+        execution.setStatus(ExecutionStatus.QUEUED);
+        execution.setErrorDetails(null);
+        execution.setCompletedAt(null);
+        execution.setAvailableAt(LocalDateTime.now());
+        execution.setAttemptCount(0);
+        execution.setContinuation(Map.of(RESTART_FROM_CHECKPOINTS, true));
+        execution = executionRepository.save(execution);
+
+        log.info("Queued resume of execution {}", executionId);
+        eventPublisher.publishEvent(new WorkflowExecutionQueuedEvent(execution.getId(), execution.getWorkflow().getId()));
+        return execution;
+    }
+
+    /**
+     * Marks a claimed execution that could not be run as failed.
+     *
+     * @return the failed execution, or null if the claim lost its lease and nothing was written
+     */
+    public WorkflowExecution failExecution(WorkflowExecutionQueue.Claim claim, String reason) {
+        WorkflowExecution execution = loadExecution(claim.getExecutionId());
+        execution.setStatus(ExecutionStatus.FAILED);
+        execution.setErrorDetails(reason);
+        execution.setCompletedAt(LocalDateTime.now());
+        execution.setLeaseUntil(null);
+        execution = saveOutcome(execution, claim);
+        if (execution != null) {
+            metrics.executionFailed();
+            publishFinished(execution);
+        }
+        return execution;
+    }
+
+    private WorkflowExecution runExecution(WorkflowExecution execution, Workflow workflow,
+                                           ExecutionContext context, Map<String, Object> continuation,
+                                           WorkflowExecutionQueue.Claim claim) {
+        long startNanos = metrics.executionStarted();
+        ExecutionStatus outcome = ExecutionStatus.FAILED;
+        // Spill files live until the run ends; a suspended execution saves its variables before that
+        try (OutputBudget outputBudget = outputStorage.newBudget()) {
+            context.setOutputBudget(outputBudget);
+            context.setOwnerId(workflow.getOwner() != null ? workflow.getOwner().getId() : null);
+            execution = runGraph(execution, workflow, context, continuation, claim);
+            outcome = execution != null ? execution.getStatus() : null;
+            return execution;
+        } finally {
+            metrics.executionFinished(outcome, startNanos);
+        }
+    }
+
+    private WorkflowExecution runGraph(WorkflowExecution execution, Workflow workflow,
+                                       ExecutionContext context, Map<String, Object> continuation,
+                                       WorkflowExecutionQueue.Claim claim) {
+        if (continuation == null) {
+            context.log("=== Workflow Execution Started ===");
+            context.log("Workflow: " + workflow.getName());
+            context.log("Execution ID: " + execution.getId());
+        } else {
+            context.log("=== Workflow Execution Resumed ===");
+        }
+
+        try {
+            // Compiled plan is cached per workflow version
+            CompiledWorkflow plan = planCache.getPlan(workflow);
+            DagScheduler scheduler = new DagScheduler(plan, context, branchExecutor, this::executeNode);
+            scheduler.setForEachLimits(forEachMaxConcurrency, forEachMaxItems);
+            // Each called workflow is looked up once per execution, however often it is called
+            Map<UUID, CompiledWorkflow> subPlans = new ConcurrentHashMap<>();
+            scheduler.setSubWorkflows(subWorkflowId -> subPlans.computeIfAbsent(subWorkflowId,
+                    id -> loadSubWorkflowPlan(workflow, id)), subWorkflowMaxDepth);
+            UUID executionId = execution.getId();
+            scheduler.setCompletionListener((node, output) -> checkpointStore.save(executionId, node.getId(), output));
+
+            if (continuation == null) {
+                scheduler.start();
+            } else if (continuation.containsKey(RESTART_FROM_CHECKPOINTS)) {
+                Map<String, Object> outputs = checkpointStore.load(executionId);
+                context.log("Restarting with " + outputs.size() + " checkpointed node output(s)");
+                scheduler.restoreOutputs(outputs);
+                scheduler.start();
+            } else {
+                restoreContinuation(continuation, context, scheduler);
+                scheduler.resumeDue(LocalDateTime.now().plus(RESUME_TOLERANCE_MS, ChronoUnit.MILLIS));
+            }
+
+            waitInlineWhileSpilled(context, scheduler);
+
+            if (scheduler.getTimers().isEmpty()) {
+                // Mark as completed
+                execution.setStatus(ExecutionStatus.COMPLETED);
+                execution.setCompletedAt(LocalDateTime.now());
+                execution.setContinuation(null);
+                checkpointStore.delete(execution.getId());
+                context.log("=== Workflow Execution Completed Successfully ===");
+            } else {
+                suspend(execution, context, scheduler);
+            }
 
         } catch (Exception e) {
             log.error("Workflow execution failed", e);
             execution.setStatus(ExecutionStatus.FAILED);
             execution.setErrorDetails(e.getMessage());
             execution.setCompletedAt(LocalDateTime.now());
+            execution.setContinuation(null);
             context.log("=== Workflow Execution Failed ===");
             context.log("Error: " + e.getMessage());
         }
 
-        // Save execution log
+        // Save execution log and node events
+        if (context.getDroppedNodeEvents() > 0) {
+            context.log(context.getDroppedNodeEvents() + " older node event(s) dropped, limit is " + maxNodeEvents);
+        }
+        reportOutputs(execution, context.getOutputBudget(), context);
         execution.setExecutionLog(context.getExecutionLog());
-        execution = executionRepository.save(execution);
+        execution.setNodeEvents(context.getNodeEvents());
+        execution.setLeaseUntil(null);
+        execution = saveOutcome(execution, claim);
+        if (execution == null) {
+            return null;
+        }
 
         log.info("Workflow execution completed with status: {}", execution.getStatus());
+        if (execution.getStatus().isFinished()) {
+            publishFinished(execution);
+        }
         return execution;
     }
 
-    private void executeNodeRecursive(
-            WorkflowNode node,
-            List<WorkflowNode> allNodes,
-            List<WorkflowEdge> edges,
-            ExecutionContext context,
-            Set<String> visitedNodes
-    ) {
-        // Prevent infinite loops
-        if (visitedNodes.contains(node.getId())) {
-            context.log("Node already visited, skipping: " + node.getId());
-            return;
+    private void reportOutputs(WorkflowExecution execution, OutputBudget outputBudget, ExecutionContext context) {
+        if (outputBudget.getSpilledOutputs() > 0) {
+            context.log(outputBudget.getSpilledOutputs() + " node output(s) spilled to disk ("
+                    + outputBudget.getSpilledBytes() / 1024 + " KB), in-memory budget is "
+                    + outputBudget.getMemoryBudgetBytes() / 1024 + " KB");
         }
-        visitedNodes.add(node.getId());
+        execution.setSpilledOutputs(outputBudget.getSpilledOutputs());
+        execution.setSpilledOutputBytes(outputBudget.getSpilledBytes());
+        execution.setPeakOutputBytes(outputBudget.getPeakBytesInMemory());
+    }
 
-        // Skip trigger nodes (they don't execute anything)
-        if ("trigger".equals(node.getType())) {
-            context.log("Skipping trigger node: " + node.getId());
-        } else {
-            // Execute current node
-            Object result = executeNode(node, context);
-            context.setVariable(node.getId() + "_result", result);
+    /**
+     * Saves the outcome of a run. A queued run is only saved while its claim still holds the lease; once the
+     * lease has expired another worker may be running the execution again, and this outcome is dropped.
+     *
+     * @return the saved execution, or null if the outcome was dropped
+     */
+    private WorkflowExecution saveOutcome(WorkflowExecution execution, WorkflowExecutionQueue.Claim claim) {
+        if (claim == null) {
+            return executionRepository.save(execution);
         }
-
-        // Find outgoing edges
-        List<WorkflowEdge> outgoingEdges = edges.stream()
-                .filter(e -> e.getSource().equals(node.getId()))
-                .collect(Collectors.toList());
-
-        if (outgoingEdges.isEmpty()) {
-            context.log("No outgoing edges from node: " + node.getId() + " (end node)");
-            return;
+        AtomicReference<WorkflowExecution> saved = new AtomicReference<>();
+        if (!executionQueue.completeClaim(claim, () -> saved.set(executionRepository.save(execution)))) {
+            log.warn("Execution {} lost its lease before attempt {} finished, dropping the outcome",
+                    claim.getExecutionId(), claim.getAttempt());
         }
+        return saved.get();
+    }
 
-        // Execute next nodes
-        for (WorkflowEdge edge : outgoingEdges) {
-            WorkflowNode nextNode = findNode(allNodes, edge.getTarget());
-
-            if (nextNode == null) {
-                context.log("Warning: Next node not found for edge target: " + edge.getTarget());
-                continue;
+    /**
+     * Parks the execution until its earliest timer is due. No thread is held while waiting:
+     * the variables and scheduler state are stored on the execution and the queue hands it to a worker later.
+     */
+    /**
+     * Spilled outputs cannot be saved in a continuation without reading them back into memory, so an execution
+     * holding any waits for its delays on the worker thread instead, up to {@code maxInlineWaitMs} in total.
+     */
+    private void waitInlineWhileSpilled(ExecutionContext context, DagScheduler scheduler) {
+        long waitedMs = 0;
+        while (!scheduler.getTimers().isEmpty()) {
+            List<String> spilled = spilledVariables(context);
+            if (spilled.isEmpty()) {
+                return;
             }
-
-            // Handle conditional edges
-            if ("condition".equals(node.getType())) {
-                Object conditionResult = context.getVariable(node.getId() + "_result");
-                Boolean conditionValue = (Boolean) conditionResult;
-
-                if ("true".equals(edge.getLabel()) && Boolean.TRUE.equals(conditionValue)) {
-                    context.log("Following TRUE branch to node: " + nextNode.getId());
-                    executeNodeRecursive(nextNode, allNodes, edges, context, visitedNodes);
-                } else if ("false".equals(edge.getLabel()) && Boolean.FALSE.equals(conditionValue)) {
-                    context.log("Following FALSE branch to node: " + nextNode.getId());
-                    executeNodeRecursive(nextNode, allNodes, edges, context, visitedNodes);
-                }
-            } else {
-                // Regular edge, follow it
-                context.log("Following edge to node: " + nextNode.getId());
-                executeNodeRecursive(nextNode, allNodes, edges, context, visitedNodes);
+            LocalDateTime resumeAt = Collections.min(scheduler.getTimers().values());
+            long waitMs = Math.max(0, Duration.between(LocalDateTime.now(), resumeAt).toMillis());
+            if (waitedMs + waitMs > maxInlineWaitMs) {
+                throw new IllegalStateException("Execution cannot wait " + waitMs + "ms for a delay while node outputs "
+                        + "are spilled to disk: " + String.join(", ", spilled) + ". Reduce these outputs before the "
+                        + "delay or raise app.workflow.outputs.max-inline-wait-ms");
             }
+            context.log("Waiting " + waitMs + "ms inline, node outputs are spilled to disk: " + String.join(", ", spilled));
+            try {
+                Thread.sleep(waitMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a delay", e);
+            }
+            waitedMs += waitMs;
+            scheduler.resumeDue(resumeAt);
         }
     }
 
-    private Object executeNode(WorkflowNode node, ExecutionContext context) {
-        log.info("=== EXECUTING NODE: {} (type: {}) ===", node.getId(), node.getType());
-        log.info("Node data: {}", node.getData());
+    private static List<String> spilledVariables(ExecutionContext context) {
+        return context.getVariables().entrySet().stream()
+                .filter(variable -> OutputBudget.containsSpilled(variable.getValue()))
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList();
+    }
 
-        // Find appropriate executor
-        NodeExecutor executor = nodeExecutors.stream()
-                .filter(e -> e.getNodeType().equals(node.getType()))
-                .findFirst()
-                .orElse(null);
-
-        if (executor == null) {
-            context.log("Warning: No executor found for node type: " + node.getType());
-            return null;
-        }
+    private void suspend(WorkflowExecution execution, ExecutionContext context, DagScheduler scheduler) {
+        LocalDateTime resumeAt = Collections.min(scheduler.getTimers().values());
 
+        Map<String, Object> state = new LinkedHashMap<>();
         try {
-            return executor.execute(node, context);
-        } catch (Exception e) {
-            log.error("Error executing node: " + node.getId(), e);
-            context.log("Error executing node " + node.getId() + ": " + e.getMessage());
-            throw new RuntimeException("Node execution failed: " + node.getId(), e);
+            state.put("variables", objectMapper.convertValue(context.getVariables(), STATE_TYPE));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Execution state cannot be saved for a delay: " + e.getMessage(), e);
         }
+        state.put("scheduler", scheduler.captureState());
+
+        execution.setStatus(ExecutionStatus.WAITING);
+        execution.setContinuation(state);
+        execution.setTriggerData(context.getTriggerData());
+        execution.setAvailableAt(resumeAt);
+        // Each resume is a fresh claim, not a retry
+        execution.setAttemptCount(0);
+        context.log("=== Workflow Execution Waiting until " + resumeAt + " ===");
     }
 
-    private WorkflowNode findNode(List<WorkflowNode> nodes, String nodeId) {
-        return nodes.stream()
-                .filter(n -> n.getId().equals(nodeId))
-                .findFirst()
-                .orElse(null);
+    @SuppressWarnings("unchecked")
+    private void restoreContinuation(Map<String, Object> state, ExecutionContext context, DagScheduler scheduler) {
+        ((Map<String, Object>) state.getOrDefault("variables", Map.of())).forEach(context::setVariable);
+        scheduler.restoreState((Map<String, Object>) state.getOrDefault("scheduler", Map.of()));
+    }
+
+    private ExecutionContext newContext(Workflow workflow, Map<String, Object> triggerData) {
+        ExecutionContext context = new ExecutionContext(triggerData, maxNodeEvents, maxLogChars);
+        context.setTriggerChain(TriggerChain.of(workflow.getId(), context.getTriggerData()));
+        return context;
     }
 
-    private List<WorkflowNode> parseNodes(String nodesJson) {
-        if (nodesJson == null || nodesJson.isBlank()) {
-            return new ArrayList<>();
+    private WorkflowExecution loadFailedExecution(UUID executionId) {
+        WorkflowExecution execution = loadExecution(executionId);
+        if (execution.getStatus() != ExecutionStatus.FAILED) {
+            throw new IllegalStateException("Only failed executions can be resumed, execution "
+                    + executionId + " is " + execution.getStatus());
         }
+        return execution;
+    }
 
-        try {
-            return objectMapper.readValue(nodesJson, new TypeReference<List<WorkflowNode>>() {});
-        } catch (Exception e) {
-            log.error("Failed to parse workflow nodes", e);
-            return new ArrayList<>();
+    /**
+     * Plan of a workflow called by a subWorkflow node, taken from the plan cache while its version is current.
+     * Only workflows of the same owner can be called.
+     */
+    private CompiledWorkflow loadSubWorkflowPlan(Workflow caller, UUID workflowId) {
+        Object[] ownerAndVersion = workflowRepository.findOwnerAndVersionById(workflowId).stream()
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Sub-workflow not found: " + workflowId));
+        UUID callerOwnerId = caller.getOwner() != null ? caller.getOwner().getId() : null;
+        if (!Objects.equals(callerOwnerId, ownerAndVersion[0])) {
+            throw new IllegalArgumentException("Sub-workflow not found: " + workflowId);
         }
+        return planCache.getPlan(workflowId, (LocalDateTime) ownerAndVersion[1], () -> loadWorkflow(workflowId));
+    }
+
+    private Workflow loadWorkflow(UUID workflowId) {
+        return workflowRepository.findById(workflowId)
+                .orElseThrow(() -> new IllegalArgumentException("Workflow not found: " + workflowId));
     }
 
-    private List<WorkflowEdge> parseEdges(String edgesJson) {
-        if (edgesJson == null || edgesJson.isBlank()) {
-            return new ArrayList<>();
+    private WorkflowExecution loadExecution(UUID executionId) {
+        return executionRepository.findById(executionId)
+                .orElseThrow(() -> new IllegalArgumentException("Execution not found: " + executionId));
+    }
+
+    private void publishFinished(WorkflowExecution execution) {
+        eventPublisher.publishEvent(new WorkflowExecutionFinishedEvent(
+                execution.getId(), execution.getWorkflow().getId(), execution.getStatus()));
+    }
+
+    private Object executeNode(WorkflowNode node, NodeExecutor executor, ExecutionContext context) {
+        log.debug("Executing node: {} (type: {})", node.getId(), node.getType());
+
+        if (executor == null) {
+            context.log("Warning: No executor found for node type: " + node.getType());
+            return null;
         }
 
+        long start = System.nanoTime();
         try {
-            return objectMapper.readValue(edgesJson, new TypeReference<List<WorkflowEdge>>() {});
+            Object result = executor.execute(node, context);
+            metrics.nodeExecuted(node.getType(), System.nanoTime() - start, true);
+            return result;
         } catch (Exception e) {
-            log.error("Failed to parse workflow edges", e);
-            return new ArrayList<>();
+            metrics.nodeExecuted(node.getType(), System.nanoTime() - start, false);
+            log.error("Error executing node: " + node.getId(), e);
+            context.log("Error executing node " + node.getId() + ": " + e.getMessage());
+            throw new RuntimeException("Node execution failed: " + node.getId(), e);
         }
     }
 }
@@ -0,0 +1,18 @@
+package io.celox.taskflow.task.workflow;
+
+import io.celox.taskflow.task.domain.ExecutionStatus;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Published by {@link WorkflowExecutionEngine} once an execution reached a final status.
+ */
+@Getter
+@RequiredArgsConstructor
+public class WorkflowExecutionFinishedEvent {
+    private final UUID executionId;
+    private final UUID workflowId;
+    private final ExecutionStatus status;
+}
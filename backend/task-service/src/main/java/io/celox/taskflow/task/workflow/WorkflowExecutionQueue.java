@@ -0,0 +1,200 @@
+package io.celox.taskflow.task.workflow;
+
+import io.celox.taskflow.task.domain.ExecutionStatus;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Durable run queue on top of the {@code workflow_executions} table.
+ * <p>
+ * Workers claim QUEUED rows, and WAITING rows whose delay has elapsed, with {@code FOR UPDATE SKIP LOCKED},
+ * so any number of task-service replicas can poll the same table without handing out a row twice. A claimed row is RUNNING
+ * under a lease owned by the claiming node; while the node is alive it keeps renewing the lease.
+ * Rows whose lease expired (node crashed or was killed mid-run) become claimable again, which
+ * makes delivery at-least-once. A worker that lost its lease cannot write its result any more,
+ * see {@link #completeClaim}.
+ * <p>
+ * Leases are computed from the database clock so that replicas do not need synchronized clocks.
+ * <p>
+ * Claims are fair across workflow owners: candidates are ranked per owner and taken round-robin, and an owner
+ * never gets more than {@code max-concurrent-per-owner} executions running across all replicas. Items of a
+ * {@link io.celox.taskflow.task.domain.WorkflowBatch} are further limited to the batch's {@code max_parallel}.
+ * Replicas claiming at the same moment can overshoot these limits slightly.
+ */
+@Component
+@RequiredArgsConstructor
+public class WorkflowExecutionQueue {
+
+    private static final String CLAIM_SQL = """
+            UPDATE workflow_executions e
+               SET status = 'RUNNING',
+                   locked_by = ?,
+                   lease_until = LOCALTIMESTAMP + make_interval(secs => ?),
+                   attempt_count = e.attempt_count + 1,
+                   executed_at = CASE WHEN e.status = 'QUEUED' THEN LOCALTIMESTAMP ELSE e.executed_at END
+             WHERE e.id IN (
+                    SELECT id
+                      FROM workflow_executions
+                     WHERE id IN (
+                            SELECT candidate.id
+                              FROM (SELECT q.id,
+                                           COALESCE(q.available_at, q.executed_at) AS ready_at,
+                                           ROW_NUMBER() OVER (PARTITION BY w.owner_id
+                                                              ORDER BY COALESCE(q.available_at, q.executed_at)) AS owner_rank,
+                                           COALESCE(owner_load.running, 0) AS owner_running,
+                                           ROW_NUMBER() OVER (PARTITION BY q.batch_id
+                                                              ORDER BY COALESCE(q.available_at, q.executed_at)) AS batch_rank,
+                                           COALESCE(batch_load.running, 0) AS batch_running,
+                                           b.max_parallel
+                                      FROM workflow_executions q
+                                      JOIN workflows w ON w.id = q.workflow_id
+                                      LEFT JOIN workflow_batches b ON b.id = q.batch_id
+                                      LEFT JOIN (SELECT rw.owner_id, COUNT(*) AS running
+                                                   FROM workflow_executions r
+                                                   JOIN workflows rw ON rw.id = r.workflow_id
+                                                  WHERE r.status = 'RUNNING' AND r.lease_until >= LOCALTIMESTAMP
+                                                  GROUP BY rw.owner_id) owner_load ON owner_load.owner_id = w.owner_id
+                                      LEFT JOIN (SELECT r.batch_id, COUNT(*) AS running
+                                                   FROM workflow_executions r
+                                                  WHERE r.batch_id IS NOT NULL
+                                                    AND r.status = 'RUNNING' AND r.lease_until >= LOCALTIMESTAMP
+                                                  GROUP BY r.batch_id) batch_load ON batch_load.batch_id = q.batch_id
+                                     WHERE (q.status IN ('QUEUED', 'WAITING') AND (q.available_at IS NULL OR q.available_at <= LOCALTIMESTAMP))
+                                        OR (q.status = 'RUNNING' AND q.lease_until < LOCALTIMESTAMP)) candidate
+                             WHERE candidate.owner_running + candidate.owner_rank <= ?
+                               AND (candidate.max_parallel IS NULL
+                                    OR candidate.batch_running + candidate.batch_rank <= candidate.max_parallel)
+                             ORDER BY candidate.owner_rank, candidate.ready_at
+                             LIMIT ?)
+                       AND ((status IN ('QUEUED', 'WAITING') AND (available_at IS NULL OR available_at <= LOCALTIMESTAMP))
+                            OR (status = 'RUNNING' AND lease_until < LOCALTIMESTAMP))
+                       FOR UPDATE SKIP LOCKED)
+            RETURNING e.id, e.attempt_count
+            """;
+
+    private static final String INSERT_BATCH_ITEM_SQL = """
+            INSERT INTO workflow_executions
+                   (id, workflow_id, batch_id, status, trigger_data, executed_at, available_at, attempt_count)
+            VALUES (?, ?, ?, 'QUEUED', ?::jsonb, LOCALTIMESTAMP, LOCALTIMESTAMP, 0)
+            """;
+
+    private static final int INSERT_CHUNK_SIZE = 500;
+
+    private static final String RENEW_SQL = """
+            UPDATE workflow_executions
+               SET lease_until = LOCALTIMESTAMP + make_interval(secs => ?)
+             WHERE locked_by = ? AND status = 'RUNNING'
+            """;
+
+    private static final String RELEASE_SQL = """
+            UPDATE workflow_executions
+               SET status = 'QUEUED', locked_by = NULL, lease_until = NULL, available_at = LOCALTIMESTAMP
+             WHERE id = ? AND locked_by = ? AND status = 'RUNNING'
+            """;
+
+    private static final String COMPLETE_SQL = """
+            UPDATE workflow_executions
+               SET lease_until = NULL
+             WHERE id = ? AND locked_by = ? AND attempt_count = ? AND status = 'RUNNING'
+            """;
+
+    private static final String DEPTH_SQL = """
+            SELECT status, COUNT(*) AS depth
+              FROM workflow_executions
+             WHERE status IN ('QUEUED', 'WAITING')
+             GROUP BY status
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.workflow.admission.max-concurrent-per-owner:4}")
+    private final int maxRunningPerOwner;
+
+    /**
+     * Claims up to {@code limit} runnable executions for the given worker node.
+     */
+    public List<Claim> claim(String nodeId, int limit, long leaseMs) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        return jdbcTemplate.query(CLAIM_SQL,
+                (rs, rowNum) -> new Claim(rs.getObject("id", UUID.class), nodeId, rs.getInt("attempt_count")),
+                nodeId, leaseMs / 1000.0, maxRunningPerOwner, limit);
+    }
+
+    /**
+     * Queues one execution per trigger payload with JDBC batch inserts.
+     *
+     * @param triggerData trigger payloads, already serialized to JSON
+     */
+    public void enqueueBatch(UUID batchId, UUID workflowId, List<String> triggerData) {
+        jdbcTemplate.batchUpdate(INSERT_BATCH_ITEM_SQL, triggerData, INSERT_CHUNK_SIZE, (ps, json) -> {
+            ps.setObject(1, UUID.randomUUID());
+            ps.setObject(2, workflowId);
+            ps.setObject(3, batchId);
+            ps.setString(4, json);
+        });
+    }
+
+    /**
+     * Extends the lease of every execution the node is still running.
+     *
+     * @return number of renewed leases
+     */
+    public int renewLeases(String nodeId, long leaseMs) {
+        return jdbcTemplate.update(RENEW_SQL, leaseMs / 1000.0, nodeId);
+    }
+
+    /**
+     * Puts a claimed execution back into the queue, e.g. when the local worker pool refused it.
+     */
+    public boolean release(UUID executionId, String nodeId) {
+        return jdbcTemplate.update(RELEASE_SQL, executionId, nodeId) > 0;
+    }
+
+    /**
+     * Number of QUEUED and WAITING executions by status, in one query.
+     */
+    public Map<ExecutionStatus, Long> depth() {
+        Map<ExecutionStatus, Long> depth = new EnumMap<>(ExecutionStatus.class);
+        jdbcTemplate.query(DEPTH_SQL,
+                (RowCallbackHandler) rs -> depth.put(ExecutionStatus.valueOf(rs.getString("status")), rs.getLong("depth")));
+        return depth;
+    }
+
+    /**
+     * Writes the outcome of a claimed run if the claim still holds the lease. The conditional update locks
+     * the row, so no other worker can claim it again before {@code write} has run in the same transaction.
+     *
+     * @return false if the lease expired and the execution was claimed again, in which case nothing is written
+     */
+    @Transactional
+    public boolean completeClaim(Claim claim, Runnable write) {
+        if (jdbcTemplate.update(COMPLETE_SQL, claim.getExecutionId(), claim.getLockedBy(), claim.getAttempt()) == 0) {
+            return false;
+        }
+        write.run();
+        return true;
+    }
+
+    /**
+     * An execution handed to a worker node, with the number of times it has been claimed so far.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Claim {
+        private final UUID executionId;
+        private final String lockedBy;
+        private final int attempt;
+    }
+}
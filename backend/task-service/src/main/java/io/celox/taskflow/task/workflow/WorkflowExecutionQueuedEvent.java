@@ -0,0 +1,16 @@
+package io.celox.taskflow.task.workflow;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Published after an execution was written to the queue. The execution id is null when a whole batch was queued.
+ */
+@Getter
+@RequiredArgsConstructor
+public class WorkflowExecutionQueuedEvent {
+    private final UUID executionId;
+    private final UUID workflowId;
+}
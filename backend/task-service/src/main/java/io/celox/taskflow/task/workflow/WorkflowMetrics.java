@@ -0,0 +1,197 @@
+package io.celox.taskflow.task.workflow;
+
+import io.celox.taskflow.task.domain.ExecutionStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Micrometer meters of the workflow engine, exported through {@code /actuator/prometheus}.
+ * Tags only take values from small fixed sets; workflow ids are left to the execution records.
+ * <ul>
+ *     <li>{@code taskflow.node.execution} - node run time by node type and outcome</li>
+ *     <li>{@code taskflow.node.failures} - failed node runs by node type</li>
+ *     <li>{@code taskflow.workflow.execution} - run time of an execution by resulting status;
+ *     an execution suspended on a delay is recorded once per run</li>
+ *     <li>{@code taskflow.workflow.failures} - failed executions</li>
+ *     <li>{@code taskflow.workflow.active} - executions running on this node</li>
+ *     <li>{@code taskflow.queue.depth} - QUEUED and WAITING executions in the durable queue, as last sampled
+ *     by the queue worker</li>
+ *     <li>{@code taskflow.admission.rejected} - runs refused by admission control, by reason</li>
+ *     <li>{@code taskflow.trigger.match} - time to look up the workflows triggered by a task event</li>
+ *     <li>{@code taskflow.trigger.fired} - workflow runs started by task events, by event and outcome</li>
+ *     <li>{@code taskflow.plan.cache} - plan cache lookups by result: hit or miss</li>
+ *     <li>{@code taskflow.plan.cache.size} - compiled plans in the cache</li>
+ *     <li>{@code taskflow.schedule.ticks} - schedule ticks by outcome: fired, skipped as misfire, or rejected</li>
+ *     <li>{@code taskflow.schedule.lag} - delay between the due time of a schedule tick and its firing</li>
+ *     <li>{@code taskflow.script.cpu} - CPU time of code node scripts by outcome: success, failure, timeout or limit</li>
+ *     <li>{@code taskflow.script.rejected} - scripts refused, by reason: owner limit or saturated</li>
+ * </ul>
+ */
+@Component
+public class WorkflowMetrics {
+
+    static final String NODE_EXECUTION = "taskflow.node.execution";
+    static final String NODE_FAILURES = "taskflow.node.failures";
+    static final String WORKFLOW_EXECUTION = "taskflow.workflow.execution";
+    static final String WORKFLOW_FAILURES = "taskflow.workflow.failures";
+    static final String ACTIVE_EXECUTIONS = "taskflow.workflow.active";
+    static final String QUEUE_DEPTH = "taskflow.queue.depth";
+    static final String ADMISSION_REJECTED = "taskflow.admission.rejected";
+    static final String TRIGGER_MATCH = "taskflow.trigger.match";
+    static final String TRIGGER_FIRED = "taskflow.trigger.fired";
+    static final String SCHEDULE_TICKS = "taskflow.schedule.ticks";
+    static final String SCHEDULE_LAG = "taskflow.schedule.lag";
+    static final String SCRIPT_CPU = "taskflow.script.cpu";
+    static final String SCRIPT_REJECTED = "taskflow.script.rejected";
+
+    private static final List<ExecutionStatus> QUEUE_STATUSES = List.of(ExecutionStatus.QUEUED, ExecutionStatus.WAITING);
+
+    private final MeterRegistry registry;
+    private final AtomicInteger activeExecutions = new AtomicInteger();
+    private final Map<ExecutionStatus, AtomicLong> queueDepth = new EnumMap<>(ExecutionStatus.class);
+
+    public WorkflowMetrics(MeterRegistry registry) {
+        this.registry = registry;
+
+        Gauge.builder(ACTIVE_EXECUTIONS, activeExecutions, AtomicInteger::get)
+                .description("Workflow executions currently running on this instance")
+                .register(registry);
+        for (ExecutionStatus status : QUEUE_STATUSES) {
+            AtomicLong depth = new AtomicLong();
+            queueDepth.put(status, depth);
+            Gauge.builder(QUEUE_DEPTH, depth, AtomicLong::get)
+                    .description("Executions in the durable queue")
+                    .tag("status", status.name())
+                    .register(registry);
+        }
+    }
+
+    /**
+     * @return start time to pass to {@link #executionFinished}
+     */
+    public long executionStarted() {
+        activeExecutions.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /**
+     * @param status resulting status, or null if the run lost its lease and its outcome was dropped
+     */
+    public void executionFinished(ExecutionStatus status, long startNanos) {
+        activeExecutions.decrementAndGet();
+        if (status == null) {
+            return;
+        }
+        Timer.builder(WORKFLOW_EXECUTION)
+                .description("Run time of workflow executions")
+                .tag("status", status.name())
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        if (status == ExecutionStatus.FAILED) {
+            executionFailed();
+        }
+    }
+
+    /**
+     * Counts a failure of an execution that did not get to run, e.g. one abandoned after too many attempts.
+     */
+    public void executionFailed() {
+        Counter.builder(WORKFLOW_FAILURES)
+                .description("Failed workflow executions")
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Sets the queue depth gauges. The queue worker samples the depth on its own schedule,
+     * so a scrape never queries the database.
+     */
+    public void queueDepthSampled(Map<ExecutionStatus, Long> depth) {
+        queueDepth.forEach((status, gauge) -> gauge.set(depth.getOrDefault(status, 0L)));
+    }
+
+    public void admissionRejected(String reason) {
+        Counter.builder(ADMISSION_REJECTED)
+                .description("Workflow runs refused by admission control")
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+
+    public void nodeExecuted(String nodeType, long elapsedNanos, boolean success) {
+        Timer.builder(NODE_EXECUTION)
+                .description("Run time of workflow nodes")
+                .tag("type", nodeType != null ? nodeType : "unknown")
+                .tag("outcome", success ? "success" : "failure")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (!success) {
+            Counter.builder(NODE_FAILURES)
+                    .description("Failed workflow node runs")
+                    .tag("type", nodeType != null ? nodeType : "unknown")
+                    .register(registry)
+                    .increment();
+        }
+    }
+
+    public void triggerMatched(String event, long elapsedNanos) {
+        Timer.builder(TRIGGER_MATCH)
+                .description("Time to match a task event against the trigger index")
+                .tag("event", event)
+                .register(registry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void triggerFired(String event, String outcome) {
+        Counter.builder(TRIGGER_FIRED)
+                .description("Workflow runs started by task events")
+                .tag("event", event)
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    public void scheduleTicks(String outcome, int count) {
+        Counter.builder(SCHEDULE_TICKS)
+                .description("Schedule ticks by outcome")
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment(count);
+    }
+
+    public void scheduleLag(long lagMs) {
+        Timer.builder(SCHEDULE_LAG)
+                .description("Delay between the due time of a schedule tick and its firing")
+                .register(registry)
+                .record(Math.max(lagMs, 0), TimeUnit.MILLISECONDS);
+    }
+
+    public void scriptFinished(String outcome, long cpuNanos) {
+        Timer.builder(SCRIPT_CPU)
+                .description("CPU time of code node scripts")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(cpuNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void scriptRejected(String reason) {
+        Counter.builder(SCRIPT_REJECTED)
+                .description("Code node scripts refused before running")
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+}
@@ -0,0 +1,108 @@
+package io.celox.taskflow.task.workflow;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.celox.taskflow.task.domain.Workflow;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache of compiled workflow plans keyed by workflow id.
+ * An entry is only reused while its version matches the workflow's {@code updatedAt},
+ * so updates made through another instance are picked up on the next execution.
+ * Hits, misses and size are exported as {@code taskflow.plan.cache} meters.
+ */
+@Component
+@Slf4j
+public class WorkflowPlanCache implements MeterBinder {
+
+    static final String CACHE_METER = "taskflow.plan.cache";
+    static final String SIZE_METER = "taskflow.plan.cache.size";
+
+    private final WorkflowCompiler compiler;
+    private final Cache<UUID, CompiledWorkflow> plans;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public WorkflowPlanCache(
+            WorkflowCompiler compiler,
+            @Value("${app.workflow.plan-cache.max-size:1000}") int maxSize) {
+        this.compiler = compiler;
+        this.plans = Caffeine.newBuilder().maximumSize(maxSize).build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(CACHE_METER, hits, AtomicLong::get)
+                .description("Lookups of compiled workflow plans")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder(CACHE_METER, misses, AtomicLong::get)
+                .description("Lookups of compiled workflow plans")
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder(SIZE_METER, this, WorkflowPlanCache::size)
+                .description("Compiled workflow plans in the cache")
+                .register(registry);
+    }
+
+    public CompiledWorkflow getPlan(Workflow workflow) {
+        CompiledWorkflow cached = plans.getIfPresent(workflow.getId());
+        if (cached != null && Objects.equals(cached.getVersion(), workflow.getUpdatedAt())) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        misses.incrementAndGet();
+        CompiledWorkflow compiled = compiler.compile(workflow);
+        log.debug("Compiled workflow plan {} ({} nodes)", workflow.getId(), compiled.getNodeCount());
+
+        if (workflow.getId() != null) {
+            plans.put(workflow.getId(), compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * Plan of the given workflow version; {@code loader} is only asked for the workflow when no plan of that
+     * version is cached.
+     */
+    public CompiledWorkflow getPlan(UUID workflowId, LocalDateTime version, Supplier<Workflow> loader) {
+        CompiledWorkflow cached = plans.getIfPresent(workflowId);
+        if (cached != null && Objects.equals(cached.getVersion(), version)) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        return getPlan(loader.get());
+    }
+
+    public void invalidate(UUID workflowId) {
+        if (plans.asMap().remove(workflowId) != null) {
+            log.debug("Invalidated cached plan for workflow {}", workflowId);
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long size() {
+        return plans.estimatedSize();
+    }
+}
@@ -0,0 +1,212 @@
+package io.celox.taskflow.task.workflow;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Claims queued executions from {@link WorkflowExecutionQueue} and runs them on the local worker pool.
+ * <p>
+ * Each task-service replica runs one worker. The worker never claims more runs than it has free
+ * worker threads, so adding replicas adds throughput. Leases of in-flight runs are renewed in the
+ * background; runs of a node that died are re-claimed by the others once their lease expires.
+ * The worker also samples the queue depth for {@link WorkflowMetrics}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.workflow.queue.worker-enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class WorkflowQueueWorker {
+
+    private final WorkflowExecutionQueue queue;
+    private final WorkflowExecutionEngine executionEngine;
+    private final WorkflowMetrics metrics;
+    private final Executor executionExecutor;
+    private final String nodeId;
+    private final int concurrency;
+    private final long leaseMs;
+    private final long pollIntervalMs;
+    private final int maxAttempts;
+    private final long depthSampleMs;
+    private final Semaphore freeSlots;
+    private final ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public WorkflowQueueWorker(
+            WorkflowExecutionQueue queue,
+            WorkflowExecutionEngine executionEngine,
+            WorkflowMetrics metrics,
+            @Qualifier("workflowExecutionExecutor") Executor executionExecutor,
+            @Value("${app.workflow.queue.node-id:}") String nodeId,
+            @Value("${app.workflow.execution-executor.pool-size:4}") int concurrency,
+            @Value("${app.workflow.queue.lease-ms:60000}") long leaseMs,
+            @Value("${app.workflow.queue.poll-interval-ms:1000}") long pollIntervalMs,
+            @Value("${app.workflow.queue.max-attempts:3}") int maxAttempts,
+            @Value("${app.workflow.queue.depth-sample-ms:15000}") long depthSampleMs) {
+        this.queue = queue;
+        this.executionEngine = executionEngine;
+        this.metrics = metrics;
+        this.executionExecutor = executionExecutor;
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+        this.concurrency = concurrency;
+        this.leaseMs = leaseMs;
+        this.pollIntervalMs = pollIntervalMs;
+        this.maxAttempts = maxAttempts;
+        this.depthSampleMs = depthSampleMs;
+        this.freeSlots = new Semaphore(concurrency);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "wf-queue-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        scheduler.scheduleWithFixedDelay(this::pollSafely, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+        long renewInterval = Math.max(leaseMs / 3, 1);
+        scheduler.scheduleAtFixedRate(this::renewLeasesSafely, renewInterval, renewInterval, TimeUnit.MILLISECONDS);
+        scheduler.scheduleAtFixedRate(this::sampleQueueDepthSafely, 0, depthSampleMs, TimeUnit.MILLISECONDS);
+        log.info("Workflow queue worker {} started (concurrency={}, lease={}ms)", nodeId, concurrency, leaseMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Polls right away instead of waiting for the next interval when this node queued a run itself.
+     */
+    @EventListener
+    public void onExecutionQueued(WorkflowExecutionQueuedEvent event) {
+        if (running) {
+            scheduler.execute(this::pollSafely);
+        }
+    }
+
+    /**
+     * Claims as many runs as there are free worker slots and hands them to the worker pool.
+     */
+    void poll() {
+        while (true) {
+            int free = freeSlots.availablePermits();
+            if (free == 0) {
+                return;
+            }
+
+            List<WorkflowExecutionQueue.Claim> claims = queue.claim(nodeId, free, leaseMs);
+            for (WorkflowExecutionQueue.Claim claim : claims) {
+                dispatch(claim);
+            }
+            if (claims.size() < free) {
+                return;
+            }
+        }
+    }
+
+    void renewLeases() {
+        if (freeSlots.availablePermits() < concurrency) {
+            int renewed = queue.renewLeases(nodeId, leaseMs);
+            log.debug("Renewed {} execution leases for worker {}", renewed, nodeId);
+        }
+    }
+
+    void sampleQueueDepth() {
+        metrics.queueDepthSampled(queue.depth());
+    }
+
+    private void dispatch(WorkflowExecutionQueue.Claim claim) {
+        UUID executionId = claim.getExecutionId();
+        freeSlots.acquireUninterruptibly();
+        try {
+            executionExecutor.execute(() -> {
+                try {
+                    run(claim);
+                } finally {
+                    freeSlots.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            freeSlots.release();
+            log.warn("Worker pool rejected execution {}, returning it to the queue", executionId);
+            queue.release(executionId, nodeId);
+        }
+    }
+
+    private void run(WorkflowExecutionQueue.Claim claim) {
+        UUID executionId = claim.getExecutionId();
+        try {
+            if (claim.getAttempt() > maxAttempts) {
+                log.warn("Execution {} exceeded {} attempts, giving up", executionId, maxAttempts);
+                executionEngine.failExecution(claim,
+                        "Execution abandoned after " + maxAttempts + " attempts (worker lease expired)");
+                return;
+            }
+            if (claim.getAttempt() > 1) {
+                log.info("Re-claimed orphaned execution {} (attempt {})", executionId, claim.getAttempt());
+            }
+            executionEngine.runClaimedExecution(claim);
+        } catch (Exception e) {
+            log.error("Queued execution {} could not be run", executionId, e);
+            try {
+                executionEngine.failExecution(claim, e.getMessage());
+            } catch (Exception failure) {
+                log.error("Could not mark execution {} as failed", executionId, failure);
+            }
+        }
+    }
+
+    private void pollSafely() {
+        if (!running) {
+            return;
+        }
+        try {
+            poll();
+        } catch (Exception e) {
+            log.error("Polling the workflow execution queue failed", e);
+        }
+    }
+
+    private void renewLeasesSafely() {
+        try {
+            renewLeases();
+        } catch (Exception e) {
+            log.error("Renewing workflow execution leases failed", e);
+        }
+    }
+
+    private void sampleQueueDepthSafely() {
+        try {
+            sampleQueueDepth();
+        } catch (Exception e) {
+            log.warn("Sampling the workflow queue depth failed: {}", e.getMessage());
+        }
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "task-service";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,19 @@
+package io.celox.taskflow.task.workflow;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Returned by a {@link NodeExecutor} to park the current branch until {@code resumeAt}.
+ * <p>
+ * The engine persists the execution state and releases the worker thread; the durable queue
+ * hands the execution to any worker once the time has come, which then continues with the
+ * successors of the suspended node.
+ */
+@Getter
+@RequiredArgsConstructor
+public class WorkflowSuspension {
+    private final LocalDateTime resumeAt;
+}
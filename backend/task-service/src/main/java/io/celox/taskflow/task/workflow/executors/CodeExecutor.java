@@ -3,43 +3,23 @@ package io.celox.taskflow.task.workflow.executors;
 import io.celox.taskflow.task.workflow.ExecutionContext;
 import io.celox.taskflow.task.workflow.NodeExecutor;
 import io.celox.taskflow.task.workflow.WorkflowNode;
+import io.celox.taskflow.task.workflow.script.ScriptRuntime;
+import io.celox.taskflow.task.workflow.script.ScriptValidator;
+import io.celox.taskflow.task.workflow.script.ScriptValues;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.graalvm.polyglot.Context;
-import org.graalvm.polyglot.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class CodeExecutor implements NodeExecutor {
 
-    private static final int MAX_EXECUTION_TIME_MS = 5000;
-    
-    // Dangerous JavaScript patterns to block
-    private static final List<String> DANGEROUS_PATTERNS = Arrays.asList(
-        "eval\\s*\\(",
-        "Function\\s*\\(",
-        "setTimeout\\s*\\(",
-        "setInterval\\s*\\(",
-        "require\\s*\\(",
-        "import\\s+",
-        "process\\.",
-        "global\\.",
-        "window\\.",
-        "document\\.",
-        "XMLHttpRequest",
-        "fetch\\s*\\(",
-        "WebSocket",
-        "child_process",
-        "fs\\.",
-        "os\\.",
-        "__dirname",
-        "__filename"
-    );
+    private final ScriptRuntime scriptRuntime;
+    private final ScriptValidator scriptValidator;
 
     @Override
     public Object execute(WorkflowNode node, ExecutionContext context) {
@@ -69,7 +49,7 @@ public class CodeExecutor implements NodeExecutor {
         }
 
         // Validate code for dangerous patterns
-        String validationError = validateCode(code);
+        String validationError = scriptValidator.validate(code);
         if (validationError != null) {
             String error = "Code validation failed: " + validationError;
             log.warn("SECURITY ALERT: Dangerous code detected in node {}: {}", node.getId(), code);
@@ -79,87 +59,47 @@ public class CodeExecutor implements NodeExecutor {
         }
 
         try {
-            // Create a sandboxed JavaScript context
-            Context jsContext = Context.newBuilder("js")
-                    .allowAllAccess(false)  // SECURITY: No file/network access
-                    .allowIO(false)          // SECURITY: No I/O operations
-                    .allowNativeAccess(false) // SECURITY: No native code access
-                    .allowCreateProcess(false) // SECURITY: No process creation
-                    .allowCreateThread(false)  // SECURITY: No thread creation
-                    .option("js.strict", "true")
-                    .option("js.ecmascript-version", "2022")
-                    .build();
+            Map<String, Object> globals = new HashMap<>();
 
-            try {
-                // Inject context variables
-                Value bindings = jsContext.getBindings("js");
-
-                // Make trigger data available
-                Map<String, Object> triggerData = context.getTriggerData();
-                if (triggerData != null) {
-                    bindings.putMember("$trigger", jsContext.asValue(triggerData));
-                }
+            // Make trigger data available
+            Map<String, Object> triggerData = context.getTriggerData();
+            if (triggerData != null) {
+                globals.put("$trigger", triggerData);
+            }
 
-                // Make previous node outputs available
-                Map<String, Object> variables = context.getVariables();
-                if (variables != null) {
-                    // Add all variables as $nodeId
-                    for (Map.Entry<String, Object> entry : variables.entrySet()) {
-                        String key = entry.getKey();
-                        if (key.endsWith("_result")) {
-                            String nodeId = key.substring(0, key.length() - "_result".length());
-                            bindings.putMember("$" + nodeId, jsContext.asValue(entry.getValue()));
-                        }
+            // Make previous node outputs available, scripts read them through views instead of copies
+            Map<String, Object> variables = context.getVariables();
+            if (variables != null) {
+                // Add all variables as $nodeId
+                for (Map.Entry<String, Object> entry : variables.entrySet()) {
+                    String key = entry.getKey();
+                    if (key.endsWith("_result")) {
+                        String nodeId = key.substring(0, key.length() - "_result".length());
+                        globals.put("$" + nodeId, entry.getValue());
                     }
-                    // Also add as $vars for convenience
-                    bindings.putMember("$vars", jsContext.asValue(variables));
-                }
-
-                // Add workflow context
-                bindings.putMember("$context", jsContext.asValue(Map.of(
-                    "nodeId", node.getId()
-                )));
-
-                context.log("Executing JavaScript code (timeout: " + MAX_EXECUTION_TIME_MS + "ms)");
-
-                // Wrap code in a function if it contains a return statement
-                // This allows users to write code with return statements naturally
-                String codeToExecute = code.trim();
-                boolean hasReturn = codeToExecute.matches("(?s).*\\breturn\\b.*");
-                
-                if (hasReturn) {
-                    // Wrap in an IIFE (Immediately Invoked Function Expression)
-                    codeToExecute = "(function() {\n" + codeToExecute + "\n})()";
-                } else {
-                    // For code without return, wrap in expression to capture last value
-                    // This allows code like: const x = 5; x * 2; (returns 10)
-                    codeToExecute = "(function() {\n" + codeToExecute + "\n})()";
                 }
+                // Also add as $vars for convenience; the scope keeps changing, so returning it yields a copy
+                globals.put("$vars", ScriptValues.snapshotView(variables));
+            }
 
-                // Execute with timeout - make code final for lambda
-                final String finalCode = codeToExecute;
-                CompletableFuture<Value> future = CompletableFuture.supplyAsync(() -> {
-                    try {
-                        return jsContext.eval("js", finalCode);
-                    } catch (Exception e) {
-                        throw new RuntimeException("JavaScript execution error: " + e.getMessage(), e);
-                    }
-                });
+            // Add workflow context
+            globals.put("$context", Map.of(
+                "nodeId", node.getId()
+            ));
 
-                Value result = future.get(MAX_EXECUTION_TIME_MS, TimeUnit.MILLISECONDS);
-                Object convertedResult = convertValueToJava(result);
+            context.log("Executing JavaScript code (timeout: " + scriptRuntime.getTimeoutMs() + "ms)");
 
-                context.log("Code execution successful");
-                context.setVariable(node.getId() + "_result", convertedResult);
+            // Runs on the script pool; the code is wrapped in a function, so users can write return statements
+            Object convertedResult = scriptRuntime.execute(context.getOwnerId(), code, globals,
+                    ScriptValues::toHost);
 
-                return convertedResult;
+            context.log("Code execution successful");
+            context.setVariable(node.getId() + "_result", convertedResult);
 
-            } finally {
-                jsContext.close();
-            }
+            return convertedResult;
 
         } catch (TimeoutException e) {
-            String error = "Code execution timeout (" + MAX_EXECUTION_TIME_MS + "ms exceeded)";
+            String error = "Code execution timeout (" + scriptRuntime.getTimeoutMs() + "ms exceeded)";
             log.error(error, e);
             context.log("ERROR: " + error);
             throw new RuntimeException(error);
@@ -171,103 +111,8 @@ public class CodeExecutor implements NodeExecutor {
         }
     }
 
-    /**
-     * Validate code for dangerous patterns
-     */
-    private String validateCode(String code) {
-        String codeLower = code.toLowerCase();
-        
-        // Use Pattern.compile for proper regex handling
-        for (String pattern : DANGEROUS_PATTERNS) {
-            try {
-                // Patterns already contain regex, so we compile them directly
-                // Add word boundaries where appropriate (before keywords, after function names)
-                java.util.regex.Pattern compiledPattern;
-                
-                // For patterns with parentheses like "eval\\s*\\(", we need to handle them carefully
-                if (pattern.contains("(")) {
-                    // Pattern already has escaped parentheses, compile as-is with word boundary before
-                    String patternWithBoundary = "\\b" + pattern;
-                    compiledPattern = java.util.regex.Pattern.compile(patternWithBoundary, 
-                        java.util.regex.Pattern.CASE_INSENSITIVE | java.util.regex.Pattern.DOTALL);
-                } else {
-                    // For simple keywords, add word boundaries on both sides
-                    compiledPattern = java.util.regex.Pattern.compile("\\b" + pattern + "\\b", 
-                        java.util.regex.Pattern.CASE_INSENSITIVE | java.util.regex.Pattern.DOTALL);
-                }
-                
-                if (compiledPattern.matcher(code).find()) {
-                    log.warn("SECURITY ALERT: Dangerous code pattern detected: {}", pattern);
-                    return "Dangerous pattern detected: " + pattern.replace("\\", "");
-                }
-            } catch (java.util.regex.PatternSyntaxException e) {
-                log.error("Invalid regex pattern: {}", pattern, e);
-                // Fallback to simple contains check for invalid patterns
-                if (codeLower.contains(pattern.replace("\\", "").replace("(", "").replace(")", ""))) {
-                    log.warn("SECURITY ALERT: Dangerous code pattern detected (fallback): {}", pattern);
-                    return "Dangerous pattern detected: " + pattern.replace("\\", "");
-                }
-            }
-        }
-        
-        // Check for suspicious function calls (with word boundaries)
-        if (codeLower.matches("(?s).*\\bsystem\\b.*") && codeLower.matches("(?s).*\\bexit\\b.*")) {
-            log.warn("SECURITY ALERT: Suspicious system exit call detected");
-            return "Suspicious system exit call detected";
-        }
-        
-        return null;
-    }
-
     @Override
     public String getNodeType() {
         return "code";
     }
-
-    /**
-     * Convert GraalVM Value to Java object
-     */
-    private Object convertValueToJava(Value value) {
-        if (value == null || value.isNull()) {
-            return null;
-        }
-
-        if (value.isString()) {
-            return value.asString();
-        }
-
-        if (value.isNumber()) {
-            if (value.fitsInInt()) {
-                return value.asInt();
-            } else if (value.fitsInLong()) {
-                return value.asLong();
-            } else {
-                return value.asDouble();
-            }
-        }
-
-        if (value.isBoolean()) {
-            return value.asBoolean();
-        }
-
-        if (value.hasArrayElements()) {
-            List<Object> list = new ArrayList<>();
-            long size = value.getArraySize();
-            for (long i = 0; i < size; i++) {
-                list.add(convertValueToJava(value.getArrayElement(i)));
-            }
-            return list;
-        }
-
-        if (value.hasMembers()) {
-            Map<String, Object> map = new HashMap<>();
-            for (String key : value.getMemberKeys()) {
-                map.put(key, convertValueToJava(value.getMember(key)));
-            }
-            return map;
-        }
-
-        // Fallback to string representation
-        return value.toString();
-    }
 }
@@ -3,12 +3,18 @@ package io.celox.taskflow.task.workflow.executors;
 import io.celox.taskflow.task.workflow.ExecutionContext;
 import io.celox.taskflow.task.workflow.NodeExecutor;
 import io.celox.taskflow.task.workflow.WorkflowNode;
+import io.celox.taskflow.task.workflow.expression.ConditionExpression;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.util.Map;
 
+/**
+ * Evaluates a condition node. An {@code expression} (in the node data or its {@code config}) is compiled when the
+ * workflow is compiled, see {@link ConditionExpression}; otherwise a single {@code left operator right} comparison
+ * is made.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -20,6 +26,11 @@ public class ConditionExecutor implements NodeExecutor {
 
         context.log("Executing Condition node: " + node.getId());
 
+        String expression = expressionOf(data);
+        if (expression != null) {
+            return evaluate(node, expression, compile(node, expression), context);
+        }
+
         // Get condition parameters
         String leftOperand = resolveValue((String) data.get("left"), context);
         String operator = (String) data.get("operator");
@@ -38,6 +49,58 @@ public class ConditionExecutor implements NodeExecutor {
         return "condition";
     }
 
+    /**
+     * Compiles the expression of the node once, so an invalid one rejects the workflow before it runs.
+     */
+    @Override
+    public NodeExecutor bind(WorkflowNode node) {
+        String expression = expressionOf(node.getData());
+        if (expression == null) {
+            return this;
+        }
+        ConditionExpression compiled = compile(node, expression);
+        return new NodeExecutor() {
+            @Override
+            public Object execute(WorkflowNode boundNode, ExecutionContext context) {
+                context.log("Executing Condition node: " + boundNode.getId());
+                return evaluate(boundNode, expression, compiled, context);
+            }
+
+            @Override
+            public String getNodeType() {
+                return ConditionExecutor.this.getNodeType();
+            }
+        };
+    }
+
+    private static boolean evaluate(WorkflowNode node, String expression, ConditionExpression compiled,
+                                    ExecutionContext context) {
+        boolean result = compiled.evaluate(context);
+        context.log("Condition evaluated: " + expression + " = " + result);
+        context.setVariable(node.getId() + "_result", result);
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String expressionOf(Map<String, Object> data) {
+        if (data == null) {
+            return null;
+        }
+        Object expression = data.get("expression");
+        if (expression == null && data.get("config") instanceof Map<?, ?> config) {
+            expression = ((Map<String, Object>) config).get("expression");
+        }
+        return expression instanceof String text && !text.isBlank() ? text : null;
+    }
+
+    private static ConditionExpression compile(WorkflowNode node, String expression) {
+        try {
+            return ConditionExpression.compile(expression);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("condition node " + node.getId() + ": " + e.getMessage(), e);
+        }
+    }
+
     private String resolveValue(String value, ExecutionContext context) {
         if (value == null) {
             return null;
@@ -7,6 +7,7 @@ import io.celox.taskflow.task.dto.TaskDto;
 import io.celox.taskflow.task.service.TaskService;
 import io.celox.taskflow.task.workflow.ExecutionContext;
 import io.celox.taskflow.task.workflow.NodeExecutor;
+import io.celox.taskflow.task.workflow.TemplateEngine;
 import io.celox.taskflow.task.workflow.WorkflowNode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,6 +22,7 @@ import java.util.UUID;
 public class CreateTaskExecutor implements NodeExecutor {
 
     private final TaskService taskService;
+    private final TemplateEngine templateEngine;
 
     @Override
     public Object execute(WorkflowNode node, ExecutionContext context) {
@@ -29,8 +31,8 @@ public class CreateTaskExecutor implements NodeExecutor {
         context.log("Executing CreateTask node: " + node.getId());
 
         // Extract task data from node configuration
-        String title = resolveTemplate((String) data.get("title"), context);
-        String description = resolveTemplate((String) data.get("description"), context);
+        String title = templateEngine.render((String) data.get("title"), context);
+        String description = templateEngine.render((String) data.get("description"), context);
         String priority = (String) data.getOrDefault("priority", "MEDIUM");
         String category = (String) data.getOrDefault("category", "WORK");
 
@@ -49,7 +51,7 @@ public class CreateTaskExecutor implements NodeExecutor {
         }
 
         // Create the task
-        TaskDto createdTask = taskService.createTask(createTaskDto);
+        TaskDto createdTask = taskService.createTask(createTaskDto, context.getTriggerChain());
 
         context.log("Created task: " + createdTask.getTitle() + " (ID: " + createdTask.getId() + ")");
         context.setVariable(node.getId() + "_result", createdTask);
@@ -61,35 +63,4 @@ public class CreateTaskExecutor implements NodeExecutor {
     public String getNodeType() {
         return "createTask";
     }
-
-    /**
-     * Resolve template variables like {{variableName}}
-     */
-    private String resolveTemplate(String template, ExecutionContext context) {
-        if (template == null) {
-            return null;
-        }
-
-        String result = template;
-
-        // Replace {{variable}} with actual values from context
-        if (template.contains("{{")) {
-            for (Map.Entry<String, Object> entry : context.getVariables().entrySet()) {
-                String placeholder = "{{" + entry.getKey() + "}}";
-                if (result.contains(placeholder)) {
-                    result = result.replace(placeholder, String.valueOf(entry.getValue()));
-                }
-            }
-
-            // Also check trigger data
-            for (Map.Entry<String, Object> entry : context.getTriggerData().entrySet()) {
-                String placeholder = "{{" + entry.getKey() + "}}";
-                if (result.contains(placeholder)) {
-                    result = result.replace(placeholder, String.valueOf(entry.getValue()));
-                }
-            }
-        }
-
-        return result;
-    }
 }
@@ -2,11 +2,18 @@ package io.celox.taskflow.task.workflow.executors;
 
 import io.celox.taskflow.task.workflow.ExecutionContext;
 import io.celox.taskflow.task.workflow.NodeExecutor;
+import io.celox.taskflow.task.workflow.TemplateEngine;
 import io.celox.taskflow.task.workflow.WorkflowNode;
+import io.celox.taskflow.task.workflow.output.OutputBuffer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
 
 import java.util.HashMap;
 import java.util.List;
@@ -17,7 +24,12 @@ import java.util.Map;
 @Slf4j
 public class DatabaseExecutor implements NodeExecutor {
 
+    // Rows fetched per round trip; PostgreSQL only streams a result set inside a transaction
+    private static final int FETCH_SIZE = 500;
+
     private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TemplateEngine templateEngine;
 
     @Override
     public Object execute(WorkflowNode node, ExecutionContext context) {
@@ -25,7 +37,7 @@ public class DatabaseExecutor implements NodeExecutor {
 
         context.log("Executing Database node: " + node.getId());
 
-        String query = resolveTemplate((String) data.get("query"), context);
+        String query = templateEngine.render((String) data.get("query"), context);
         String operation = (String) data.getOrDefault("operation", "select");
 
         if (query == null || query.trim().isEmpty()) {
@@ -35,7 +47,7 @@ public class DatabaseExecutor implements NodeExecutor {
 
         try {
             if ("select".equalsIgnoreCase(operation)) {
-                List<Map<String, Object>> results = jdbcTemplate.queryForList(query);
+                List<Object> results = select(query, node, context);
 
                 Map<String, Object> result = new HashMap<>();
                 result.put("rows", results);
@@ -70,34 +82,26 @@ public class DatabaseExecutor implements NodeExecutor {
         }
     }
 
+    /**
+     * Streams the rows into an output buffer, so a large result is spilled to disk instead of being held in memory.
+     */
+    private List<Object> select(String query, WorkflowNode node, ExecutionContext context) {
+        OutputBuffer rows = context.getOutputBudget().newBuffer(node.getId());
+        ColumnMapRowMapper rowMapper = new ColumnMapRowMapper();
+        RowCallbackHandler collect = resultSet -> rows.add(rowMapper.mapRow(resultSet, 0));
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(query);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, collect));
+        if (rows.isSpilled()) {
+            context.log("Rows of node " + node.getId() + " spilled to disk");
+        }
+        return rows.finish();
+    }
+
     @Override
     public String getNodeType() {
         return "database";
     }
-
-    private String resolveTemplate(String template, ExecutionContext context) {
-        if (template == null) {
-            return null;
-        }
-
-        String result = template;
-
-        if (template.contains("{{")) {
-            for (Map.Entry<String, Object> entry : context.getVariables().entrySet()) {
-                String placeholder = "{{" + entry.getKey() + "}}";
-                if (result.contains(placeholder)) {
-                    result = result.replace(placeholder, String.valueOf(entry.getValue()));
-                }
-            }
-
-            for (Map.Entry<String, Object> entry : context.getTriggerData().entrySet()) {
-                String placeholder = "{{" + entry.getKey() + "}}";
-                if (result.contains(placeholder)) {
-                    result = result.replace(placeholder, String.valueOf(entry.getValue()));
-                }
-            }
-        }
-
-        return result;
-    }
 }
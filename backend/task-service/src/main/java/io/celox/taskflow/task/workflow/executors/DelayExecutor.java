@@ -3,10 +3,14 @@ package io.celox.taskflow.task.workflow.executors;
 import io.celox.taskflow.task.workflow.ExecutionContext;
 import io.celox.taskflow.task.workflow.NodeExecutor;
 import io.celox.taskflow.task.workflow.WorkflowNode;
+import io.celox.taskflow.task.workflow.WorkflowSuspension;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Map;
 
 @Component
@@ -14,6 +18,14 @@ import java.util.Map;
 @Slf4j
 public class DelayExecutor implements NodeExecutor {
 
+    private static final long DEFAULT_DELAY_MS = 1000;
+
+    /**
+     * Delays up to this length are waited out on the worker thread; longer ones suspend the execution.
+     */
+    @Value("${app.workflow.delay.inline-threshold-ms:1000}")
+    private final long inlineThresholdMs;
+
     @Override
     public Object execute(WorkflowNode node, ExecutionContext context) {
         Map<String, Object> data = node.getData();
@@ -21,7 +33,13 @@ public class DelayExecutor implements NodeExecutor {
         context.log("Executing Delay node: " + node.getId());
 
         // Get delay duration in milliseconds
-        Integer delayMs = (Integer) data.getOrDefault("delayMs", 1000);
+        long delayMs = parseDelay(data != null ? data.get("delayMs") : null);
+
+        if (delayMs > inlineThresholdMs) {
+            LocalDateTime resumeAt = LocalDateTime.now().plus(delayMs, ChronoUnit.MILLIS);
+            context.log("Suspending execution for " + delayMs + "ms until " + resumeAt);
+            return new WorkflowSuspension(resumeAt);
+        }
 
         try {
             context.log("Delaying execution for " + delayMs + "ms");
@@ -36,6 +54,22 @@ public class DelayExecutor implements NodeExecutor {
         return null;
     }
 
+    @Override
+    public boolean maySuspend(WorkflowNode node) {
+        Map<String, Object> data = node.getData();
+        return parseDelay(data != null ? data.get("delayMs") : null) > inlineThresholdMs;
+    }
+
+    private long parseDelay(Object value) {
+        if (value instanceof Number number) {
+            return Math.max(0, number.longValue());
+        }
+        if (value instanceof String text && text.trim().matches("\\d+")) {
+            return Long.parseLong(text.trim());
+        }
+        return DEFAULT_DELAY_MS;
+    }
+
     @Override
     public String getNodeType() {
         return "delay";
@@ -2,6 +2,7 @@ package io.celox.taskflow.task.workflow.executors;
 
 import io.celox.taskflow.task.workflow.ExecutionContext;
 import io.celox.taskflow.task.workflow.NodeExecutor;
+import io.celox.taskflow.task.workflow.TemplateEngine;
 import io.celox.taskflow.task.workflow.WorkflowNode;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
@@ -19,6 +20,7 @@ import java.util.Map;
 public class EmailExecutor implements NodeExecutor {
 
     private final JavaMailSender mailSender;
+    private final TemplateEngine templateEngine;
 
     @Override
     public Object execute(WorkflowNode node, ExecutionContext context) {
@@ -35,9 +37,9 @@ public class EmailExecutor implements NodeExecutor {
 
         log.info("Email node config: {}", config);
         
-        String to = resolveTemplate((String) config.get("to"), context);
-        String subject = resolveTemplate((String) config.get("subject"), context);
-        String body = resolveTemplate((String) config.get("body"), context);
+        String to = templateEngine.render((String) config.get("to"), context);
+        String subject = templateEngine.render((String) config.get("subject"), context);
+        String body = templateEngine.render((String) config.get("body"), context);
         String from = (String) config.getOrDefault("from", "martin.pfeffer@celox.io");
         
         log.info("Resolved email fields - To: {}, Subject: {}, From: {}", to, subject, from);
@@ -103,30 +105,4 @@ public class EmailExecutor implements NodeExecutor {
     public String getNodeType() {
         return "email";
     }
-
-    private String resolveTemplate(String template, ExecutionContext context) {
-        if (template == null) {
-            return null;
-        }
-
-        String result = template;
-
-        if (template.contains("{{")) {
-            for (Map.Entry<String, Object> entry : context.getVariables().entrySet()) {
-                String placeholder = "{{" + entry.getKey() + "}}";
-                if (result.contains(placeholder)) {
-                    result = result.replace(placeholder, String.valueOf(entry.getValue()));
-                }
-            }
-
-            for (Map.Entry<String, Object> entry : context.getTriggerData().entrySet()) {
-                String placeholder = "{{" + entry.getKey() + "}}";
-                if (result.contains(placeholder)) {
-                    result = result.replace(placeholder, String.valueOf(entry.getValue()));
-                }
-            }
-        }
-
-        return result;
-    }
 }
@@ -1,15 +1,24 @@
 package io.celox.taskflow.task.workflow.executors;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.celox.taskflow.task.workflow.ExecutionContext;
 import io.celox.taskflow.task.workflow.NodeExecutor;
+import io.celox.taskflow.task.workflow.TemplateEngine;
 import io.celox.taskflow.task.workflow.WorkflowNode;
+import io.celox.taskflow.task.workflow.output.OutputBudget;
+import io.celox.taskflow.task.workflow.output.OutputBuffer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -19,6 +28,8 @@ import java.util.Map;
 public class HttpRequestExecutor implements NodeExecutor {
 
     private final RestTemplate restTemplate;
+    private final TemplateEngine templateEngine;
+    private final ObjectMapper objectMapper;
 
     @Override
     public Object execute(WorkflowNode node, ExecutionContext context) {
@@ -27,7 +38,7 @@ public class HttpRequestExecutor implements NodeExecutor {
         context.log("Executing HttpRequest node: " + node.getId());
 
         // Extract configuration
-        String url = resolveTemplate((String) data.get("url"), context);
+        String url = templateEngine.render((String) data.get("url"), context);
         String method = (String) data.getOrDefault("method", "GET");
 
         context.log("HTTP Request: " + method + " " + url);
@@ -43,7 +54,7 @@ public class HttpRequestExecutor implements NodeExecutor {
             if (headersList != null) {
                 for (Map<String, String> header : headersList) {
                     String key = header.get("key");
-                    String value = resolveTemplate(header.get("value"), context);
+                    String value = templateEngine.render(header.get("value"), context);
                     if (key != null && !key.isEmpty() && value != null) {
                         httpHeaders.set(key, value);
                     }
@@ -55,40 +66,32 @@ public class HttpRequestExecutor implements NodeExecutor {
         Object body = null;
         if (data.containsKey("body") && data.get("body") != null) {
             String bodyTemplate = (String) data.get("body");
-            body = resolveTemplate(bodyTemplate, context);
+            body = templateEngine.render(bodyTemplate, context);
         }
 
         HttpEntity<Object> entity = new HttpEntity<>(body, httpHeaders);
 
         try {
-            ResponseEntity<Map> response;
-
-            switch (method.toUpperCase()) {
-                case "POST":
-                    response = restTemplate.postForEntity(url, entity, Map.class);
-                    break;
-                case "PUT":
-                    response = restTemplate.exchange(url, HttpMethod.PUT, entity, Map.class);
-                    break;
-                case "PATCH":
-                    response = restTemplate.exchange(url, HttpMethod.PATCH, entity, Map.class);
-                    break;
-                case "DELETE":
-                    response = restTemplate.exchange(url, HttpMethod.DELETE, entity, Map.class);
-                    break;
-                case "GET":
-                default:
-                    response = restTemplate.exchange(url, HttpMethod.GET, entity, Map.class);
-                    break;
-            }
-
-            // Build result object
-            Map<String, Object> result = new HashMap<>();
-            result.put("statusCode", response.getStatusCode().value());
-            result.put("headers", response.getHeaders().toSingleValueMap());
-            result.put("body", response.getBody());
-
-            context.log("HTTP Request successful - Status: " + response.getStatusCode().value());
+            HttpMethod httpMethod = switch (method.toUpperCase()) {
+                case "POST" -> HttpMethod.POST;
+                case "PUT" -> HttpMethod.PUT;
+                case "PATCH" -> HttpMethod.PATCH;
+                case "DELETE" -> HttpMethod.DELETE;
+                default -> HttpMethod.GET;
+            };
+
+            // The body is parsed while it is read, large arrays in it go through the execution's output budget
+            OutputBudget outputBudget = context.getOutputBudget();
+            Map<String, Object> result = restTemplate.execute(url, httpMethod,
+                    restTemplate.httpEntityCallback(entity, Map.class), response -> {
+                        Map<String, Object> responseResult = new HashMap<>();
+                        responseResult.put("statusCode", response.getStatusCode().value());
+                        responseResult.put("headers", response.getHeaders().toSingleValueMap());
+                        responseResult.put("body", readBody(response.getBody(), node.getId(), outputBudget));
+                        return responseResult;
+                    });
+
+            context.log("HTTP Request successful - Status: " + result.get("statusCode"));
             context.setVariable(node.getId() + "_result", result);
 
             return result;
@@ -106,39 +109,52 @@ public class HttpRequestExecutor implements NodeExecutor {
         }
     }
 
-    @Override
-    public String getNodeType() {
-        return "httpRequest";
-    }
-
-    /**
-     * Resolve template variables like {{variableName}}
-     */
-    private String resolveTemplate(String template, ExecutionContext context) {
-        if (template == null) {
-            return null;
+    private Object readBody(InputStream body, String nodeId, OutputBudget outputBudget) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            return parser.nextToken() != null ? readValue(parser, nodeId, outputBudget) : null;
         }
+    }
 
-        String result = template;
-
-        // Replace {{variable}} with actual values from context
-        if (template.contains("{{")) {
-            for (Map.Entry<String, Object> entry : context.getVariables().entrySet()) {
-                String placeholder = "{{" + entry.getKey() + "}}";
-                if (result.contains(placeholder)) {
-                    result = result.replace(placeholder, String.valueOf(entry.getValue()));
+    private Object readValue(JsonParser parser, String nodeId, OutputBudget outputBudget) throws IOException {
+        JsonToken token = parser.currentToken();
+        switch (token) {
+            case START_OBJECT -> {
+                Map<String, Object> object = new LinkedHashMap<>();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.currentName();
+                    parser.nextToken();
+                    object.put(name, readValue(parser, nodeId, outputBudget));
                 }
+                return object;
             }
-
-            // Also check trigger data
-            for (Map.Entry<String, Object> entry : context.getTriggerData().entrySet()) {
-                String placeholder = "{{" + entry.getKey() + "}}";
-                if (result.contains(placeholder)) {
-                    result = result.replace(placeholder, String.valueOf(entry.getValue()));
+            case START_ARRAY -> {
+                OutputBuffer items = outputBudget.newBuffer(nodeId);
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    items.add(readValue(parser, nodeId, outputBudget));
                 }
+                return items.finish();
+            }
+            case VALUE_STRING -> {
+                return parser.getText();
+            }
+            case VALUE_NUMBER_INT -> {
+                return parser.getNumberValue();
+            }
+            case VALUE_NUMBER_FLOAT -> {
+                return parser.getDoubleValue();
+            }
+            case VALUE_TRUE, VALUE_FALSE -> {
+                return parser.getBooleanValue();
             }
+            case VALUE_NULL -> {
+                return null;
+            }
+            default -> throw new IOException("Unexpected " + token + " in response body");
         }
+    }
 
-        return result;
+    @Override
+    public String getNodeType() {
+        return "httpRequest";
     }
 }
@@ -55,7 +55,7 @@ public class UpdateTaskExecutor implements NodeExecutor {
         }
 
         // Update the task
-        TaskDto updatedTask = taskService.updateTask(taskId, updateDto);
+        TaskDto updatedTask = taskService.updateTask(taskId, updateDto, context.getTriggerChain());
 
         context.log("Updated task: " + updatedTask.getTitle() + " (ID: " + updatedTask.getId() + ")");
         context.setVariable(node.getId() + "_result", updatedTask);
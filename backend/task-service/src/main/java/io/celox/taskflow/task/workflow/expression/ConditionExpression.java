@@ -0,0 +1,459 @@
+package io.celox.taskflow.task.workflow.expression;
+
+import io.celox.taskflow.task.workflow.ExecutionContext;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Boolean expression of a condition node, compiled once into a tree of terms and evaluated against an
+ * execution context, e.g.
+ * <pre>
+ * $trigger.priority == 'HIGH' &amp;&amp; ($db1.count &gt; 5 || $trigger.status in ['OPEN', 'NEW'])
+ * </pre>
+ * <ul>
+ *   <li>Values: paths such as {@code $trigger.task.title}, {@code $node1.body.id}, {@code $vars.total} or
+ *   {@code taskId} (see {@link ExecutionContext#resolvePath(String)}), optionally written as <code>{{ path }}</code>;
+ *   {@code .length} of a list, map or text; numbers, quoted texts, {@code true}, {@code false}, {@code null} and
+ *   lists like {@code [1, 2]}</li>
+ *   <li>Comparisons: {@code == != < <= > >=} ({@code ===} and {@code !==} are accepted as well), {@code in},
+ *   {@code contains}, {@code startsWith}, {@code endsWith} and {@code =~} or {@code matches} for a regular
+ *   expression found in the value; the expression must be a quoted literal</li>
+ *   <li>Logic: {@code && || !} (or {@code and or not}) and parentheses</li>
+ * </ul>
+ * Comparisons are typed: numbers compare as numbers, also when one side is numeric text; dates, date-times and
+ * ISO-8601 texts compare as points in time; other values compare as text. A comparison that does not apply to its
+ * values, such as {@code 'abc' > 5}, is false.
+ */
+public final class ConditionExpression {
+
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final int UNORDERED = Integer.MAX_VALUE;
+
+    private final String source;
+    private final Term root;
+
+    ConditionExpression(String source, Term root) {
+        this.source = source;
+        this.root = root;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the expression is not valid
+     */
+    public static ConditionExpression compile(String expression) {
+        return new ConditionExpression(expression, new ExpressionParser(expression).parse());
+    }
+
+    public boolean evaluate(ExecutionContext context) {
+        return isTrue(root.evaluate(context));
+    }
+
+    /**
+     * @return the value of the expression as it is, e.g. the field a path points at, not reduced to true or false
+     */
+    public Object evaluateValue(ExecutionContext context) {
+        return root.evaluate(context);
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    /**
+     * Node of the compiled expression.
+     */
+    interface Term {
+        Object evaluate(ExecutionContext context);
+    }
+
+    enum Operator {
+        EQUALS, NOT_EQUALS, LESS, LESS_OR_EQUAL, GREATER, GREATER_OR_EQUAL,
+        IN, CONTAINS, STARTS_WITH, ENDS_WITH, MATCHES
+    }
+
+    /**
+     * Constant, with its numeric and time value worked out once.
+     */
+    static final class Literal implements Term {
+        final Object value;
+        final double number;
+        final long time;
+
+        Literal(Object value) {
+            this.value = value;
+            this.number = value instanceof Number n ? n.doubleValue()
+                    : value instanceof String text ? parseNumber(text) : Double.NaN;
+            this.time = value instanceof String text ? parseTime(text) : NO_TIME;
+        }
+
+        @Override
+        public Object evaluate(ExecutionContext context) {
+            return value;
+        }
+    }
+
+    record ListTerm(List<Term> items) implements Term {
+        @Override
+        public Object evaluate(ExecutionContext context) {
+            List<Object> values = new ArrayList<>(items.size());
+            for (Term item : items) {
+                values.add(item.evaluate(context));
+            }
+            return values;
+        }
+    }
+
+    /**
+     * Value at a path; {@code lengthOf} is the path without a trailing {@code length}, if there is one.
+     */
+    record Reference(String[] path, String[] lengthOf) implements Term {
+        @Override
+        public Object evaluate(ExecutionContext context) {
+            Object value = context.resolvePath(path);
+            if (value == null && lengthOf != null) {
+                Object parent = lengthOf.length > 0 ? context.resolvePath(lengthOf) : null;
+                if (parent instanceof Collection<?> collection) {
+                    return collection.size();
+                } else if (parent instanceof Map<?, ?> map) {
+                    return map.size();
+                } else if (parent instanceof CharSequence text) {
+                    return text.length();
+                }
+            }
+            return value;
+        }
+    }
+
+    record Not(Term operand) implements Term {
+        @Override
+        public Object evaluate(ExecutionContext context) {
+            return !isTrue(operand.evaluate(context));
+        }
+    }
+
+    record And(Term left, Term right) implements Term {
+        @Override
+        public Object evaluate(ExecutionContext context) {
+            return isTrue(left.evaluate(context)) && isTrue(right.evaluate(context));
+        }
+    }
+
+    record Or(Term left, Term right) implements Term {
+        @Override
+        public Object evaluate(ExecutionContext context) {
+            return isTrue(left.evaluate(context)) || isTrue(right.evaluate(context));
+        }
+    }
+
+    /**
+     * Comparison of two values; the regular expression of {@code =~}, always a literal, is compiled with the expression.
+     */
+    record Comparison(Term left, Operator operator, Term right, Pattern pattern) implements Term {
+        @Override
+        public Object evaluate(ExecutionContext context) {
+            // Lists written in the expression are searched term by term, without building them
+            if (operator == Operator.IN && right instanceof ListTerm list) {
+                return listContains(list, left.evaluate(context), left, context);
+            }
+            if (operator == Operator.CONTAINS && left instanceof ListTerm list) {
+                return listContains(list, right.evaluate(context), right, context);
+            }
+            Object l = left.evaluate(context);
+            Object r = right.evaluate(context);
+            return switch (operator) {
+                case EQUALS -> equal(l, left, r, right);
+                case NOT_EQUALS -> !equal(l, left, r, right);
+                case LESS, LESS_OR_EQUAL, GREATER, GREATER_OR_EQUAL -> ordered(operator, compare(l, left, r, right));
+                case IN -> contains(r, l, left);
+                case CONTAINS -> l instanceof CharSequence text
+                        ? r != null && text.toString().contains(text(r))
+                        : contains(l, r, right);
+                case STARTS_WITH -> l instanceof CharSequence text && r != null && text.toString().startsWith(text(r));
+                case ENDS_WITH -> l instanceof CharSequence text && r != null && text.toString().endsWith(text(r));
+                case MATCHES -> l != null && pattern.matcher(text(l)).find();
+            };
+        }
+    }
+
+    static boolean isTrue(Object value) {
+        if (value instanceof Boolean bool) {
+            return bool;
+        }
+        if (value == null) {
+            return false;
+        }
+        if (value instanceof Number number) {
+            return number.doubleValue() != 0;
+        }
+        if (value instanceof CharSequence text) {
+            return !text.isEmpty() && !"false".contentEquals(text);
+        }
+        if (value instanceof Collection<?> collection) {
+            return !collection.isEmpty();
+        }
+        if (value instanceof Map<?, ?> map) {
+            return !map.isEmpty();
+        }
+        return true;
+    }
+
+    private static boolean equal(Object l, Term leftTerm, Object r, Term rightTerm) {
+        if (l == null || r == null) {
+            return l == r;
+        }
+        if (l instanceof Number || r instanceof Number) {
+            double ln = number(l, leftTerm);
+            double rn = number(r, rightTerm);
+            if (!Double.isNaN(ln) && !Double.isNaN(rn)) {
+                return ln == rn;
+            }
+        }
+        if (isTemporal(l) || isTemporal(r)) {
+            long lt = time(l, leftTerm);
+            long rt = time(r, rightTerm);
+            if (lt != NO_TIME && rt != NO_TIME) {
+                return lt == rt;
+            }
+        }
+        return text(l).equals(text(r));
+    }
+
+    /**
+     * @return the order of both values, or {@link #UNORDERED} if they cannot be ordered
+     */
+    private static int compare(Object l, Term leftTerm, Object r, Term rightTerm) {
+        if (l == null || r == null) {
+            return UNORDERED;
+        }
+        double ln = number(l, leftTerm);
+        double rn = number(r, rightTerm);
+        if (!Double.isNaN(ln) && !Double.isNaN(rn)) {
+            return Double.compare(ln, rn);
+        }
+        long lt = time(l, leftTerm);
+        long rt = time(r, rightTerm);
+        if (lt != NO_TIME && rt != NO_TIME) {
+            return Long.compare(lt, rt);
+        }
+        if (l instanceof CharSequence && r instanceof CharSequence) {
+            return Integer.signum(l.toString().compareTo(r.toString()));
+        }
+        return UNORDERED;
+    }
+
+    private static boolean ordered(Operator operator, int order) {
+        if (order == UNORDERED) {
+            return false;
+        }
+        return switch (operator) {
+            case LESS -> order < 0;
+            case LESS_OR_EQUAL -> order <= 0;
+            case GREATER -> order > 0;
+            default -> order >= 0;
+        };
+    }
+
+    private static boolean listContains(ListTerm list, Object item, Term itemTerm, ExecutionContext context) {
+        for (Term element : list.items()) {
+            if (equal(item, itemTerm, element.evaluate(context), element)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean contains(Object container, Object item, Term itemTerm) {
+        if (container instanceof Collection<?> collection) {
+            for (Object element : collection) {
+                if (equal(item, itemTerm, element, null)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (container instanceof Map<?, ?> map) {
+            return item != null && map.containsKey(text(item));
+        }
+        if (container instanceof CharSequence text) {
+            return item != null && text.toString().contains(text(item));
+        }
+        return false;
+    }
+
+    private static double number(Object value, Term term) {
+        if (term instanceof Literal literal) {
+            return literal.number;
+        }
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        if (value instanceof String text) {
+            return parseNumber(text);
+        }
+        return Double.NaN;
+    }
+
+    private static double parseNumber(String text) {
+        if (!looksNumeric(text)) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static boolean isTemporal(Object value) {
+        return value instanceof TemporalAccessor || value instanceof Date;
+    }
+
+    private static long time(Object value, Term term) {
+        if (term instanceof Literal literal) {
+            return literal.time;
+        }
+        if (value instanceof Instant instant) {
+            return instant.toEpochMilli();
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+        }
+        if (value instanceof LocalDate date) {
+            return date.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        }
+        if (value instanceof OffsetDateTime dateTime) {
+            return dateTime.toInstant().toEpochMilli();
+        }
+        if (value instanceof ZonedDateTime dateTime) {
+            return dateTime.toInstant().toEpochMilli();
+        }
+        if (value instanceof Date date) {
+            return date.getTime();
+        }
+        if (value instanceof String text) {
+            return parseTime(text);
+        }
+        return NO_TIME;
+    }
+
+    /**
+     * Milliseconds since the epoch of an ISO-8601 date or date-time; local values count as UTC.
+     */
+    static long parseTime(String text) {
+        if (text.length() < 10 || text.charAt(4) != '-' || text.charAt(7) != '-'
+                || !Character.isDigit(text.charAt(0))) {
+            return NO_TIME;
+        }
+        long plain = parsePlainTime(text);
+        if (plain != NO_TIME) {
+            return plain;
+        }
+        try {
+            if (text.length() == 10) {
+                return LocalDate.parse(text).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+            }
+            char last = text.charAt(text.length() - 1);
+            if (last == 'Z' || text.lastIndexOf('+') > 10 || text.lastIndexOf('-') > 10) {
+                return OffsetDateTime.parse(text).toInstant().toEpochMilli();
+            }
+            return LocalDateTime.parse(text).toInstant(ZoneOffset.UTC).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return NO_TIME;
+        }
+    }
+
+    /**
+     * {@code yyyy-MM-dd}, {@code yyyy-MM-ddTHH:mm:ss} and the same with {@code Z}, read without a parser;
+     * other forms give {@link #NO_TIME}.
+     */
+    private static long parsePlainTime(String text) {
+        int length = text.length();
+        boolean dateTime = length == 19 || (length == 20 && text.charAt(19) == 'Z');
+        if (length != 10 && !dateTime) {
+            return NO_TIME;
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return NO_TIME;
+        }
+        long seconds = 0;
+        if (dateTime) {
+            if (text.charAt(10) != 'T' || text.charAt(13) != ':' || text.charAt(16) != ':') {
+                return NO_TIME;
+            }
+            int hour = digits(text, 11, 2);
+            int minute = digits(text, 14, 2);
+            int second = digits(text, 17, 2);
+            if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+                return NO_TIME;
+            }
+            seconds = hour * 3600L + minute * 60L + second;
+        }
+        if (day > 28 && day > YearMonth.of(year, month).lengthOfMonth()) {
+            return NO_TIME;
+        }
+        return (LocalDate.of(year, month, day).toEpochDay() * 86_400L + seconds) * 1000L;
+    }
+
+    private static int digits(String text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Cheap check for a decimal number, so that other texts never reach {@link Double#parseDouble}.
+     */
+    private static boolean looksNumeric(String text) {
+        int length = text.length();
+        if (length == 0 || length > 32) {
+            return false;
+        }
+        boolean digit = false;
+        boolean dot = false;
+        boolean exponent = false;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digit = true;
+            } else if (c == '.' && !dot && !exponent) {
+                dot = true;
+            } else if ((c == 'e' || c == 'E') && digit && !exponent) {
+                exponent = true;
+                digit = false;
+            } else if ((c == '-' || c == '+') && (i == 0 || text.charAt(i - 1) == 'e' || text.charAt(i - 1) == 'E')) {
+                continue;
+            } else {
+                return false;
+            }
+        }
+        return digit;
+    }
+
+    private static String text(Object value) {
+        return value instanceof String text ? text : String.valueOf(value);
+    }
+}
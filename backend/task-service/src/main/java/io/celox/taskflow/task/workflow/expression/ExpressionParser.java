@@ -0,0 +1,374 @@
+package io.celox.taskflow.task.workflow.expression;
+
+import io.celox.taskflow.task.workflow.expression.ConditionExpression.And;
+import io.celox.taskflow.task.workflow.expression.ConditionExpression.Comparison;
+import io.celox.taskflow.task.workflow.expression.ConditionExpression.ListTerm;
+import io.celox.taskflow.task.workflow.expression.ConditionExpression.Literal;
+import io.celox.taskflow.task.workflow.expression.ConditionExpression.Not;
+import io.celox.taskflow.task.workflow.expression.ConditionExpression.Operator;
+import io.celox.taskflow.task.workflow.expression.ConditionExpression.Or;
+import io.celox.taskflow.task.workflow.expression.ConditionExpression.Reference;
+import io.celox.taskflow.task.workflow.expression.ConditionExpression.Term;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Turns the text of a {@link ConditionExpression} into its terms. Precedence, lowest first:
+ * <pre>
+ * or         := and (('||' | 'or') and)*
+ * and        := unary (('&amp;&amp;' | 'and') unary)*
+ * unary      := ('!' | 'not') unary | comparison
+ * comparison := primary (['not'] operator primary)?
+ * primary    := '(' or ')' | '[' (primary (',' primary)*)? ']' | number | text | true | false | null | path
+ * </pre>
+ */
+final class ExpressionParser {
+
+    private static final List<String> SYMBOLS = List.of(
+            "===", "!==", "==", "!=", "<=", ">=", "=~", "&&", "||", "<", ">", "!", "(", ")", "[", "]", ",");
+
+    private static final Map<String, Operator> OPERATORS = Map.ofEntries(
+            Map.entry("==", Operator.EQUALS), Map.entry("===", Operator.EQUALS),
+            Map.entry("!=", Operator.NOT_EQUALS), Map.entry("!==", Operator.NOT_EQUALS),
+            Map.entry("<", Operator.LESS), Map.entry("<=", Operator.LESS_OR_EQUAL),
+            Map.entry(">", Operator.GREATER), Map.entry(">=", Operator.GREATER_OR_EQUAL),
+            Map.entry("=~", Operator.MATCHES), Map.entry("matches", Operator.MATCHES),
+            Map.entry("in", Operator.IN), Map.entry("contains", Operator.CONTAINS),
+            Map.entry("startsWith", Operator.STARTS_WITH), Map.entry("endsWith", Operator.ENDS_WITH));
+
+    private enum Kind { NUMBER, TEXT, WORD, PATH, SYMBOL, END }
+
+    private record Token(Kind kind, String text, int position) {
+        boolean is(String symbolOrWord) {
+            return (kind == Kind.SYMBOL || kind == Kind.WORD) && text.equals(symbolOrWord);
+        }
+    }
+
+    private final String source;
+    private final List<Token> tokens = new ArrayList<>();
+    private int index;
+
+    ExpressionParser(String source) {
+        this.source = source;
+    }
+
+    Term parse() {
+        if (source == null || source.isBlank()) {
+            throw new IllegalArgumentException("Expression is empty");
+        }
+        tokenize(unwrap(source.trim()));
+        Term term = or();
+        if (peek().kind() != Kind.END) {
+            throw error("unexpected '" + peek().text() + "'", peek());
+        }
+        return term;
+    }
+
+    private Term or() {
+        Term term = and();
+        while (accept("||") || accept("or")) {
+            term = new Or(term, and());
+        }
+        return term;
+    }
+
+    private Term and() {
+        Term term = unary();
+        while (accept("&&") || accept("and")) {
+            term = new And(term, unary());
+        }
+        return term;
+    }
+
+    private Term unary() {
+        if (accept("!") || accept("not")) {
+            return new Not(unary());
+        }
+        return comparison();
+    }
+
+    private Term comparison() {
+        Term left = primary();
+        boolean negated = peek().is("not") && peek(1).kind() == Kind.WORD && OPERATORS.containsKey(peek(1).text());
+        if (negated) {
+            index++;
+        }
+        Token token = peek();
+        Operator operator = token.kind() == Kind.SYMBOL || token.kind() == Kind.WORD ? OPERATORS.get(token.text()) : null;
+        if (operator == null) {
+            return left;
+        }
+        index++;
+        Term right = primary();
+        Term comparison = new Comparison(left, operator, right, pattern(operator, right, token));
+        return negated ? new Not(comparison) : comparison;
+    }
+
+    private Term primary() {
+        Token token = next();
+        switch (token.kind()) {
+            case NUMBER -> {
+                return new Literal(number(token));
+            }
+            case TEXT -> {
+                return new Literal(token.text());
+            }
+            case PATH -> {
+                return reference(token);
+            }
+            case WORD -> {
+                switch (token.text()) {
+                    case "true" -> {
+                        return new Literal(Boolean.TRUE);
+                    }
+                    case "false" -> {
+                        return new Literal(Boolean.FALSE);
+                    }
+                    case "null" -> {
+                        return new Literal(null);
+                    }
+                    default -> throw error("expected a value but found '" + token.text() + "'", token);
+                }
+            }
+            case SYMBOL -> {
+                if (token.is("(")) {
+                    Term term = or();
+                    expect(")");
+                    return term;
+                }
+                if (token.is("[")) {
+                    List<Term> items = new ArrayList<>();
+                    if (!accept("]")) {
+                        do {
+                            items.add(primary());
+                        } while (accept(","));
+                        expect("]");
+                    }
+                    return new ListTerm(List.copyOf(items));
+                }
+                throw error("expected a value but found '" + token.text() + "'", token);
+            }
+            default -> throw error("expected a value", token);
+        }
+    }
+
+    /**
+     * Path with {@code $node} shortened to the variable {@code node_result} up front, so evaluating it only
+     * does lookups.
+     */
+    private Term reference(Token token) {
+        String[] segments = token.text().split("\\.", -1);
+        for (String segment : segments) {
+            if (segment.isEmpty()) {
+                throw error("invalid path '" + token.text() + "'", token);
+            }
+        }
+        String first = segments[0];
+        if ("$nodes".equals(first)) {
+            if (segments.length < 2) {
+                throw error("$nodes needs a node id, e.g. $nodes.node1.status", token);
+            }
+            segments = Arrays.copyOfRange(segments, 1, segments.length);
+            segments[0] = segments[0] + "_result";
+        } else if (first.startsWith("$") && first.length() > 1 && !"$trigger".equals(first) && !"$vars".equals(first)) {
+            String nodeId = first.substring(1);
+            segments[0] = nodeId.endsWith("_result") ? nodeId : nodeId + "_result";
+        }
+        String[] lengthOf = segments.length > 1 && "length".equals(segments[segments.length - 1])
+                ? Arrays.copyOf(segments, segments.length - 1)
+                : null;
+        return new Reference(segments, lengthOf);
+    }
+
+    /**
+     * Only literal patterns are accepted, so no regular expression is ever taken from workflow data.
+     */
+    private Pattern pattern(Operator operator, Term right, Token token) {
+        if (operator != Operator.MATCHES) {
+            return null;
+        }
+        if (!(right instanceof Literal literal) || !(literal.value instanceof String regex)) {
+            throw error("the right side of '" + token.text() + "' must be a quoted regular expression", token);
+        }
+        try {
+            return Pattern.compile(regex);
+        } catch (PatternSyntaxException e) {
+            throw error("invalid regular expression '" + regex + "'", token);
+        }
+    }
+
+    private Object number(Token token) {
+        String text = token.text();
+        try {
+            if (text.indexOf('.') < 0 && text.indexOf('e') < 0 && text.indexOf('E') < 0) {
+                return Long.parseLong(text);
+            }
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            throw error("invalid number '" + text + "'", token);
+        }
+    }
+
+    private void tokenize(String text) {
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (text.startsWith("{{", i)) {
+                int close = text.indexOf("}}", i + 2);
+                if (close < 0) {
+                    throw error("unclosed {{", i);
+                }
+                String path = text.substring(i + 2, close).trim();
+                if (path.isEmpty()) {
+                    throw error("empty {{ }}", i);
+                }
+                tokens.add(new Token(Kind.PATH, path, i));
+                i = close + 2;
+            } else if (c == '\'' || c == '"') {
+                i = text(text, i);
+            } else if (Character.isDigit(c) || (c == '-' && i + 1 < text.length()
+                    && Character.isDigit(text.charAt(i + 1)) && !afterValue())) {
+                int start = i++;
+                while (i < text.length() && isNumberChar(text, i)) {
+                    i++;
+                }
+                tokens.add(new Token(Kind.NUMBER, text.substring(start, i), start));
+            } else if (Character.isLetter(c) || c == '_' || c == '$') {
+                int start = i;
+                while (i < text.length() && isPathChar(text.charAt(i))) {
+                    i++;
+                }
+                String word = text.substring(start, i);
+                tokens.add(new Token(isKeyword(word) ? Kind.WORD : Kind.PATH, word, start));
+            } else {
+                i = symbol(text, i);
+            }
+        }
+        tokens.add(new Token(Kind.END, "end of expression", text.length()));
+    }
+
+    private int text(String text, int start) {
+        char quote = text.charAt(start);
+        StringBuilder value = new StringBuilder();
+        int i = start + 1;
+        while (i < text.length() && text.charAt(i) != quote) {
+            char c = text.charAt(i++);
+            if (c == '\\' && i < text.length()) {
+                char escaped = text.charAt(i++);
+                value.append(switch (escaped) {
+                    case 'n' -> '\n';
+                    case 't' -> '\t';
+                    default -> escaped;
+                });
+            } else {
+                value.append(c);
+            }
+        }
+        if (i >= text.length()) {
+            throw error("unclosed text", start);
+        }
+        tokens.add(new Token(Kind.TEXT, value.toString(), start));
+        return i + 1;
+    }
+
+    private int symbol(String text, int start) {
+        for (String symbol : SYMBOLS) {
+            if (text.startsWith(symbol, start)) {
+                tokens.add(new Token(Kind.SYMBOL, symbol, start));
+                return start + symbol.length();
+            }
+        }
+        if (text.charAt(start) == '=') {
+            throw error("'=' assigns, use '==' to compare", start);
+        }
+        throw error("unexpected '" + text.charAt(start) + "'", start);
+    }
+
+    private boolean afterValue() {
+        if (tokens.isEmpty()) {
+            return false;
+        }
+        Token last = tokens.get(tokens.size() - 1);
+        return last.kind() == Kind.NUMBER || last.kind() == Kind.TEXT || last.kind() == Kind.PATH
+                || last.is(")") || last.is("]") || last.is("true") || last.is("false") || last.is("null");
+    }
+
+    private static boolean isNumberChar(String text, int i) {
+        char c = text.charAt(i);
+        if (Character.isDigit(c) || c == '.' || c == 'e' || c == 'E') {
+            return true;
+        }
+        char previous = text.charAt(i - 1);
+        return (c == '-' || c == '+') && (previous == 'e' || previous == 'E');
+    }
+
+    private static boolean isPathChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '.';
+    }
+
+    private static boolean isKeyword(String word) {
+        return switch (word) {
+            case "true", "false", "null", "and", "or", "not" -> true;
+            default -> OPERATORS.containsKey(word);
+        };
+    }
+
+    /**
+     * Drops braces around the whole expression, as in <code>{{ $trigger.amount &gt; 10 }}</code>.
+     */
+    private static String unwrap(String text) {
+        if (text.startsWith("{{") && text.endsWith("}}") && text.indexOf("}}") == text.length() - 2) {
+            String inner = text.substring(2, text.length() - 2).trim();
+            if (!inner.isEmpty()) {
+                return inner;
+            }
+        }
+        return text;
+    }
+
+    private Token peek() {
+        return tokens.get(index);
+    }
+
+    private Token peek(int ahead) {
+        return tokens.get(Math.min(index + ahead, tokens.size() - 1));
+    }
+
+    private Token next() {
+        Token token = tokens.get(index);
+        if (token.kind() != Kind.END) {
+            index++;
+        }
+        return token;
+    }
+
+    private boolean accept(String symbolOrWord) {
+        if (peek().is(symbolOrWord)) {
+            index++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(String symbol) {
+        if (!accept(symbol)) {
+            throw error("expected '" + symbol + "' but found '" + peek().text() + "'", peek());
+        }
+    }
+
+    private IllegalArgumentException error(String message, Token token) {
+        return error(message, token.position());
+    }
+
+    private IllegalArgumentException error(String message, int position) {
+        return new IllegalArgumentException("Invalid expression '" + source + "': " + message
+                + " at position " + position);
+    }
+}
@@ -0,0 +1,220 @@
+package io.celox.taskflow.task.workflow.output;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Memory budget for the node outputs of one execution. Large list outputs, such as the rows of a select, are
+ * collected through an {@link OutputBuffer}: they stay in memory while they are below the spill threshold and the
+ * execution is within its budget, and are written to a temp file read back as a {@link SpilledList} otherwise.
+ * <p>
+ * Closing the budget deletes the spill files; spilled outputs cannot be read after that.
+ */
+public final class OutputBudget implements AutoCloseable {
+
+    private final ObjectMapper objectMapper;
+    private final long memoryBudgetBytes;
+    private final long spillThresholdBytes;
+    private final Path spillDirectory;
+
+    private final AtomicLong bytesInMemory = new AtomicLong();
+    private final AtomicLong peakBytesInMemory = new AtomicLong();
+    private final AtomicInteger spilledOutputs = new AtomicInteger();
+    private final AtomicLong spilledBytes = new AtomicLong();
+    private final Queue<OutputBuffer> spillingBuffers = new ConcurrentLinkedQueue<>();
+    private final Queue<SpilledList> spilledLists = new ConcurrentLinkedQueue<>();
+    private volatile boolean closed;
+
+    OutputBudget(ObjectMapper objectMapper, long memoryBudgetBytes, long spillThresholdBytes, Path spillDirectory) {
+        this.objectMapper = objectMapper;
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.spillThresholdBytes = spillThresholdBytes;
+        this.spillDirectory = spillDirectory;
+    }
+
+    /**
+     * Budget that keeps every output in memory, for contexts outside of a workflow execution.
+     */
+    public static OutputBudget unlimited() {
+        return new OutputBudget(null, Long.MAX_VALUE, Long.MAX_VALUE, null);
+    }
+
+    /**
+     * Buffer for the items of one list output of node {@code nodeId}.
+     */
+    public OutputBuffer newBuffer(String nodeId) {
+        return new OutputBuffer(this, nodeId);
+    }
+
+    /**
+     * @return true if the bytes fit into the budget and were counted, false if the output should be spilled
+     */
+    boolean reserve(long bytes) {
+        long total = bytesInMemory.addAndGet(bytes);
+        if (total > memoryBudgetBytes) {
+            bytesInMemory.addAndGet(-bytes);
+            return false;
+        }
+        peakBytesInMemory.accumulateAndGet(total, Math::max);
+        return true;
+    }
+
+    void release(long bytes) {
+        bytesInMemory.addAndGet(-bytes);
+    }
+
+    long getSpillThresholdBytes() {
+        return spillThresholdBytes;
+    }
+
+    ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    /**
+     * Creates the spill file of a buffer. Until the buffer is finished, closing the budget discards it.
+     */
+    Path newSpillFile(OutputBuffer buffer, String nodeId) {
+        if (closed) {
+            throw new IllegalStateException("Output of node " + nodeId + " cannot be spilled, the execution finished");
+        }
+        Path file;
+        try {
+            Files.createDirectories(spillDirectory);
+            file = Files.createTempFile(spillDirectory, "output-", ".jsonl");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Output of node " + nodeId + " cannot be spilled to " + spillDirectory, e);
+        }
+        spillingBuffers.add(buffer);
+        return file;
+    }
+
+    void spilled(OutputBuffer buffer, SpilledList list) {
+        spillingBuffers.remove(buffer);
+        spilledLists.add(list);
+        spilledOutputs.incrementAndGet();
+        spilledBytes.addAndGet(list.getFileSize());
+        if (closed) {
+            list.close();
+        }
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    public long getMemoryBudgetBytes() {
+        return memoryBudgetBytes;
+    }
+
+    public long getPeakBytesInMemory() {
+        return peakBytesInMemory.get();
+    }
+
+    public int getSpilledOutputs() {
+        return spilledOutputs.get();
+    }
+
+    public long getSpilledBytes() {
+        return spilledBytes.get();
+    }
+
+    /**
+     * @return true if the value is or holds a {@link SpilledList}; spilled lists themselves are not read
+     */
+    public static boolean containsSpilled(Object value) {
+        if (value instanceof SpilledList) {
+            return true;
+        }
+        if (value instanceof Map<?, ?> map) {
+            for (Object entry : map.values()) {
+                if (containsSpilled(entry)) {
+                    return true;
+                }
+            }
+        } else if (value instanceof Collection<?> collection) {
+            for (Object entry : collection) {
+                if (containsSpilled(entry)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Rough heap size of a value as read from JSON or JDBC, used to decide when to spill.
+     */
+    static long estimateSize(Object value) {
+        if (value == null) {
+            return 8;
+        }
+        if (value instanceof CharSequence text) {
+            return 40 + 2L * text.length();
+        }
+        if (value instanceof byte[] bytes) {
+            return 16 + bytes.length;
+        }
+        if (value instanceof SpilledList) {
+            return 64;
+        }
+        if (value instanceof Map<?, ?> map) {
+            long size = 48 + 32L * map.size();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                size += estimateSize(entry.getKey()) + estimateSize(entry.getValue());
+            }
+            return size;
+        }
+        if (value instanceof Collection<?> collection) {
+            long size = 24 + 8L * collection.size();
+            for (Object entry : collection) {
+                size += estimateSize(entry);
+            }
+            return size;
+        }
+        return 24;
+    }
+
+    /**
+     * Deletes every spill file, also those of buffers that were never finished. A file that cannot be deleted does
+     * not stop the others from being deleted; the first failure is thrown at the end.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        RuntimeException failure = null;
+        OutputBuffer buffer;
+        while ((buffer = spillingBuffers.poll()) != null) {
+            failure = closeQuietly(buffer::discard, failure);
+        }
+        SpilledList list;
+        while ((list = spilledLists.poll()) != null) {
+            failure = closeQuietly(list::close, failure);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static RuntimeException closeQuietly(Runnable close, RuntimeException failure) {
+        try {
+            close.run();
+        } catch (RuntimeException e) {
+            if (failure == null) {
+                return e;
+            }
+            failure.addSuppressed(e);
+        }
+        return failure;
+    }
+}
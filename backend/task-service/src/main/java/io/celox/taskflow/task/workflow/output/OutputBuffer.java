@@ -0,0 +1,125 @@
+package io.celox.taskflow.task.workflow.output;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the items of one list output. Items are kept in memory until the list grows past the spill threshold
+ * or the execution's budget is used up; from then on all items are written to a spill file, one JSON document per
+ * line. Not thread-safe, a buffer belongs to the node filling it.
+ */
+public final class OutputBuffer {
+
+    private final OutputBudget budget;
+    private final String nodeId;
+
+    private List<Object> items = new ArrayList<>();
+    private long reservedBytes;
+
+    private Path file;
+    private OutputStream out;
+    private long[] offsets;
+    private int size;
+    private long position;
+
+    OutputBuffer(OutputBudget budget, String nodeId) {
+        this.budget = budget;
+        this.nodeId = nodeId;
+    }
+
+    public void add(Object item) {
+        if (file != null) {
+            write(item);
+            return;
+        }
+        long bytes = OutputBudget.estimateSize(item);
+        if (reservedBytes + bytes <= budget.getSpillThresholdBytes() && budget.reserve(bytes)) {
+            reservedBytes += bytes;
+            items.add(item);
+            return;
+        }
+        spill();
+        write(item);
+    }
+
+    /**
+     * @return the items, as a plain list if they stayed in memory or as a {@link SpilledList} otherwise
+     */
+    public List<Object> finish() {
+        if (file == null) {
+            return items;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Spilled output of node " + nodeId + " cannot be written", e);
+        }
+        offsets[size] = position;
+        SpilledList list = new SpilledList(file, offsets, size, budget);
+        budget.spilled(this, list);
+        return list;
+    }
+
+    public boolean isSpilled() {
+        return file != null;
+    }
+
+    /**
+     * Closes the spill file of a buffer that was never finished, e.g. because its query failed, and deletes it.
+     */
+    void discard() {
+        try {
+            if (out != null) {
+                out.close();
+            }
+        } catch (IOException e) {
+            // The file is deleted anyway
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Spilled output of node " + nodeId + " cannot be deleted", e);
+        }
+    }
+
+    private void spill() {
+        // Registered with the budget right away, so the file is deleted even if the node fails before finish()
+        file = budget.newSpillFile(this, nodeId);
+        try {
+            out = new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Output of node " + nodeId + " cannot be spilled to " + file, e);
+        }
+        offsets = new long[Math.max(16, items.size() * 2)];
+        List<Object> inMemory = items;
+        items = null;
+        for (Object item : inMemory) {
+            write(item);
+        }
+        budget.release(reservedBytes);
+        reservedBytes = 0;
+    }
+
+    private void write(Object item) {
+        if (size + 1 >= offsets.length) {
+            long[] grown = new long[offsets.length * 2];
+            System.arraycopy(offsets, 0, grown, 0, size);
+            offsets = grown;
+        }
+        try {
+            byte[] json = budget.getObjectMapper().writeValueAsBytes(item);
+            out.write(json);
+            out.write('\n');
+            offsets[size++] = position;
+            position += json.length + 1;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Output of node " + nodeId + " cannot be spilled to " + file, e);
+        }
+    }
+}
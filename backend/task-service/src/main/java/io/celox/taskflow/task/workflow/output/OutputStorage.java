@@ -0,0 +1,37 @@
+package io.celox.taskflow.task.workflow.output;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Hands out the {@link OutputBudget} of each execution: how many bytes of node outputs it may keep in memory,
+ * and where larger outputs are spilled to.
+ */
+@Component
+public class OutputStorage {
+
+    private final ObjectMapper objectMapper;
+    private final long memoryBudgetBytes;
+    private final long spillThresholdBytes;
+    private final Path spillDirectory;
+
+    public OutputStorage(
+            ObjectMapper objectMapper,
+            @Value("${app.workflow.outputs.memory-budget-bytes:67108864}") long memoryBudgetBytes,
+            @Value("${app.workflow.outputs.spill-threshold-bytes:4194304}") long spillThresholdBytes,
+            @Value("${app.workflow.outputs.spill-dir:}") String spillDirectory) {
+        this.objectMapper = objectMapper;
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.spillThresholdBytes = spillThresholdBytes;
+        this.spillDirectory = spillDirectory == null || spillDirectory.isBlank()
+                ? Path.of(System.getProperty("java.io.tmpdir"), "taskflow-spill")
+                : Path.of(spillDirectory);
+    }
+
+    public OutputBudget newBudget() {
+        return new OutputBudget(objectMapper, memoryBudgetBytes, spillThresholdBytes, spillDirectory);
+    }
+}
@@ -0,0 +1,145 @@
+package io.celox.taskflow.task.workflow.output;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * List output that was spilled to disk. Items are read back on access: {@link #get} reads one item at its
+ * recorded offset, iterating streams through the file. Items come back as JSON values, so dates and
+ * decimals of database rows read as text and numbers, as with checkpoints.
+ * <p>
+ * {@link #toString()} describes the list instead of printing every item, so a spilled output placed into a
+ * template does not pull the whole file into memory.
+ */
+public final class SpilledList extends AbstractList<Object> implements RandomAccess {
+
+    private static final int READ_BLOCK_SIZE = 64 * 1024;
+
+    private final Path file;
+    private final long[] offsets;
+    private final int size;
+    private final OutputBudget budget;
+    private final FileChannel channel;
+
+    SpilledList(Path file, long[] offsets, int size, OutputBudget budget) {
+        this.file = file;
+        this.offsets = offsets;
+        this.size = size;
+        this.budget = budget;
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Spilled output " + file + " cannot be opened", e);
+        }
+    }
+
+    @Override
+    public Object get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        checkOpen();
+        byte[] item = new byte[(int) (offsets[index + 1] - offsets[index])];
+        try {
+            read(offsets[index], ByteBuffer.wrap(item));
+            return budget.getObjectMapper().readValue(item, Object.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Item " + index + " of spilled output " + file + " cannot be read", e);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Reads the file front to back in blocks instead of one read per item.
+     */
+    @Override
+    public Iterator<Object> iterator() {
+        checkOpen();
+        return new Iterator<>() {
+            private byte[] block;
+            private long blockStart;
+            private int blockLength;
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public Object next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                checkOpen();
+                long start = offsets[next];
+                int length = (int) (offsets[next + 1] - start);
+                try {
+                    if (block == null || start + length > blockStart + blockLength) {
+                        block = new byte[Math.max(READ_BLOCK_SIZE, length)];
+                        blockStart = start;
+                        blockLength = read(start, ByteBuffer.wrap(block, 0,
+                                (int) Math.min(block.length, getFileSize() - start)));
+                    }
+                    Object item = budget.getObjectMapper().readValue(block, (int) (start - blockStart), length, Object.class);
+                    next++;
+                    return item;
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Item " + next + " of spilled output " + file + " cannot be read", e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Fills the buffer from the given file position; positional reads may run on several threads at once.
+     */
+    private int read(long position, ByteBuffer buffer) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + total);
+            if (read < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    long getFileSize() {
+        return offsets[size];
+    }
+
+    void close() {
+        try {
+            channel.close();
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Spilled output " + file + " cannot be deleted", e);
+        }
+    }
+
+    private void checkOpen() {
+        if (budget.isClosed()) {
+            throw new IllegalStateException("Spilled output is no longer available, its execution finished");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "[" + size + " items spilled to disk]";
+    }
+}
@@ -0,0 +1,107 @@
+package io.celox.taskflow.task.workflow.schedule;
+
+import io.celox.taskflow.task.domain.MisfirePolicy;
+import io.celox.taskflow.task.domain.WorkflowSchedule;
+import lombok.Getter;
+import org.springframework.scheduling.support.CronExpression;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * When a schedule trigger fires: a cron expression evaluated in its time zone, or a fixed interval.
+ * Times are local date-times of the JVM's zone, like every other timestamp of the service.
+ */
+@Getter
+class ScheduleSpec {
+
+    private final String cron;
+    private final Long intervalMs;
+    private final ZoneId zone;
+    private final MisfirePolicy misfirePolicy;
+    private final long jitterMs;
+    private final CronExpression cronExpression;
+
+    ScheduleSpec(String cron, Long intervalMs, ZoneId zone, MisfirePolicy misfirePolicy, long jitterMs) {
+        if ((cron == null) == (intervalMs == null)) {
+            throw new IllegalArgumentException("A schedule trigger needs either 'cron' or 'intervalMs'");
+        }
+        this.cron = cron != null ? normalizeCron(cron) : null;
+        this.intervalMs = intervalMs;
+        this.zone = zone;
+        this.misfirePolicy = misfirePolicy;
+        this.jitterMs = jitterMs;
+        try {
+            this.cronExpression = cron != null ? CronExpression.parse(this.cron) : null;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cron expression '" + cron + "': " + e.getMessage());
+        }
+    }
+
+    static ScheduleSpec of(WorkflowSchedule schedule) {
+        return new ScheduleSpec(schedule.getCron(), schedule.getIntervalMs(), ZoneId.of(schedule.getZone()),
+                schedule.getMisfirePolicy(), schedule.getJitterMs());
+    }
+
+    /**
+     * Copies the definition onto the row, leaving its timing state alone.
+     */
+    void applyTo(WorkflowSchedule schedule) {
+        schedule.setCron(cron);
+        schedule.setIntervalMs(intervalMs);
+        schedule.setZone(zone.getId());
+        schedule.setMisfirePolicy(misfirePolicy);
+        schedule.setJitterMs(jitterMs);
+    }
+
+    boolean isDefinedBy(WorkflowSchedule schedule) {
+        return Objects.equals(cron, schedule.getCron())
+                && Objects.equals(intervalMs, schedule.getIntervalMs())
+                && zone.getId().equals(schedule.getZone())
+                && misfirePolicy == schedule.getMisfirePolicy()
+                && jitterMs == schedule.getJitterMs();
+    }
+
+    /**
+     * The first tick after {@code time}, or null if the cron expression never matches again.
+     */
+    LocalDateTime next(LocalDateTime time) {
+        if (intervalMs != null) {
+            return time.plus(Duration.ofMillis(intervalMs));
+        }
+        ZonedDateTime next = cronExpression.next(time.atZone(ZoneId.systemDefault()).withZoneSameInstant(zone));
+        return next != null ? next.withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime() : null;
+    }
+
+    /**
+     * The first tick after {@code now} in the phase of {@code previous}.
+     */
+    LocalDateTime nextAfter(LocalDateTime previous, LocalDateTime now) {
+        if (previous.isAfter(now)) {
+            return previous;
+        }
+        if (intervalMs != null) {
+            long periods = Duration.between(previous, now).toMillis() / intervalMs + 1;
+            return previous.plus(Duration.ofMillis(periods * intervalMs));
+        }
+        return next(now);
+    }
+
+    /**
+     * Fixed offset of this schedule within the jitter window, so schedules sharing a cron expression are spread
+     * out while each one keeps a regular period.
+     */
+    long jitterOffsetMs(UUID scheduleId) {
+        return jitterMs > 0 ? Math.floorMod(scheduleId.getMostSignificantBits() ^ scheduleId.getLeastSignificantBits(), jitterMs) : 0;
+    }
+
+    // Accepts classic five-field cron by firing at second 0
+    private static String normalizeCron(String cron) {
+        String trimmed = cron.trim();
+        return trimmed.split("\\s+").length == 5 ? "0 " + trimmed : trimmed;
+    }
+}
@@ -0,0 +1,41 @@
+package io.celox.taskflow.task.workflow.schedule;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Named lease in {@code scheduler_leases} that at most one instance holds at a time. The holder keeps it by
+ * renewing before {@code lease_until}; once it stops, any other instance can take it over. Lease times come
+ * from the database clock, as for the execution queue.
+ */
+@Component
+@RequiredArgsConstructor
+public class SchedulerLease {
+
+    private static final String ACQUIRE_SQL = """
+            INSERT INTO scheduler_leases (name, holder, lease_until)
+            VALUES (?, ?, LOCALTIMESTAMP + make_interval(secs => ?))
+            ON CONFLICT (name) DO UPDATE
+               SET holder = EXCLUDED.holder, lease_until = EXCLUDED.lease_until
+             WHERE scheduler_leases.holder = EXCLUDED.holder
+                OR scheduler_leases.lease_until < LOCALTIMESTAMP
+            """;
+
+    private static final String RELEASE_SQL = "DELETE FROM scheduler_leases WHERE name = ? AND holder = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Takes or renews the lease.
+     *
+     * @return whether {@code holder} holds the lease for the next {@code leaseMs}
+     */
+    public boolean tryAcquire(String name, String holder, long leaseMs) {
+        return jdbcTemplate.update(ACQUIRE_SQL, name, holder, leaseMs / 1000.0) == 1;
+    }
+
+    public void release(String name, String holder) {
+        jdbcTemplate.update(RELEASE_SQL, name, holder);
+    }
+}
@@ -0,0 +1,92 @@
+package io.celox.taskflow.task.workflow.schedule;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Hashed timing wheel: {@code wheelSize} buckets of {@code tickMs} each. An entry goes into the bucket of its
+ * deadline and carries the number of full rotations left, so adding an entry is O(1) however many are pending,
+ * and each tick only looks at one bucket.
+ * <p>
+ * Not thread-safe; the scheduler thread owns it and drives it through {@link #advance}.
+ */
+class TimingWheel<T> {
+
+    private final long tickMs;
+    private final List<List<Entry<T>>> buckets;
+    private long startMillis;
+    // Next tick to process, counted from startMillis
+    private long currentTick;
+    private int size;
+
+    TimingWheel(long tickMs, int wheelSize, long startMillis) {
+        if (tickMs <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive");
+        }
+        this.tickMs = tickMs;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        this.startMillis = startMillis;
+    }
+
+    /**
+     * Adds an entry; one whose deadline has passed already expires on the next {@link #advance}.
+     */
+    void schedule(long deadlineMillis, T value) {
+        long tick = Math.max((deadlineMillis - startMillis + tickMs - 1) / tickMs, currentTick);
+        long rounds = (tick - currentTick) / buckets.size();
+        buckets.get((int) (tick % buckets.size())).add(new Entry<>(rounds, value));
+        size++;
+    }
+
+    /**
+     * Processes every tick up to {@code nowMillis} and returns the entries that expired, in tick order.
+     */
+    List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        while (startMillis + currentTick * tickMs <= nowMillis) {
+            Iterator<Entry<T>> entries = buckets.get((int) (currentTick % buckets.size())).iterator();
+            while (entries.hasNext()) {
+                Entry<T> entry = entries.next();
+                if (entry.rounds <= 0) {
+                    entries.remove();
+                    size--;
+                    expired.add(entry.value);
+                } else {
+                    entry.rounds--;
+                }
+            }
+            currentTick++;
+        }
+        return expired;
+    }
+
+    /**
+     * Drops all entries and restarts the wheel at {@code nowMillis}.
+     */
+    void clear(long nowMillis) {
+        for (List<Entry<T>> bucket : buckets) {
+            bucket.clear();
+        }
+        size = 0;
+        startMillis = nowMillis;
+        currentTick = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static final class Entry<T> {
+        private long rounds;
+        private final T value;
+
+        private Entry(long rounds, T value) {
+            this.rounds = rounds;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,474 @@
+package io.celox.taskflow.task.workflow.schedule;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.celox.taskflow.task.domain.MisfirePolicy;
+import io.celox.taskflow.task.domain.Workflow;
+import io.celox.taskflow.task.domain.WorkflowSchedule;
+import io.celox.taskflow.task.domain.WorkflowStatus;
+import io.celox.taskflow.task.exception.AdmissionRejectedException;
+import io.celox.taskflow.task.repository.WorkflowScheduleRepository;
+import io.celox.taskflow.task.workflow.AfterCommit;
+import io.celox.taskflow.task.workflow.WorkflowAdmissionController;
+import io.celox.taskflow.task.workflow.WorkflowExecutionEngine;
+import io.celox.taskflow.task.workflow.WorkflowMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fires the schedule triggers of ACTIVE workflows:
+ * <pre>
+ * [{"type": "schedule", "cron": "0 0 * * MON-FRI", "zone": "Europe/Berlin", "misfire": "FIRE_ONCE", "jitterMs": 30000},
+ *  {"type": "schedule", "intervalMs": 300000}]
+ * </pre>
+ * The triggers are mirrored into {@code workflow_schedules} when a workflow is saved or activated. Only the instance
+ * holding the {@link SchedulerLease} fires them: it keeps all ticks in a {@link TimingWheel} and, when one is due,
+ * moves the schedule's {@code next_fire_at} on with a compare-and-set and queues the execution in the same
+ * transaction. Two instances that both believe they are the leader therefore still fire each tick once.
+ * <p>
+ * Ticks that are late by more than {@code misfire-threshold-ms}, e.g. after all instances were down, are handled by
+ * the schedule's {@link MisfirePolicy}. Each schedule fires at a fixed offset within its jitter window, so
+ * schedules on the same cron expression do not all start at the top of the minute.
+ */
+@Component
+@Slf4j
+public class WorkflowScheduler {
+
+    static final String LEASE_NAME = "workflow-scheduler";
+    static final String SCHEDULE_TRIGGER_TYPE = "schedule";
+
+    private final WorkflowScheduleRepository scheduleRepository;
+    private final SchedulerLease lease;
+    private final WorkflowAdmissionController admissionController;
+    private final WorkflowExecutionEngine executionEngine;
+    private final WorkflowMetrics metrics;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final String holder;
+    private final long tickMs;
+    private final long leaseMs;
+    private final long refreshIntervalMs;
+    private final long misfireThresholdMs;
+    private final int maxCatchUp;
+    private final long defaultJitterMs;
+    private final long minIntervalMs;
+
+    private final ScheduledExecutorService scheduler;
+    private final AtomicBoolean reloadRequested = new AtomicBoolean();
+    // State below is only touched by the scheduler thread
+    private final TimingWheel<Tick> wheel;
+    private boolean leader;
+    private long nextLeaseCheckMillis;
+    private long nextReloadMillis;
+
+    public WorkflowScheduler(
+            WorkflowScheduleRepository scheduleRepository,
+            SchedulerLease lease,
+            WorkflowAdmissionController admissionController,
+            WorkflowExecutionEngine executionEngine,
+            WorkflowMetrics metrics,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            @Value("${app.workflow.schedule.enabled:true}") boolean enabled,
+            @Value("${app.workflow.queue.node-id:}") String nodeId,
+            @Value("${app.workflow.schedule.tick-ms:1000}") long tickMs,
+            @Value("${app.workflow.schedule.wheel-size:512}") int wheelSize,
+            @Value("${app.workflow.schedule.lease-ms:30000}") long leaseMs,
+            @Value("${app.workflow.schedule.refresh-interval-ms:15000}") long refreshIntervalMs,
+            @Value("${app.workflow.schedule.misfire-threshold-ms:60000}") long misfireThresholdMs,
+            @Value("${app.workflow.schedule.max-catch-up:10}") int maxCatchUp,
+            @Value("${app.workflow.schedule.default-jitter-ms:5000}") long defaultJitterMs,
+            @Value("${app.workflow.schedule.min-interval-ms:10000}") long minIntervalMs) {
+        this.scheduleRepository = scheduleRepository;
+        this.lease = lease;
+        this.admissionController = admissionController;
+        this.executionEngine = executionEngine;
+        this.metrics = metrics;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.holder = nodeId.isBlank() ? defaultHolder() : nodeId;
+        this.tickMs = tickMs;
+        this.leaseMs = leaseMs;
+        this.refreshIntervalMs = refreshIntervalMs;
+        this.misfireThresholdMs = misfireThresholdMs;
+        this.maxCatchUp = maxCatchUp;
+        this.defaultJitterMs = defaultJitterMs;
+        this.minIntervalMs = minIntervalMs;
+        this.wheel = new TimingWheel<>(tickMs, wheelSize, System.currentTimeMillis());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "wf-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        scheduler.scheduleAtFixedRate(this::tickSafely, 0, tickMs, TimeUnit.MILLISECONDS);
+        log.info("Workflow scheduler {} started (tick={}ms, lease={}ms)", holder, tickMs, leaseMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+        if (leader) {
+            try {
+                // Lets another instance take over right away instead of after the lease expires
+                lease.release(LEASE_NAME, holder);
+            } catch (Exception e) {
+                log.warn("Could not release the scheduler lease: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Validates the schedule triggers of the workflow and stores them if it is ACTIVE, otherwise removes them.
+     * A schedule whose definition did not change keeps its next tick. Must run inside the transaction that saves
+     * the workflow.
+     *
+     * @throws IllegalArgumentException if a schedule trigger is invalid
+     */
+    public void register(Workflow workflow) {
+        List<ScheduleSpec> specs = parse(workflow.getTriggersJson());
+        if (workflow.getStatus() != WorkflowStatus.ACTIVE || specs.stream().allMatch(Objects::isNull)) {
+            remove(workflow.getId());
+            return;
+        }
+
+        Map<Integer, WorkflowSchedule> existing = new HashMap<>();
+        for (WorkflowSchedule schedule : scheduleRepository.findByWorkflowId(workflow.getId())) {
+            existing.put(schedule.getTriggerIndex(), schedule);
+        }
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        for (int index = 0; index < specs.size(); index++) {
+            ScheduleSpec spec = specs.get(index);
+            if (spec == null) {
+                continue;
+            }
+            WorkflowSchedule schedule = existing.remove(index);
+            if (schedule != null && spec.isDefinedBy(schedule)) {
+                continue;
+            }
+            if (schedule == null) {
+                schedule = WorkflowSchedule.builder().workflowId(workflow.getId()).triggerIndex(index).build();
+            }
+            spec.applyTo(schedule);
+            schedule.setNextFireAt(spec.next(now));
+            scheduleRepository.save(schedule);
+        }
+        scheduleRepository.deleteAll(existing.values());
+        requestReload();
+    }
+
+    public void remove(UUID workflowId) {
+        if (scheduleRepository.deleteByWorkflowId(workflowId) > 0) {
+            requestReload();
+        }
+    }
+
+    /**
+     * One scheduler tick: keeps the lease, reloads the schedules when needed and fires the due ticks.
+     */
+    void tick(long nowMillis) {
+        if (nowMillis >= nextLeaseCheckMillis) {
+            updateLeadership(nowMillis);
+        }
+        if (!leader) {
+            return;
+        }
+        if (reloadRequested.getAndSet(false) || nowMillis >= nextReloadMillis) {
+            reload(nowMillis);
+        }
+        for (Tick tick : wheel.advance(nowMillis)) {
+            fireSafely(tick, nowMillis);
+        }
+    }
+
+    boolean isLeader() {
+        return leader;
+    }
+
+    int pendingTicks() {
+        return wheel.size();
+    }
+
+    private void updateLeadership(long nowMillis) {
+        boolean acquired;
+        try {
+            acquired = lease.tryAcquire(LEASE_NAME, holder, leaseMs);
+        } catch (Exception e) {
+            log.warn("Could not renew the scheduler lease: {}", e.getMessage());
+            acquired = false;
+        }
+        if (acquired && !leader) {
+            log.info("Instance {} took over the workflow scheduler", holder);
+            reloadRequested.set(true);
+        } else if (!acquired && leader) {
+            log.info("Instance {} lost the workflow scheduler lease", holder);
+            wheel.clear(nowMillis);
+        }
+        leader = acquired;
+        nextLeaseCheckMillis = nowMillis + Math.max(leaseMs / 3, tickMs);
+    }
+
+    /**
+     * Rebuilds the wheel from the database, which holds the next tick of every schedule. Ticks that are overdue
+     * beyond the misfire threshold are caught up here.
+     */
+    private void reload(long nowMillis) {
+        wheel.clear(nowMillis);
+        nextReloadMillis = nowMillis + refreshIntervalMs;
+        for (Object[] row : scheduleRepository.findWithOwnerByWorkflowStatus(WorkflowStatus.ACTIVE)) {
+            WorkflowSchedule schedule = (WorkflowSchedule) row[0];
+            ScheduleSpec spec;
+            try {
+                spec = ScheduleSpec.of(schedule);
+            } catch (IllegalArgumentException | DateTimeException e) {
+                log.warn("Ignoring invalid schedule {} of workflow {}: {}", schedule.getId(), schedule.getWorkflowId(),
+                        e.getMessage());
+                continue;
+            }
+            Tick tick = new Tick(schedule.getId(), schedule.getWorkflowId(), (UUID) row[1], spec,
+                    schedule.getNextFireAt());
+            if (dueMillis(tick) < nowMillis - misfireThresholdMs) {
+                fireSafely(tick, nowMillis);
+            } else {
+                wheel.schedule(dueMillis(tick), tick);
+            }
+        }
+        log.debug("Loaded {} workflow schedules", wheel.size());
+    }
+
+    private void fireSafely(Tick tick, long nowMillis) {
+        try {
+            fire(tick, nowMillis);
+        } catch (Exception e) {
+            // The schedule stays at this tick; the next reload retries it
+            log.error("Firing schedule {} of workflow {} failed", tick.scheduleId, tick.workflowId, e);
+        }
+    }
+
+    private void fire(Tick tick, long nowMillis) {
+        LocalDateTime now = toLocalDateTime(nowMillis);
+        List<LocalDateTime> runs;
+        LocalDateTime next;
+        int missed = 0;
+
+        if (dueMillis(tick) >= nowMillis - misfireThresholdMs) {
+            runs = List.of(tick.nominal);
+            next = tick.spec.next(tick.nominal);
+            metrics.scheduleLag(nowMillis - dueMillis(tick));
+        } else {
+            List<LocalDateTime> overdue = overdueTicks(tick, now);
+            missed = overdue.size();
+            next = tick.spec.nextAfter(tick.nominal, now);
+            runs = switch (tick.spec.getMisfirePolicy()) {
+                case SKIP -> List.of();
+                case FIRE_ONCE -> List.of(overdue.get(overdue.size() - 1));
+                case FIRE_ALL -> overdue.subList(Math.max(0, overdue.size() - maxCatchUp), overdue.size());
+            };
+            log.warn("Schedule {} of workflow {} missed {} ticks since {}, policy {} runs {}", tick.scheduleId,
+                    tick.workflowId, missed, tick.nominal, tick.spec.getMisfirePolicy(), runs.size());
+        }
+        if (next == null) {
+            // A cron expression without future matches; park the schedule far ahead
+            next = tick.nominal.plusYears(100);
+        }
+
+        boolean admitted = runs.isEmpty() || admit(tick, runs.size());
+        int firedMissed = missed;
+        List<LocalDateTime> queued = admitted ? runs : List.of();
+        LocalDateTime nextTick = next;
+        Boolean owned = transactionTemplate.execute(status -> {
+            if (scheduleRepository.advance(tick.scheduleId, tick.nominal, nextTick, now) == 0) {
+                return false;
+            }
+            for (LocalDateTime scheduledAt : queued) {
+                executionEngine.enqueueExecution(tick.workflowId, triggerData(tick, scheduledAt, now, firedMissed));
+            }
+            return true;
+        });
+
+        if (!Boolean.TRUE.equals(owned)) {
+            log.debug("Tick {} of schedule {} was already fired elsewhere", tick.nominal, tick.scheduleId);
+            return;
+        }
+        metrics.scheduleTicks("fired", queued.size());
+        metrics.scheduleTicks("skipped", Math.max(missed - runs.size(), 0));
+        if (!admitted) {
+            metrics.scheduleTicks("rejected", runs.size());
+        }
+        Tick following = new Tick(tick.scheduleId, tick.workflowId, tick.ownerId, tick.spec, next);
+        wheel.schedule(dueMillis(following), following);
+    }
+
+    private boolean admit(Tick tick, int runs) {
+        try {
+            admissionController.admitQueued(tick.ownerId, runs);
+            return true;
+        } catch (AdmissionRejectedException e) {
+            log.warn("Schedule {} of workflow {} not fired: {}", tick.scheduleId, tick.workflowId, e.getMessage());
+            return false;
+        }
+    }
+
+    // Missed ticks up to now, oldest first. Bounded, so a long outage of a frequent schedule cannot stall the
+    // scheduler thread; beyond the bound the newest ticks may be left out of the count.
+    private List<LocalDateTime> overdueTicks(Tick tick, LocalDateTime now) {
+        Deque<LocalDateTime> overdue = new ArrayDeque<>();
+        LocalDateTime time = tick.nominal;
+        int guard = 0;
+        while (time != null && !time.isAfter(now) && guard++ < 100_000) {
+            overdue.addLast(time);
+            if (overdue.size() > 10_000) {
+                overdue.removeFirst();
+            }
+            time = tick.spec.next(time);
+        }
+        return overdue.isEmpty() ? List.of(tick.nominal) : new ArrayList<>(overdue);
+    }
+
+    private Map<String, Object> triggerData(Tick tick, LocalDateTime scheduledAt, LocalDateTime firedAt, int missed) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("trigger", SCHEDULE_TRIGGER_TYPE);
+        data.put("scheduleId", tick.scheduleId.toString());
+        data.put("scheduledAt", scheduledAt.toString());
+        data.put("firedAt", firedAt.toString());
+        if (missed > 0) {
+            data.put("missedTicks", missed);
+        }
+        return data;
+    }
+
+    /**
+     * Parses the schedule triggers; the list is aligned with the trigger array and holds null for other triggers.
+     */
+    List<ScheduleSpec> parse(String triggersJson) {
+        if (triggersJson == null || triggersJson.isBlank()) {
+            return List.of();
+        }
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(triggersJson);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Workflow triggers are not valid JSON: " + e.getOriginalMessage());
+        }
+        if (root == null || !root.isArray()) {
+            return List.of();
+        }
+
+        List<ScheduleSpec> specs = new ArrayList<>();
+        for (JsonNode node : root) {
+            specs.add(SCHEDULE_TRIGGER_TYPE.equals(node.path("type").asText()) ? parseSpec(node) : null);
+        }
+        return specs;
+    }
+
+    private ScheduleSpec parseSpec(JsonNode node) {
+        String cron = node.hasNonNull("cron") ? node.get("cron").asText() : null;
+        Long intervalMs = node.hasNonNull("intervalMs") ? node.get("intervalMs").asLong() : null;
+        if (intervalMs != null && intervalMs < minIntervalMs) {
+            throw new IllegalArgumentException("Schedule interval must be at least " + minIntervalMs + "ms");
+        }
+
+        ZoneId zone;
+        try {
+            zone = node.hasNonNull("zone") ? ZoneId.of(node.get("zone").asText()) : ZoneId.systemDefault();
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Unknown schedule time zone '" + node.get("zone").asText() + "'");
+        }
+
+        MisfirePolicy misfirePolicy;
+        try {
+            misfirePolicy = node.hasNonNull("misfire")
+                    ? MisfirePolicy.valueOf(node.get("misfire").asText().toUpperCase(Locale.ROOT))
+                    : MisfirePolicy.FIRE_ONCE;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown misfire policy '" + node.get("misfire").asText()
+                    + "', expected one of " + Arrays.toString(MisfirePolicy.values()));
+        }
+
+        long jitterMs = node.hasNonNull("jitterMs") ? node.get("jitterMs").asLong() : defaultJitterMs;
+        if (jitterMs < 0) {
+            throw new IllegalArgumentException("Schedule jitter must not be negative");
+        }
+
+        ScheduleSpec spec = new ScheduleSpec(cron, intervalMs, zone, misfirePolicy, jitterMs);
+        if (spec.next(LocalDateTime.now()) == null) {
+            throw new IllegalArgumentException("Cron expression '" + cron + "' never fires");
+        }
+        return spec;
+    }
+
+    private void requestReload() {
+        // Only after commit, otherwise the reload could still read the old rows
+        AfterCommit.run(() -> reloadRequested.set(true));
+    }
+
+    private void tickSafely() {
+        try {
+            tick(System.currentTimeMillis());
+        } catch (Exception e) {
+            log.error("Workflow scheduler tick failed", e);
+        }
+    }
+
+    private static long dueMillis(Tick tick) {
+        return tick.nominal.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                + tick.spec.jitterOffsetMs(tick.scheduleId);
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    private static String defaultHolder() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "task-service";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private static final class Tick {
+        private final UUID scheduleId;
+        private final UUID workflowId;
+        private final UUID ownerId;
+        private final ScheduleSpec spec;
+        // When the tick is due, before jitter
+        private final LocalDateTime nominal;
+
+        private Tick(UUID scheduleId, UUID workflowId, UUID ownerId, ScheduleSpec spec, LocalDateTime nominal) {
+            this.scheduleId = scheduleId;
+            this.workflowId = workflowId;
+            this.ownerId = ownerId;
+            this.spec = spec;
+            this.nominal = nominal;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package io.celox.taskflow.task.workflow.script;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+
+/**
+ * A sandboxed JavaScript context leased from the {@link ScriptRuntime} pool. Closing it hands it back: it is
+ * reset and reused, unless it was {@link #discard() discarded}.
+ * <p>
+ * A context is used by one script at a time; only {@link #cancel()} may be called from another thread.
+ */
+final class ScriptContext implements AutoCloseable {
+
+    private final ScriptRuntime runtime;
+    private final Context context;
+    private final Value bindings;
+    private final Value reset;
+    private int uses;
+    private volatile boolean discarded;
+
+    ScriptContext(ScriptRuntime runtime, Context context, Value reset) {
+        this.runtime = runtime;
+        this.context = context;
+        this.bindings = context.getBindings("js");
+        this.reset = reset;
+    }
+
+    /**
+     * Makes the value available to scripts as a global, maps and lists as {@link ScriptValues read-only views};
+     * globals are removed again when the context is reused.
+     */
+    void bind(String name, Object value) {
+        bindings.putMember(name, ScriptValues.toGuest(value));
+    }
+
+    /**
+     * Evaluates the source with the full statement limit, regardless of what earlier scripts used up.
+     */
+    Value eval(Source source) {
+        context.resetLimits();
+        return context.eval(source);
+    }
+
+    /**
+     * Marks the context as not reusable, e.g. after its script failed. It is closed instead of returned to the pool.
+     */
+    void discard() {
+        discarded = true;
+    }
+
+    /**
+     * Stops a running script from another thread by closing the context.
+     */
+    void cancel() {
+        discarded = true;
+        context.close(true);
+    }
+
+    @Override
+    public void close() {
+        runtime.release(this);
+    }
+
+    boolean isDiscarded() {
+        return discarded;
+    }
+
+    int use() {
+        return ++uses;
+    }
+
+    /**
+     * Removes the globals added since the context was created.
+     *
+     * @return false if that failed and the context must not be reused
+     */
+    boolean reset() {
+        return reset.execute().asBoolean();
+    }
+
+    void closeContext() {
+        context.close(true);
+    }
+}
@@ -0,0 +1,458 @@
+package io.celox.taskflow.task.workflow.script;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.celox.taskflow.task.workflow.WorkflowMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.ResourceLimits;
+import org.graalvm.polyglot.Source;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Runs the JavaScript of code nodes. All contexts share one GraalVM {@link Engine}, so a script is parsed once
+ * and its code is reused by every context instead of each execution starting from scratch.
+ * <p>
+ * Contexts are pooled: idle contexts are handed out again after a reset that removes the globals a script added.
+ * Since a context outlives a script, the built-in objects of every context are frozen on creation, so
+ * a script cannot change {@code Array.prototype} or similar for the scripts after it. Assigning
+ * {@code toString}, {@code constructor}, {@code name} or {@code message} to an object or error still works.
+ * <p>
+ * Scripts run on the {@code workflowScriptExecutor} pool, one context per thread, so the pool size also bounds the
+ * contexts in use. A script gets {@code timeout-ms} and {@code statement-limit}; one over either is cancelled by
+ * closing its context, which stops it even in an endless loop and frees its thread for the next script. An owner
+ * runs at most {@code max-concurrent-per-owner} scripts at once.
+ */
+@Component
+@Slf4j
+public class ScriptRuntime {
+
+    private static final String LANGUAGE = "js";
+
+    /**
+     * Freezes everything reachable from the global object and makes the global bindings read-only. Returns the
+     * function that deletes the globals added afterwards; it answers false if the context cannot be reset.
+     */
+    private static final String LOCKDOWN = """
+            (function () {
+                'use strict';
+                const enableOverride = (object, name) => {
+                    const descriptor = Object.getOwnPropertyDescriptor(object, name);
+                    if (descriptor === undefined || !('value' in descriptor)) {
+                        return;
+                    }
+                    const value = descriptor.value;
+                    Object.defineProperty(object, name, {
+                        get() {
+                            return value;
+                        },
+                        set(newValue) {
+                            if (this === object) {
+                                throw new TypeError("Cannot assign to read only property '" + name + "'");
+                            }
+                            Object.defineProperty(this, name,
+                                {value: newValue, writable: true, enumerable: true, configurable: true});
+                        },
+                        enumerable: descriptor.enumerable,
+                        configurable: false
+                    });
+                };
+                for (const name of ['constructor', 'toString', 'toLocaleString', 'valueOf', 'hasOwnProperty']) {
+                    enableOverride(Object.prototype, name);
+                }
+                for (const name of Object.getOwnPropertyNames(globalThis)) {
+                    if (name.endsWith('Error') && typeof globalThis[name] === 'function') {
+                        for (const member of ['constructor', 'name', 'message']) {
+                            enableOverride(globalThis[name].prototype, member);
+                        }
+                    }
+                }
+
+                const generator = Object.getPrototypeOf(function* () {});
+                const asyncGenerator = Object.getPrototypeOf(async function* () {});
+                const pending = [
+                    Object.getPrototypeOf([][Symbol.iterator]()),
+                    Object.getPrototypeOf(new Map()[Symbol.iterator]()),
+                    Object.getPrototypeOf(new Set()[Symbol.iterator]()),
+                    Object.getPrototypeOf(''[Symbol.iterator]()),
+                    Object.getPrototypeOf(/./[Symbol.matchAll]('')),
+                    generator,
+                    Object.getPrototypeOf(async function () {}),
+                    asyncGenerator,
+                    Object.getPrototypeOf(asyncGenerator.prototype)
+                ];
+                for (const name of Reflect.ownKeys(globalThis)) {
+                    pending.push(Reflect.getOwnPropertyDescriptor(globalThis, name).value);
+                }
+                const frozen = new Set();
+                while (pending.length > 0) {
+                    const value = pending.pop();
+                    if (value === null || value === globalThis || frozen.has(value)
+                            || (typeof value !== 'object' && typeof value !== 'function')) {
+                        continue;
+                    }
+                    frozen.add(value);
+                    Object.freeze(value);
+                    pending.push(Object.getPrototypeOf(value));
+                    for (const key of Reflect.ownKeys(value)) {
+                        const descriptor = Reflect.getOwnPropertyDescriptor(value, key);
+                        pending.push(descriptor.value, descriptor.get, descriptor.set);
+                    }
+                }
+                for (const name of Reflect.ownKeys(globalThis)) {
+                    const descriptor = Reflect.getOwnPropertyDescriptor(globalThis, name);
+                    if (descriptor.configurable) {
+                        Object.defineProperty(globalThis, name,
+                            'value' in descriptor ? {writable: false, configurable: false} : {configurable: false});
+                    }
+                }
+
+                const baseline = new Set(Reflect.ownKeys(globalThis));
+                const ownKeys = Reflect.ownKeys;
+                const deleteProperty = Reflect.deleteProperty;
+                const isExtensible = Object.isExtensible;
+                return () => {
+                    for (const key of ownKeys(globalThis)) {
+                        if (!baseline.has(key) && !deleteProperty(globalThis, key)) {
+                            return false;
+                        }
+                    }
+                    return isExtensible(globalThis);
+                };
+            })()
+            """;
+
+    private static final String WARM_UP = """
+            (function () {
+                const items = [1, 2, 3].map(id => ({id: id, title: 'Task ' + id, tags: ['a', 'b']}));
+                const open = items.filter(item => item.id > 1).map(item => item.title.toUpperCase());
+                return JSON.stringify({open: open, keys: Object.keys(items[0]), total: items.length});
+            })()
+            """;
+
+    private final Engine engine;
+    private final Source lockdown;
+    private final Source warmUp;
+    private final AsyncTaskExecutor executor;
+    private final WorkflowMetrics metrics;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final ScheduledExecutorService timer;
+    private final int poolSize;
+    private final long timeoutMs;
+    private final ResourceLimits limits;
+    private final int maxConcurrentPerOwner;
+    private final int maxContextUses;
+    private final boolean warmUpEnabled;
+    private final BlockingQueue<ScriptContext> idle;
+    private final Cache<String, Source> sources;
+    private final Map<UUID, Integer> runningByOwner = new ConcurrentHashMap<>();
+
+    public ScriptRuntime(
+            @Qualifier("workflowScriptExecutor") AsyncTaskExecutor executor,
+            WorkflowMetrics metrics,
+            @Value("${app.workflow.script-executor.pool-size:8}") int poolSize,
+            @Value("${app.workflow.code.timeout-ms:5000}") long timeoutMs,
+            @Value("${app.workflow.code.statement-limit:50000000}") long statementLimit,
+            @Value("${app.workflow.code.max-concurrent-per-owner:4}") int maxConcurrentPerOwner,
+            @Value("${app.workflow.code.source-cache-size:1024}") int sourceCacheSize,
+            @Value("${app.workflow.code.max-context-uses:1000}") int maxContextUses,
+            @Value("${app.workflow.code.warm-up:true}") boolean warmUpEnabled) {
+        this.engine = Engine.newBuilder()
+                .option("engine.WarnInterpreterOnly", "false")
+                .build();
+        this.lockdown = Source.newBuilder(LANGUAGE, LOCKDOWN, "lockdown.js").internal(true).buildLiteral();
+        this.warmUp = Source.create(LANGUAGE, WARM_UP);
+        this.executor = executor;
+        this.metrics = metrics;
+        this.poolSize = poolSize;
+        this.sources = Caffeine.newBuilder().maximumSize(sourceCacheSize).build();
+        this.timeoutMs = timeoutMs;
+        // One instance for all contexts, contexts of a shared engine must agree on their limits. Statements of the
+        // lockdown do not count, it is marked internal.
+        this.limits = statementLimit > 0
+                ? ResourceLimits.newBuilder().statementLimit(statementLimit, source -> !source.isInternal()).build()
+                : null;
+        this.maxConcurrentPerOwner = maxConcurrentPerOwner;
+        this.maxContextUses = maxContextUses;
+        this.warmUpEnabled = warmUpEnabled;
+        this.idle = new ArrayBlockingQueue<>(Math.max(poolSize, 1));
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "wf-script-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Fills the pool and runs a script in every context, so the first code nodes do not pay for it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!warmUpEnabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < poolSize; i++) {
+            ScriptContext context = newContext();
+            context.eval(warmUp);
+            if (!context.reset() || !idle.offer(context)) {
+                context.closeContext();
+            }
+        }
+        log.info("Warmed up {} script contexts in {}ms", idle.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Runs the code of a code node on the script executor and waits for it. A script running longer than
+     * {@code timeout-ms} is cancelled by closing its context; time spent waiting for a free thread is not counted.
+     *
+     * @param ownerId owner the script runs for, who may run {@code max-concurrent-per-owner} scripts at once;
+     *                null if not known
+     * @param globals values the script sees as globals
+     * @param result  converts the value of the script while its context is still open
+     * @throws TimeoutException      if the script was cancelled for running too long
+     * @throws IllegalStateException if the owner is at its limit or too many scripts are waiting
+     */
+    public <T> T execute(UUID ownerId, String code, Map<String, Object> globals,
+                         Function<org.graalvm.polyglot.Value, T> result) throws TimeoutException {
+        acquireSlot(ownerId);
+        try {
+            Source source = compile(code);
+            Run run = new Run();
+            Future<T> future;
+            try {
+                future = executor.submit(() -> run(run, source, globals, result));
+            } catch (RejectedExecutionException e) {
+                metrics.scriptRejected("saturated");
+                throw new IllegalStateException("Too many scripts are waiting to run, try again later", e);
+            }
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                future.cancel(true);
+                run.cancel(false);
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the script", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof TimeoutException timeout) {
+                    throw timeout;
+                }
+                throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+            }
+        } finally {
+            releaseSlot(ownerId);
+        }
+    }
+
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    public int getIdleContexts() {
+        return idle.size();
+    }
+
+    /**
+     * Leases a context, from the pool if one is idle. Close it to hand it back.
+     */
+    ScriptContext acquire() {
+        ScriptContext context = idle.poll();
+        return context != null ? context : newContext();
+    }
+
+    /**
+     * The code of a code node as a function body, called right away. Parsed sources are cached by the code.
+     */
+    Source compile(String code) {
+        return sources.get(code, key -> Source.newBuilder(LANGUAGE, "(function() {\n" + key.trim() + "\n})()",
+                        "code-" + Integer.toHexString(key.hashCode()) + ".js")
+                .cached(true)
+                .buildLiteral());
+    }
+
+    void release(ScriptContext context) {
+        boolean reusable = !context.isDiscarded() && context.use() < maxContextUses;
+        try {
+            reusable = reusable && context.reset();
+        } catch (RuntimeException e) {
+            log.debug("Script context could not be reset, closing it", e);
+            reusable = false;
+        }
+        if (!reusable || !idle.offer(context)) {
+            context.closeContext();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        timer.shutdownNow();
+        ScriptContext context;
+        while ((context = idle.poll()) != null) {
+            context.closeContext();
+        }
+        try {
+            engine.close();
+        } catch (IllegalStateException e) {
+            // Cancelling would wait for scripts that are still starting up, the JVM is going down anyway
+            log.debug("Script engine still has running contexts, not closing it", e);
+        }
+    }
+
+    private <T> T run(Run run, Source source, Map<String, Object> globals,
+                      Function<org.graalvm.polyglot.Value, T> result) throws TimeoutException {
+        long cpuStart = cpuTime();
+        String outcome = "failure";
+        ScriptContext context = acquire();
+        ScheduledFuture<?> deadline = null;
+        try {
+            if (!run.start(context)) {
+                throw new CancellationException("Script was cancelled before it started");
+            }
+            globals.forEach(context::bind);
+            deadline = timer.schedule(() -> run.cancel(true), timeoutMs, TimeUnit.MILLISECONDS);
+            T value = result.apply(context.eval(source));
+            outcome = "success";
+            return value;
+        } catch (PolyglotException e) {
+            context.discard();
+            if (run.isTimedOut()) {
+                outcome = "timeout";
+                throw new TimeoutException("Script ran longer than " + timeoutMs + "ms");
+            }
+            if (e.isResourceExhausted() || (e.isCancelled() && !run.isCancelled())) {
+                outcome = "limit";
+            }
+            throw new RuntimeException("JavaScript execution error: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            context.discard();
+            throw e;
+        } finally {
+            if (deadline != null) {
+                deadline.cancel(false);
+            }
+            run.finish();
+            context.close();
+            metrics.scriptFinished(outcome, cpuTime() - cpuStart);
+        }
+    }
+
+    /**
+     * CPU time of the current thread, or wall time where the JVM does not measure it.
+     */
+    private long cpuTime() {
+        return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    private void acquireSlot(UUID ownerId) {
+        if (ownerId != null && runningByOwner.merge(ownerId, 1, Integer::sum) > maxConcurrentPerOwner) {
+            releaseSlot(ownerId);
+            metrics.scriptRejected("owner-limit");
+            throw new IllegalStateException("Owner " + ownerId + " is at its limit of " + maxConcurrentPerOwner
+                    + " concurrent scripts, try again later");
+        }
+    }
+
+    private void releaseSlot(UUID ownerId) {
+        if (ownerId != null) {
+            runningByOwner.computeIfPresent(ownerId, (id, running) -> running > 1 ? running - 1 : null);
+        }
+    }
+
+    private ScriptContext newContext() {
+        Context.Builder builder = Context.newBuilder(LANGUAGE)
+                .engine(engine)
+                .allowAllAccess(false)  // SECURITY: No file/network access
+                .allowIO(false)          // SECURITY: No I/O operations
+                .allowNativeAccess(false) // SECURITY: No native code access
+                .allowCreateProcess(false) // SECURITY: No process creation
+                .allowCreateThread(false)  // SECURITY: No thread creation
+                .option("js.strict", "true")
+                .option("js.ecmascript-version", "2022");
+        if (limits != null) {
+            builder.resourceLimits(limits);
+        }
+        Context context = builder.build();
+        try {
+            return new ScriptContext(this, context, context.eval(lockdown));
+        } catch (RuntimeException e) {
+            context.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Hand-over between the thread running a script and the one cancelling it: a context is only closed by
+     * {@link #cancel} while its script has not finished.
+     */
+    private static final class Run {
+
+        private ScriptContext context;
+        private boolean cancelled;
+        private boolean timedOut;
+
+        synchronized boolean start(ScriptContext context) {
+            if (cancelled) {
+                context.discard();
+                return false;
+            }
+            this.context = context;
+            return true;
+        }
+
+        synchronized void finish() {
+            context = null;
+        }
+
+        synchronized boolean isCancelled() {
+            return cancelled;
+        }
+
+        synchronized boolean isTimedOut() {
+            return timedOut;
+        }
+
+        void cancel(boolean timeout) {
+            ScriptContext running;
+            synchronized (this) {
+                running = context;
+                if (running == null && timeout) {
+                    return;
+                }
+                cancelled = true;
+                timedOut = timeout;
+                if (running != null) {
+                    running.discard();
+                }
+            }
+            if (running != null) {
+                running.cancel();
+            }
+        }
+    }
+}
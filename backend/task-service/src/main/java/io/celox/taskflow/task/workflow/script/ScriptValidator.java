@@ -0,0 +1,313 @@
+package io.celox.taskflow.task.workflow.script;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Rejects code node scripts that name APIs they must not use, before they run.
+ * <p>
+ * The code is read once as JavaScript tokens. Text in strings, comments and regular expressions is skipped, so
+ * {@code "please fetch (it)"} passes. A comment between a name and its call, unicode escapes spelling a name and
+ * expressions inside template literals are still caught. Verdicts are cached by the code, so checking an
+ * unchanged script again costs one hash lookup.
+ * <p>
+ * This is a first filter with clear error messages. The sandbox of the {@link ScriptRuntime} is what actually
+ * keeps scripts away from the host.
+ */
+@Component
+@Slf4j
+public class ScriptValidator {
+
+    // Rejected wherever they appear as a name, also as a property such as globalThis.eval
+    private static final Set<String> BLOCKED_NAMES = Set.of(
+            "eval", "Function", "setTimeout", "setInterval", "require", "import", "fetch",
+            "XMLHttpRequest", "WebSocket", "child_process", "__dirname", "__filename");
+
+    // Node.js and browser globals, rejected when one of their members is used
+    private static final Set<String> BLOCKED_OBJECTS = Set.of("process", "global", "window", "document", "fs", "os");
+
+    // Reserved words after which a slash starts a regular expression instead of a division
+    private static final Set<String> KEYWORDS_BEFORE_EXPRESSION = Set.of(
+            "return", "typeof", "instanceof", "in", "new", "delete", "void", "throw", "case", "do", "else");
+
+    private final Cache<String, Optional<String>> verdicts;
+
+    public ScriptValidator(@Value("${app.workflow.code.validation-cache-size:1024}") int cacheSize) {
+        this.verdicts = Caffeine.newBuilder().maximumSize(cacheSize).build();
+    }
+
+    /**
+     * @return why the code is rejected, or null if it may run
+     */
+    public String validate(String code) {
+        return verdicts.get(code, key -> Optional.ofNullable(check(key))).orElse(null);
+    }
+
+    long getCachedVerdicts() {
+        verdicts.cleanUp();
+        return verdicts.estimatedSize();
+    }
+
+    private String check(String code) {
+        Tokenizer tokens = new Tokenizer(code);
+        boolean system = false;
+        boolean exit = false;
+        for (String name = tokens.nextName(); name != null; name = tokens.nextName()) {
+            if (BLOCKED_NAMES.contains(name)) {
+                log.warn("SECURITY ALERT: Dangerous code pattern detected: {}", name);
+                return "Dangerous pattern detected: " + name;
+            }
+            if (BLOCKED_OBJECTS.contains(name) && tokens.memberAccessFollows()) {
+                log.warn("SECURITY ALERT: Dangerous code pattern detected: {}.", name);
+                return "Dangerous pattern detected: " + name + ".";
+            }
+            system |= name.equalsIgnoreCase("system");
+            exit |= name.equalsIgnoreCase("exit");
+        }
+        if (system && exit) {
+            log.warn("SECURITY ALERT: Suspicious system exit call detected");
+            return "Suspicious system exit call detected";
+        }
+        return null;
+    }
+
+    /**
+     * Yields the names (identifiers, keywords and property names) of a script in one pass. Where a slash could be
+     * a division or start a regular expression it is read as a division, so code is never skipped by mistake.
+     */
+    private static final class Tokenizer {
+
+        private final String code;
+        private int pos;
+        // Brace depth at which each open ${...} of a template literal continues its template
+        private final Deque<Integer> templates = new ArrayDeque<>();
+        private int braces;
+        private boolean regexAllowed = true;
+        private boolean afterDot;
+
+        Tokenizer(String code) {
+            this.code = code;
+        }
+
+        /**
+         * @return the next name with unicode escapes resolved, or null at the end of the code
+         */
+        String nextName() {
+            while (true) {
+                int next = skipSpaceAndComments(pos);
+                if (next >= code.length()) {
+                    pos = next;
+                    return null;
+                }
+                pos = next;
+                char c = code.charAt(pos);
+                if (Character.isJavaIdentifierStart(c) || c == '\\') {
+                    String name = readName();
+                    regexAllowed = !afterDot && KEYWORDS_BEFORE_EXPRESSION.contains(name);
+                    afterDot = false;
+                    return name;
+                }
+                afterDot = false;
+                if (Character.isDigit(c) || (c == '.' && pos + 1 < code.length()
+                        && Character.isDigit(code.charAt(pos + 1)))) {
+                    skipNumber();
+                } else if (c == '"' || c == '\'') {
+                    skipString(c);
+                } else if (c == '`') {
+                    pos++;
+                    skipTemplate();
+                } else if (c == '/' && regexAllowed) {
+                    skipRegex();
+                } else {
+                    punctuator(c);
+                }
+            }
+        }
+
+        /**
+         * Whether the name just read is followed by {@code .}, {@code ?.} or {@code [}.
+         */
+        boolean memberAccessFollows() {
+            int next = skipSpaceAndComments(pos);
+            if (next >= code.length()) {
+                return false;
+            }
+            char c = code.charAt(next);
+            return c == '.' || c == '[' || (c == '?' && next + 1 < code.length() && code.charAt(next + 1) == '.');
+        }
+
+        private void punctuator(char c) {
+            pos++;
+            switch (c) {
+                case '{' -> {
+                    braces++;
+                    regexAllowed = true;
+                }
+                case '}' -> {
+                    if (!templates.isEmpty() && templates.peek() == braces) {
+                        templates.pop();
+                        skipTemplate();
+                    } else {
+                        braces--;
+                        regexAllowed = false;
+                    }
+                }
+                case ')', ']' -> regexAllowed = false;
+                case '.' -> {
+                    afterDot = true;
+                    regexAllowed = false;
+                }
+                case '+', '-' -> {
+                    // a++ / b divides
+                    boolean increment = pos < code.length() && code.charAt(pos) == c;
+                    if (increment) {
+                        pos++;
+                    }
+                    regexAllowed = !increment;
+                }
+                default -> regexAllowed = true;
+            }
+        }
+
+        private String readName() {
+            StringBuilder name = new StringBuilder();
+            while (pos < code.length()) {
+                char c = code.charAt(pos);
+                if (c == '\\') {
+                    name.appendCodePoint(readUnicodeEscape());
+                } else if (Character.isJavaIdentifierPart(c)) {
+                    name.append(c);
+                    pos++;
+                } else {
+                    break;
+                }
+            }
+            return name.toString();
+        }
+
+        /**
+         * Reads a unicode escape, a backslash and u followed by four hex digits or by hex digits in braces. Anything
+         * else is taken as the backslash itself.
+         */
+        private int readUnicodeEscape() {
+            int start = pos;
+            pos++;
+            if (pos < code.length() && code.charAt(pos) == 'u') {
+                pos++;
+                boolean braced = pos < code.length() && code.charAt(pos) == '{';
+                int digitsStart = braced ? pos + 1 : pos;
+                int digitsEnd = braced ? code.indexOf('}', digitsStart) : Math.min(digitsStart + 4, code.length());
+                if (digitsEnd > digitsStart && digitsEnd - digitsStart <= 6) {
+                    try {
+                        int codePoint = Integer.parseInt(code.substring(digitsStart, digitsEnd), 16);
+                        if (Character.isValidCodePoint(codePoint)) {
+                            pos = braced ? digitsEnd + 1 : digitsEnd;
+                            return codePoint;
+                        }
+                    } catch (NumberFormatException e) {
+                        // Not an escape, fall through
+                    }
+                }
+            }
+            pos = start + 1;
+            return '\\';
+        }
+
+        private void skipNumber() {
+            while (pos < code.length()) {
+                char c = code.charAt(pos);
+                // 1..toString() is a number and a property
+                boolean fraction = c == '.' && pos + 1 < code.length() && Character.isDigit(code.charAt(pos + 1));
+                if (!Character.isLetterOrDigit(c) && c != '_' && !fraction) {
+                    break;
+                }
+                pos++;
+            }
+            regexAllowed = false;
+        }
+
+        private void skipString(char quote) {
+            pos++;
+            while (pos < code.length()) {
+                char c = code.charAt(pos++);
+                if (c == '\\') {
+                    pos++;
+                } else if (c == quote || c == '\n') {
+                    break;
+                }
+            }
+            regexAllowed = false;
+        }
+
+        /**
+         * Skips template text up to the closing backtick, or up to a {@code ${} whose expression is read as code.
+         */
+        private void skipTemplate() {
+            while (pos < code.length()) {
+                char c = code.charAt(pos++);
+                if (c == '\\') {
+                    pos++;
+                } else if (c == '`') {
+                    break;
+                } else if (c == '$' && pos < code.length() && code.charAt(pos) == '{') {
+                    pos++;
+                    templates.push(braces);
+                    regexAllowed = true;
+                    return;
+                }
+            }
+            regexAllowed = false;
+        }
+
+        private void skipRegex() {
+            pos++;
+            boolean inClass = false;
+            while (pos < code.length()) {
+                char c = code.charAt(pos++);
+                if (c == '\\') {
+                    pos++;
+                } else if (c == '\n') {
+                    // Not a regular expression after all, read the rest as code
+                    break;
+                } else if (c == '[') {
+                    inClass = true;
+                } else if (c == ']') {
+                    inClass = false;
+                } else if (c == '/' && !inClass) {
+                    break;
+                }
+            }
+            while (pos < code.length() && Character.isJavaIdentifierPart(code.charAt(pos))) {
+                pos++;
+            }
+            regexAllowed = false;
+        }
+
+        private int skipSpaceAndComments(int from) {
+            int i = from;
+            while (i < code.length()) {
+                char c = code.charAt(i);
+                if (Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+                    i++;
+                } else if (c == '/' && i + 1 < code.length() && code.charAt(i + 1) == '/') {
+                    int end = code.indexOf('\n', i);
+                    i = end < 0 ? code.length() : end + 1;
+                } else if (c == '/' && i + 1 < code.length() && code.charAt(i + 1) == '*') {
+                    int end = code.indexOf("*/", i + 2);
+                    i = end < 0 ? code.length() : end + 2;
+                } else {
+                    break;
+                }
+            }
+            return i;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package io.celox.taskflow.task.workflow.script;
+
+import org.graalvm.polyglot.Value;
+import org.graalvm.polyglot.proxy.Proxy;
+import org.graalvm.polyglot.proxy.ProxyArray;
+import org.graalvm.polyglot.proxy.ProxyObject;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts between the data of an execution and script values without copying it up front.
+ * <p>
+ * Maps and lists reach a script as read-only views: a member or element is looked up, and wrapped if it is a
+ * map or list itself, when the script reads it. A script touching one field of a large node output therefore
+ * costs one lookup, and a spilled output is read from disk item by item. Results are converted back right away,
+ * since the context goes back to the pool after the script, but a view the script returns, on its own or inside
+ * a new object, comes back as an unmodifiable wrapper of the original map or list instead of a copy, so the node
+ * that stores the result cannot change another node's output through it. Only a {@link #snapshotView} is copied.
+ */
+public final class ScriptValues {
+
+    private ScriptValues() {
+    }
+
+    /**
+     * View of a map that keeps changing while the script's result is used, such as the variables of an execution.
+     * Returned by a script it comes back as a snapshot: the live map stored as a node output would contain itself.
+     */
+    public static Object snapshotView(Map<?, ?> map) {
+        return new MapView(map, true);
+    }
+
+    /**
+     * The value as a script sees it: maps and lists as views, numbers and text as they are, anything else as
+     * its string form.
+     */
+    static Object toGuest(Object value) {
+        if (value instanceof MapView) {
+            return value;
+        }
+        if (value == null || value instanceof String || value instanceof Boolean || value instanceof Character
+                || value instanceof Integer || value instanceof Long || value instanceof Double
+                || value instanceof Float || value instanceof Short || value instanceof Byte) {
+            return value;
+        }
+        if (value instanceof Map<?, ?> map) {
+            return new MapView(map, false);
+        }
+        if (value instanceof List<?> list) {
+            return new ListView(list);
+        }
+        if (value instanceof BigDecimal || value instanceof BigInteger) {
+            return ((Number) value).doubleValue();
+        }
+        return value.toString();
+    }
+
+    /**
+     * Converts the value of a script to maps, lists and boxed primitives. Views handed to the script are unwrapped
+     * to read-only wrappers of what they show.
+     */
+    public static Object toHost(Value value) {
+        if (value == null || value.isNull()) {
+            return null;
+        }
+
+        if (value.isProxyObject()) {
+            Proxy proxy = value.asProxyObject();
+            if (proxy instanceof MapView view) {
+                return view.snapshot ? new LinkedHashMap<>(view.map) : Collections.unmodifiableMap(view.map);
+            }
+            if (proxy instanceof ListView view) {
+                return Collections.unmodifiableList(view.list);
+            }
+        }
+
+        if (value.isString()) {
+            return value.asString();
+        }
+
+        if (value.isNumber()) {
+            if (value.fitsInInt()) {
+                return value.asInt();
+            } else if (value.fitsInLong()) {
+                return value.asLong();
+            } else {
+                return value.asDouble();
+            }
+        }
+
+        if (value.isBoolean()) {
+            return value.asBoolean();
+        }
+
+        if (value.hasArrayElements()) {
+            long size = value.getArraySize();
+            List<Object> list = new ArrayList<>((int) size);
+            for (long i = 0; i < size; i++) {
+                list.add(toHost(value.getArrayElement(i)));
+            }
+            return list;
+        }
+
+        if (value.hasMembers()) {
+            Map<String, Object> map = new HashMap<>();
+            for (String key : value.getMemberKeys()) {
+                map.put(key, toHost(value.getMember(key)));
+            }
+            return map;
+        }
+
+        // Fallback to string representation
+        return value.toString();
+    }
+
+    private static final class MapView implements ProxyObject {
+
+        private final Map<?, ?> map;
+        private final boolean snapshot;
+
+        MapView(Map<?, ?> map, boolean snapshot) {
+            this.map = map;
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        public Object getMember(String key) {
+            return toGuest(map.get(key));
+        }
+
+        @Override
+        public Object getMemberKeys() {
+            return ProxyArray.fromArray(map.keySet().stream().map(String::valueOf).toArray());
+        }
+
+        @Override
+        public boolean hasMember(String key) {
+            return map.containsKey(key);
+        }
+
+        @Override
+        public void putMember(String key, Value value) {
+            // Scripts see a TypeError, workflow data is shared with other nodes
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static final class ListView implements ProxyArray {
+
+        private final List<?> list;
+
+        ListView(List<?> list) {
+            this.list = list;
+        }
+
+        @Override
+        public Object get(long index) {
+            return toGuest(list.get((int) index));
+        }
+
+        @Override
+        public void set(long index, Value value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long getSize() {
+            return list.size();
+        }
+    }
+}
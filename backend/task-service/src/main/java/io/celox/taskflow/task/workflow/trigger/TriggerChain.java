@@ -0,0 +1,49 @@
+package io.celox.taskflow.task.workflow.trigger;
+
+import io.celox.taskflow.shared.events.TaskEvent;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The workflow run a task change comes from, and how many trigger hops led to that run.
+ * Stamped onto the task events a run publishes so {@link WorkflowTriggerDispatcher} can stop loops.
+ */
+@Getter
+@RequiredArgsConstructor
+@ToString
+public class TriggerChain {
+
+    static final String ORIGIN_FIELD = "originWorkflowId";
+    static final String DEPTH_FIELD = "chainDepth";
+
+    private final UUID workflowId;
+    private final int depth;
+
+    /**
+     * The chain of a run of {@code workflowId} started with {@code triggerData}; a run started by a
+     * task event is one hop deeper than that event.
+     */
+    public static TriggerChain of(UUID workflowId, Map<String, Object> triggerData) {
+        return new TriggerChain(workflowId, depthOf(triggerData) + 1);
+    }
+
+    public <E extends TaskEvent> E stamp(E event) {
+        event.setOriginWorkflowId(workflowId);
+        event.setChainDepth(depth);
+        return event;
+    }
+
+    static int depthOf(Map<String, Object> payload) {
+        Object depth = payload != null ? payload.get(DEPTH_FIELD) : null;
+        return depth instanceof Number number ? number.intValue() : 0;
+    }
+
+    static String originOf(Map<String, Object> payload) {
+        Object origin = payload.get(ORIGIN_FIELD);
+        return origin != null ? origin.toString() : null;
+    }
+}
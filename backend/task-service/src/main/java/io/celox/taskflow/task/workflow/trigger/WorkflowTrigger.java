@@ -0,0 +1,33 @@
+package io.celox.taskflow.task.workflow.trigger;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * One event trigger of an active workflow: start the workflow when {@code event} occurs and every
+ * filter field of the event equals the configured value.
+ */
+@Getter
+@RequiredArgsConstructor
+@ToString
+public class WorkflowTrigger {
+
+    private final UUID workflowId;
+    private final UUID ownerId;
+    private final String event;
+    private final Map<String, String> filter;
+
+    boolean matches(Map<String, Object> payload) {
+        for (Map.Entry<String, String> condition : filter.entrySet()) {
+            Object value = payload.get(condition.getKey());
+            if (value == null || !condition.getValue().equals(value.toString())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,104 @@
+package io.celox.taskflow.task.workflow.trigger;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.celox.taskflow.task.domain.WorkflowStatus;
+import io.celox.taskflow.task.exception.AdmissionRejectedException;
+import io.celox.taskflow.task.repository.WorkflowRepository;
+import io.celox.taskflow.task.workflow.WorkflowAdmissionController;
+import io.celox.taskflow.task.workflow.WorkflowExecutionEngine;
+import io.celox.taskflow.task.workflow.WorkflowMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Starts the ACTIVE workflows whose triggers match a task event. Matching runs against
+ * {@link WorkflowTriggerIndex}; every match is put into the durable execution queue, so the
+ * consumer thread never runs a workflow itself.
+ * <p>
+ * Events published by a workflow run carry its {@link TriggerChain}. Such an event never starts the
+ * workflow that caused it, and nothing is started once a chain is {@code max-chain-depth} hops deep,
+ * so workflows that trigger each other cannot loop.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WorkflowTriggerDispatcher {
+
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {
+    };
+
+    private final WorkflowTriggerIndex triggerIndex;
+    private final WorkflowRepository workflowRepository;
+    private final WorkflowAdmissionController admissionController;
+    private final WorkflowExecutionEngine executionEngine;
+    private final WorkflowMetrics metrics;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.workflow.triggers.max-chain-depth:3}")
+    private final int maxChainDepth;
+
+    /**
+     * @param event the topic the event was published on, e.g. {@code task.created}
+     * @return the number of workflows queued
+     */
+    public int dispatch(String event, Object taskEvent) {
+        Map<String, Object> payload = objectMapper.convertValue(taskEvent, PAYLOAD_TYPE);
+
+        long start = System.nanoTime();
+        List<WorkflowTrigger> matches = triggerIndex.match(event, payload);
+        metrics.triggerMatched(event, System.nanoTime() - start);
+
+        if (matches.isEmpty()) {
+            return 0;
+        }
+        if (TriggerChain.depthOf(payload) >= maxChainDepth) {
+            log.warn("Event {} is {} workflow runs deep, not starting {} matching workflows",
+                    event, TriggerChain.depthOf(payload), matches.size());
+            matches.forEach(trigger -> metrics.triggerFired(event, "chain-limit"));
+            return 0;
+        }
+
+        // The index of this instance may lag behind a deactivation made through another one
+        Set<UUID> active = workflowRepository.findIdsByIdInAndStatus(
+                matches.stream().map(WorkflowTrigger::getWorkflowId).toList(), WorkflowStatus.ACTIVE);
+        String origin = TriggerChain.originOf(payload);
+
+        int queued = 0;
+        for (WorkflowTrigger trigger : matches) {
+            if (trigger.getWorkflowId().toString().equals(origin)) {
+                metrics.triggerFired(event, "self");
+            } else if (!active.contains(trigger.getWorkflowId())) {
+                triggerIndex.remove(trigger.getWorkflowId());
+                metrics.triggerFired(event, "inactive");
+            } else if (start(event, trigger, payload)) {
+                queued++;
+            }
+        }
+        log.info("Event {} matched {} workflow triggers, queued {}", event, matches.size(), queued);
+        return queued;
+    }
+
+    private boolean start(String event, WorkflowTrigger trigger, Map<String, Object> payload) {
+        try {
+            admissionController.admitQueued(trigger.getOwnerId());
+            executionEngine.enqueueExecution(trigger.getWorkflowId(), payload);
+            metrics.triggerFired(event, "queued");
+            return true;
+        } catch (AdmissionRejectedException e) {
+            log.warn("Workflow {} not started by {}: {}", trigger.getWorkflowId(), event, e.getMessage());
+            metrics.triggerFired(event, "rejected");
+        } catch (RuntimeException e) {
+            log.error("Starting workflow {} for {} failed", trigger.getWorkflowId(), event, e);
+            metrics.triggerFired(event, "failed");
+        }
+        return false;
+    }
+}
@@ -0,0 +1,294 @@
+package io.celox.taskflow.task.workflow.trigger;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.celox.taskflow.task.domain.Workflow;
+import io.celox.taskflow.task.domain.WorkflowStatus;
+import io.celox.taskflow.task.repository.WorkflowRepository;
+import io.celox.taskflow.task.workflow.AfterCommit;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory index of the event triggers of all ACTIVE workflows.
+ * <p>
+ * Triggers are grouped by event and then by the value of one of their filter fields, so matching an event costs
+ * a few hash lookups plus a check of the candidates instead of a scan over all workflows. The index is an
+ * immutable snapshot that is rebuilt and swapped whenever a workflow is activated, changed, deactivated or
+ * deleted on this instance; a periodic reload picks up changes made through other instances.
+ * <p>
+ * A workflow declares its triggers in {@code triggersJson}:
+ * <pre>
+ * [{"type": "event", "event": "task.created", "filter": {"priority": "HIGH"}}]
+ * </pre>
+ * Entries of another type are left to other trigger sources.
+ */
+@Component
+@Slf4j
+public class WorkflowTriggerIndex {
+
+    public static final Set<String> SUPPORTED_EVENTS =
+            Set.of("task.created", "task.updated", "task.completed", "task.deleted");
+
+    static final String EVENT_TRIGGER_TYPE = "event";
+
+    private final WorkflowRepository workflowRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final long refreshIntervalMs;
+    private final ScheduledExecutorService scheduler;
+
+    // Source of truth for rebuilding the snapshot, guarded by this
+    private final Map<UUID, List<WorkflowTrigger>> triggersByWorkflow = new HashMap<>();
+    private volatile Map<String, EventTriggers> snapshot = Map.of();
+
+    public WorkflowTriggerIndex(
+            WorkflowRepository workflowRepository,
+            ObjectMapper objectMapper,
+            @Value("${app.workflow.triggers.enabled:true}") boolean enabled,
+            @Value("${app.workflow.triggers.refresh-interval-ms:30000}") long refreshIntervalMs) {
+        this.workflowRepository = workflowRepository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.refreshIntervalMs = refreshIntervalMs;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "wf-trigger-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        reload();
+        if (refreshIntervalMs > 0) {
+            scheduler.scheduleWithFixedDelay(this::reloadSafely, refreshIntervalMs, refreshIntervalMs,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Returns the triggers that fire for the event, at most one per workflow.
+     */
+    public List<WorkflowTrigger> match(String event, Map<String, Object> payload) {
+        EventTriggers triggers = snapshot.get(event);
+        if (triggers == null) {
+            return List.of();
+        }
+
+        List<WorkflowTrigger> matches = new ArrayList<>(triggers.unfiltered);
+        for (Map.Entry<String, Map<String, List<WorkflowTrigger>>> field : triggers.byField.entrySet()) {
+            Object value = payload.get(field.getKey());
+            if (value == null) {
+                continue;
+            }
+            List<WorkflowTrigger> candidates = field.getValue().get(value.toString());
+            if (candidates == null) {
+                continue;
+            }
+            for (WorkflowTrigger candidate : candidates) {
+                if (candidate.matches(payload)) {
+                    matches.add(candidate);
+                }
+            }
+        }
+        return distinctWorkflows(matches);
+    }
+
+    /**
+     * Validates the triggers of the workflow and indexes them if it is ACTIVE, otherwise removes them. Inside a
+     * transaction the index only changes once it commits.
+     *
+     * @throws IllegalArgumentException if {@code triggersJson} is not a valid trigger list
+     */
+    public void register(Workflow workflow) {
+        UUID workflowId = workflow.getId();
+        List<WorkflowTrigger> triggers = parse(workflowId, workflow.getOwner().getId(), workflow.getTriggersJson());
+        boolean active = workflow.getStatus() == WorkflowStatus.ACTIVE && !triggers.isEmpty();
+        AfterCommit.run(() -> {
+            if (active) {
+                put(workflowId, triggers);
+            } else {
+                removeNow(workflowId);
+            }
+        });
+    }
+
+    /**
+     * Removes the triggers of the workflow; inside a transaction once it commits.
+     */
+    public void remove(UUID workflowId) {
+        AfterCommit.run(() -> removeNow(workflowId));
+    }
+
+    private synchronized void put(UUID workflowId, List<WorkflowTrigger> triggers) {
+        triggersByWorkflow.put(workflowId, triggers);
+        rebuild();
+    }
+
+    private synchronized void removeNow(UUID workflowId) {
+        if (triggersByWorkflow.remove(workflowId) != null) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Replaces the index with the triggers of all ACTIVE workflows in the database.
+     */
+    public void reload() {
+        Map<UUID, List<WorkflowTrigger>> loaded = new HashMap<>();
+        for (Object[] row : workflowRepository.findTriggersByStatus(WorkflowStatus.ACTIVE)) {
+            UUID workflowId = (UUID) row[0];
+            try {
+                List<WorkflowTrigger> triggers = parse(workflowId, (UUID) row[1], (String) row[2]);
+                if (!triggers.isEmpty()) {
+                    loaded.put(workflowId, triggers);
+                }
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring triggers of workflow {}: {}", workflowId, e.getMessage());
+            }
+        }
+        synchronized (this) {
+            triggersByWorkflow.clear();
+            triggersByWorkflow.putAll(loaded);
+            rebuild();
+        }
+        log.debug("Loaded event triggers of {} active workflows", loaded.size());
+    }
+
+    public synchronized int size() {
+        return triggersByWorkflow.values().stream().mapToInt(List::size).sum();
+    }
+
+    List<WorkflowTrigger> parse(UUID workflowId, UUID ownerId, String triggersJson) {
+        if (triggersJson == null || triggersJson.isBlank()) {
+            return List.of();
+        }
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(triggersJson);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Workflow triggers are not valid JSON: " + e.getOriginalMessage());
+        }
+        if (root == null || root.isNull()) {
+            return List.of();
+        }
+        if (!root.isArray()) {
+            throw new IllegalArgumentException("Workflow triggers must be a JSON array");
+        }
+
+        List<WorkflowTrigger> triggers = new ArrayList<>();
+        for (JsonNode node : root) {
+            String type = node.path("type").asText(EVENT_TRIGGER_TYPE);
+            if (!EVENT_TRIGGER_TYPE.equals(type)) {
+                continue;
+            }
+            String event = node.path("event").asText(null);
+            if (event == null || !SUPPORTED_EVENTS.contains(event)) {
+                throw new IllegalArgumentException("Unsupported trigger event '" + event + "', expected one of "
+                        + new TreeSet<>(SUPPORTED_EVENTS));
+            }
+            triggers.add(new WorkflowTrigger(workflowId, ownerId, event, parseFilter(node.path("filter"))));
+        }
+        return triggers;
+    }
+
+    private Map<String, String> parseFilter(JsonNode filterNode) {
+        if (filterNode.isMissingNode() || filterNode.isNull()) {
+            return Map.of();
+        }
+        if (!filterNode.isObject()) {
+            throw new IllegalArgumentException("Trigger filter must be a JSON object");
+        }
+        // Sorted, so the field a trigger is indexed under does not depend on the JSON key order
+        Map<String, String> filter = new TreeMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = filterNode.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (!field.getValue().isValueNode() || field.getValue().isNull()) {
+                throw new IllegalArgumentException("Trigger filter field '" + field.getKey() + "' must be a plain value");
+            }
+            filter.put(field.getKey(), field.getValue().asText());
+        }
+        return Collections.unmodifiableMap(filter);
+    }
+
+    private void rebuild() {
+        Map<String, List<WorkflowTrigger>> unfiltered = new HashMap<>();
+        Map<String, Map<String, Map<String, List<WorkflowTrigger>>>> byField = new HashMap<>();
+        for (List<WorkflowTrigger> triggers : triggersByWorkflow.values()) {
+            for (WorkflowTrigger trigger : triggers) {
+                if (trigger.getFilter().isEmpty()) {
+                    unfiltered.computeIfAbsent(trigger.getEvent(), e -> new ArrayList<>()).add(trigger);
+                    continue;
+                }
+                Map.Entry<String, String> key = trigger.getFilter().entrySet().iterator().next();
+                byField.computeIfAbsent(trigger.getEvent(), e -> new HashMap<>())
+                        .computeIfAbsent(key.getKey(), f -> new HashMap<>())
+                        .computeIfAbsent(key.getValue(), v -> new ArrayList<>())
+                        .add(trigger);
+            }
+        }
+
+        Map<String, EventTriggers> rebuilt = new HashMap<>();
+        for (String event : SUPPORTED_EVENTS) {
+            if (unfiltered.containsKey(event) || byField.containsKey(event)) {
+                rebuilt.put(event, new EventTriggers(
+                        List.copyOf(unfiltered.getOrDefault(event, List.of())),
+                        byField.getOrDefault(event, Map.of())));
+            }
+        }
+        snapshot = rebuilt;
+    }
+
+    private void reloadSafely() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("Reloading workflow triggers failed", e);
+        }
+    }
+
+    private static List<WorkflowTrigger> distinctWorkflows(List<WorkflowTrigger> matches) {
+        if (matches.size() < 2) {
+            return matches;
+        }
+        Set<UUID> seen = new HashSet<>();
+        List<WorkflowTrigger> distinct = new ArrayList<>(matches.size());
+        for (WorkflowTrigger trigger : matches) {
+            if (seen.add(trigger.getWorkflowId())) {
+                distinct.add(trigger);
+            }
+        }
+        return distinct;
+    }
+
+    private static final class EventTriggers {
+        private final List<WorkflowTrigger> unfiltered;
+        // filter field -> value -> triggers indexed under that field
+        private final Map<String, Map<String, List<WorkflowTrigger>>> byField;
+
+        private EventTriggers(List<WorkflowTrigger> unfiltered, Map<String, Map<String, List<WorkflowTrigger>>> byField) {
+            this.unfiltered = unfiltered;
+            this.byField = byField;
+        }
+    }
+}
@@ -2,12 +2,18 @@ package io.celox.taskflow.task.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.celox.taskflow.task.config.JwtTokenProvider;
+import io.celox.taskflow.task.domain.NodeEvent;
+import io.celox.taskflow.task.domain.NodeEventStatus;
 import io.celox.taskflow.task.domain.WorkflowStatus;
 import io.celox.taskflow.task.domain.ExecutionStatus;
 import io.celox.taskflow.task.dto.CreateWorkflowDto;
 import io.celox.taskflow.task.dto.UpdateWorkflowDto;
+import io.celox.taskflow.task.dto.WorkflowBatchDto;
 import io.celox.taskflow.task.dto.WorkflowDto;
 import io.celox.taskflow.task.dto.WorkflowExecutionDto;
+import io.celox.taskflow.task.exception.AdmissionRejectedException;
+import io.celox.taskflow.task.service.ExecutionSubscriptionService;
+import io.celox.taskflow.task.service.WorkflowBatchService;
 import io.celox.taskflow.task.service.WorkflowService;
 import io.celox.taskflow.task.service.UserService;
 import org.junit.jupiter.api.Test;
@@ -15,6 +21,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.test.context.ActiveProfiles;
@@ -52,6 +59,12 @@ class WorkflowControllerTest {
     @MockBean
     private WorkflowService workflowService;
 
+    @MockBean
+    private ExecutionSubscriptionService subscriptionService;
+
+    @MockBean
+    private WorkflowBatchService batchService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -209,6 +222,158 @@ class WorkflowControllerTest {
                 .andExpect(jsonPath("$.workflowId").value(workflowId.toString()));
     }
 
+    @Test
+    void shouldQueueWorkflowExecutionWhenAsync() throws Exception {
+        // Given
+        UUID workflowId = UUID.randomUUID();
+        UUID executionId = UUID.randomUUID();
+
+        WorkflowExecutionDto execution = WorkflowExecutionDto.builder()
+                .id(executionId)
+                .workflowId(workflowId)
+                .status(ExecutionStatus.QUEUED)
+                .build();
+
+        when(workflowService.submitWorkflow(eq(workflowId), any(Map.class))).thenReturn(execution);
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/workflows/{id}/execute", workflowId)
+                        .param("async", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/v1/workflows/executions/" + executionId))
+                .andExpect(jsonPath("$.id").value(executionId.toString()))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+
+        verify(workflowService, never()).executeWorkflow(any(), any());
+    }
+
+    @Test
+    void shouldReturn429WithRetryAfterWhenOwnerIsOverLimit() throws Exception {
+        // Given
+        UUID workflowId = UUID.randomUUID();
+
+        when(workflowService.executeWorkflow(eq(workflowId), any()))
+                .thenThrow(new AdmissionRejectedException(HttpStatus.TOO_MANY_REQUESTS,
+                        "Too many concurrent executions for this owner (limit 4)", 5));
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/workflows/{id}/execute", workflowId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "5"))
+                .andExpect(jsonPath("$.message").value("Too many concurrent executions for this owner (limit 4)"));
+    }
+
+    @Test
+    void shouldQueueBatchExecution() throws Exception {
+        // Given
+        UUID workflowId = UUID.randomUUID();
+        UUID batchId = UUID.randomUUID();
+        List<Map<String, Object>> items = List.of(Map.of("row", 1), Map.of("row", 2));
+
+        WorkflowBatchDto batch = WorkflowBatchDto.builder()
+                .id(batchId)
+                .workflowId(workflowId)
+                .totalItems(2)
+                .maxParallel(8)
+                .queued(2)
+                .build();
+
+        when(batchService.submitBatch(eq(workflowId), eq(items), eq(8))).thenReturn(batch);
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/workflows/{id}/execute-batch", workflowId)
+                        .param("parallelism", "8")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(items)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/v1/workflows/batches/" + batchId))
+                .andExpect(jsonPath("$.totalItems").value(2))
+                .andExpect(jsonPath("$.queued").value(2));
+    }
+
+    @Test
+    void shouldGetBatchProgress() throws Exception {
+        // Given
+        UUID batchId = UUID.randomUUID();
+        WorkflowBatchDto batch = WorkflowBatchDto.builder()
+                .id(batchId)
+                .totalItems(3)
+                .completed(2)
+                .failed(1)
+                .finished(true)
+                .build();
+
+        when(batchService.getBatch(batchId)).thenReturn(batch);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/workflows/batches/{batchId}", batchId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.completed").value(2))
+                .andExpect(jsonPath("$.finished").value(true));
+    }
+
+    @Test
+    void shouldGetNodeEventsFilteredByNode() throws Exception {
+        // Given
+        UUID executionId = UUID.randomUUID();
+        NodeEvent event = NodeEvent.builder()
+                .nodeId("http")
+                .nodeType("httpRequest")
+                .status(NodeEventStatus.FAILED)
+                .startNanos(1_000L)
+                .endNanos(2_000L)
+                .error("timeout")
+                .build();
+
+        when(workflowService.getNodeEvents(executionId, "http")).thenReturn(List.of(event));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/workflows/executions/{executionId}/nodes", executionId)
+                        .param("nodeId", "http"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].status").value("FAILED"))
+                .andExpect(jsonPath("$[0].error").value("timeout"));
+    }
+
+    @Test
+    void shouldResumeFailedExecution() throws Exception {
+        // Given
+        UUID executionId = UUID.randomUUID();
+
+        WorkflowExecutionDto execution = WorkflowExecutionDto.builder()
+                .id(executionId)
+                .status(ExecutionStatus.COMPLETED)
+                .build();
+
+        when(workflowService.resumeExecution(executionId)).thenReturn(execution);
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/workflows/executions/{executionId}/resume", executionId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"));
+
+        verify(workflowService, never()).submitResume(any());
+    }
+
+    @Test
+    void shouldRejectResumeOfExecutionThatDidNotFail() throws Exception {
+        // Given
+        UUID executionId = UUID.randomUUID();
+
+        when(workflowService.submitResume(executionId))
+                .thenThrow(new IllegalStateException("Only failed executions can be resumed"));
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/workflows/executions/{executionId}/resume", executionId)
+                        .param("async", "true"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void shouldDeleteWorkflow() throws Exception {
         // Given
@@ -0,0 +1,146 @@
+package io.celox.taskflow.task.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.celox.taskflow.task.domain.ExecutionStatus;
+import io.celox.taskflow.task.domain.User;
+import io.celox.taskflow.task.domain.Workflow;
+import io.celox.taskflow.task.domain.WorkflowBatch;
+import io.celox.taskflow.task.dto.WorkflowBatchDto;
+import io.celox.taskflow.task.repository.WorkflowBatchRepository;
+import io.celox.taskflow.task.repository.WorkflowExecutionRepository;
+import io.celox.taskflow.task.repository.WorkflowRepository;
+import io.celox.taskflow.task.workflow.WorkflowAdmissionController;
+import io.celox.taskflow.task.workflow.WorkflowExecutionQueue;
+import io.celox.taskflow.task.workflow.WorkflowExecutionQueuedEvent;
+import io.celox.taskflow.task.workflow.WorkflowPlanCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WorkflowBatchServiceTest {
+
+    @Mock
+    private WorkflowRepository workflowRepository;
+
+    @Mock
+    private WorkflowBatchRepository batchRepository;
+
+    @Mock
+    private WorkflowExecutionRepository executionRepository;
+
+    @Mock
+    private WorkflowExecutionQueue executionQueue;
+
+    @Mock
+    private WorkflowPlanCache planCache;
+
+    @Mock
+    private WorkflowAdmissionController admissionController;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private WorkflowBatchService batchService;
+
+    @BeforeEach
+    void setUp() {
+        batchService = new WorkflowBatchService(workflowRepository, batchRepository, executionRepository,
+                executionQueue, planCache, admissionController, eventPublisher, transactionTemplate,
+                new ObjectMapper(), 3, 4);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldQueueOneExecutionPerPayload() {
+        // Given
+        UUID ownerId = UUID.randomUUID();
+        Workflow workflow = Workflow.builder()
+                .id(UUID.randomUUID())
+                .owner(User.builder().id(ownerId).build())
+                .build();
+        UUID batchId = UUID.randomUUID();
+
+        when(workflowRepository.findById(workflow.getId())).thenReturn(Optional.of(workflow));
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                ((TransactionCallback<WorkflowBatch>) inv.getArgument(0)).doInTransaction(null));
+        when(batchRepository.saveAndFlush(any(WorkflowBatch.class))).thenAnswer(inv -> {
+            WorkflowBatch batch = inv.getArgument(0);
+            batch.setId(batchId);
+            return batch;
+        });
+
+        // When
+        WorkflowBatchDto batch = batchService.submitBatch(workflow.getId(),
+                List.of(Map.of("row", 1), Map.of("row", 2)), null);
+
+        // Then
+        assertEquals(batchId, batch.getId());
+        assertEquals(2, batch.getTotalItems());
+        assertEquals(4, batch.getMaxParallel());
+        assertEquals(2, batch.getQueued());
+        verify(admissionController).admitQueued(ownerId, 2);
+        verify(planCache).getPlan(workflow);
+        verify(executionQueue).enqueueBatch(batchId, workflow.getId(), List.of("{\"row\":1}", "{\"row\":2}"));
+        verify(eventPublisher).publishEvent(any(WorkflowExecutionQueuedEvent.class));
+    }
+
+    @Test
+    void shouldRejectOversizedBatch() {
+        // Given
+        List<Map<String, Object>> items = List.of(Map.of(), Map.of(), Map.of(), Map.of());
+
+        // When
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> batchService.submitBatch(UUID.randomUUID(), items, null));
+
+        // Then
+        assertEquals("A batch may contain at most 3 items, got 4", exception.getMessage());
+        verifyNoInteractions(executionQueue);
+    }
+
+    @Test
+    void shouldAggregateBatchProgress() {
+        // Given
+        UUID batchId = UUID.randomUUID();
+        WorkflowBatch batch = WorkflowBatch.builder()
+                .id(batchId)
+                .workflowId(UUID.randomUUID())
+                .totalItems(5)
+                .maxParallel(2)
+                .build();
+
+        when(batchRepository.findById(batchId)).thenReturn(Optional.of(batch));
+        when(executionRepository.countByBatchIdGroupByStatus(eq(batchId))).thenReturn(List.of(
+                new Object[]{ExecutionStatus.COMPLETED, 3L},
+                new Object[]{ExecutionStatus.FAILED, 1L},
+                new Object[]{ExecutionStatus.RUNNING, 1L}));
+
+        // When
+        WorkflowBatchDto progress = batchService.getBatch(batchId);
+
+        // Then
+        assertEquals(3, progress.getCompleted());
+        assertEquals(1, progress.getFailed());
+        assertEquals(1, progress.getRunning());
+        assertFalse(progress.isFinished());
+    }
+}
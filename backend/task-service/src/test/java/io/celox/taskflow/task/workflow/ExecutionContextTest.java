@@ -0,0 +1,172 @@
+package io.celox.taskflow.task.workflow;
+
+import io.celox.taskflow.task.domain.NodeEvent;
+import io.celox.taskflow.task.domain.NodeEventStatus;
+import io.celox.taskflow.task.workflow.trigger.TriggerChain;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutionContextTest {
+
+    @Test
+    void shouldKeepOnlyLatestNodeEvents() {
+        // Given
+        ExecutionContext context = new ExecutionContext(Map.of(), 2, 1024);
+
+        // When
+        context.recordNodeEvent(event("a"));
+        context.recordNodeEvent(event("b"));
+        context.recordNodeEvent(event("c"));
+
+        // Then
+        assertEquals(List.of("b", "c"), context.getNodeEvents().stream().map(NodeEvent::getNodeId).toList());
+        assertEquals(1, context.getDroppedNodeEvents());
+    }
+
+    @Test
+    void shouldStopLogAtLimit() {
+        // Given
+        ExecutionContext context = new ExecutionContext(Map.of(), 10, 20);
+
+        // When
+        context.log("first line");
+        context.log("second line");
+        context.log("third");
+
+        // Then
+        assertEquals("first line\n[log truncated at 20 characters]\n", context.getExecutionLog());
+    }
+
+    @Test
+    void shouldTruncateLongErrors() {
+        // Given
+        ExecutionContext context = new ExecutionContext();
+        NodeEvent event = event("a");
+        event.setError("x".repeat(2000));
+
+        // When
+        context.recordNodeEvent(event);
+
+        // Then
+        assertEquals(500, context.getNodeEvents().get(0).getError().length());
+    }
+
+    @Test
+    void shouldUseEpochNanos() {
+        // Given
+        ExecutionContext context = new ExecutionContext();
+        long before = System.currentTimeMillis();
+
+        // When
+        long nanos = context.currentNanos();
+
+        // Then
+        assertTrue(Math.abs(nanos / 1_000_000 - before) < 1000);
+    }
+
+    @Test
+    void shouldKeepBranchWritesApartUntilMerged() {
+        // Given
+        ExecutionContext context = new ExecutionContext();
+        context.setVariable("a_result", "from a");
+        ExecutionContext left = context.newBranchContext();
+        ExecutionContext right = context.newBranchContext();
+
+        // When
+        left.setVariable("left_result", 1);
+        right.setVariable("a_result", null);
+        Map<String, Object> seenByLeft = Map.copyOf(left.getVariables());
+        Map<String, Object> seenByRight = Map.copyOf(right.getVariables());
+        Map<String, Object> beforeMerge = Map.copyOf(context.getVariables());
+        context.mergeBranch(left, 1);
+        context.mergeBranch(right, 2);
+
+        // Then
+        assertEquals(Map.of("a_result", "from a", "left_result", 1), seenByLeft);
+        assertEquals(Map.of(), seenByRight);
+        assertEquals(Map.of("a_result", "from a"), beforeMerge);
+        assertEquals(Map.of("left_result", 1), context.getVariables());
+    }
+
+    @Test
+    void shouldShowBranchMergedWhileAnotherIsRunning() {
+        // Given
+        ExecutionContext context = new ExecutionContext();
+        ExecutionContext finished = context.newBranchContext();
+        ExecutionContext running = context.newBranchContext();
+        finished.setVariable("a_result", "from a");
+
+        // When
+        Object beforeMerge = running.getVariable("a_result");
+        context.mergeBranch(finished, 1);
+        Object afterMerge = running.getVariable("a_result");
+
+        // Then
+        assertNull(beforeMerge);
+        assertEquals("from a", afterMerge);
+    }
+
+    @Test
+    void shouldPassTriggerChainToBranchAndLoopContexts() {
+        // Given
+        ExecutionContext context = new ExecutionContext();
+        TriggerChain chain = TriggerChain.of(UUID.randomUUID(), Map.of());
+        context.setTriggerChain(chain);
+
+        // When
+        ExecutionContext branch = context.newBranchContext();
+        ExecutionContext loop = branch.newLoopContext(Map.of("item", 1));
+
+        // Then
+        assertSame(chain, branch.getTriggerChain());
+        assertSame(chain, loop.getTriggerChain());
+    }
+
+    @Test
+    void shouldLetHigherRankWinRegardlessOfMergeOrder() {
+        // Given
+        ExecutionContext context = new ExecutionContext();
+        ExecutionContext early = context.newBranchContext();
+        ExecutionContext late = context.newBranchContext();
+        early.setVariable("shared", "early");
+        late.setVariable("shared", "late");
+
+        // When
+        context.mergeBranch(late, 5);
+        context.mergeBranch(early, 3);
+
+        // Then
+        assertEquals("late", context.getVariable("shared"));
+    }
+
+    @Test
+    void shouldLayerLoopVariablesWithoutCopying() {
+        // Given
+        ExecutionContext context = new ExecutionContext();
+        context.setVariable("db1_result", List.of(1, 2));
+
+        // When
+        ExecutionContext loopContext = context.newLoopContext(Map.of("item", 1));
+        context.setVariable("later", true);
+        loopContext.setVariable("body_result", "done");
+
+        // Then
+        assertEquals(List.of(1, 2), loopContext.resolvePath("$vars.db1_result"));
+        assertEquals(true, loopContext.getVariable("later"));
+        assertNull(context.getVariable("item"));
+        assertNull(context.getVariable("body_result"));
+    }
+
+    private NodeEvent event(String nodeId) {
+        return NodeEvent.builder()
+                .nodeId(nodeId)
+                .nodeType("code")
+                .status(NodeEventStatus.COMPLETED)
+                .build();
+    }
+}
@@ -0,0 +1,73 @@
+package io.celox.taskflow.task.workflow;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TemplateEngineTest {
+
+    private final TemplateEngine templateEngine = new TemplateEngine(2);
+
+    @Test
+    void shouldReplaceVariablesAndTriggerFields() {
+        // Given
+        ExecutionContext context = new ExecutionContext(Map.of("taskId", "42", "title", "from trigger"));
+        context.setVariable("title", "from variable");
+
+        // When
+        String result = templateEngine.render("Task {{taskId}}: {{ title }} ({{taskId}})", context);
+
+        // Then
+        assertEquals("Task 42: from variable (42)", result);
+    }
+
+    @Test
+    void shouldResolveNestedPaths() {
+        // Given
+        ExecutionContext context = new ExecutionContext(Map.of("ids", List.of("a", "b"), "user.name", "Ann"));
+        context.setVariable("node1_result", Map.of("body", Map.of("id", 7)));
+        context.setVariable("total", 3);
+
+        // When
+        String result = templateEngine.render("{{node1_result.body.id}} {{$node1.body.id}} {{ $node1_result.body.id }} "
+                + "{{$trigger.ids.1}} {{ids.0}} {{user.name}} {{$vars.total}}", context);
+
+        // Then
+        assertEquals("7 7 7 b a Ann 3", result);
+    }
+
+    @Test
+    void shouldLeaveUnknownAndMalformedPlaceholders() {
+        // Given
+        ExecutionContext context = new ExecutionContext(Map.of("a", "1"));
+        context.setVariable("injected", "{{a}}");
+
+        // When
+        String result = templateEngine.render("{{missing}} {{}} {{a.b}} {{injected}} {{a", context);
+
+        // Then
+        assertEquals("{{missing}} {{}} {{a.b}} {{a}} {{a", result);
+        assertNull(templateEngine.render(null, context));
+    }
+
+    @Test
+    void shouldParseEachTemplateOnce() {
+        // Given
+        String text = "Hello {{name}}";
+
+        // When
+        Template first = templateEngine.compile(text);
+        Template second = templateEngine.compile(text);
+        templateEngine.compile("{{a}}");
+        templateEngine.compile("{{b}}");
+
+        // Then
+        assertSame(first, second);
+        assertTrue(first.hasPlaceholders());
+        assertTrue(templateEngine.size() <= 2);
+        assertEquals("no placeholders", templateEngine.render("no placeholders", new ExecutionContext()));
+    }
+}
@@ -0,0 +1,177 @@
+package io.celox.taskflow.task.workflow;
+
+import io.celox.taskflow.task.domain.ExecutionStatus;
+import io.celox.taskflow.task.exception.AdmissionRejectedException;
+import io.celox.taskflow.task.repository.WorkflowExecutionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WorkflowAdmissionControllerTest {
+
+    private final WorkflowExecutionRepository executionRepository = mock(WorkflowExecutionRepository.class);
+    private final WorkflowMetrics metrics = new WorkflowMetrics(new SimpleMeterRegistry());
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void shouldRejectOwnerOverItsLimitWith429() throws Exception {
+        // Given
+        WorkflowAdmissionController controller = controller(10, 1, 10, 5000);
+        UUID owner = UUID.randomUUID();
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> first = runBlocked(controller, owner, release, null);
+        awaitRunning(controller, 1);
+
+        // When
+        AdmissionRejectedException exception = assertThrows(AdmissionRejectedException.class,
+                () -> controller.runAdmitted(owner, () -> "second"));
+
+        // Then
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exception.getStatus());
+        assertEquals(7, exception.getRetryAfterSeconds());
+        assertEquals("other", controller.runAdmitted(UUID.randomUUID(), () -> "other"));
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void shouldRejectWith503WhenWaitingQueueIsFull() throws Exception {
+        // Given
+        WorkflowAdmissionController controller = controller(1, 5, 0, 5000);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> first = runBlocked(controller, UUID.randomUUID(), release, null);
+        awaitRunning(controller, 1);
+
+        // When
+        AdmissionRejectedException exception = assertThrows(AdmissionRejectedException.class,
+                () -> controller.runAdmitted(UUID.randomUUID(), () -> "second"));
+
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatus());
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void shouldRejectWith503WhenNoSlotFreesUpInTime() throws Exception {
+        // Given
+        WorkflowAdmissionController controller = controller(1, 5, 5, 50);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> first = runBlocked(controller, UUID.randomUUID(), release, null);
+        awaitRunning(controller, 1);
+
+        // When
+        AdmissionRejectedException exception = assertThrows(AdmissionRejectedException.class,
+                () -> controller.runAdmitted(UUID.randomUUID(), () -> "second"));
+
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatus());
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        assertEquals("third", controller.runAdmitted(UUID.randomUUID(), () -> "third"));
+    }
+
+    @Test
+    void shouldHandOutFreedSlotsRoundRobinAcrossOwners() throws Exception {
+        // Given
+        WorkflowAdmissionController controller = controller(1, 5, 10, 5000);
+        UUID busyOwner = UUID.randomUUID();
+        UUID quietOwner = UUID.randomUUID();
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> running = runBlocked(controller, UUID.randomUUID(), release, null);
+        awaitRunning(controller, 1);
+
+        List<Future<?>> waiting = new ArrayList<>();
+        waiting.add(runBlocked(controller, busyOwner, new CountDownLatch(0), () -> order.add("busy-1")));
+        awaitWaiting(controller, busyOwner, 1);
+        waiting.add(runBlocked(controller, busyOwner, new CountDownLatch(0), () -> order.add("busy-2")));
+        awaitWaiting(controller, busyOwner, 2);
+        waiting.add(runBlocked(controller, quietOwner, new CountDownLatch(0), () -> order.add("quiet-1")));
+        awaitWaiting(controller, quietOwner, 1);
+
+        // When
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        for (Future<?> future : waiting) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+
+        // Then
+        assertEquals(List.of("busy-1", "quiet-1", "busy-2"), order);
+    }
+
+    @Test
+    void shouldLimitQueuedExecutions() {
+        // Given
+        WorkflowAdmissionController controller = controller(1, 1, 1, 1);
+        UUID owner = UUID.randomUUID();
+        when(executionRepository.countByOwnerIdAndStatus(eq(owner), eq(ExecutionStatus.QUEUED))).thenReturn(3L);
+        when(executionRepository.countByStatus(any())).thenReturn(100L);
+
+        // When
+        AdmissionRejectedException ownerLimit = assertThrows(AdmissionRejectedException.class,
+                () -> controller.admitQueued(owner));
+        AdmissionRejectedException queueFull = assertThrows(AdmissionRejectedException.class,
+                () -> controller.admitQueued(UUID.randomUUID()));
+
+        // Then
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, ownerLimit.getStatus());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, queueFull.getStatus());
+    }
+
+    private WorkflowAdmissionController controller(int maxConcurrent, int perOwner, int maxWaiting, long maxWaitMs) {
+        return new WorkflowAdmissionController(executionRepository, metrics,
+                maxConcurrent, perOwner, maxWaiting, maxWaitMs, 3, 100, 7);
+    }
+
+    private Future<?> runBlocked(WorkflowAdmissionController controller, UUID owner, CountDownLatch release,
+                                 Runnable onRun) {
+        return callers.submit(() -> controller.runAdmitted(owner, () -> {
+            if (onRun != null) {
+                onRun.run();
+            }
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+    }
+
+    private void awaitRunning(WorkflowAdmissionController controller, int running) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (controller.getRunning() < running && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(running, controller.getRunning());
+    }
+
+    private void awaitWaiting(WorkflowAdmissionController controller, UUID owner, int waiting)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (controller.getWaiting(owner) < waiting && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(waiting, controller.getWaiting(owner));
+    }
+}
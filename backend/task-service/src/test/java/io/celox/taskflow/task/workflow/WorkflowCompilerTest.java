@@ -0,0 +1,171 @@
+package io.celox.taskflow.task.workflow;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.celox.taskflow.task.domain.Workflow;
+import io.celox.taskflow.task.workflow.executors.ConditionExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkflowCompilerTest {
+
+    private final WorkflowCompiler compiler = new WorkflowCompiler(List.of(), new ObjectMapper());
+
+    @Test
+    void shouldOrderReachableNodesTopologically() {
+        // Given
+        Workflow workflow = workflow(
+                "[{\"id\":\"c\",\"type\":\"x\"},{\"id\":\"b\",\"type\":\"x\"},{\"id\":\"a\",\"type\":\"x\"},"
+                        + "{\"id\":\"t\",\"type\":\"trigger\"},{\"id\":\"orphan\",\"type\":\"x\"}]",
+                "[{\"id\":\"e1\",\"source\":\"t\",\"target\":\"a\"},{\"id\":\"e2\",\"source\":\"t\",\"target\":\"b\"},"
+                        + "{\"id\":\"e3\",\"source\":\"a\",\"target\":\"c\"},{\"id\":\"e4\",\"source\":\"b\",\"target\":\"c\"},"
+                        + "{\"id\":\"e5\",\"source\":\"orphan\",\"target\":\"c\"}]");
+
+        // When
+        CompiledWorkflow plan = compiler.compile(workflow);
+
+        // Then
+        assertEquals(List.of("t", "b", "a", "c"), plan.getTopologicalOrder());
+        assertEquals(2, plan.getInDegree("c"));
+        assertEquals(Integer.MAX_VALUE, plan.getTopologicalIndex("orphan"));
+    }
+
+    @Test
+    void shouldRejectCyclicWorkflow() {
+        // Given
+        Workflow workflow = workflow(
+                "[{\"id\":\"t\",\"type\":\"trigger\"},{\"id\":\"a\",\"type\":\"x\"},{\"id\":\"b\",\"type\":\"x\"}]",
+                "[{\"id\":\"e1\",\"source\":\"t\",\"target\":\"a\"},{\"id\":\"e2\",\"source\":\"a\",\"target\":\"b\"},"
+                        + "{\"id\":\"e3\",\"source\":\"b\",\"target\":\"a\"}]");
+
+        // When
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> compiler.compile(workflow));
+
+        // Then
+        assertEquals("Workflow contains a cycle through nodes [a, b]", exception.getMessage());
+    }
+
+    @Test
+    void shouldCompileForEachBodyIntoNestedPlan() {
+        // Given
+        Workflow workflow = workflow(
+                "[{\"id\":\"t\",\"type\":\"trigger\"},{\"id\":\"loop\",\"type\":\"forEach\"},"
+                        + "{\"id\":\"a\",\"type\":\"x\"},{\"id\":\"b\",\"type\":\"x\"},{\"id\":\"after\",\"type\":\"x\"}]",
+                "[{\"id\":\"e1\",\"source\":\"t\",\"target\":\"loop\"},"
+                        + "{\"id\":\"e2\",\"source\":\"loop\",\"target\":\"a\",\"label\":\"each\"},"
+                        + "{\"id\":\"e3\",\"source\":\"a\",\"target\":\"b\"},"
+                        + "{\"id\":\"e4\",\"source\":\"loop\",\"target\":\"after\"}]");
+
+        // When
+        CompiledWorkflow plan = compiler.compile(workflow);
+
+        // Then
+        assertEquals(List.of("t", "loop", "after"), plan.getTopologicalOrder());
+        CompiledWorkflow body = plan.getLoopBody("loop");
+        assertEquals(List.of("loop", "a", "b"), body.getTopologicalOrder());
+        assertEquals("trigger", body.getStartNode().getType());
+        assertEquals(1, body.getInDegree("a"));
+    }
+
+    @Test
+    void shouldRejectLoopBodyReachableFromOutside() {
+        // Given
+        Workflow workflow = workflow(
+                "[{\"id\":\"t\",\"type\":\"trigger\"},{\"id\":\"loop\",\"type\":\"forEach\"},"
+                        + "{\"id\":\"a\",\"type\":\"x\"},{\"id\":\"after\",\"type\":\"x\"}]",
+                "[{\"id\":\"e1\",\"source\":\"t\",\"target\":\"loop\"},"
+                        + "{\"id\":\"e2\",\"source\":\"loop\",\"target\":\"a\",\"label\":\"each\"},"
+                        + "{\"id\":\"e3\",\"source\":\"a\",\"target\":\"after\"},"
+                        + "{\"id\":\"e4\",\"source\":\"loop\",\"target\":\"after\"}]");
+
+        // When
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> compiler.compile(workflow));
+
+        // Then
+        assertEquals("Node after is inside the loop body of forEach node loop and cannot be reached from outside of it",
+                exception.getMessage());
+    }
+
+    @Test
+    void shouldCompileSwitchCasesIntoTable() {
+        // Given
+        Workflow workflow = workflow(
+                "[{\"id\":\"t\",\"type\":\"trigger\"},{\"id\":\"s\",\"type\":\"switch\",\"data\":"
+                        + "{\"value\":\"$trigger.priority\",\"cases\":[{\"values\":[\"HIGH\",\"URGENT\"],\"label\":\"fast\"},"
+                        + "{\"value\":\"LOW\"}]}},{\"id\":\"a\",\"type\":\"x\"},{\"id\":\"b\",\"type\":\"x\"}]",
+                "[{\"id\":\"e1\",\"source\":\"t\",\"target\":\"s\"},"
+                        + "{\"id\":\"e2\",\"source\":\"s\",\"target\":\"a\",\"label\":\"fast\"},"
+                        + "{\"id\":\"e3\",\"source\":\"s\",\"target\":\"b\",\"label\":\"LOW\"}]");
+
+        // When
+        CompiledWorkflow plan = compiler.compile(workflow);
+
+        // Then
+        assertEquals(3, plan.getSwitchTable("s").getCaseCount());
+        assertNull(plan.getSwitchTable("a"));
+    }
+
+    @Test
+    void shouldRejectSwitchEdgeWithoutCase() {
+        // Given
+        Workflow workflow = workflow(
+                "[{\"id\":\"t\",\"type\":\"trigger\"},{\"id\":\"s\",\"type\":\"switch\",\"data\":"
+                        + "{\"value\":\"status\",\"cases\":[{\"value\":1,\"label\":\"one\"}]}},"
+                        + "{\"id\":\"a\",\"type\":\"x\"},{\"id\":\"b\",\"type\":\"x\"}]",
+                "[{\"id\":\"e1\",\"source\":\"t\",\"target\":\"s\"},"
+                        + "{\"id\":\"e2\",\"source\":\"s\",\"target\":\"a\",\"label\":\"one\"},"
+                        + "{\"id\":\"e3\",\"source\":\"s\",\"target\":\"b\",\"label\":\"two\"}]");
+
+        // When
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> compiler.compile(workflow));
+
+        // Then
+        assertEquals("Edge label 'two' of switch node s matches no case", exception.getMessage());
+    }
+
+    @Test
+    void shouldRejectInvalidConditionExpression() {
+        // Given
+        WorkflowCompiler conditionCompiler = new WorkflowCompiler(List.of(new ConditionExecutor()), new ObjectMapper());
+        Workflow workflow = workflow(
+                "[{\"id\":\"t\",\"type\":\"trigger\"},"
+                        + "{\"id\":\"c\",\"type\":\"condition\",\"data\":{\"expression\":\"$trigger.count >\"}}]",
+                "[{\"id\":\"e1\",\"source\":\"t\",\"target\":\"c\"}]");
+
+        // When
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> conditionCompiler.compile(workflow));
+
+        // Then
+        assertTrue(exception.getMessage().startsWith("condition node c: "), exception.getMessage());
+    }
+
+    @Test
+    void shouldIgnoreEdgesToUnknownNodes() {
+        // Given
+        Workflow workflow = workflow(
+                "[{\"id\":\"t\",\"type\":\"trigger\"},{\"id\":\"a\",\"type\":\"x\"}]",
+                "[{\"id\":\"e1\",\"source\":\"t\",\"target\":\"a\"},{\"id\":\"e2\",\"source\":\"a\",\"target\":\"missing\"}]");
+
+        // When
+        CompiledWorkflow plan = compiler.compile(workflow);
+
+        // Then
+        assertTrue(plan.getOutgoingEdges("a").isEmpty());
+        assertEquals(List.of("t", "a"), plan.getTopologicalOrder());
+    }
+
+    private Workflow workflow(String nodesJson, String edgesJson) {
+        return Workflow.builder()
+                .id(UUID.randomUUID())
+                .name("Test")
+                .nodesJson(nodesJson)
+                .edgesJson(edgesJson)
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,956 @@
+package io.celox.taskflow.task.workflow;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.celox.taskflow.task.domain.ExecutionCheckpoint;
+import io.celox.taskflow.task.domain.ExecutionStatus;
+import io.celox.taskflow.task.domain.NodeEvent;
+import io.celox.taskflow.task.domain.NodeEventStatus;
+import io.celox.taskflow.task.domain.Workflow;
+import io.celox.taskflow.task.domain.WorkflowExecution;
+import io.celox.taskflow.task.repository.ExecutionCheckpointRepository;
+import io.celox.taskflow.task.repository.WorkflowExecutionRepository;
+import io.celox.taskflow.task.repository.WorkflowRepository;
+import io.celox.taskflow.task.workflow.output.OutputBuffer;
+import io.celox.taskflow.task.workflow.output.OutputStorage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class WorkflowExecutionEngineTest {
+
+    @Mock
+    private WorkflowRepository workflowRepository;
+
+    @Mock
+    private WorkflowExecutionRepository executionRepository;
+
+    @Mock
+    private WorkflowExecutionQueue executionQueue;
+
+    @Mock
+    private ExecutionCheckpointRepository checkpointRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private static final ObjectMapper NODE_DATA_WRITER = new ObjectMapper();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<String, AtomicInteger> invocations = new ConcurrentHashMap<>();
+    private final List<String> completionOrder = Collections.synchronizedList(new ArrayList<>());
+    private final List<ExecutionCheckpoint> checkpoints = new ArrayList<>();
+    private ExecutorService branchExecutor;
+    private WorkflowExecutionEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        branchExecutor = Executors.newFixedThreadPool(4);
+        WorkflowCompiler compiler = new WorkflowCompiler(List.of(new SleepExecutor(), new ParkExecutor(), new FixedConditionExecutor(),
+                new ItemExecutor(), new EchoExecutor(), new RowsExecutor()), objectMapper);
+        engine = new WorkflowExecutionEngine(
+                workflowRepository,
+                executionRepository,
+                executionQueue,
+                new WorkflowPlanCache(compiler, 10),
+                branchExecutor,
+                eventPublisher,
+                objectMapper,
+                new ExecutionCheckpointStore(checkpointRepository, objectMapper, true),
+                new WorkflowMetrics(meterRegistry),
+                new OutputStorage(objectMapper, 1024 * 1024, 64 * 1024, ""),
+                1000,
+                64 * 1024,
+                4,
+                100,
+                3,
+                1000);
+
+        when(executionRepository.save(any(WorkflowExecution.class))).thenAnswer(inv -> {
+            WorkflowExecution execution = inv.getArgument(0);
+            if (execution.getId() == null) {
+                execution.setId(UUID.randomUUID());
+            }
+            return execution;
+        });
+        when(checkpointRepository.save(any(ExecutionCheckpoint.class))).thenAnswer(inv -> {
+            checkpoints.add(inv.getArgument(0));
+            return inv.getArgument(0);
+        });
+        when(checkpointRepository.findByExecutionId(any(UUID.class))).thenAnswer(inv -> checkpoints.stream()
+                .filter(checkpoint -> checkpoint.getExecutionId().equals(inv.getArgument(0)))
+                .toList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        branchExecutor.shutdownNow();
+    }
+
+    @Test
+    void shouldRunFanOutBranchesConcurrently() {
+        // Given
+        Workflow workflow = givenWorkflow(
+                nodes(node("t", "trigger", Map.of()),
+                        node("a", "sleep", Map.of("ms", 200)),
+                        node("b", "sleep", Map.of("ms", 200)),
+                        node("c", "sleep", Map.of("ms", 200)),
+                        node("m", "merge", Map.of()),
+                        node("end", "sleep", Map.of("ms", 0))),
+                edges(edge("t", "a"), edge("t", "b"), edge("t", "c"),
+                        edge("a", "m"), edge("b", "m"), edge("c", "m"),
+                        edge("m", "end")));
+
+        // When
+        long start = System.nanoTime();
+        WorkflowExecution execution = engine.executeWorkflow(workflow.getId(), Map.of());
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Then
+        assertEquals(ExecutionStatus.COMPLETED, execution.getStatus());
+        assertTrue(elapsedMs < 550, "branches should overlap, took " + elapsedMs + "ms");
+        assertEquals(1, invocations.get("end").get());
+        assertTrue(execution.getExecutionLog().contains("Node a completed in"));
+        assertTrue(execution.getExecutionLog().contains("Join node m released after 3 of 3 branches"));
+    }
+
+    @Test
+    void shouldReleaseJoinAfterConfiguredNumberOfBranches() {
+        // Given
+        Workflow workflow = givenWorkflow(
+                nodes(node("t", "trigger", Map.of()),
+                        node("a", "sleep", Map.of("ms", 0)),
+                        node("b", "sleep", Map.of("ms", 300)),
+                        node("m", "merge", Map.of("waitFor", 1)),
+                        node("end", "sleep", Map.of("ms", 0))),
+                edges(edge("t", "a"), edge("t", "b"),
+                        edge("a", "m"), edge("b", "m"),
+                        edge("m", "end")));
+
+        // When
+        WorkflowExecution execution = engine.executeWorkflow(workflow.getId(), Map.of());
+
+        // Then
+        assertEquals(ExecutionStatus.COMPLETED, execution.getStatus());
+        assertEquals(1, invocations.get("end").get());
+        assertTrue(execution.getExecutionLog().contains("already released, ignoring late branch"));
+    }
+
+    @Test
+    void shouldFailExecutionWhenBranchFails() {
+        // Given
+        Workflow workflow = givenWorkflow(
+                nodes(node("t", "trigger", Map.of()),
+                        node("a", "sleep", Map.of("ms", 0)),
+                        node("b", "sleep", Map.of("fail", true))),
+                edges(edge("t", "a"), edge("t", "b")));
+
+        // When
+        WorkflowExecution execution = engine.executeWorkflow(workflow.getId(), Map.of());
+
+        // Then
+        assertEquals(ExecutionStatus.FAILED, execution.getStatus());
+        assertEquals("Node execution failed: b", execution.getErrorDetails());
+        assertEquals(1, invocations.get("a").get());
+        NodeEvent failedEvent = eventOf(execution, "b");
+        assertEquals(NodeEventStatus.FAILED, failedEvent.getStatus());
+        assertEquals("boom", failedEvent.getError());
+        assertEquals(1, meterRegistry.get(WorkflowMetrics.NODE_FAILURES).tag("type", "sleep").counter().count());
+        assertEquals(1, meterRegistry.get(WorkflowMetrics.WORKFLOW_FAILURES).counter().count());
+    }
+
+    @Test
+    void shouldRunNodeWithTwoParentsOnceAfterBothInputs() {
+        // Given
+        Workflow workflow = givenWorkflow(
+                nodes(node("t", "trigger", Map.of()),
+                        node("a", "sleep", Map.of("ms", 0)),
+                        node("b", "sleep", Map.of("ms", 150)),
+                        node("c", "sleep", Map.of("ms", 0))),
+                edges(edge("t", "a"), edge("t", "b"), edge("a", "c"), edge("b", "c")));
+
+        // When
+        WorkflowExecution execution = engine.executeWorkflow(workflow.getId(), Map.of());
+
+        // Then
+        assertEquals(ExecutionStatus.COMPLETED, execution.getStatus());
+        assertEquals(1, invocations.get("c").get());
+        assertEquals("c", completionOrder.get(completionOrder.size() - 1));
+    }
+
+    @Test
+    void shouldSkipNodesOnUntakenConditionBranch() {
+        // Given
+        Workflow workflow = givenWorkflow(
+                nodes(node("t", "trigger", Map.of()),
+                        node("check", "condition", Map.of("value", true)),
+                        node("yes", "sleep", Map.of("ms", 0)),
+                        node("no", "sleep", Map.of("ms", 0)),
+                        node("noFollowUp", "sleep", Map.of("ms", 0)),
+                        node("after", "sleep", Map.of("ms", 0))),
+                edges(edge("t", "check"),
+                        edge("check", "yes", "true"), edge("check", "no", "false"),
+                        edge("no", "noFollowUp"),
+                        edge("yes", "after"), edge("noFollowUp", "after")));
+
+        // When
+        WorkflowExecution execution = engine.executeWorkflow(workflow.getId(), Map.of());
+
+        // Then
+        assertEquals(ExecutionStatus.COMPLETED, execution.getStatus());
+        assertNull(invocations.get("no"));
+        assertNull(invocations.get("noFollowUp"));
+        assertEquals(1, invocations.get("after").get());
+        assertTrue(execution.getExecutionLog().contains("Skipping node noFollowUp (no active incoming path)"));
+        assertEquals(NodeEventStatus.SKIPPED, eventOf(execution, "noFollowUp").getStatus());
+        NodeEvent completedEvent = eventOf(execution, "yes");
+        assertEquals(NodeEventStatus.COMPLETED, completedEvent.getStatus());
+        assertEquals("yes".length(), completedEvent.getOutputSize());
+        assertTrue(completedEvent.getEndNanos() >= completedEvent.getStartNanos());
+    }
+
+    @Test
+    void shouldFollowOnlyTheSwitchBranchOfTheRoutedValue() {
+        // Given
+        Workflow workflow = givenWorkflow(
+                nodes(node("t", "trigger", Map.of()),
+                        node("route", "switch", Map.of("value", "$trigger.priority", "cases", List.of(
+                                Map.of("values", List.of("HIGH", "URGENT"), "label", "fast"),
+                                Map.of("value", 2, "label", "normal")))),
+                        node("fast", "sleep", Map.of("ms", 0)),
+                        node("normal", "sleep", Map.of("ms", 0)),
+                        node("other", "sleep", Map.of("ms", 0))),
+                edges(edge("t", "route"),
+                        edge("route", "fast", "fast"), edge("route", "normal", "normal"),
+                        edge("route", "other", "default")));
+
+        // When
+        WorkflowExecution urgent = engine.executeWorkflow(workflow.getId(), Map.of("priority", "URGENT"));
+        WorkflowExecution numeric = engine.executeWorkflow(workflow.getId(), Map.of("priority", 2.0));
+        WorkflowExecution unknown = engine.executeWorkflow(workflow.getId(), Map.of("priority", "LOW"));
+
+        // Then
+        assertEquals(ExecutionStatus.COMPLETED, urgent.getStatus());
+        assertEquals(NodeEventStatus.COMPLETED, eventOf(urgent, "fast").getStatus());
+        assertEquals(NodeEventStatus.SKIPPED, eventOf(urgent, "normal").getStatus());
+        assertEquals(NodeEventStatus.SKIPPED, eventOf(urgent, "other").getStatus());
+        assertEquals(NodeEventStatus.COMPLETED, eventOf(numeric, "normal").getStatus());
+        assertEquals(NodeEventStatus.COMPLETED, eventOf(unknown, "other").getStatus());
+        assertTrue(unknown.getExecutionLog().contains("matches no case, taking the default branch"));
+        assertEquals(1, invocations.get("fast").get());
+        assertEquals(1, invocations.get("normal").get());
+        assertEquals(1, invocations.get("other").get());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldSpillLargeOutputAndReadItBackInLoop() {
+        // Given
+        Workflow workflow = givenWorkflow(
+                nodes(node("t", "trigger", Map.of()),
+                        node("rows", "rows", Map.of("count", 100)),
+                        node("loop", "forEach", Map.of("items", "rows_result", "chunkSize", 20)),
+                        node("work", "sleep", Map.of("ms", 0))),
+                edges(edge("t", "rows"), edge("rows", "loop"), edge("loop", "work", "each")));
+
+        // When
+        WorkflowExecution execution = engine.executeWorkflow(workflow.getId(), Map.of());
+
+        // Then
+        assertEquals(ExecutionStatus.COMPLETED, execution.getStatus());
+        assertEquals(1, execution.getSpilledOutputs());
+        assertTrue(execution.getSpilledOutputBytes() > 100 * 500);
+        assertTrue(execution.getPeakOutputBytes() <= 1024 * 1024);
+        assertEquals(5, invocations.get("work").get());
+        Map<String, Object> checkpoints = checkpointedOutputs(execution);
+        assertFalse(checkpoints.containsKey("rows"));
+        assertEquals(100, ((Map<String, Object>) checkpoints.get("loop")).get("count"));
+        assertTrue(execution.getExecutionLog().contains("1 node output(s) spilled to disk"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldRunForEachBodyPerItemAndCollectResultsInOrder() {
+        // Given
+        Workflow workflow = givenWorkflow(
+                nodes(node("t", "trigger", Map.of()),
+                        node("loop", "forEach", Map.of("items", "$trigger.ids", "concurrency", 3)),
+                        node("work", "sleep", Map.of("ms", 150)),
+                        node("audit", "sleep", Map.of("ms", 0)),
+                        node("after", "sleep", Map.of("ms", 0))),
+                edges(edge("t", "loop"), edge("loop", "work", "each"), edge("work", "audit"),
+                        edge("loop", "after")));
+
+        // When
+        long start = System.nanoTime();
+        WorkflowExecution execution = engine.executeWorkflow(workflow.getId(), Map.of("ids", List.of(1, 2, 3, 4, 5, 6)));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Then
+        assertEquals(ExecutionStatus.COMPLETED, execution.getStatus());
+        Map<String, Object> output = (Map<String, Object>) checkpointedOutputs(execution).get("loop");
+        // The last body node with an output is "audit", which returns its own id
+        assertEquals(Collections.nCopies(6, "audit"), output.get("results"));
+        assertEquals(6, output.get("count"));
+        assertEquals(6, invocations.get("audit").get());
+        assertEquals(1, invocations.get("after").get());
+        assertTrue(elapsedMs < 550, "items should overlap, took " + elapsedMs + "ms");
+        assertTrue(execution.getExecutionLog().contains("forEach node loop: 6 item(s) in 6 run(s), 3 at a time"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldKeepItemOrderAndChunkItems() {
+        // Given
+        Workflow workflow = givenWorkflow(
+                nodes(node("t", "trigger", Map.of()),
+                        node("loop", "forEach", Map.of("items", "$trigger.ids", "concurrency", 4, "chunkSize", 2,
+                                "resultNode", "double")),
+                        node("double", "item", Map.of("slowFirstMs", 200))),
+                edges(edge("t", "loop"), edge("loop", "double", "each")));
+
+        // When
+        WorkflowExecution execution = engine.executeWorkflow(workflow.getId(), Map.of("ids", List.of(1, 2, 3, 4, 5)));
+
+        // Then
+        assertEquals(ExecutionStatus.COMPLETED, execution.getStatus());
+        Map<String, Object> output = (Map<String, Object>) checkpointedOutputs(execution).get("loop");
+        assertEquals(List.of(List.of(2, 4), List.of(6, 8), List.of(10)), output.get("results"));
+        // The slow first chunk finished last but still comes first
+        assertEquals("double:0", completionOrder.get(completionOrder.size() - 1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldFailForEachOnFailedItemUnlessContinuing() {
+        // Given
+        Workflow failing = givenWorkflow(
+                nodes(node("t", "trigger", Map.of()),
+                        node("loop", "forEach", Map.of("items", "$trigger.ids")),
+                        node("work", "sleep", Map.of("fail", true)),
+                        node("after", "sleep", Map.of("ms", 0))),
+                edges(edge("t", "loop"), edge("loop", "work", "each"), edge("loop", "after")));
+        Workflow continuing = givenWorkflow(
+                nodes(node("t", "trigger", Map.of()),
+                        node("loop", "forEach", Map.of("items", "$trigger.ids", "continueOnError", true,
+                                "collect", "unordered")),
+                        node("work", "sleep", Map.of("fail", true))),
+                edges(edge("t", "loop"), edge("loop", "work", "each")));
+
+        // When
+        WorkflowExecution failed = engine.executeWorkflow(failing.getId(), Map.of("ids", List.of(1, 2, 3)));
+        WorkflowExecution completed = engine.executeWorkflow(continuing.getId(), Map.of("ids", List.of(1, 2)));
+
+        // Then
+        assertEquals(ExecutionStatus.FAILED, failed.getStatus());
+        assertEquals("forEach node loop failed at run 0: boom", failed.getErrorDetails());
+        assertNull(invocations.get("after"));
+        assertEquals(ExecutionStatus.COMPLETED, completed.getStatus());
+        Map<String, Object> output = (Map<String, Object>) checkpointedOutputs(completed).get("loop");
+        assertEquals(2, output.get("failed"));
+        assertEquals(2, ((List<?>) output.get("results")).size());
+    }
+
+    @Test
+    void shouldRejectForEachAboveItemLimit() {
+        // Given
+        Workflow workflow = givenWorkflow(
+                nodes(node("t", "trigger", Map.of()),
+                        node("loop", "forEach", Map.of("items", "$trigger.ids")),
+                        node("work", "sleep", Map.of("ms", 0))),
+                edges(edge("t", "loop"), edge("loop", "work", "each")));
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 101; i++) {
+            ids.add(i);
+        }
+
+        // When
+        WorkflowExecution execution = engine.executeWorkflow(workflow.getId(), Map.of("ids", ids));
+
+        // Then
+        assertEquals(ExecutionStatus.FAILED, execution.getStatus());
+        assertEquals("forEach node loop got 101 items, the limit is 100", execution.getErrorDetails());
+        assertNull(invocations.get("work"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldRunSubWorkflowInlineWithMappedInput() {
+        // Given
+        Workflow child = givenWorkflow(
+                nodes(node("t", "trigger", Map.of()),
+                        node("echo", "echo", Map.of()),
+                        node("tail", "sleep", Map.of("ms", 0))),
+                edges(edge("t", "echo"), edge("t", "tail")));
+        Workflow parent = givenWorkflow(
+                nodes(node("t", "trigger", Map.of()),
+                        node("loop", "forEach", Map.of("items", "$trigger.ids")),
+                        node("call", "subWorkflow", Map.of("workflowId", child.getId().toString(),
+                                "input", Map.of("id", "{{item}}", "source", "$trigger.source", "fixed", 7)))),
+                edges(edge("t", "loop"), edge("loop", "call", "each")));
+
+        // When
+        WorkflowExecution execution = engine.executeWorkflow(parent.getId(),
+                Map.of("ids", List.of(1, 2, 3), "source", "test"));
+
+        // Then
+        assertEquals(ExecutionStatus.COMPLETED, execution.getStatus());
+        Map<String, Object> output = (Map<String, Object>) checkpointedOutputs(execution).get("loop");
+        List<Map<String, Object>> results = (List<Map<String, Object>>) output.get("results");
+        assertEquals(Map.of("echo", Map.of("id", 1, "source", "test", "fixed", 7), "tail", "tail"), results.get(0));
+        assertEquals(3, invocations.get("tail").get());
+        // The called workflow is looked up once per execution and compiled once
+        verify(workflowRepository, times(1)).findOwnerAndVersionById(child.getId());
+        verify(workflowRepository, times(1)).findById(child.getId());
+    }
+
+    @Test
+    void shouldRecordSubWorkflowNodesUnderCallingNode() {
+        // Given
+        Workflow child = givenWorkflow(
+                nodes(node("t", "trigger", Map.of()), node("inner", "sleep", Map.of("ms", 20))),
+                edges(edge("t", "inner")));
+        Workflow parent = givenWorkflow(
+                nodes(node("t", "trigger", Map.of()),
+                        node("call", "subWorkflow", Map.of("workflowId", child.getId().toString()))),
+                edges(edge("t", "call")));
+
+        // When
+        WorkflowExecution execution = engine.executeWorkflow(parent.getId(), Map.of());
+
+        // Then
+        assertEquals(ExecutionStatus.COMPLETED, execution.getStatus());
+        NodeEvent inner = eventOf(execution, "call/inner");
+        NodeEvent call = eventOf(execution, "call");
+        assertTrue(inner.getEndNanos() - inner.getStartNanos() >= 20_000_000L);
+        assertTrue(call.getStartNanos() <= inner.getStartNanos() && call.getEndNanos() >= inner.getEndNanos());
+        assertTrue(execution.getExecutionLog().contains("[call] Node inner completed in"));
+    }
+
+    @Test
+    void shouldStopRecursiveSubWorkflowAtMaxDepth() {
+        // Given
+        UUID workflowId = UUID.randomUUID();
+        Workflow workflow = givenWorkflow(workflowId,
+                nodes(node("t", "trigger", Map.of()),
+                        node("work", "sleep", Map.of("ms", 0)),
+                        node("call", "subWorkflow", Map.of("workflowId", workflowId.toString()))),
+                edges(edge("t", "work"), edge("work", "call")));
+
+        // When
+        WorkflowExecution execution = engine.executeWorkflow(workflow.getId(), Map.of());
+
+        // Then
+        assertEquals(ExecutionStatus.FAILED, execution.getStatus());
+        assertEquals("subWorkflow node call exceeds the maximum nesting depth of 3", execution.getErrorDetails());
+        assertEquals(4, invocations.get("work").get());
+    }
+
+    @Test
+    void shouldRejectSubWorkflowWithDelayBeforeRunningAnyOfItsNodes() {
+        // Given
+        Workflow grandchild = givenWorkflow(
+                nodes(node("t", "trigger", Map.of()), node("d", "park", Map.of())),
+                edges(edge("t", "d")));
+        Workflow child = givenWorkflow(
+                nodes(node("t", "trigger", Map.of()),
+                        node("work", "sleep", Map.of("ms", 0)),
+                        node("call", "subWorkflow", Map.of("workflowId", grandchild.getId().toString()))),
+                edges(edge("t", "work"), edge("work", "call")));
+        Workflow parent = givenWorkflow(
+                nodes(node("t", "trigger", Map.of()),
+                        node("call", "subWorkflow", Map.of("workflowId", child.getId().toString()))),
+                edges(edge("t", "call")));
+
+        // When
+        WorkflowExecution execution = engine.executeWorkflow(parent.getId(), Map.of());
+
+        // Then
+        assertEquals(ExecutionStatus.FAILED, execution.getStatus());
+        assertEquals("Delay nodes are not supported in workflow " + child.getId() + " called by subWorkflow node call (d)",
+                execution.getErrorDetails());
+        assertNull(invocations.get("work"));
+    }
+
+    @Test
+    void shouldNotCallWorkflowOfAnotherOwner() {
+        // Given
+        Workflow other = givenWorkflow(
+                nodes(node("t", "trigger", Map.of()), node("secret", "sleep", Map.of("ms", 0))),
+                edges(edge("t", "secret")));
+        when(workflowRepository.findOwnerAndVersionById(other.getId()))
+                .thenReturn(List.<Object[]>of(new Object[]{UUID.randomUUID(), other.getUpdatedAt()}));
+        Workflow workflow = givenWorkflow(
+                nodes(node("t", "trigger", Map.of()),
+                        node("call", "subWorkflow", Map.of("workflowId", other.getId().toString()))),
+                edges(edge("t", "call")));
+
+        // When
+        WorkflowExecution execution = engine.executeWorkflow(workflow.getId(), Map.of());
+
+        // Then
+        assertEquals(ExecutionStatus.FAILED, execution.getStatus());
+        assertEquals("Sub-workflow not found: " + other.getId(), execution.getErrorDetails());
+        assertNull(invocations.get("secret"));
+    }
+
+    @Test
+    void shouldExecuteLongChainWithoutDeepRecursion() {
+        // Given
+        int length = 5000;
+        List<String> chainNodes = new ArrayList<>();
+        List<String> chainEdges = new ArrayList<>();
+        chainNodes.add(node("t", "trigger", Map.of()));
+        String previous = "t";
+        for (int i = 0; i < length; i++) {
+            chainNodes.add(node("n" + i, "sleep", Map.of("ms", 0)));
+            chainEdges.add(edge(previous, "n" + i));
+            previous = "n" + i;
+        }
+        Workflow workflow = givenWorkflow(nodes(chainNodes.toArray(String[]::new)), edges(chainEdges.toArray(String[]::new)));
+
+        // When
+        WorkflowExecution execution = engine.executeWorkflow(workflow.getId(), Map.of());
+
+        // Then
+        assertEquals(ExecutionStatus.COMPLETED, execution.getStatus());
+        assertEquals(length, completionOrder.size());
+        assertEquals("n" + (length - 1), completionOrder.get(length - 1));
+        assertEquals(1000, execution.getNodeEvents().size());
+        assertEquals("n" + (length - 1), execution.getNodeEvents().get(999).getNodeId());
+        assertTrue(execution.getExecutionLog().length() <= 64 * 1024 + 100);
+    }
+
+    @Test
+    void shouldSuspendOnDelayAndResumeFromSavedState() throws Exception {
+        // Given
+        Workflow workflow = givenWorkflow(
+                nodes(node("t", "trigger", Map.of()),
+                        node("a", "sleep", Map.of("ms", 0)),
+                        node("d", "park", Map.of()),
+                        node("b", "sleep", Map.of("ms", 0))),
+                edges(edge("t", "a"), edge("a", "d"), edge("d", "b")));
+
+        // When
+        WorkflowExecution waiting = engine.executeWorkflow(workflow.getId(), Map.of("orderId", "42"));
+
+        // Then
+        assertEquals(ExecutionStatus.WAITING, waiting.getStatus());
+        assertNotNull(waiting.getAvailableAt());
+        assertNull(invocations.get("b"));
+
+        // When - the queue hands the execution to a worker once the delay elapsed
+        waiting.setContinuation(objectMapper.readValue(
+                objectMapper.writeValueAsString(waiting.getContinuation()), new TypeReference<>() {}));
+        when(executionRepository.findById(waiting.getId())).thenReturn(Optional.of(waiting));
+        WorkflowExecutionQueue.Claim claim = new WorkflowExecutionQueue.Claim(waiting.getId(), "node-a", 1);
+        givenLeaseHeld(claim);
+        WorkflowExecution resumed = engine.runClaimedExecution(claim);
+
+        // Then
+        assertEquals(ExecutionStatus.COMPLETED, resumed.getStatus());
+        assertNull(resumed.getContinuation());
+        assertEquals(1, invocations.get("a").get());
+        assertEquals(1, invocations.get("b").get());
+        assertEquals("42", resumed.getTriggerData().get("orderId"));
+        assertTrue(resumed.getExecutionLog().contains("Workflow Execution Started"));
+        assertTrue(resumed.getExecutionLog().contains("Resuming after delay node: d"));
+    }
+
+    @Test
+    void shouldWaitInlineInsteadOfSuspendingWithSpilledOutput() {
+        // Given
+        Workflow workflow = givenWorkflow(
+                nodes(node("t", "trigger", Map.of()),
+                        node("rows", "rows", Map.of("count", 100)),
+                        node("d", "park", Map.of("ms", 50)),
+                        node("b", "sleep", Map.of("ms", 0))),
+                edges(edge("t", "rows"), edge("rows", "d"), edge("d", "b")));
+
+        // When
+        WorkflowExecution execution = engine.executeWorkflow(workflow.getId(), Map.of());
+
+        // Then
+        assertEquals(ExecutionStatus.COMPLETED, execution.getStatus());
+        assertNull(execution.getContinuation());
+        assertEquals(1, invocations.get("b").get());
+        assertTrue(execution.getExecutionLog().contains("inline, node outputs are spilled to disk: rows_result"));
+    }
+
+    @Test
+    void shouldFailWhenSpilledOutputWouldWaitTooLong() {
+        // Given
+        Workflow workflow = givenWorkflow(
+                nodes(node("t", "trigger", Map.of()),
+                        node("rows", "rows", Map.of("count", 100)),
+                        node("d", "park", Map.of("ms", 60_000)),
+                        node("b", "sleep", Map.of("ms", 0))),
+                edges(edge("t", "rows"), edge("rows", "d"), edge("d", "b")));
+
+        // When
+        WorkflowExecution execution = engine.executeWorkflow(workflow.getId(), Map.of());
+
+        // Then
+        assertEquals(ExecutionStatus.FAILED, execution.getStatus());
+        assertNull(execution.getContinuation());
+        assertTrue(execution.getErrorDetails().contains("spilled to disk: rows_result"), execution.getErrorDetails());
+        assertNull(invocations.get("b"));
+    }
+
+    @Test
+    void shouldRecordExecutionMetrics() {
+        // Given
+        Workflow workflow = givenWorkflow(
+                nodes(node("t", "trigger", Map.of()),
+                        node("a", "sleep", Map.of("ms", 0)),
+                        node("b", "sleep", Map.of("ms", 0))),
+                edges(edge("t", "a"), edge("a", "b")));
+
+        // When
+        engine.executeWorkflow(workflow.getId(), Map.of());
+
+        // Then
+        assertEquals(2, meterRegistry.get(WorkflowMetrics.NODE_EXECUTION)
+                .tags("type", "sleep", "outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get(WorkflowMetrics.WORKFLOW_EXECUTION)
+                .tag("status", "COMPLETED").timer().count());
+        assertEquals(0, meterRegistry.get(WorkflowMetrics.ACTIVE_EXECUTIONS).gauge().value());
+    }
+
+    @Test
+    void shouldResumeFailedExecutionFromFailedNode() {
+        // Given
+        Workflow workflow = givenWorkflow(
+                nodes(node("t", "trigger", Map.of()),
+                        node("a", "sleep", Map.of("ms", 0)),
+                        node("b", "sleep", Map.of("failOnce", true)),
+                        node("c", "sleep", Map.of("ms", 0))),
+                edges(edge("t", "a"), edge("a", "b"), edge("b", "c")));
+        WorkflowExecution failed = engine.executeWorkflow(workflow.getId(), Map.of("orderId", "42"));
+        assertEquals(ExecutionStatus.FAILED, failed.getStatus());
+        when(executionRepository.findById(failed.getId())).thenReturn(Optional.of(failed));
+
+        // When
+        WorkflowExecution resumed = engine.resumeExecution(failed.getId());
+
+        // Then
+        assertEquals(ExecutionStatus.COMPLETED, resumed.getStatus());
+        assertNull(resumed.getErrorDetails());
+        assertEquals(1, invocations.get("a").get());
+        assertEquals(2, invocations.get("b").get());
+        assertEquals(1, invocations.get("c").get());
+        assertTrue(resumed.getExecutionLog().contains("Restored output of node a from checkpoint"));
+        verify(checkpointRepository).deleteByExecutionId(failed.getId());
+    }
+
+    @Test
+    void shouldNotRerunBranchThatSucceededAfterSiblingFailed() {
+        // Given
+        Workflow workflow = givenWorkflow(
+                nodes(node("t", "trigger", Map.of()),
+                        node("a", "sleep", Map.of("failOnce", true)),
+                        node("b", "sleep", Map.of("ms", 200)),
+                        node("m", "merge", Map.of()),
+                        node("end", "sleep", Map.of("ms", 0))),
+                edges(edge("t", "a"), edge("t", "b"), edge("a", "m"), edge("b", "m"), edge("m", "end")));
+        WorkflowExecution failed = engine.executeWorkflow(workflow.getId(), Map.of());
+        assertEquals(ExecutionStatus.FAILED, failed.getStatus());
+        assertEquals("b", checkpointedOutputs(failed).get("b"));
+        when(executionRepository.findById(failed.getId())).thenReturn(Optional.of(failed));
+
+        // When
+        WorkflowExecution resumed = engine.resumeExecution(failed.getId());
+
+        // Then
+        assertEquals(ExecutionStatus.COMPLETED, resumed.getStatus());
+        assertEquals(2, invocations.get("a").get());
+        assertEquals(1, invocations.get("b").get());
+        assertEquals(1, invocations.get("end").get());
+        assertTrue(resumed.getExecutionLog().contains("Restored output of node b from checkpoint"));
+    }
+
+    @Test
+    void shouldRejectResumeOfCompletedExecution() {
+        // Given
+        Workflow workflow = givenWorkflow(
+                nodes(node("t", "trigger", Map.of()), node("a", "sleep", Map.of("ms", 0))),
+                edges(edge("t", "a")));
+        WorkflowExecution completed = engine.executeWorkflow(workflow.getId(), Map.of());
+        when(executionRepository.findById(completed.getId())).thenReturn(Optional.of(completed));
+
+        // When
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> engine.resumeExecution(completed.getId()));
+
+        // Then
+        assertTrue(exception.getMessage().startsWith("Only failed executions can be resumed"));
+    }
+
+    @Test
+    void shouldSaveOutcomeWhileClaimHoldsLease() {
+        // Given
+        WorkflowExecutionQueue.Claim claim = givenClaim(givenWorkflow(
+                nodes(node("t", "trigger", Map.of()), node("a", "sleep", Map.of("ms", 0))),
+                edges(edge("t", "a"))));
+        givenLeaseHeld(claim);
+
+        // When
+        WorkflowExecution execution = engine.runClaimedExecution(claim);
+
+        // Then
+        assertEquals(ExecutionStatus.COMPLETED, execution.getStatus());
+        verify(executionRepository).save(execution);
+        verify(eventPublisher).publishEvent(any(WorkflowExecutionFinishedEvent.class));
+    }
+
+    @Test
+    void shouldDropOutcomeWhenLeaseExpired() {
+        // Given
+        WorkflowExecutionQueue.Claim claim = givenClaim(givenWorkflow(
+                nodes(node("t", "trigger", Map.of()), node("a", "sleep", Map.of("ms", 0))),
+                edges(edge("t", "a"))));
+        when(executionQueue.completeClaim(eq(claim), any())).thenReturn(false);
+
+        // When
+        WorkflowExecution execution = engine.runClaimedExecution(claim);
+
+        // Then
+        assertNull(execution);
+        assertEquals(1, invocations.get("a").get());
+        verify(executionRepository, never()).save(any(WorkflowExecution.class));
+        verify(eventPublisher, never()).publishEvent(any(WorkflowExecutionFinishedEvent.class));
+    }
+
+    private WorkflowExecutionQueue.Claim givenClaim(Workflow workflow) {
+        WorkflowExecution execution = WorkflowExecution.builder()
+                .id(UUID.randomUUID())
+                .workflow(workflow)
+                .status(ExecutionStatus.RUNNING)
+                .lockedBy("node-a")
+                .attemptCount(1)
+                .executedAt(LocalDateTime.now())
+                .build();
+        when(executionRepository.findById(execution.getId())).thenReturn(Optional.of(execution));
+        return new WorkflowExecutionQueue.Claim(execution.getId(), "node-a", 1);
+    }
+
+    private void givenLeaseHeld(WorkflowExecutionQueue.Claim claim) {
+        when(executionQueue.completeClaim(eq(claim), any())).thenAnswer(inv -> {
+            inv.<Runnable>getArgument(1).run();
+            return true;
+        });
+    }
+
+    private Map<String, Object> checkpointedOutputs(WorkflowExecution execution) {
+        return new ExecutionCheckpointStore(checkpointRepository, objectMapper, true).load(execution.getId());
+    }
+
+    private static NodeEvent eventOf(WorkflowExecution execution, String nodeId) {
+        return execution.getNodeEvents().stream()
+                .filter(event -> event.getNodeId().equals(nodeId))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private Workflow givenWorkflow(String nodesJson, String edgesJson) {
+        return givenWorkflow(UUID.randomUUID(), nodesJson, edgesJson);
+    }
+
+    private Workflow givenWorkflow(UUID workflowId, String nodesJson, String edgesJson) {
+        Workflow workflow = Workflow.builder()
+                .id(workflowId)
+                .name("Test Workflow")
+                .nodesJson(nodesJson)
+                .edgesJson(edgesJson)
+                .updatedAt(LocalDateTime.now())
+                .build();
+        when(workflowRepository.findById(workflow.getId())).thenReturn(Optional.of(workflow));
+        when(workflowRepository.findOwnerAndVersionById(workflow.getId()))
+                .thenReturn(List.<Object[]>of(new Object[]{null, workflow.getUpdatedAt()}));
+        return workflow;
+    }
+
+    private static String nodes(String... nodes) {
+        return "[" + String.join(",", nodes) + "]";
+    }
+
+    private static String node(String id, String type, Map<String, Object> data) {
+        try {
+            return "{\"id\":\"" + id + "\",\"type\":\"" + type + "\",\"data\":" + NODE_DATA_WRITER.writeValueAsString(data) + "}";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String edges(String... edges) {
+        return "[" + String.join(",", edges) + "]";
+    }
+
+    private static String edge(String source, String target) {
+        return edge(source, target, null);
+    }
+
+    private static String edge(String source, String target, String label) {
+        return "{\"id\":\"" + source + "-" + target + "\",\"source\":\"" + source + "\",\"target\":\"" + target + "\""
+                + (label != null ? ",\"label\":\"" + label + "\"" : "") + "}";
+    }
+
+    /**
+     * Test condition that returns {@code data.value}.
+     */
+    private static class FixedConditionExecutor implements NodeExecutor {
+
+        @Override
+        public Object execute(WorkflowNode node, ExecutionContext context) {
+            return Boolean.TRUE.equals(node.getData().get("value"));
+        }
+
+        @Override
+        public String getNodeType() {
+            return "condition";
+        }
+    }
+
+    /**
+     * Test executor that doubles the loop {@code item}, or each number of a chunk. The first run sleeps for
+     * {@code data.slowFirstMs}.
+     */
+    private class ItemExecutor implements NodeExecutor {
+
+        @Override
+        public Object execute(WorkflowNode node, ExecutionContext context) {
+            int index = (Integer) context.getVariable(ForEachLoop.INDEX_VARIABLE);
+            if (index == 0) {
+                Number ms = (Number) node.getData().getOrDefault("slowFirstMs", 0);
+                try {
+                    Thread.sleep(ms.longValue());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            completionOrder.add(node.getId() + ":" + index);
+            Object item = context.getVariable(ForEachLoop.ITEM_VARIABLE);
+            if (item instanceof List<?> chunk) {
+                return chunk.stream().map(value -> ((Number) value).intValue() * 2).toList();
+            }
+            return ((Number) item).intValue() * 2;
+        }
+
+        @Override
+        public String getNodeType() {
+            return "item";
+        }
+    }
+
+    /**
+     * Test executor that returns {@code data.count} rows of about 1 KB each, collected through the output budget.
+     */
+    private static class RowsExecutor implements NodeExecutor {
+
+        @Override
+        public Object execute(WorkflowNode node, ExecutionContext context) {
+            OutputBuffer rows = context.getOutputBudget().newBuffer(node.getId());
+            int count = ((Number) node.getData().get("count")).intValue();
+            for (int i = 0; i < count; i++) {
+                rows.add(Map.of("id", i, "title", "Row " + i + " " + "x".repeat(500)));
+            }
+            return rows.finish();
+        }
+
+        @Override
+        public String getNodeType() {
+            return "rows";
+        }
+    }
+
+    /**
+     * Test executor that returns the trigger data.
+     */
+    private static class EchoExecutor implements NodeExecutor {
+
+        @Override
+        public Object execute(WorkflowNode node, ExecutionContext context) {
+            return new HashMap<>(context.getTriggerData());
+        }
+
+        @Override
+        public String getNodeType() {
+            return "echo";
+        }
+    }
+
+    /**
+     * Test executor that suspends its branch for {@code data.ms}, by default until now so it is due as soon as it
+     * is resumed.
+     */
+    private static class ParkExecutor implements NodeExecutor {
+
+        @Override
+        public Object execute(WorkflowNode node, ExecutionContext context) {
+            long ms = ((Number) node.getData().getOrDefault("ms", 0)).longValue();
+            return new WorkflowSuspension(LocalDateTime.now().plus(ms, ChronoUnit.MILLIS));
+        }
+
+        @Override
+        public boolean maySuspend(WorkflowNode node) {
+            return true;
+        }
+
+        @Override
+        public String getNodeType() {
+            return "park";
+        }
+    }
+
+    /**
+     * Test executor that sleeps for {@code data.ms} and counts invocations per node. Fails on {@code data.fail},
+     * or only on the first invocation with {@code data.failOnce}.
+     */
+    private class SleepExecutor implements NodeExecutor {
+
+        @Override
+        public Object execute(WorkflowNode node, ExecutionContext context) {
+            int invocation = invocations.computeIfAbsent(node.getId(), k -> new AtomicInteger()).incrementAndGet();
+            if (Boolean.TRUE.equals(node.getData().get("fail"))
+                    || (Boolean.TRUE.equals(node.getData().get("failOnce")) && invocation == 1)) {
+                throw new IllegalStateException("boom");
+            }
+            Number ms = (Number) node.getData().getOrDefault("ms", 0);
+            try {
+                Thread.sleep(ms.longValue());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            completionOrder.add(node.getId());
+            return node.getId();
+        }
+
+        @Override
+        public String getNodeType() {
+            return "sleep";
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package io.celox.taskflow.task.workflow;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.celox.taskflow.task.domain.Workflow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkflowPlanCacheTest {
+
+    private static final String NODES = "[" +
+            "{\"id\":\"t\",\"type\":\"trigger\",\"data\":{}}," +
+            "{\"id\":\"a\",\"type\":\"stub\",\"data\":{}}," +
+            "{\"id\":\"b\",\"type\":\"stub\",\"data\":{}}]";
+    private static final String EDGES = "[" +
+            "{\"id\":\"e1\",\"source\":\"t\",\"target\":\"a\"}," +
+            "{\"id\":\"e2\",\"source\":\"a\",\"target\":\"b\"}]";
+
+    private final NodeExecutor stubExecutor = new NodeExecutor() {
+        @Override
+        public Object execute(WorkflowNode node, ExecutionContext context) {
+            return null;
+        }
+
+        @Override
+        public String getNodeType() {
+            return "stub";
+        }
+    };
+
+    private WorkflowPlanCache planCache;
+
+    @BeforeEach
+    void setUp() {
+        WorkflowCompiler compiler = new WorkflowCompiler(List.of(stubExecutor), new ObjectMapper());
+        planCache = new WorkflowPlanCache(compiler, 10);
+    }
+
+    @Test
+    void shouldCompileIndexedPlan() {
+        // Given
+        Workflow workflow = workflow(UUID.randomUUID(), LocalDateTime.now());
+
+        // When
+        CompiledWorkflow plan = planCache.getPlan(workflow);
+
+        // Then
+        assertEquals("t", plan.getStartNode().getId());
+        assertEquals(3, plan.getNodeCount());
+        assertEquals("b", plan.getOutgoingEdges("a").get(0).getTarget());
+        assertTrue(plan.getOutgoingEdges("b").isEmpty());
+        assertSame(stubExecutor, plan.getExecutor("a"));
+        assertNull(plan.getExecutor("t"));
+    }
+
+    @Test
+    void shouldReusePlanForSameVersion() {
+        // Given
+        UUID id = UUID.randomUUID();
+        LocalDateTime version = LocalDateTime.now();
+
+        // When
+        CompiledWorkflow first = planCache.getPlan(workflow(id, version));
+        CompiledWorkflow second = planCache.getPlan(workflow(id, version));
+
+        // Then
+        assertSame(first, second);
+        assertEquals(1, planCache.getMissCount());
+        assertEquals(1, planCache.getHitCount());
+    }
+
+    @Test
+    void shouldRecompileWhenWorkflowVersionChanges() {
+        // Given
+        UUID id = UUID.randomUUID();
+        LocalDateTime version = LocalDateTime.now();
+        CompiledWorkflow first = planCache.getPlan(workflow(id, version));
+
+        // When
+        CompiledWorkflow second = planCache.getPlan(workflow(id, version.plusSeconds(1)));
+
+        // Then
+        assertNotSame(first, second);
+        assertEquals(2, planCache.getMissCount());
+    }
+
+    @Test
+    void shouldRecompileAfterInvalidate() {
+        // Given
+        UUID id = UUID.randomUUID();
+        LocalDateTime version = LocalDateTime.now();
+        CompiledWorkflow first = planCache.getPlan(workflow(id, version));
+
+        // When
+        planCache.invalidate(id);
+        CompiledWorkflow second = planCache.getPlan(workflow(id, version));
+
+        // Then
+        assertNotSame(first, second);
+        assertEquals(0, planCache.getHitCount());
+    }
+
+    @Test
+    void shouldRejectWorkflowWithoutNodes() {
+        // Given
+        Workflow workflow = workflow(UUID.randomUUID(), LocalDateTime.now());
+        workflow.setNodesJson("[]");
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> planCache.getPlan(workflow));
+    }
+
+    @Test
+    void shouldExportHitsAndMisses() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        planCache.bindTo(registry);
+        Workflow workflow = workflow(UUID.randomUUID(), LocalDateTime.now());
+
+        // When
+        planCache.getPlan(workflow);
+        planCache.getPlan(workflow);
+        planCache.getPlan(workflow);
+
+        // Then
+        assertEquals(2, registry.get(WorkflowPlanCache.CACHE_METER).tag("result", "hit").functionCounter().count());
+        assertEquals(1, registry.get(WorkflowPlanCache.CACHE_METER).tag("result", "miss").functionCounter().count());
+        assertEquals(1, registry.get(WorkflowPlanCache.SIZE_METER).gauge().value());
+    }
+
+    private Workflow workflow(UUID id, LocalDateTime updatedAt) {
+        return Workflow.builder()
+                .id(id)
+                .name("Test")
+                .nodesJson(NODES)
+                .edgesJson(EDGES)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
@@ -0,0 +1,139 @@
+package io.celox.taskflow.task.workflow;
+
+import io.celox.taskflow.task.domain.ExecutionStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WorkflowQueueWorkerTest {
+
+    private static final String NODE_ID = "node-a";
+
+    @Mock
+    private WorkflowExecutionQueue queue;
+
+    @Mock
+    private WorkflowExecutionEngine executionEngine;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Runnable> submitted = new ArrayList<>();
+    private WorkflowQueueWorker worker;
+
+    @AfterEach
+    void tearDown() {
+        if (worker != null) {
+            worker.stop();
+        }
+    }
+
+    @Test
+    void shouldClaimNoMoreRunsThanFreeWorkerSlots() {
+        // Given
+        worker = givenWorker(submitted::add, 2);
+        WorkflowExecutionQueue.Claim first = claim(UUID.randomUUID(), 1);
+        WorkflowExecutionQueue.Claim second = claim(UUID.randomUUID(), 1);
+        when(queue.claim(NODE_ID, 2, 60000)).thenReturn(List.of(first, second));
+
+        // When
+        worker.poll();
+        worker.poll();
+
+        // Then
+        verify(queue, times(1)).claim(anyString(), anyInt(), anyLong());
+        submitted.forEach(Runnable::run);
+        verify(executionEngine).runClaimedExecution(first);
+        verify(executionEngine).runClaimedExecution(second);
+    }
+
+    @Test
+    void shouldFailExecutionAfterMaxAttempts() {
+        // Given
+        worker = givenWorker(Runnable::run, 1);
+        WorkflowExecutionQueue.Claim claim = claim(UUID.randomUUID(), 4);
+        when(queue.claim(NODE_ID, 1, 60000)).thenReturn(List.of(claim), List.of());
+
+        // When
+        worker.poll();
+
+        // Then
+        verify(executionEngine, never()).runClaimedExecution(claim);
+        verify(executionEngine).failExecution(eq(claim), startsWith("Execution abandoned after 3 attempts"));
+    }
+
+    @Test
+    void shouldReturnRunToQueueWhenWorkerPoolRejectsIt() {
+        // Given
+        worker = givenWorker(task -> {
+            throw new RejectedExecutionException("full");
+        }, 1);
+        WorkflowExecutionQueue.Claim claim = claim(UUID.randomUUID(), 1);
+        when(queue.claim(NODE_ID, 1, 60000)).thenReturn(List.of(claim), List.of());
+
+        // When
+        worker.poll();
+
+        // Then
+        verify(queue).release(claim.getExecutionId(), NODE_ID);
+        verify(executionEngine, never()).runClaimedExecution(claim);
+    }
+
+    @Test
+    void shouldOnlyRenewLeasesWhileRunsAreInFlight() {
+        // Given
+        worker = givenWorker(submitted::add, 2);
+        worker.renewLeases();
+        verify(queue, never()).renewLeases(anyString(), anyLong());
+        when(queue.claim(NODE_ID, 2, 60000)).thenReturn(List.of(claim(UUID.randomUUID(), 1)));
+
+        // When
+        worker.poll();
+        worker.renewLeases();
+
+        // Then
+        verify(queue).renewLeases(NODE_ID, 60000);
+    }
+
+    @Test
+    void shouldServeQueueDepthFromLastSample() {
+        // Given
+        worker = givenWorker(submitted::add, 1);
+        when(queue.depth()).thenReturn(Map.of(ExecutionStatus.QUEUED, 7L));
+
+        // When
+        worker.sampleQueueDepth();
+        double queued = meterRegistry.get(WorkflowMetrics.QUEUE_DEPTH).tag("status", "QUEUED").gauge().value();
+        double waiting = meterRegistry.get(WorkflowMetrics.QUEUE_DEPTH).tag("status", "WAITING").gauge().value();
+
+        // Then
+        assertEquals(7, queued);
+        assertEquals(0, waiting);
+        verify(queue, times(1)).depth();
+    }
+
+    private WorkflowQueueWorker givenWorker(Executor executor, int concurrency) {
+        return new WorkflowQueueWorker(queue, executionEngine, new WorkflowMetrics(meterRegistry), executor, NODE_ID,
+                concurrency, 60000, 1000, 3, 15000);
+    }
+
+    private static WorkflowExecutionQueue.Claim claim(UUID executionId, int attempt) {
+        return new WorkflowExecutionQueue.Claim(executionId, NODE_ID, attempt);
+    }
+}
@@ -0,0 +1,48 @@
+package io.celox.taskflow.task.workflow.executors;
+
+import io.celox.taskflow.task.workflow.ExecutionContext;
+import io.celox.taskflow.task.workflow.WorkflowNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConditionExecutorTest {
+
+    private final ConditionExecutor executor = new ConditionExecutor();
+
+    @Test
+    void shouldEvaluateExpressionFromEditorConfig() {
+        // Given
+        WorkflowNode node = WorkflowNode.builder()
+                .id("check")
+                .type("condition")
+                .data(Map.of("config", Map.of("expression", "{{ $trigger.count > 10 && $trigger.kind != 'test' }}")))
+                .build();
+        ExecutionContext context = new ExecutionContext(Map.of("count", 12, "kind", "live"));
+
+        // When
+        Object result = executor.bind(node).execute(node, context);
+
+        // Then
+        assertEquals(true, result);
+        assertEquals(true, context.getVariable("check_result"));
+    }
+
+    @Test
+    void shouldKeepSingleComparisonWithoutExpression() {
+        // Given
+        WorkflowNode node = WorkflowNode.builder()
+                .id("check")
+                .type("condition")
+                .data(Map.of("left", "${count}", "operator", ">", "right", "10"))
+                .build();
+
+        // When
+        Object result = executor.execute(node, new ExecutionContext(Map.of("count", 5)));
+
+        // Then
+        assertEquals(false, result);
+    }
+}
@@ -0,0 +1,79 @@
+package io.celox.taskflow.task.workflow.expression;
+
+import io.celox.taskflow.task.workflow.ExecutionContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConditionExpressionTest {
+
+    private ExecutionContext context;
+
+    @BeforeEach
+    void setUp() {
+        context = new ExecutionContext(Map.of(
+                "priority", "HIGH",
+                "amount", "1500.50",
+                "status", "OPEN",
+                "title", "Bug: login fails",
+                "dueDate", "2024-03-01",
+                "tags", List.of("backend", "urgent")));
+        context.setVariable("db1_result", Map.of("count", 7, "rows", List.of(Map.of("id", 1), Map.of("id", 2))));
+        context.setVariable("createdOn", LocalDate.of(2024, 2, 1));
+    }
+
+    @Test
+    void shouldCombineComparisonsWithPrecedenceAndGrouping() {
+        // When / Then
+        assertTrue(evaluate("$trigger.priority == 'HIGH' && ($db1.count > 10 || $trigger.status in ['OPEN', 'NEW'])"));
+        assertFalse(evaluate("priority == 'LOW' || status == 'DONE' && amount > 0"));
+        assertTrue(evaluate("!(priority == 'LOW') and not status == 'DONE'"));
+        assertTrue(evaluate("{{ $trigger.priority === \"HIGH\" }}"));
+        assertTrue(evaluate("{{ $trigger.amount }} > 1000"));
+    }
+
+    @Test
+    void shouldCompareByType() {
+        // When / Then
+        assertTrue(evaluate("amount > 999.99 && amount <= 1500.5 && amount == 1500.50"));
+        assertTrue(evaluate("$db1.count >= '7' && $db1.count != 8"));
+        assertTrue(evaluate("$db1.rows.length == 2 && $db1.rows.1.id == 2 && $nodes.db1.count == 7"));
+        assertTrue(evaluate("dueDate > '2024-02-29' && dueDate < '2024-03-01T00:00:01Z'"));
+        assertTrue(evaluate("createdOn < dueDate && createdOn == '2024-02-01'"));
+        assertFalse(evaluate("title > 5"));
+        assertFalse(evaluate("missing > 5 || missing == 0"));
+        assertTrue(evaluate("missing == null && title != null"));
+    }
+
+    @Test
+    void shouldMatchListsTextAndRegularExpressions() {
+        // When / Then
+        assertTrue(evaluate("tags contains 'urgent' && 'backend' in tags && status not in ['DONE', 'CLOSED']"));
+        assertTrue(evaluate("title =~ '^Bug:' && !(title matches 'LOGIN') && title startsWith 'Bug'"));
+        assertTrue(evaluate("$db1.count in [5, 6, 7] && [1, 2] contains 2"));
+        assertFalse(evaluate("title endsWith 'works'"));
+    }
+
+    @Test
+    void shouldRejectInvalidExpressions() {
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> ConditionExpression.compile("status = 'OPEN'"));
+        assertThrows(IllegalArgumentException.class, () -> ConditionExpression.compile("(status == 'OPEN'"));
+        assertThrows(IllegalArgumentException.class, () -> ConditionExpression.compile("title =~ '(['"));
+        assertThrows(IllegalArgumentException.class, () -> ConditionExpression.compile("title =~ $trigger.pattern"));
+        assertThrows(IllegalArgumentException.class, () -> ConditionExpression.compile("title matches null"));
+        assertThrows(IllegalArgumentException.class, () -> ConditionExpression.compile("status == 'OPEN' status"));
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> ConditionExpression.compile("amount > && true"));
+        assertTrue(error.getMessage().contains("position 9"), error.getMessage());
+    }
+
+    private boolean evaluate(String expression) {
+        return ConditionExpression.compile(expression).evaluate(context);
+    }
+}
@@ -0,0 +1,114 @@
+package io.celox.taskflow.task.workflow.output;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutputBudgetTest {
+
+    @TempDir
+    Path spillDirectory;
+
+    @Test
+    void shouldKeepSmallOutputInMemory() {
+        // Given
+        OutputBudget budget = budget(1024 * 1024, 64 * 1024);
+        OutputBuffer buffer = budget.newBuffer("db1");
+
+        // When
+        buffer.add(Map.of("id", 1));
+        buffer.add(Map.of("id", 2));
+        List<Object> rows = buffer.finish();
+
+        // Then
+        assertInstanceOf(ArrayList.class, rows);
+        assertEquals(List.of(Map.of("id", 1), Map.of("id", 2)), rows);
+        assertEquals(0, budget.getSpilledOutputs());
+        assertTrue(budget.getPeakBytesInMemory() > 0);
+    }
+
+    @Test
+    void shouldSpillOutputAboveThresholdAndReadItBack() throws Exception {
+        // Given
+        OutputBudget budget = budget(1024 * 1024, 4 * 1024);
+        OutputBuffer buffer = budget.newBuffer("db1");
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            buffer.add(Map.of("id", i, "title", "Task " + i));
+        }
+        List<Object> rows = buffer.finish();
+
+        // Then
+        SpilledList spilled = assertInstanceOf(SpilledList.class, rows);
+        assertEquals(1000, spilled.size());
+        assertEquals(Map.of("id", 500, "title", "Task 500"), spilled.get(500));
+        int expectedId = 0;
+        for (Object row : spilled) {
+            assertEquals(expectedId++, ((Map<?, ?>) row).get("id"));
+        }
+        assertEquals("[1000 items spilled to disk]", spilled.toString());
+        assertEquals(1, budget.getSpilledOutputs());
+        assertTrue(budget.getPeakBytesInMemory() <= 4 * 1024);
+        assertTrue(OutputBudget.containsSpilled(Map.of("rows", spilled)));
+
+        budget.close();
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            assertEquals(0, files.count());
+        }
+        assertThrows(IllegalStateException.class, () -> spilled.get(0));
+    }
+
+    @Test
+    void shouldSpillOnceExecutionBudgetIsUsedUp() {
+        // Given
+        OutputBudget budget = budget(2 * 1024, 1024 * 1024);
+        OutputBuffer first = budget.newBuffer("first");
+        OutputBuffer second = budget.newBuffer("second");
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            first.add("x".repeat(50));
+        }
+        for (int i = 0; i < 10; i++) {
+            second.add("y".repeat(50));
+        }
+
+        // Then
+        assertFalse(first.isSpilled());
+        assertTrue(second.isSpilled());
+        assertEquals(10, second.finish().size());
+    }
+
+    @Test
+    void shouldDeleteSpillFileOfBufferThatWasNeverFinished() throws Exception {
+        // Given
+        OutputBudget budget = budget(1024 * 1024, 1024);
+        OutputBuffer buffer = budget.newBuffer("db1");
+        for (int i = 0; i < 100; i++) {
+            buffer.add(Map.of("id", i, "title", "Task " + i));
+        }
+        assertTrue(buffer.isSpilled());
+
+        // When
+        budget.close();
+
+        // Then
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private OutputBudget budget(long memoryBudgetBytes, long spillThresholdBytes) {
+        return new OutputBudget(new ObjectMapper(), memoryBudgetBytes, spillThresholdBytes, spillDirectory);
+    }
+}
@@ -0,0 +1,64 @@
+package io.celox.taskflow.task.workflow.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    @Test
+    void shouldExpireEntriesOnlyOnceTheirDeadlinePassed() {
+        // Given
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, 0);
+        wheel.schedule(250, "a");
+        wheel.schedule(120, "b");
+        // Several rotations ahead, lands in the same bucket as "a"
+        wheel.schedule(250 + 8 * 100 * 3, "c");
+
+        // When
+        List<String> early = wheel.advance(199);
+        List<String> first = wheel.advance(200);
+        List<String> due = wheel.advance(300);
+        List<String> later = wheel.advance(2500);
+        List<String> last = wheel.advance(3100);
+
+        // Then
+        assertTrue(early.isEmpty());
+        assertEquals(List.of("b"), first);
+        assertEquals(List.of("a"), due);
+        assertTrue(later.isEmpty());
+        assertEquals(List.of("c"), last);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void shouldExpireOverdueEntriesOnNextAdvance() {
+        // Given
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, 1000);
+        wheel.advance(1500);
+
+        // When
+        wheel.schedule(900, "overdue");
+        List<String> expired = wheel.advance(1600);
+
+        // Then
+        assertEquals(List.of("overdue"), expired);
+    }
+
+    @Test
+    void shouldDropEverythingOnClear() {
+        // Given
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, 0);
+        wheel.schedule(150, "a");
+
+        // When
+        wheel.clear(5000);
+        wheel.schedule(5050, "b");
+
+        // Then
+        assertEquals(List.of("b"), wheel.advance(5100));
+        assertEquals(0, wheel.size());
+    }
+}
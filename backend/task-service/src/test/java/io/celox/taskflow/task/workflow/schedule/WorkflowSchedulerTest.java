@@ -0,0 +1,213 @@
+package io.celox.taskflow.task.workflow.schedule;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.celox.taskflow.task.domain.MisfirePolicy;
+import io.celox.taskflow.task.domain.User;
+import io.celox.taskflow.task.domain.Workflow;
+import io.celox.taskflow.task.domain.WorkflowSchedule;
+import io.celox.taskflow.task.domain.WorkflowStatus;
+import io.celox.taskflow.task.repository.WorkflowScheduleRepository;
+import io.celox.taskflow.task.workflow.WorkflowAdmissionController;
+import io.celox.taskflow.task.workflow.WorkflowExecutionEngine;
+import io.celox.taskflow.task.workflow.WorkflowMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class WorkflowSchedulerTest {
+
+    private final WorkflowScheduleRepository scheduleRepository = mock(WorkflowScheduleRepository.class);
+    private final SchedulerLease lease = mock(SchedulerLease.class);
+    private final WorkflowAdmissionController admissionController = mock(WorkflowAdmissionController.class);
+    private final WorkflowExecutionEngine executionEngine = mock(WorkflowExecutionEngine.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final UUID ownerId = UUID.randomUUID();
+    private final long now = System.currentTimeMillis();
+
+    private WorkflowScheduler scheduler;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        WorkflowMetrics metrics = new WorkflowMetrics(new SimpleMeterRegistry());
+        scheduler = new WorkflowScheduler(scheduleRepository, lease, admissionController, executionEngine, metrics,
+                transactionTemplate, new ObjectMapper(), true, "node-1",
+                1000, 64, 30000, 15000, 60000, 3, 0, 1000);
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                ((TransactionCallback<Object>) inv.getArgument(0)).doInTransaction(null));
+        when(lease.tryAcquire(eq(WorkflowScheduler.LEASE_NAME), eq("node-1"), anyLong())).thenReturn(true);
+        when(scheduleRepository.advance(any(), any(), any(), any())).thenReturn(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldFireDueTickAndScheduleTheNextOne() {
+        // Given
+        WorkflowSchedule schedule = intervalSchedule(MisfirePolicy.FIRE_ONCE, at(now - 2000));
+        loadSchedules(schedule);
+
+        // When
+        scheduler.tick(now);
+
+        // Then
+        ArgumentCaptor<Map<String, Object>> triggerData = ArgumentCaptor.forClass(Map.class);
+        verify(executionEngine).enqueueExecution(eq(schedule.getWorkflowId()), triggerData.capture());
+        assertEquals("schedule", triggerData.getValue().get("trigger"));
+        assertEquals(schedule.getNextFireAt().toString(), triggerData.getValue().get("scheduledAt"));
+        verify(scheduleRepository).advance(eq(schedule.getId()), eq(schedule.getNextFireAt()),
+                eq(schedule.getNextFireAt().plusMinutes(1)), any());
+        verify(admissionController).admitQueued(ownerId, 1);
+        assertTrue(scheduler.isLeader());
+        assertEquals(1, scheduler.pendingTicks());
+    }
+
+    @Test
+    void shouldNotFireWithoutTheLease() {
+        // Given
+        when(lease.tryAcquire(any(), any(), anyLong())).thenReturn(false);
+        loadSchedules(intervalSchedule(MisfirePolicy.FIRE_ONCE, at(now - 2000)));
+
+        // When
+        scheduler.tick(now);
+
+        // Then
+        assertFalse(scheduler.isLeader());
+        verify(scheduleRepository, never()).findWithOwnerByWorkflowStatus(any());
+        verifyNoInteractions(executionEngine);
+    }
+
+    @Test
+    void shouldNotQueueTickAlreadyFiredByAnotherInstance() {
+        // Given
+        loadSchedules(intervalSchedule(MisfirePolicy.FIRE_ONCE, at(now - 2000)));
+        when(scheduleRepository.advance(any(), any(), any(), any())).thenReturn(0);
+
+        // When
+        scheduler.tick(now);
+
+        // Then
+        verifyNoInteractions(executionEngine);
+        assertEquals(0, scheduler.pendingTicks());
+    }
+
+    @Test
+    void shouldCatchUpMissedTicksUpToTheLimit() {
+        // Given
+        WorkflowSchedule schedule = intervalSchedule(MisfirePolicy.FIRE_ALL, at(now - 10 * 60_000 - 500));
+        loadSchedules(schedule);
+
+        // When
+        scheduler.tick(now);
+
+        // Then
+        verify(executionEngine, times(3)).enqueueExecution(eq(schedule.getWorkflowId()), any());
+        verify(scheduleRepository).advance(eq(schedule.getId()), eq(schedule.getNextFireAt()),
+                eq(schedule.getNextFireAt().plusMinutes(11)), any());
+    }
+
+    @Test
+    void shouldSkipMissedTicks() {
+        // Given
+        WorkflowSchedule schedule = intervalSchedule(MisfirePolicy.SKIP, at(now - 10 * 60_000 - 500));
+        loadSchedules(schedule);
+
+        // When
+        scheduler.tick(now);
+
+        // Then
+        verifyNoInteractions(executionEngine);
+        verify(scheduleRepository).advance(eq(schedule.getId()), eq(schedule.getNextFireAt()),
+                eq(schedule.getNextFireAt().plusMinutes(11)), any());
+        assertEquals(1, scheduler.pendingTicks());
+    }
+
+    @Test
+    void shouldStoreScheduleTriggersOfActiveWorkflow() {
+        // Given
+        Workflow workflow = Workflow.builder()
+                .id(UUID.randomUUID())
+                .owner(User.builder().id(ownerId).build())
+                .status(WorkflowStatus.ACTIVE)
+                .triggersJson("[{\"event\":\"task.created\"}," +
+                        "{\"type\":\"schedule\",\"cron\":\"*/5 * * * *\",\"zone\":\"Europe/Berlin\",\"misfire\":\"skip\"}]")
+                .build();
+        when(scheduleRepository.findByWorkflowId(workflow.getId())).thenReturn(List.of());
+
+        // When
+        scheduler.register(workflow);
+
+        // Then
+        ArgumentCaptor<WorkflowSchedule> saved = ArgumentCaptor.forClass(WorkflowSchedule.class);
+        verify(scheduleRepository).save(saved.capture());
+        assertEquals(1, saved.getValue().getTriggerIndex());
+        assertEquals("0 */5 * * * *", saved.getValue().getCron());
+        assertEquals(MisfirePolicy.SKIP, saved.getValue().getMisfirePolicy());
+        assertEquals(0, saved.getValue().getNextFireAt().getMinute() % 5);
+        assertTrue(saved.getValue().getNextFireAt().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    void shouldRejectInvalidScheduleTriggers() {
+        // Given
+        Workflow badCron = workflow("[{\"type\":\"schedule\",\"cron\":\"every minute\"}]");
+        Workflow tooFrequent = workflow("[{\"type\":\"schedule\",\"intervalMs\":10}]");
+        Workflow both = workflow("[{\"type\":\"schedule\",\"cron\":\"0 * * * *\",\"intervalMs\":60000}]");
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> scheduler.register(badCron));
+        assertThrows(IllegalArgumentException.class, () -> scheduler.register(tooFrequent));
+        assertThrows(IllegalArgumentException.class, () -> scheduler.register(both));
+        verify(scheduleRepository, never()).save(any());
+    }
+
+    private Workflow workflow(String triggersJson) {
+        return Workflow.builder()
+                .id(UUID.randomUUID())
+                .owner(User.builder().id(ownerId).build())
+                .status(WorkflowStatus.ACTIVE)
+                .triggersJson(triggersJson)
+                .build();
+    }
+
+    private WorkflowSchedule intervalSchedule(MisfirePolicy misfirePolicy, LocalDateTime nextFireAt) {
+        return WorkflowSchedule.builder()
+                .id(UUID.randomUUID())
+                .workflowId(UUID.randomUUID())
+                .triggerIndex(0)
+                .intervalMs(60_000L)
+                .zone("UTC")
+                .misfirePolicy(misfirePolicy)
+                .jitterMs(0L)
+                .nextFireAt(nextFireAt)
+                .build();
+    }
+
+    private void loadSchedules(WorkflowSchedule... schedules) {
+        List<Object[]> rows = new java.util.ArrayList<>();
+        for (WorkflowSchedule schedule : schedules) {
+            rows.add(new Object[]{schedule, ownerId});
+        }
+        when(scheduleRepository.findWithOwnerByWorkflowStatus(WorkflowStatus.ACTIVE)).thenReturn(rows);
+    }
+
+    private static LocalDateTime at(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()).truncatedTo(ChronoUnit.MILLIS);
+    }
+}
@@ -0,0 +1,168 @@
+package io.celox.taskflow.task.workflow.script;
+
+import io.celox.taskflow.task.config.WorkflowExecutorConfig;
+import io.celox.taskflow.task.workflow.WorkflowMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScriptRuntimeTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ThreadPoolTaskExecutor executor = new WorkflowExecutorConfig().workflowScriptExecutor(2, 10);
+    private ScriptRuntime runtime;
+
+    @BeforeEach
+    void setUp() {
+        executor.initialize();
+        runtime = runtime(5000, 10_000_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        runtime.close();
+        executor.shutdown();
+    }
+
+    @Test
+    void shouldReuseContextWithoutTheGlobalsOfThePreviousScript() {
+        // Given
+        ScriptContext first = runtime.acquire();
+        first.bind("$trigger", 42);
+        assertEquals(43, first.eval(runtime.compile("globalThis.leaked = 1; return $trigger + 1;")).asInt());
+        first.close();
+
+        // When
+        ScriptContext second = runtime.acquire();
+        String globals = second.eval(runtime.compile("return typeof leaked + ',' + typeof $trigger;")).asString();
+        second.close();
+
+        // Then
+        assertSame(first, second);
+        assertEquals("undefined,undefined", globals);
+        assertEquals(1, runtime.getIdleContexts());
+    }
+
+    @Test
+    void shouldKeepBuiltInsUnchangedForLaterScripts() {
+        // Given
+        ScriptContext context = runtime.acquire();
+
+        // When
+        PolyglotException error = assertThrows(PolyglotException.class, () -> context.eval(
+                runtime.compile("Array.prototype.map = function () { return []; };")));
+        String overrides = context.eval(runtime.compile("""
+                const error = new Error('failed');
+                error.name = 'CustomError';
+                const task = {};
+                task.toString = () => 'task';
+                return error.name + ',' + String(task) + ',' + [1, 2].map(x => x * 2).join('|');
+                """)).asString();
+        context.close();
+
+        // Then
+        assertTrue(error.isGuestException());
+        assertEquals("CustomError,task,2|4", overrides);
+    }
+
+    @Test
+    void shouldCloseDiscardedContextInsteadOfPoolingIt() {
+        // Given
+        ScriptContext context = runtime.acquire();
+
+        // When
+        context.discard();
+        context.close();
+
+        // Then
+        assertEquals(0, runtime.getIdleContexts());
+        assertNotSame(context, runtime.acquire());
+    }
+
+    @Test
+    void shouldCacheParsedSourceByCode() {
+        // When
+        Source first = runtime.compile("return 1;");
+        Source second = runtime.compile("return 1;");
+
+        // Then
+        assertSame(first, second);
+        assertNotSame(first, runtime.compile("return 2;"));
+    }
+
+    @Test
+    void shouldCancelScriptRunningPastTimeoutAndFreeItsThread() throws Exception {
+        // Given
+        runtime = runtime(200, 0);
+
+        // When
+        assertThrows(TimeoutException.class,
+                () -> runtime.execute(null, "while (true) {}", Map.of(), Value::asInt));
+        assertThrows(TimeoutException.class,
+                () -> runtime.execute(null, "while (true) {}", Map.of(), Value::asInt));
+        int result = runtime.execute(null, "return $input * 2;", Map.of("$input", 21), Value::asInt);
+
+        // Then
+        assertEquals(42, result);
+        assertEquals(2, registry.get("taskflow.script.cpu").tag("outcome", "timeout").timer().count());
+        assertEquals(1, registry.get("taskflow.script.cpu").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void shouldStopScriptOverStatementLimit() {
+        // Given
+        runtime = runtime(5000, 10_000);
+
+        // When
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> runtime.execute(null, "let i = 0; while (true) { i++; }", Map.of(), Value::asInt));
+
+        // Then
+        assertTrue(error.getMessage().contains("limit"), error.getMessage());
+        assertEquals(1, registry.get("taskflow.script.cpu").tag("outcome", "limit").timer().count());
+        assertEquals(0, runtime.getIdleContexts());
+    }
+
+    @Test
+    void shouldRefuseScriptsOverOwnerLimit() throws Exception {
+        // Given
+        runtime = runtime(1000, 0);
+        UUID owner = UUID.randomUUID();
+        CompletableFuture<?> running = CompletableFuture.runAsync(() -> assertThrows(TimeoutException.class,
+                () -> runtime.execute(owner, "while (true) {}", Map.of(), Value::asInt)));
+        while (executor.getActiveCount() == 0) {
+            Thread.sleep(10);
+        }
+
+        // When
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> runtime.execute(owner, "return 1;", Map.of(), Value::asInt));
+        int otherOwner = runtime.execute(UUID.randomUUID(), "return 1;", Map.of(), Value::asInt);
+        running.get();
+
+        // Then
+        assertTrue(error.getMessage().contains("limit of 1 concurrent scripts"), error.getMessage());
+        assertEquals(1, otherOwner);
+        assertEquals(1, registry.get("taskflow.script.rejected").tag("reason", "owner-limit").counter().count());
+    }
+
+    private ScriptRuntime runtime(long timeoutMs, long statementLimit) {
+        if (runtime != null) {
+            runtime.close();
+        }
+        WorkflowMetrics metrics = new WorkflowMetrics(registry);
+        return new ScriptRuntime(executor, metrics, 2, timeoutMs, statementLimit, 1, 16, 1000, false);
+    }
+}
@@ -0,0 +1,58 @@
+package io.celox.taskflow.task.workflow.script;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScriptValidatorTest {
+
+    private final ScriptValidator validator = new ScriptValidator(16);
+
+    @Test
+    void shouldRejectBlockedNamesAndGlobals() {
+        // When & Then
+        assertEquals("Dangerous pattern detected: eval", validator.validate("return eval('1 + 1');"));
+        assertEquals("Dangerous pattern detected: Function", validator.validate("return new Function('return 1')();"));
+        assertEquals("Dangerous pattern detected: import", validator.validate("import fs from 'fs';"));
+        assertEquals("Dangerous pattern detected: process.", validator.validate("return process.env.SECRET;"));
+        assertEquals("Dangerous pattern detected: os.", validator.validate("return os['hostname']();"));
+        assertEquals("Suspicious system exit call detected", validator.validate("System.exit(1);"));
+    }
+
+    @Test
+    void shouldSeeThroughCommentsEscapesAndTemplates() {
+        // When & Then
+        assertEquals("Dangerous pattern detected: eval", validator.validate("return eval/* call */('1');"));
+        assertEquals("Dangerous pattern detected: eval", validator.validate("return \\u0065val('1');"));
+        assertEquals("Dangerous pattern detected: eval", validator.validate("return globalThis.eval('1');"));
+        assertEquals("Dangerous pattern detected: fetch",
+                validator.validate("return `total: ${ {a: 1}.a + fetch('/x') }`;"));
+        assertEquals("Dangerous pattern detected: eval", validator.validate("let a = 4; a++ / 2; eval('1') / 1;"));
+    }
+
+    @Test
+    void shouldAllowNamesInsideStringsCommentsAndRegularExpressions() {
+        // When & Then
+        assertNull(validator.validate("""
+                // We no longer fetch() the data here
+                const note = "please fetch (it) from process.env";
+                const pattern = /eval\\(|[/]window./;
+                const list = [1, 2].map(function (x) { return x * 2; });
+                return `${note}: ${list.length}` + 'require(x)' + pattern.test('a') + $trigger.os;
+                """));
+    }
+
+    @Test
+    void shouldCacheVerdictsByCode() {
+        // Given
+        String code = "return $trigger.name;";
+
+        // When
+        assertNull(validator.validate(code));
+        assertNull(validator.validate(code));
+        assertNotNull(validator.validate("return eval('1');"));
+
+        // Then
+        assertEquals(2, validator.getCachedVerdicts());
+    }
+}
@@ -0,0 +1,164 @@
+package io.celox.taskflow.task.workflow.script;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.celox.taskflow.task.config.WorkflowExecutorConfig;
+import io.celox.taskflow.task.workflow.ExecutionContext;
+import io.celox.taskflow.task.workflow.WorkflowMetrics;
+import io.celox.taskflow.task.workflow.WorkflowNode;
+import io.celox.taskflow.task.workflow.executors.CodeExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.math.BigDecimal;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScriptValuesTest {
+
+    private final ThreadPoolTaskExecutor executor = new WorkflowExecutorConfig().workflowScriptExecutor(1, 10);
+    private ScriptRuntime runtime;
+
+    @BeforeEach
+    void setUp() {
+        executor.initialize();
+        WorkflowMetrics metrics = new WorkflowMetrics(new SimpleMeterRegistry());
+        runtime = new ScriptRuntime(executor, metrics, 1, 5000, 0, 1, 16, 1000, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        runtime.close();
+        executor.shutdown();
+    }
+
+    @Test
+    void shouldExposeMapsAndListsToScripts() throws Exception {
+        // Given
+        Map<String, Object> trigger = Map.of(
+                "name", "Ada",
+                "amount", new BigDecimal("12.5"),
+                "id", UUID.fromString("00000000-0000-0000-0000-000000000001"),
+                "users", List.of(Map.of("id", 1, "email", "A@X.IO"), Map.of("id", 2, "email", "B@X.IO")));
+
+        // When
+        Object result = run("""
+                const emails = $trigger.users.map(user => user.email.toLowerCase());
+                return [$trigger.name, $trigger.amount * 2, $trigger.id, Object.keys($trigger.users[0]).sort().join('|'),
+                        'users' in $trigger, $trigger.missing === undefined, JSON.stringify(emails)];
+                """, Map.of("$trigger", trigger));
+
+        // Then
+        assertEquals(List.of("Ada", 25, "00000000-0000-0000-0000-000000000001", "email|id", true, true,
+                "[\"a@x.io\",\"b@x.io\"]"), result);
+    }
+
+    @Test
+    void shouldReadOnlyTheElementsTheScriptTouches() throws Exception {
+        // Given
+        AtomicInteger reads = new AtomicInteger();
+        List<Object> items = new AbstractList<>() {
+            @Override
+            public Object get(int index) {
+                reads.incrementAndGet();
+                return Map.of("index", index);
+            }
+
+            @Override
+            public int size() {
+                return 100_000;
+            }
+        };
+
+        // When
+        Object result = run("return $node1.length + $node1[42].index;", Map.of("$node1", items));
+
+        // Then
+        assertEquals(100_042, result);
+        assertEquals(1, reads.get());
+    }
+
+    @Test
+    void shouldReturnViewsAsTheOriginalDataWithoutCopying() throws Exception {
+        // Given
+        List<Object> items = List.of(Map.of("id", 1), Map.of("id", 2));
+
+        // When
+        Object result = run("return {items: $node1, first: $node1[0], count: $node1.length};",
+                Map.of("$node1", items));
+
+        // Then
+        Map<?, ?> map = assertInstanceOf(Map.class, result);
+        assertEquals(items, map.get("items"));
+        assertEquals(items.get(0), map.get("first"));
+        assertEquals(2, map.get("count"));
+    }
+
+    @Test
+    void shouldNotLetReturnedViewsChangeTheOriginalData() throws Exception {
+        // Given
+        List<Object> items = new ArrayList<>(List.of(1, 2));
+        Map<String, Object> output = new HashMap<>(Map.of("items", items));
+
+        // When
+        Map<?, ?> result = assertInstanceOf(Map.class, run("return $node1;", Map.of("$node1", output)));
+        List<?> returnedItems = assertInstanceOf(List.class, run("return $node1.items;", Map.of("$node1", output)));
+        items.add(3);
+
+        // Then
+        assertThrows(UnsupportedOperationException.class, () -> result.clear());
+        assertThrows(UnsupportedOperationException.class, () -> returnedItems.clear());
+        assertEquals(Map.of("items", List.of(1, 2, 3)), output);
+        assertEquals(List.of(1, 2, 3), returnedItems);
+    }
+
+    @Test
+    void shouldRejectWritesToWorkflowData() {
+        // Given
+        Map<String, Object> trigger = Map.of("name", "Ada");
+
+        // When
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> run("$trigger.name = 'Bob'; return $trigger.name;", Map.of("$trigger", trigger)));
+        Object copy = assertDoesNotThrow(
+                () -> run("const copy = {...$trigger}; copy.name = 'Bob'; return copy.name;", Map.of("$trigger", trigger)));
+
+        // Then
+        assertTrue(error.getMessage().contains("TypeError"), error.getMessage());
+        assertEquals("Bob", copy);
+        assertEquals("Ada", trigger.get("name"));
+    }
+
+    @Test
+    void shouldReturnVariablesAsSnapshot() throws Exception {
+        // Given
+        ExecutionContext context = new ExecutionContext(Map.of());
+        context.setVariable("a_result", Map.of("id", 1));
+        WorkflowNode node = new WorkflowNode();
+        node.setId("code1");
+        node.setType("code");
+        node.setData(Map.of("code", "return $vars;"));
+
+        // When
+        Object result = new CodeExecutor(runtime, new ScriptValidator(16)).execute(node, context);
+        context.setVariable("later_result", 2);
+
+        // Then
+        assertNotSame(context.getVariables(), result);
+        assertEquals(Map.of("a_result", Map.of("id", 1)), result);
+        assertDoesNotThrow(() -> new ObjectMapper().writeValueAsString(context.getVariables()));
+    }
+
+    private Object run(String code, Map<String, Object> globals) throws Exception {
+        return runtime.execute(null, code, globals, ScriptValues::toHost);
+    }
+}
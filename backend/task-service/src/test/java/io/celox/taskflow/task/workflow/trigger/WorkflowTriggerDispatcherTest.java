@@ -0,0 +1,154 @@
+package io.celox.taskflow.task.workflow.trigger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.celox.taskflow.shared.events.TaskCreatedEvent;
+import io.celox.taskflow.task.domain.User;
+import io.celox.taskflow.task.domain.Workflow;
+import io.celox.taskflow.task.domain.WorkflowStatus;
+import io.celox.taskflow.task.exception.AdmissionRejectedException;
+import io.celox.taskflow.task.repository.WorkflowRepository;
+import io.celox.taskflow.task.workflow.WorkflowAdmissionController;
+import io.celox.taskflow.task.workflow.WorkflowExecutionEngine;
+import io.celox.taskflow.task.workflow.WorkflowMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class WorkflowTriggerDispatcherTest {
+
+    private final WorkflowRepository workflowRepository = mock(WorkflowRepository.class);
+    private final WorkflowAdmissionController admissionController = mock(WorkflowAdmissionController.class);
+    private final WorkflowExecutionEngine executionEngine = mock(WorkflowExecutionEngine.class);
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final WorkflowTriggerIndex index = new WorkflowTriggerIndex(workflowRepository, objectMapper, true, 0);
+
+    private WorkflowTriggerDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        WorkflowMetrics metrics = new WorkflowMetrics(new SimpleMeterRegistry());
+        dispatcher = new WorkflowTriggerDispatcher(index, workflowRepository, admissionController, executionEngine,
+                metrics, objectMapper, 3);
+    }
+
+    @Test
+    void shouldQueueMatchingWorkflowsWithEventAsTriggerData() {
+        // Given
+        Workflow workflow = register("[{\"event\":\"task.created\",\"filter\":{\"priority\":\"HIGH\"}}]");
+        givenActive(workflow);
+        UUID taskId = UUID.randomUUID();
+
+        // When
+        int high = dispatcher.dispatch("task.created", event(taskId, "HIGH"));
+        int low = dispatcher.dispatch("task.created", event(UUID.randomUUID(), "LOW"));
+
+        // Then
+        assertEquals(1, high);
+        assertEquals(0, low);
+        verify(admissionController).admitQueued(workflow.getOwner().getId());
+        verify(executionEngine).enqueueExecution(eq(workflow.getId()), argThat(payload ->
+                taskId.toString().equals(payload.get("taskId")) && "Ship it".equals(payload.get("title"))));
+    }
+
+    @Test
+    void shouldSkipWorkflowDeactivatedElsewhere() {
+        // Given
+        Workflow workflow = register("[{\"event\":\"task.created\"}]");
+        givenActive();
+
+        // When
+        int queued = dispatcher.dispatch("task.created", event(UUID.randomUUID(), "HIGH"));
+
+        // Then
+        assertEquals(0, queued);
+        assertEquals(0, index.size());
+        verifyNoInteractions(executionEngine);
+    }
+
+    @Test
+    void shouldKeepDispatchingWhenOneWorkflowIsRejected() {
+        // Given
+        Workflow rejected = register("[{\"event\":\"task.created\"}]");
+        Workflow accepted = register("[{\"event\":\"task.created\"}]");
+        givenActive(rejected, accepted);
+        doThrow(new AdmissionRejectedException(HttpStatus.TOO_MANY_REQUESTS, "limit", 5))
+                .when(admissionController).admitQueued(rejected.getOwner().getId());
+
+        // When
+        int queued = dispatcher.dispatch("task.created", event(UUID.randomUUID(), "HIGH"));
+
+        // Then
+        assertEquals(1, queued);
+        verify(executionEngine).enqueueExecution(eq(accepted.getId()), any());
+        verify(executionEngine, never()).enqueueExecution(eq(rejected.getId()), any());
+    }
+
+    @Test
+    void shouldNotStartWorkflowFromItsOwnEvents() {
+        // Given
+        Workflow workflow = register("[{\"event\":\"task.created\"}]");
+        Workflow other = register("[{\"event\":\"task.created\"}]");
+        givenActive(workflow, other);
+        TaskCreatedEvent event = TriggerChain.of(workflow.getId(), Map.of())
+                .stamp(event(UUID.randomUUID(), "HIGH"));
+
+        // When
+        int queued = dispatcher.dispatch("task.created", event);
+
+        // Then
+        assertEquals(1, queued);
+        verify(executionEngine, never()).enqueueExecution(eq(workflow.getId()), any());
+        verify(executionEngine).enqueueExecution(eq(other.getId()), argThat(payload ->
+                TriggerChain.of(other.getId(), payload).getDepth() == 2));
+    }
+
+    @Test
+    void shouldStopTriggerChainAtMaxDepth() {
+        // Given
+        Workflow workflow = register("[{\"event\":\"task.created\"}]");
+        givenActive(workflow);
+        TaskCreatedEvent event = new TriggerChain(UUID.randomUUID(), 3).stamp(event(UUID.randomUUID(), "HIGH"));
+
+        // When
+        int queued = dispatcher.dispatch("task.created", event);
+
+        // Then
+        assertEquals(0, queued);
+        verifyNoInteractions(executionEngine, admissionController);
+        verify(workflowRepository, never()).findIdsByIdInAndStatus(any(), any());
+    }
+
+    private void givenActive(Workflow... workflows) {
+        Set<UUID> ids = Arrays.stream(workflows).map(Workflow::getId).collect(Collectors.toSet());
+        when(workflowRepository.findIdsByIdInAndStatus(any(), eq(WorkflowStatus.ACTIVE))).thenReturn(ids);
+    }
+
+    private Workflow register(String triggersJson) {
+        Workflow workflow = Workflow.builder()
+                .id(UUID.randomUUID())
+                .owner(User.builder().id(UUID.randomUUID()).build())
+                .status(WorkflowStatus.ACTIVE)
+                .triggersJson(triggersJson)
+                .build();
+        index.register(workflow);
+        return workflow;
+    }
+
+    private TaskCreatedEvent event(UUID taskId, String priority) {
+        return new TaskCreatedEvent(taskId, "Ship it", null, "OPEN", priority, null, null);
+    }
+}
@@ -0,0 +1,149 @@
+package io.celox.taskflow.task.workflow.trigger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.celox.taskflow.task.domain.User;
+import io.celox.taskflow.task.domain.Workflow;
+import io.celox.taskflow.task.domain.WorkflowStatus;
+import io.celox.taskflow.task.repository.WorkflowRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WorkflowTriggerIndexTest {
+
+    private final WorkflowRepository workflowRepository = mock(WorkflowRepository.class);
+    private final WorkflowTriggerIndex index = new WorkflowTriggerIndex(workflowRepository, new ObjectMapper(), true, 0);
+
+    @Test
+    void shouldMatchTriggersByEventAndFilter() {
+        // Given
+        Workflow highPriority = workflow(WorkflowStatus.ACTIVE,
+                "[{\"type\":\"event\",\"event\":\"task.created\",\"filter\":{\"priority\":\"HIGH\",\"status\":\"OPEN\"}}]");
+        Workflow anyCreated = workflow(WorkflowStatus.ACTIVE, "[{\"event\":\"task.created\"}]");
+        Workflow completed = workflow(WorkflowStatus.ACTIVE, "[{\"type\":\"event\",\"event\":\"task.completed\"}]");
+        index.register(highPriority);
+        index.register(anyCreated);
+        index.register(completed);
+
+        // When
+        List<WorkflowTrigger> high = index.match("task.created", Map.of("priority", "HIGH", "status", "OPEN"));
+        List<WorkflowTrigger> low = index.match("task.created", Map.of("priority", "LOW", "status", "OPEN"));
+        List<WorkflowTrigger> deleted = index.match("task.deleted", Map.of("priority", "HIGH"));
+
+        // Then
+        assertEquals(List.of(anyCreated.getId(), highPriority.getId()), workflowIds(high));
+        assertEquals(List.of(anyCreated.getId()), workflowIds(low));
+        assertTrue(deleted.isEmpty());
+    }
+
+    @Test
+    void shouldStartWorkflowOncePerEvent() {
+        // Given
+        Workflow workflow = workflow(WorkflowStatus.ACTIVE, "[" +
+                "{\"event\":\"task.updated\",\"filter\":{\"status\":\"DONE\"}}," +
+                "{\"event\":\"task.updated\",\"filter\":{\"priority\":\"HIGH\"}}]");
+        index.register(workflow);
+
+        // When
+        List<WorkflowTrigger> matches = index.match("task.updated", Map.of("status", "DONE", "priority", "HIGH"));
+
+        // Then
+        assertEquals(1, matches.size());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void shouldDropTriggersOfInactiveWorkflows() {
+        // Given
+        Workflow workflow = workflow(WorkflowStatus.ACTIVE, "[{\"event\":\"task.created\"}]");
+        index.register(workflow);
+
+        // When
+        workflow.setStatus(WorkflowStatus.DRAFT);
+        index.register(workflow);
+
+        // Then
+        assertTrue(index.match("task.created", Map.of()).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void shouldRejectInvalidTriggers() {
+        // Given
+        Workflow unknownEvent = workflow(WorkflowStatus.ACTIVE, "[{\"event\":\"task.archived\"}]");
+        Workflow nestedFilter = workflow(WorkflowStatus.ACTIVE,
+                "[{\"event\":\"task.created\",\"filter\":{\"status\":{\"in\":[\"OPEN\"]}}}]");
+        Workflow notAnArray = workflow(WorkflowStatus.ACTIVE, "{\"event\":\"task.created\"}");
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> index.register(unknownEvent));
+        assertThrows(IllegalArgumentException.class, () -> index.register(nestedFilter));
+        assertThrows(IllegalArgumentException.class, () -> index.register(notAnArray));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void shouldApplyChangesOnlyAfterTransactionCommits() {
+        // Given
+        Workflow committed = workflow(WorkflowStatus.ACTIVE, "[{\"event\":\"task.created\"}]");
+        Workflow rolledBack = workflow(WorkflowStatus.ACTIVE, "[{\"event\":\"task.created\"}]");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            index.register(committed);
+            assertEquals(0, index.size());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            TransactionSynchronizationManager.clearSynchronization();
+
+            TransactionSynchronizationManager.initSynchronization();
+            index.register(rolledBack);
+            TransactionSynchronizationManager.getSynchronizations().forEach(
+                    sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        assertEquals(List.of(committed.getId()), workflowIds(index.match("task.created", Map.of())));
+    }
+
+    @Test
+    void shouldReloadActiveWorkflowsAndSkipBrokenOnes() {
+        // Given
+        UUID valid = UUID.randomUUID();
+        UUID broken = UUID.randomUUID();
+        index.register(workflow(WorkflowStatus.ACTIVE, "[{\"event\":\"task.deleted\"}]"));
+        when(workflowRepository.findTriggersByStatus(WorkflowStatus.ACTIVE)).thenReturn(List.of(
+                new Object[]{valid, UUID.randomUUID(), "[{\"event\":\"task.created\",\"filter\":{\"priority\":\"LOW\"}}]"},
+                new Object[]{broken, UUID.randomUUID(), "not json"}));
+
+        // When
+        index.reload();
+
+        // Then
+        assertEquals(1, index.size());
+        assertEquals(List.of(valid), workflowIds(index.match("task.created", Map.of("priority", "LOW"))));
+        assertTrue(index.match("task.deleted", Map.of()).isEmpty());
+    }
+
+    private Workflow workflow(WorkflowStatus status, String triggersJson) {
+        return Workflow.builder()
+                .id(UUID.randomUUID())
+                .owner(User.builder().id(UUID.randomUUID()).build())
+                .status(status)
+                .triggersJson(triggersJson)
+                .build();
+    }
+
+    private List<UUID> workflowIds(List<WorkflowTrigger> triggers) {
+        return triggers.stream().map(WorkflowTrigger::getWorkflowId).toList();
+    }
+}